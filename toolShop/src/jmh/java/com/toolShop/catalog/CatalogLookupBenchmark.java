@@ -0,0 +1,86 @@
+package com.toolShop.catalog;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.toolShop.cache.Tool;
+
+// Measures tool code lookups as the catalog grows from the 4 bundled tools to a million SKUs
+// Lookup codes are a shuffled mix of upper and lower case, so case folding is always exercised.
+// indexLookup should stay flat across sizes (apart from cache misses once the index outgrows
+// the CPU caches); upperCaseThenHashMap is the previous toUpperCase + HashMap.get approach
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CatalogLookupBenchmark {
+
+    private static final String[] TYPES = {"Chainsaw", "Ladder", "Jackhammer", "Drill", "Sander", "Saw", "Compressor"};
+    private static final String[] BRANDS = {"Stihl", "Werner", "DeWalt", "Ridgid", "Bosch", "Makita"};
+    private static final int LOOKUPS = 1024;
+
+    @Param({"4", "1000", "100000", "1000000"})
+    int catalogSize;
+
+    private CatalogSnapshot snapshot;
+    private Map<String, Tool> hashMap;
+    private String[] lookups;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        List<Tool> tools = new ArrayList<>(catalogSize);
+        for (int i = 0; i < catalogSize; i++) {
+            tools.add(new Tool(code(i), TYPES[i % TYPES.length], BRANDS[i % BRANDS.length], 199, true, i % 2 == 0, i % 3 == 0));
+        }
+        snapshot = new CatalogSnapshot(1, tools);
+        hashMap = new HashMap<>();
+        for (Tool tool : tools) {
+            hashMap.put(tool.getToolCode(), tool);
+        }
+
+        Random random = new Random(42);
+        lookups = new String[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            String code = code(random.nextInt(catalogSize));
+            lookups[i] = i % 2 == 0 ? code : code.toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private static String code(int i) {
+        return String.format("SKU%07d", i);
+    }
+
+    @Benchmark
+    public Tool indexLookup() {
+        return snapshot.getTool(lookups[next++ & (LOOKUPS - 1)]);
+    }
+
+    @Benchmark
+    public Tool upperCaseThenHashMap() {
+        return hashMap.get(lookups[next++ & (LOOKUPS - 1)].toUpperCase(Locale.ROOT));
+    }
+
+    @Benchmark
+    public int typeLookup() {
+        return snapshot.getToolsByType("jackhammer").size();
+    }
+
+    @Benchmark
+    public int prefixLookup() {
+        return snapshot.getToolsWithCodePrefix("sku00001").size();
+    }
+}
@@ -0,0 +1,80 @@
+package com.toolShop.services;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.toolShop.cache.RentalAgreement;
+import com.toolShop.cache.Tool;
+import com.toolShop.catalog.ToolCatalog;
+
+// Measures ToolService.calculatePrice per tool code across short, long and holiday-crossing rentals,
+// and the same requests answered by the quote cache
+// Dates are fixed so results are comparable run-to-run
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PricingBenchmark {
+
+    @Param({"CHNS", "LADW", "JAKD", "JAKR"})
+    String toolCode;
+
+    // SHORT: 3 weekdays, LONG: 100 days, HOLIDAY: 6 days across Independence Day and a weekend
+    @Param({"SHORT", "LONG", "HOLIDAY"})
+    String window;
+
+    private ToolService service;
+    private Tool tool;
+    private RentalAgreement rentalAgreement;
+    private QuoteCache quoteCache;
+
+    @Setup
+    public void setUp() {
+        service = new ToolService();
+        service.toolCatalog = new ToolCatalog();
+        service.chargeDayIndex = new ChargeDayIndex();
+        tool = service.toolCatalog.getTool(toolCode);
+
+        rentalAgreement = new RentalAgreement();
+        rentalAgreement.setDiscount(10f);
+        switch (window) {
+            case "SHORT" -> {
+                rentalAgreement.setCheckoutDate(LocalDate.of(2021, 3, 8));
+                rentalAgreement.settotalRentalDays(3);
+            }
+            case "LONG" -> {
+                rentalAgreement.setCheckoutDate(LocalDate.of(2021, 6, 1));
+                rentalAgreement.settotalRentalDays(100);
+            }
+            default -> {
+                rentalAgreement.setCheckoutDate(LocalDate.of(2020, 7, 2));
+                rentalAgreement.settotalRentalDays(6);
+            }
+        }
+        // Warm the charge-day tables so the first iteration doesn't measure their construction
+        service.calculatePrice(tool, rentalAgreement);
+
+        quoteCache = new QuoteCache(service.toolCatalog, service.chargeDayIndex.getHolidayCalendar());
+        quoteCache.price(tool, rentalAgreement, service::calculatePrice);
+    }
+
+    @Benchmark
+    public RentalAgreement calculatePrice() {
+        return service.calculatePrice(tool, rentalAgreement);
+    }
+
+    // Same request answered from the quote cache
+    @Benchmark
+    public RentalAgreement cachedQuote() {
+        quoteCache.price(tool, rentalAgreement, service::calculatePrice);
+        return rentalAgreement;
+    }
+}
@@ -0,0 +1,100 @@
+package com.toolShop.services;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.toolShop.cache.RentalAgreement;
+import com.toolShop.cache.Tool;
+import com.toolShop.catalog.ToolCatalog;
+import com.toolShop.pricing.PricingRule;
+import com.toolShop.pricing.PricingRules;
+import com.toolShop.pricing.RuleProgram;
+
+// Measures pricing with 0 to 500 pricing rules, to show that the compiled rules cost about the same
+// per rental however many there are
+// Rules are generated from a fixed seed: a third each of seasonal rates for one tool type, seasonal
+// surcharges and tiered discounts by rental length. calculatePrice prices a 14 day ladder rental in July
+// (crossing Independence Day), lookup is only the surcharge and discount table lookup, and compile is the
+// one-off cost of compiling the rules for a tool after they are loaded
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PricingRulesBenchmark {
+
+    @Param({"0", "10", "100", "500"})
+    int ruleCount;
+
+    private ToolService service;
+    private Tool tool;
+    private RentalAgreement rentalAgreement;
+    private RuleProgram program;
+    private List<PricingRule> rules;
+    private int checkoutDayIndex;
+
+    @Setup
+    public void setUp() {
+        rules = PricingRule.parse(generateRules(ruleCount));
+        service = new ToolService();
+        service.toolCatalog = new ToolCatalog();
+        service.chargeDayIndex = new ChargeDayIndex();
+        service.pricingRules = new PricingRules(rules);
+        tool = service.toolCatalog.getTool("LADW");
+
+        rentalAgreement = new RentalAgreement();
+        rentalAgreement.setCheckoutDate(LocalDate.of(2021, 7, 1));
+        rentalAgreement.settotalRentalDays(14);
+        rentalAgreement.setDiscount(5f);
+        // Compile the rules and warm the charge-day tables so the first iteration doesn't measure them
+        service.calculatePrice(tool, rentalAgreement);
+        program = service.pricingRules.programFor(tool);
+        checkoutDayIndex = RuleProgram.dayIndex(rentalAgreement.getCheckoutDate());
+    }
+
+    private static List<String> generateRules(int count) {
+        Random random = new Random(7);
+        String[] types = {"Ladder", "Chainsaw", "Jackhammer"};
+        List<String> lines = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDate start = LocalDate.of(2024, 1, 1).plusDays(random.nextInt(366));
+            LocalDate end = start.plusDays(random.nextInt(90));
+            String season = String.format(" season %02d-%02d..%02d-%02d", start.getMonthValue(), start.getDayOfMonth(),
+                    end.getMonthValue(), end.getDayOfMonth());
+            lines.add(switch (i % 3) {
+                case 0 -> "Rate " + i + " = rate " + (80 + random.nextInt(60)) + "% type " + types[random.nextInt(3)] + season;
+                case 1 -> "Surcharge " + i + " = surcharge " + (1 + random.nextInt(15)) + "%" + season;
+                default -> "Discount " + i + " = discount " + (1 + random.nextInt(25)) + "% days " + (2 + random.nextInt(30)) + "+";
+            });
+        }
+        return lines;
+    }
+
+    @Benchmark
+    public RentalAgreement calculatePrice() {
+        return service.calculatePrice(tool, rentalAgreement);
+    }
+
+    // Surcharge and discount of the rental from the compiled tables
+    @Benchmark
+    public int lookup() {
+        int cell = program.cell(checkoutDayIndex, rentalAgreement.getTotalRentalDays());
+        return program.surchargeBasisPoints(cell) + program.discountBasisPoints(cell);
+    }
+
+    // Compiling the loaded rules for one tool, as done the first time the tool is priced
+    @Benchmark
+    public RuleProgram compile() {
+        return new PricingRules(rules).programFor(tool);
+    }
+}
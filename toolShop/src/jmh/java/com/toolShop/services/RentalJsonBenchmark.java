@@ -0,0 +1,111 @@
+package com.toolShop.services;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.toolShop.cache.RentalAgreement;
+import com.toolShop.catalog.ToolCatalog;
+
+import tools.jackson.databind.ValueDeserializer;
+import tools.jackson.databind.ValueSerializer;
+import tools.jackson.databind.annotation.JsonDeserialize;
+import tools.jackson.databind.annotation.JsonSerialize;
+import tools.jackson.databind.json.JsonMapper;
+
+// Measures a full rental round trip without HTTP:
+// JSON request body -> RentalAgreement -> quoteTool -> JSON response body
+// "codec" uses the hand-written RentalAgreement serializer/deserializer; "reflection" swaps them for
+// Jackson's bean (de)serializers with the annotations RentalAgreement used to carry, as a baseline
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RentalJsonBenchmark {
+
+    @Param({"codec", "reflection"})
+    public String mapping;
+
+    private ToolService service;
+    private JsonMapper jsonMapper;
+    private byte[] requestBody;
+    private RentalAgreement priced;
+
+    @Setup
+    public void setUp() {
+        service = new ToolService();
+        service.toolCatalog = new ToolCatalog();
+        service.chargeDayIndex = new ChargeDayIndex();
+        service.quoteCache = new QuoteCache(service.toolCatalog, service.chargeDayIndex.getHolidayCalendar());
+        JsonMapper.Builder builder = JsonMapper.builder();
+        if (mapping.equals("reflection")) {
+            builder.addMixIn(RentalAgreement.class, BeanMapping.class);
+        }
+        jsonMapper = builder.build();
+
+        String checkoutDate = LocalDate.now().plusDays(30).format(DateTimeFormatter.ofPattern("MM/dd/yy"));
+        requestBody = ("{\"totalRentalDays\":5,\"checkoutDate\":\"" + checkoutDate + "\",\"discount\":10}")
+                .getBytes(StandardCharsets.UTF_8);
+        priced = service.quoteTool(jsonMapper.readValue(requestBody, RentalAgreement.class), "CHNS");
+    }
+
+    @Benchmark
+    public RentalAgreement deserialize() {
+        return jsonMapper.readValue(requestBody, RentalAgreement.class);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return jsonMapper.writeValueAsBytes(priced);
+    }
+
+    @Benchmark
+    public byte[] roundTrip() {
+        RentalAgreement rentalRequest = jsonMapper.readValue(requestBody, RentalAgreement.class);
+        return jsonMapper.writeValueAsBytes(service.quoteTool(rentalRequest, "CHNS"));
+    }
+
+    // Bean mapping RentalAgreement had before it got its own serializer and deserializer
+    @JsonSerialize(using = ValueSerializer.None.class)
+    @JsonDeserialize(using = ValueDeserializer.None.class)
+    abstract static class BeanMapping {
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private Long agreementId;
+
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private String toolCode;
+
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private Integer unit;
+
+        @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "MM/dd/yy")
+        private LocalDate checkoutDate;
+
+        @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "MM/dd/yy")
+        private LocalDate dueDate;
+
+        @JsonIgnore
+        abstract long getPreDiscountCents();
+
+        @JsonIgnore
+        abstract long getMoneySavedCents();
+
+        @JsonIgnore
+        abstract long getTotalCents();
+
+        @JsonIgnore
+        abstract int getDiscountBasisPoints();
+    }
+}
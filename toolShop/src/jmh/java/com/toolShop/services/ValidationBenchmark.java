@@ -0,0 +1,120 @@
+package com.toolShop.services;
+
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.toolShop.cache.RentalAgreement;
+import com.toolShop.catalog.ToolCatalog;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+
+// Measures request validation for good and bad input:
+// Hibernate Bean Validation of RentalAgreement against the compiled RentalRequestValidator,
+// and ToolService.validateTool (constraints, tool code and checkout date with the cached clock)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ValidationBenchmark {
+
+    private ToolService service;
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private RentalAgreement good;
+    private RentalAgreement outOfRange;
+    private RentalAgreement pastDate;
+
+    @Setup
+    public void setUp() {
+        service = new ToolService();
+        service.toolCatalog = new ToolCatalog();
+        service.clock.start();
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+
+        good = request(LocalDate.now().plusDays(30), 5, 10f);
+        outOfRange = request(LocalDate.now().plusDays(30), 101, 101f);
+        pastDate = request(LocalDate.now().minusDays(30), 5, 10f);
+    }
+
+    @TearDown
+    public void tearDown() {
+        service.clock.stop();
+        validatorFactory.close();
+    }
+
+    private static RentalAgreement request(LocalDate checkoutDate, int days, float discount) {
+        RentalAgreement rentalRequest = new RentalAgreement();
+        rentalRequest.setCheckoutDate(checkoutDate);
+        rentalRequest.settotalRentalDays(days);
+        rentalRequest.setDiscount(discount);
+        return rentalRequest;
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<RentalAgreement>> beanValidationGood() {
+        return validator.validate(good);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<RentalAgreement>> beanValidationOutOfRange() {
+        return validator.validate(outOfRange);
+    }
+
+    @Benchmark
+    public String compiledValidationGood() {
+        return RentalRequestValidator.violations(good);
+    }
+
+    @Benchmark
+    public String compiledValidationOutOfRange() {
+        return RentalRequestValidator.violations(outOfRange);
+    }
+
+    @Benchmark
+    public void validateToolGood() {
+        service.validateTool(good, "LADW");
+    }
+
+    @Benchmark
+    public Object validateToolUnknownCode() {
+        try {
+            service.validateTool(good, "NOPE");
+            return null;
+        } catch (IllegalArgumentException ex) {
+            return ex;
+        }
+    }
+
+    @Benchmark
+    public Object validateToolOutOfRange() {
+        try {
+            service.validateTool(outOfRange, "LADW");
+            return null;
+        } catch (IllegalArgumentException ex) {
+            return ex;
+        }
+    }
+
+    @Benchmark
+    public Object validateToolPastDate() {
+        try {
+            service.validateTool(pastDate, "LADW");
+            return null;
+        } catch (IllegalArgumentException ex) {
+            return ex;
+        }
+    }
+}
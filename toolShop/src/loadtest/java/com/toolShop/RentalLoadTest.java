@@ -0,0 +1,276 @@
+package com.toolShop;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// HTTP load test comparing platform and virtual request threads
+// For each mode in loadtest.modes the application is started in its own JVM on a free port, with
+// admission control and inventory limits off so every request reaches the rental path, and with
+// toolshop.ledger.sync=true (loadtest.ledgerSync) so each rental blocks on forcing its ledger record
+// to disk. loadtest.concurrency clients (virtual threads, one connection each) then send rentals
+// back to back: loadtest.warmupSeconds unmeasured, then loadtest.seconds measured. Throughput and
+// latency percentiles per mode are printed and written to loadtest.resultFile as CSV.
+// The virtual thread server runs with -Djdk.tracePinnedThreads=short; pinned stacks it reports are
+// counted from its log (loadtest.workDir/<mode>/server.log).
+// Run with: mvn -Ploadtest -DskipTests verify
+public class RentalLoadTest {
+
+    private static final String[] TOOL_CODES = {"CHNS", "LADW", "JAKD", "JAKR"};
+
+    public static void main(String[] args) throws Exception {
+        String[] modes = System.getProperty("loadtest.modes", "platform,virtual").split(",");
+        int concurrency = Integer.getInteger("loadtest.concurrency", 1000);
+        int warmupSeconds = Integer.getInteger("loadtest.warmupSeconds", 15);
+        int seconds = Integer.getInteger("loadtest.seconds", 30);
+        boolean ledgerSync = Boolean.parseBoolean(System.getProperty("loadtest.ledgerSync", "true"));
+        String serverJvmArgs = System.getProperty("loadtest.serverJvmArgs", "");
+        Path workDir = Path.of(System.getProperty("loadtest.workDir", "target/loadtest")).toAbsolutePath();
+        Path resultFile = Path.of(System.getProperty("loadtest.resultFile", "target/loadtest-result.csv")).toAbsolutePath();
+
+        System.out.printf("Rental load test: %d clients, %ds warmup, %ds measured, ledger sync %s%n",
+                concurrency, warmupSeconds, seconds, ledgerSync);
+        List<Result> results = new ArrayList<>();
+        for (String mode : modes) {
+            mode = mode.trim();
+            if (!mode.equals("platform") && !mode.equals("virtual")) {
+                throw new IllegalArgumentException("Unknown mode '" + mode + "', expected platform or virtual");
+            }
+            Result result = run(mode, concurrency, warmupSeconds, seconds, ledgerSync, serverJvmArgs, workDir.resolve(mode));
+            System.out.println(result.format());
+            results.add(result);
+        }
+
+        Files.createDirectories(resultFile.getParent());
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(resultFile, StandardCharsets.UTF_8))) {
+            out.println("mode,concurrency,requests,errors,throughput_per_s,p50_ms,p99_ms,p999_ms,max_ms,pinned_stacks");
+            for (Result result : results) {
+                out.println(result.csv());
+            }
+        }
+        System.out.println("Results written to " + resultFile);
+    }
+
+    private static Result run(String mode, int concurrency, int warmupSeconds, int seconds, boolean ledgerSync,
+            String serverJvmArgs, Path dir) throws Exception {
+        deleteRecursively(dir);
+        Files.createDirectories(dir);
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        boolean virtual = mode.equals("virtual");
+
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(Arrays.stream(serverJvmArgs.trim().split("\\s+")).filter(arg -> !arg.isEmpty()).toList());
+        if (virtual) {
+            command.add("-Djdk.tracePinnedThreads=short");
+        }
+        command.addAll(List.of("-cp", System.getProperty("java.class.path"), ToolShopApplication.class.getName(),
+                "--server.port=" + port,
+                "--spring.threads.virtual.enabled=" + virtual,
+                "--toolshop.admission.enabled=false",
+                "--toolshop.inventory.enabled=false",
+                "--toolshop.catalog.watch=false",
+                "--toolshop.ledger.dir=" + dir.resolve("ledger"),
+                "--toolshop.ledger.sync=" + ledgerSync,
+                "--toolshop.audit.file=" + dir.resolve("rental-audit.jsonl")));
+        Path log = dir.resolve("server.log");
+        Process server = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        try {
+            awaitStartup(client, server, port, log);
+            Result result = drive(client, mode, port, concurrency, warmupSeconds, seconds);
+            result.pinnedStacks = countPinnedStacks(log);
+            return result;
+        } finally {
+            server.destroy();
+            if (!server.waitFor(30, TimeUnit.SECONDS)) {
+                server.destroyForcibly();
+            }
+        }
+    }
+
+    private static void awaitStartup(HttpClient client, Process server, int port, Path log) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/tools")).GET().build();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(120);
+        while (System.nanoTime() < deadline) {
+            if (!server.isAlive()) {
+                throw new IllegalStateException("Server exited with " + server.exitValue() + ", see " + log);
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException ex) {
+                // Not listening yet
+            }
+            Thread.sleep(200);
+        }
+        throw new IllegalStateException("Server didn't start within 120 s, see " + log);
+    }
+
+    private static Result drive(HttpClient client, String mode, int port, int concurrency, int warmupSeconds, int seconds)
+            throws Exception {
+        URI base = URI.create("http://localhost:" + port + "/api/tools/rental/");
+        String checkoutDate = LocalDate.now().plusDays(30).format(DateTimeFormatter.ofPattern("MM/dd/yy"));
+        HttpRequest[] requests = new HttpRequest[TOOL_CODES.length * 7];
+        for (int i = 0; i < requests.length; i++) {
+            String body = "{\"totalRentalDays\":" + (1 + i % 7) + ",\"checkoutDate\":\"" + checkoutDate + "\",\"discount\":10}";
+            requests[i] = HttpRequest.newBuilder(base.resolve(TOOL_CODES[i % TOOL_CODES.length]))
+                    .header("Content-Type", "application/json")
+                    .timeout(Duration.ofSeconds(60))
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+        }
+
+        long measureFrom = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(seconds);
+        List<Future<Latencies>> clients = new ArrayList<>(concurrency);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < concurrency; c++) {
+                int first = c;
+                clients.add(executor.submit(() -> {
+                    Latencies latencies = new Latencies();
+                    long start;
+                    for (int i = first; (start = System.nanoTime()) < end; i++) {
+                        int status;
+                        try {
+                            status = client.send(requests[i % requests.length], HttpResponse.BodyHandlers.discarding()).statusCode();
+                        } catch (IOException ex) {
+                            status = -1;
+                        }
+                        if (start >= measureFrom) {
+                            latencies.add(System.nanoTime() - start, status == 201);
+                        }
+                    }
+                    return latencies;
+                }));
+            }
+        }
+
+        Latencies all = new Latencies();
+        for (Future<Latencies> future : clients) {
+            all.addAll(future.get());
+        }
+        return new Result(mode, concurrency, seconds, all);
+    }
+
+    // Distinct stacks reported by -Djdk.tracePinnedThreads=short, one "<== monitors" frame each
+    private static int countPinnedStacks(Path log) throws IOException {
+        try (Stream<String> lines = Files.lines(log, StandardCharsets.UTF_8)) {
+            return (int) lines.filter(line -> line.contains("<== monitors")).count();
+        }
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted((a, b) -> b.compareTo(a)).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    // Latencies in nanos of measured requests, and the number that didn't get 201 Created
+    private static final class Latencies {
+        private long[] nanos = new long[1024];
+        private int count;
+        private long errors;
+
+        void add(long latency, boolean created) {
+            if (count == nanos.length) {
+                nanos = Arrays.copyOf(nanos, count * 2);
+            }
+            nanos[count++] = latency;
+            if (!created) {
+                errors++;
+            }
+        }
+
+        void addAll(Latencies other) {
+            if (count + other.count > nanos.length) {
+                nanos = Arrays.copyOf(nanos, Math.max(nanos.length * 2, count + other.count));
+            }
+            System.arraycopy(other.nanos, 0, nanos, count, other.count);
+            count += other.count;
+            errors += other.errors;
+        }
+    }
+
+    private static final class Result {
+        final String mode;
+        final int concurrency;
+        final long requests;
+        final long errors;
+        final double throughput;
+        final double p50;
+        final double p99;
+        final double p999;
+        final double max;
+        int pinnedStacks;
+
+        Result(String mode, int concurrency, int seconds, Latencies latencies) {
+            long[] sorted = Arrays.copyOf(latencies.nanos, latencies.count);
+            Arrays.sort(sorted);
+            this.mode = mode;
+            this.concurrency = concurrency;
+            this.requests = sorted.length;
+            this.errors = latencies.errors;
+            this.throughput = (double) sorted.length / seconds;
+            this.p50 = percentile(sorted, 0.50);
+            this.p99 = percentile(sorted, 0.99);
+            this.p999 = percentile(sorted, 0.999);
+            this.max = sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6;
+        }
+
+        // Nearest-rank percentile in milliseconds
+        private static double percentile(long[] sorted, double fraction) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(fraction * sorted.length);
+            return sorted[Math.max(0, rank - 1)] / 1e6;
+        }
+
+        String format() {
+            return String.format("%-8s %,d requests (%,d errors)  %,.0f req/s  p50 %.2f ms  p99 %.2f ms  p99.9 %.2f ms  max %.2f ms  pinned stacks %d",
+                    mode, requests, errors, throughput, p50, p99, p999, max, pinnedStacks);
+        }
+
+        String csv() {
+            return String.format(Locale.ROOT, "%s,%d,%d,%d,%.1f,%.3f,%.3f,%.3f,%.3f,%d",
+                    mode, concurrency, requests, errors, throughput, p50, p99, p999, max, pinnedStacks);
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.toolShop;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// Startup benchmark comparing the plain JVM, the JVM with a class data sharing (CDS) archive and the
+// native image
+// Each mode in startup.modes is started startup.runs times, each time in a new process with an empty
+// working directory (ledger, audit log) and a free port. Time to first rental is measured from just
+// before the process is started until a rental request first gets 201 Created, polling every 5 ms.
+// RSS is the process's resident set size right after that rental (Linux only, from /proc), and
+// started is the time Spring Boot logs for "Started ToolShopApplication". Medians per mode are
+// printed and written to startup.resultFile as CSV. Modes whose build output is missing are skipped:
+//   jvm     startup.jar, the executable jar (mvn package)
+//   cds     the extracted jar and application.jsa in startup.cdsDir (mvn -Pcds package)
+//   native  startup.nativeImage (mvn -Pnative native:compile)
+// Run with: mvn -Pcds,startup -DskipTests verify
+public class StartupBenchmark {
+
+    // CDS archive written by the cds profile's training run
+    static final String CDS_ARCHIVE = "application.jsa";
+
+    private static final Pattern STARTED = Pattern.compile("Started ToolShopApplication in ([0-9.]+) seconds");
+
+    public static void main(String[] args) throws Exception {
+        String[] modes = System.getProperty("startup.modes", "jvm,cds,native").split(",");
+        int runs = Integer.getInteger("startup.runs", 5);
+        String jvmArgs = System.getProperty("startup.jvmArgs", "");
+        Path jar = Path.of(System.getProperty("startup.jar", "target/toolShop-1.0.0-SNAPSHOT.jar")).toAbsolutePath();
+        Path cdsDir = Path.of(System.getProperty("startup.cdsDir", "target/cds")).toAbsolutePath();
+        Path nativeImage = Path.of(System.getProperty("startup.nativeImage", "target/toolShop")).toAbsolutePath();
+        Path workDir = Path.of(System.getProperty("startup.workDir", "target/startup")).toAbsolutePath();
+        Path resultFile = Path.of(System.getProperty("startup.resultFile", "target/startup-result.csv")).toAbsolutePath();
+
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        List<String> javaArgs = Arrays.stream(jvmArgs.trim().split("\\s+")).filter(arg -> !arg.isEmpty()).toList();
+        System.out.printf("Startup benchmark: %d runs per mode%n", runs);
+        List<Result> results = new ArrayList<>();
+        for (String mode : modes) {
+            mode = mode.trim();
+            List<String> command = new ArrayList<>();
+            Path required;
+            switch (mode) {
+                case "jvm" -> {
+                    required = jar;
+                    command.add(java);
+                    command.addAll(javaArgs);
+                    command.addAll(List.of("-jar", jar.toString()));
+                }
+                case "cds" -> {
+                    required = cdsDir.resolve(CDS_ARCHIVE);
+                    command.add(java);
+                    command.addAll(javaArgs);
+                    command.addAll(List.of("-XX:SharedArchiveFile=" + required,
+                            "-jar", cdsDir.resolve(jar.getFileName()).toString()));
+                }
+                case "native" -> {
+                    required = nativeImage;
+                    command.add(nativeImage.toString());
+                }
+                default -> throw new IllegalArgumentException("Unknown mode '" + mode + "', expected jvm, cds or native");
+            }
+            if (!Files.exists(required)) {
+                System.out.println("Skipping " + mode + ": " + required + " not found");
+                continue;
+            }
+            List<Run> modeRuns = new ArrayList<>(runs);
+            for (int i = 1; i <= runs; i++) {
+                Run run = run(command, workDir.resolve(mode + "-" + i));
+                System.out.printf("%-6s run %d: first rental %.0f ms, started %.0f ms, RSS %.1f MB%n",
+                        mode, i, run.firstRentalMillis, run.startedMillis, run.rssMegabytes);
+                modeRuns.add(run);
+            }
+            Result result = new Result(mode, modeRuns);
+            System.out.println(result.format());
+            results.add(result);
+        }
+
+        Files.createDirectories(resultFile.getParent());
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(resultFile, StandardCharsets.UTF_8))) {
+            out.println("mode,runs,first_rental_ms_median,first_rental_ms_min,first_rental_ms_max,started_ms_median,rss_mb_median");
+            for (Result result : results) {
+                out.println(result.csv());
+            }
+        }
+        System.out.println("Results written to " + resultFile);
+    }
+
+    private static Run run(List<String> command, Path dir) throws Exception {
+        deleteRecursively(dir);
+        Files.createDirectories(dir);
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        List<String> fullCommand = new ArrayList<>(command);
+        fullCommand.addAll(List.of("--server.port=" + port, "--toolshop.catalog.watch=false"));
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        String checkoutDate = LocalDate.now().plusDays(30).format(DateTimeFormatter.ofPattern("MM/dd/yy"));
+        HttpRequest rental = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/tools/rental/LADW"))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(60))
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"totalRentalDays\":5,\"checkoutDate\":\"" + checkoutDate + "\",\"discount\":10}"))
+                .build();
+
+        Path log = dir.resolve("server.log");
+        long start = System.nanoTime();
+        Process server = new ProcessBuilder(fullCommand)
+                .directory(dir.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        try {
+            long deadline = start + TimeUnit.SECONDS.toNanos(120);
+            while (true) {
+                if (!server.isAlive()) {
+                    throw new IllegalStateException("Server exited with " + server.exitValue() + ", see " + log);
+                }
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException("No rental within 120 s, see " + log);
+                }
+                try {
+                    if (client.send(rental, HttpResponse.BodyHandlers.discarding()).statusCode() == 201) {
+                        break;
+                    }
+                } catch (IOException ex) {
+                    // Not listening yet
+                }
+                Thread.sleep(5);
+            }
+            double firstRentalMillis = (System.nanoTime() - start) / 1e6;
+            return new Run(firstRentalMillis, rssMegabytes(server.pid()), startedMillis(log));
+        } finally {
+            server.destroy();
+            if (!server.waitFor(30, TimeUnit.SECONDS)) {
+                server.destroyForcibly();
+            }
+        }
+    }
+
+    // VmRSS of the process in MB, or -1 where /proc isn't available
+    private static double rssMegabytes(long pid) throws IOException {
+        Path status = Path.of("/proc", Long.toString(pid), "status");
+        if (!Files.exists(status)) {
+            return -1;
+        }
+        for (String line : Files.readAllLines(status, StandardCharsets.UTF_8)) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.substring(6).trim().split("\\s+")[0]) / 1024.0;
+            }
+        }
+        return -1;
+    }
+
+    // Startup time Spring Boot logged, or -1 if the line isn't in the log
+    private static double startedMillis(Path log) throws IOException {
+        try (Stream<String> lines = Files.lines(log, StandardCharsets.UTF_8)) {
+            return lines.map(STARTED::matcher)
+                    .filter(Matcher::find)
+                    .mapToDouble(matcher -> Double.parseDouble(matcher.group(1)) * 1000)
+                    .findFirst()
+                    .orElse(-1);
+        }
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted((a, b) -> b.compareTo(a)).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    private record Run(double firstRentalMillis, double rssMegabytes, double startedMillis) {
+    }
+
+    private static final class Result {
+        final String mode;
+        final int runs;
+        final double firstRentalMedian;
+        final double firstRentalMin;
+        final double firstRentalMax;
+        final double startedMedian;
+        final double rssMedian;
+
+        Result(String mode, List<Run> runs) {
+            double[] firstRental = runs.stream().mapToDouble(Run::firstRentalMillis).sorted().toArray();
+            this.mode = mode;
+            this.runs = runs.size();
+            this.firstRentalMedian = median(firstRental);
+            this.firstRentalMin = firstRental[0];
+            this.firstRentalMax = firstRental[firstRental.length - 1];
+            this.startedMedian = median(runs.stream().mapToDouble(Run::startedMillis).sorted().toArray());
+            this.rssMedian = median(runs.stream().mapToDouble(Run::rssMegabytes).sorted().toArray());
+        }
+
+        private static double median(double[] sorted) {
+            int middle = sorted.length / 2;
+            return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+        }
+
+        String format() {
+            return String.format("%-6s first rental %.0f ms (min %.0f, max %.0f)  started %.0f ms  RSS %.1f MB  (median of %d)",
+                    mode, firstRentalMedian, firstRentalMin, firstRentalMax, startedMedian, rssMedian, runs);
+        }
+
+        String csv() {
+            return String.format(Locale.ROOT, "%s,%d,%.1f,%.1f,%.1f,%.1f,%.1f",
+                    mode, runs, firstRentalMedian, firstRentalMin, firstRentalMax, startedMedian, rssMedian);
+        }
+    }
+}
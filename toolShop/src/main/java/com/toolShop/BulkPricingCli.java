@@ -0,0 +1,65 @@
+package com.toolShop;
+
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.toolShop.cache.BulkPricingSummary;
+import com.toolShop.services.BulkPricingService;
+
+// Command line entry point for bulk pricing runs
+// Prices an NDJSON file of rental lines without starting the web server:
+//   java -cp toolShop.jar -Dloader.main=com.toolShop.BulkPricingCli \
+//        org.springframework.boot.loader.launch.PropertiesLauncher <input.ndjson|-> <output.ndjson|->
+// "-" reads from stdin / writes to stdout. The summary is printed to stderr.
+// Runs with the "cli" profile (application-cli.properties), which turns off the rental ledger, audit journal,
+// inventory and catalog watcher: pricing doesn't use them, and a second process must not open the ledger
+public class BulkPricingCli {
+
+	// Profile added to the run, on top of any active profiles
+	static final String PROFILE = "cli";
+
+	public static void main(String[] args) throws IOException {
+		System.exit(run(args));
+	}
+
+	// Runs the pricing and returns the exit code: 0 if every line was priced, 1 if any failed, 2 on bad usage
+	// Only the results are written to stdout; everything else printed to the console, logging included,
+	// goes to stderr so that "-" output stays valid NDJSON
+	static int run(String[] args) throws IOException {
+		if (args.length != 2) {
+			System.err.println("Usage: BulkPricingCli <input.ndjson|-> <output.ndjson|->");
+			return 2;
+		}
+
+		PrintStream stdout = System.out;
+		System.setOut(System.err);
+		BulkPricingSummary summary;
+		try {
+			ConfigurableApplicationContext context = new SpringApplicationBuilder(ToolShopApplication.class)
+					.web(WebApplicationType.NONE)
+					.bannerMode(Banner.Mode.OFF)
+					.logStartupInfo(false)
+					.profiles(PROFILE)
+					.run();
+			try (context;
+					InputStream in = "-".equals(args[0]) ? System.in : new FileInputStream(args[0]);
+					OutputStream out = "-".equals(args[1]) ? stdout : new FileOutputStream(args[1])) {
+				summary = context.getBean(BulkPricingService.class).price(in, out);
+			}
+		} finally {
+			System.setOut(stdout);
+		}
+		System.err.println("Bulk pricing finished: " + summary);
+		return summary.getFailed() > 0 ? 1 : 0;
+	}
+
+}
@@ -2,8 +2,12 @@ package com.toolShop;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import com.toolShop.config.ToolShopRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(ToolShopRuntimeHints.class)
 public class ToolShopApplication {
 
 	public static void main(String[] args) {
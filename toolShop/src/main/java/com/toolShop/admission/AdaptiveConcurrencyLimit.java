@@ -0,0 +1,96 @@
+package com.toolShop.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Limit on requests in flight that adapts to observed latency
+// Admission is a compare-and-set on the in-flight count. Each latency sample is compared with a
+// long-running average: while latency stays within `tolerance` times the average the limit grows
+// by about its square root, and when requests slow down (queueing) it shrinks in proportion,
+// by at most half per sample. Changes are smoothed and kept within [minLimit, maxLimit].
+// The limit doesn't grow while less than half of it is in use, so idle periods don't inflate it
+public final class AdaptiveConcurrencyLimit {
+
+    // Weight of each new limit estimate
+    private static final double SMOOTHING = 0.2;
+
+    // Number of samples the long-running latency average spans
+    private static final int LONG_WINDOW = 600;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    // Guarded by this
+    private double estimatedLimit;
+    private double longLatency;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double tolerance) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= min <= initial <= max");
+        }
+        if (!(tolerance >= 1)) {
+            throw new IllegalArgumentException("Latency tolerance must be at least 1");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.limit = initialLimit;
+        this.estimatedLimit = initialLimit;
+    }
+
+    // Takes a slot, returns false when the limit is reached
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    // Returns a slot without a latency sample
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    // Returns a slot and adjusts the limit to the request's latency
+    public void release(long latencyNanos) {
+        int current = inFlight.getAndDecrement();
+        update(latencyNanos, current);
+    }
+
+    private synchronized void update(long latencyNanos, int inFlightAtRelease) {
+        double latency = Math.max(1, latencyNanos);
+        if (longLatency == 0) {
+            longLatency = latency;
+        } else {
+            longLatency += (latency - longLatency) / LONG_WINDOW;
+        }
+        // A long average that has drifted far above current latency recovers quickly
+        if (longLatency > 2 * latency) {
+            longLatency *= 0.95;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longLatency / latency));
+        if (gradient >= 1.0 && inFlightAtRelease * 2 < estimatedLimit) {
+            return;
+        }
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING));
+        limit = (int) estimatedLimit;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,264 @@
+package com.toolShop.admission;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Admission control for the tool and admin APIs, run before any other interceptor
+// Each client (its user name, the client header from a trusted proxy, or else the remote address) gets
+// a token bucket per endpoint group, and all API requests share an adaptive limit on requests in
+// flight. A client over its rate gets 429 Too Many Requests and an overloaded server 503 Service
+// Unavailable, both with Retry-After and a prebuilt {"error": ...} body, before the request body is read.
+// Rejections are counted per endpoint group and reason as toolshop.admission.rejected
+@Component
+public class AdmissionInterceptor implements HandlerInterceptor {
+
+    // Endpoint groups with their own rate limits
+    public enum EndpointGroup {
+        CATALOG,    // Tool list, catalog pages and price grid
+        RENTAL,     // Single rentals and stored agreements
+        BATCH,      // Batch quotes and bulk pricing (not sampled for the latency limit)
+        ADMIN       // Stats, reloads and re-pricing under /api/admin (not sampled for the latency limit)
+    }
+
+    public enum Reason { RATE_LIMITED, OVERLOADED }
+
+    private static final EndpointGroup[] GROUPS = EndpointGroup.values();
+    private static final Reason[] REASONS = Reason.values();
+
+    // Request attribute holding System.nanoTime() when a request was admitted
+    static final String ADMITTED_AT = AdmissionInterceptor.class.getName() + ".admittedAt";
+
+    private static final byte[] RATE_LIMITED_BODY = "{\"error\":\"Too many requests\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] OVERLOADED_BODY = "{\"error\":\"Server is busy\"}".getBytes(StandardCharsets.UTF_8);
+
+    // How often the client maps are swept for full (idle) buckets once they reach max-clients
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    @Autowired(required = false)
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    ClientIdentity clientIdentity;
+
+    @Value("${toolshop.admission.enabled:true}")
+    boolean enabled = true;
+
+    // Most clients tracked per endpoint group; beyond that new clients share one bucket
+    @Value("${toolshop.admission.max-clients:100000}")
+    int maxClients = 100_000;
+
+    // Requests per second and burst size per client, 0 turns the rate limit off for the group
+    @Value("${toolshop.admission.catalog.rate:100}")
+    double catalogRate = 100;
+
+    @Value("${toolshop.admission.catalog.burst:200}")
+    int catalogBurst = 200;
+
+    @Value("${toolshop.admission.rental.rate:50}")
+    double rentalRate = 50;
+
+    @Value("${toolshop.admission.rental.burst:100}")
+    int rentalBurst = 100;
+
+    @Value("${toolshop.admission.batch.rate:5}")
+    double batchRate = 5;
+
+    @Value("${toolshop.admission.batch.burst:10}")
+    int batchBurst = 10;
+
+    @Value("${toolshop.admission.admin.rate:2}")
+    double adminRate = 2;
+
+    @Value("${toolshop.admission.admin.burst:10}")
+    int adminBurst = 10;
+
+    // Adaptive limit on API requests in flight
+    @Value("${toolshop.admission.concurrency.initial:64}")
+    int initialLimit = 64;
+
+    @Value("${toolshop.admission.concurrency.min:8}")
+    int minLimit = 8;
+
+    @Value("${toolshop.admission.concurrency.max:512}")
+    int maxLimit = 512;
+
+    // Latency, relative to the long-running average, above which the limit shrinks
+    @Value("${toolshop.admission.concurrency.tolerance:2.0}")
+    double tolerance = 2.0;
+
+    private final Group[] groups = new Group[GROUPS.length];
+    private final LongAdder[][] rejected = new LongAdder[GROUPS.length][REASONS.length];
+    private AdaptiveConcurrencyLimit concurrencyLimit;
+
+    // Builds the limits from the configuration and registers the metrics
+    @PostConstruct
+    public void start() {
+        groups[EndpointGroup.CATALOG.ordinal()] = new Group(catalogRate, catalogBurst, maxClients);
+        groups[EndpointGroup.RENTAL.ordinal()] = new Group(rentalRate, rentalBurst, maxClients);
+        groups[EndpointGroup.BATCH.ordinal()] = new Group(batchRate, batchBurst, maxClients);
+        groups[EndpointGroup.ADMIN.ordinal()] = new Group(adminRate, adminBurst, maxClients);
+        concurrencyLimit = new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit, tolerance);
+        for (EndpointGroup group : GROUPS) {
+            for (Reason reason : REASONS) {
+                rejected[group.ordinal()][reason.ordinal()] = new LongAdder();
+            }
+        }
+
+        if (meterRegistry == null || !enabled) {
+            return;
+        }
+        for (EndpointGroup group : GROUPS) {
+            for (Reason reason : REASONS) {
+                FunctionCounter.builder("toolshop.admission.rejected", rejected[group.ordinal()][reason.ordinal()], LongAdder::sum)
+                        .description("API requests rejected by admission control")
+                        .tag("endpoint", group.name())
+                        .tag("reason", reason.name())
+                        .register(meterRegistry);
+            }
+        }
+        Gauge.builder("toolshop.admission.limit", concurrencyLimit, AdaptiveConcurrencyLimit::getLimit)
+                .description("Current limit on API requests in flight")
+                .register(meterRegistry);
+        Gauge.builder("toolshop.admission.in-flight", concurrencyLimit, AdaptiveConcurrencyLimit::getInFlight)
+                .description("API requests in flight")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (!enabled) {
+            return true;
+        }
+        EndpointGroup group = group(request);
+        long now = System.nanoTime();
+
+        long waitNanos = groups[group.ordinal()].tryAcquire(clientIdentity.clientKey(request), now);
+        if (waitNanos > 0) {
+            reject(response, group, Reason.RATE_LIMITED, 429, waitNanos, RATE_LIMITED_BODY);
+            return false;
+        }
+        if (!concurrencyLimit.tryAcquire()) {
+            reject(response, group, Reason.OVERLOADED, 503, TimeUnit.SECONDS.toNanos(1), OVERLOADED_BODY);
+            return false;
+        }
+        request.setAttribute(ADMITTED_AT, now);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object admittedAt = request.getAttribute(ADMITTED_AT);
+        if (admittedAt == null) {
+            return;
+        }
+        request.removeAttribute(ADMITTED_AT);
+        // Batch and bulk runs are long by design and admin requests read files, so they would read as queueing
+        EndpointGroup group = group(request);
+        if (group == EndpointGroup.BATCH || group == EndpointGroup.ADMIN) {
+            concurrencyLimit.release();
+        } else {
+            concurrencyLimit.release(System.nanoTime() - (Long) admittedAt);
+        }
+    }
+
+    // Number of requests rejected so far for the group and reason
+    public long getRejectedCount(EndpointGroup group, Reason reason) {
+        return rejected[group.ordinal()][reason.ordinal()].sum();
+    }
+
+    AdaptiveConcurrencyLimit getConcurrencyLimit() {
+        return concurrencyLimit;
+    }
+
+    // Endpoint group from the matched handler pattern (the request path when nothing matched)
+    static EndpointGroup group(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String path = pattern != null ? pattern.toString() : request.getRequestURI();
+        if (path.startsWith("/api/admin")) {
+            return EndpointGroup.ADMIN;
+        }
+        if (path.startsWith("/api/tools/rental/batch") || path.startsWith("/api/tools/rental/bulk")) {
+            return EndpointGroup.BATCH;
+        }
+        return path.startsWith("/api/tools/rental") ? EndpointGroup.RENTAL : EndpointGroup.CATALOG;
+    }
+
+    private void reject(HttpServletResponse response, EndpointGroup group, Reason reason, int status,
+            long retryAfterNanos, byte[] body) throws IOException {
+        rejected[group.ordinal()][reason.ordinal()].increment();
+        response.setStatus(status);
+        // Whole seconds, rounded up
+        response.setHeader("Retry-After", Long.toString(Math.max(1, (retryAfterNanos + 999_999_999L) / 1_000_000_000L)));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getOutputStream().write(body);
+    }
+
+    // Token buckets of one endpoint group, keyed by client
+    // Buckets are created on first use. When max-clients is reached, full buckets (which a new bucket
+    // would equal) are swept out at most once per SWEEP_INTERVAL_NANOS; clients that still don't fit
+    // share the overflow bucket
+    private static final class Group {
+        private final double rate;
+        private final int burst;
+        private final int maxClients;
+        private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+        private final TokenBucket overflow;
+        private final AtomicLong lastSweep = new AtomicLong(System.nanoTime() - SWEEP_INTERVAL_NANOS);
+
+        Group(double rate, int burst, int maxClients) {
+            this.rate = rate;
+            this.burst = burst;
+            this.maxClients = maxClients;
+            this.overflow = rate > 0 ? new TokenBucket(rate, burst, System.nanoTime()) : null;
+        }
+
+        long tryAcquire(String client, long now) {
+            if (overflow == null) {
+                return 0;
+            }
+            TokenBucket bucket = buckets.get(client);
+            if (bucket == null) {
+                if (buckets.size() >= maxClients) {
+                    sweep(now);
+                }
+                bucket = buckets.size() < maxClients
+                        ? buckets.computeIfAbsent(client, key -> new TokenBucket(rate, burst, now))
+                        : overflow;
+            }
+            return bucket.tryAcquire(now);
+        }
+
+        private void sweep(long now) {
+            long last = lastSweep.get();
+            if (now - last < SWEEP_INTERVAL_NANOS || !lastSweep.compareAndSet(last, now)) {
+                return;
+            }
+            for (Iterator<TokenBucket> it = buckets.values().iterator(); it.hasNext();) {
+                if (it.next().isFull(now)) {
+                    it.remove();
+                }
+            }
+        }
+    }
+}
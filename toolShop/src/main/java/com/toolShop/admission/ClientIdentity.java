@@ -0,0 +1,47 @@
+package com.toolShop.admission;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+// Identifies the client of an API request, for per-client rate limits and idempotency keys
+// An authenticated user is identified by name. The client header is caller-supplied, so it is only
+// honored on requests from a trusted proxy (toolshop.admission.trusted-proxies) that sets it; from
+// anyone else, a new value on each request would get a fresh rate limit bucket. Every other request
+// is identified by its remote address
+@Component
+public class ClientIdentity {
+
+    // Header naming the client behind a trusted proxy; blank to ignore it
+    @Value("${toolshop.admission.client-header:X-Client-Id}")
+    String clientHeader = "X-Client-Id";
+
+    // Remote addresses of the proxies whose client header is trusted; none by default
+    @Value("${toolshop.admission.trusted-proxies:}")
+    String[] trustedProxies = {};
+
+    // Key of the request's client. The prefixes keep user names and header values from matching an address
+    public String clientKey(HttpServletRequest request) {
+        if (request.getUserPrincipal() != null) {
+            return "user:" + request.getUserPrincipal().getName();
+        }
+        String address = request.getRemoteAddr();
+        if (clientHeader != null && !clientHeader.isBlank() && isTrustedProxy(address)) {
+            String client = request.getHeader(clientHeader);
+            if (client != null && !client.isEmpty()) {
+                return "client:" + client;
+            }
+        }
+        return address;
+    }
+
+    private boolean isTrustedProxy(String address) {
+        for (String proxy : trustedProxies) {
+            if (proxy.strip().equals(address)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
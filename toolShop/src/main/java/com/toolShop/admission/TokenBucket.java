@@ -0,0 +1,49 @@
+package com.toolShop.admission;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Lock-free token bucket for one client
+// Kept as the time at which the bucket will be full again (GCRA) rather than a token count, so the
+// whole state is one AtomicLong updated with compare-and-set and refilling needs no timer.
+// Each admitted request moves that time one interval forward; a request is rejected when it
+// would move it more than `burst` intervals past now
+public final class TokenBucket {
+
+    // Time to earn one token
+    private final long intervalNanos;
+
+    // How far ahead of now the full time may be: one interval per token the bucket holds
+    private final long toleranceNanos;
+
+    // System.nanoTime() at which the bucket is full again
+    private final AtomicLong fullAt;
+
+    public TokenBucket(double tokensPerSecond, int burst, long nowNanos) {
+        if (!(tokensPerSecond > 0) || burst < 1) {
+            throw new IllegalArgumentException("Token bucket needs a rate greater than 0 and a burst of at least 1");
+        }
+        this.intervalNanos = Math.max(1, Math.round(1_000_000_000d / tokensPerSecond));
+        this.toleranceNanos = Math.multiplyExact(intervalNanos, (long) burst);
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    // Takes a token. Returns 0 when one was available, otherwise the nanoseconds until one will be
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long next = (current - nowNanos > 0 ? current : nowNanos) + intervalNanos;
+            long ahead = next - nowNanos;
+            if (ahead > toleranceNanos) {
+                return ahead - toleranceNanos;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    // True when the bucket is full, so replacing it with a new one changes nothing
+    public boolean isFull(long nowNanos) {
+        return fullAt.get() - nowNanos <= 0;
+    }
+}
@@ -0,0 +1,264 @@
+package com.toolShop.audit;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+// Append-only audit journal of generated rental agreements
+// Request threads hand records to a lock-free bounded queue and return immediately;
+// a single background writer drains the queue in batches and appends one JSON line per record.
+// When the queue is full the record is dropped (DROP) or the request waits briefly for space (BLOCK),
+// and every drop is counted. Flushing to the OS happens after every batch (BATCH),
+// every flush interval (INTERVAL), or after every batch followed by an fsync (SYNC)
+@Component
+public class AuditJournal {
+
+    private static final Logger LOGGER = Logger.getLogger(AuditJournal.class.getName());
+
+    public enum FlushPolicy { BATCH, INTERVAL, SYNC }
+
+    public enum OverflowPolicy { DROP, BLOCK }
+
+    @Value("${toolshop.audit.enabled:true}")
+    boolean enabled = true;
+
+    @Value("${toolshop.audit.file:logs/rental-audit.jsonl}")
+    String file = "logs/rental-audit.jsonl";
+
+    // Maximum number of records waiting to be written
+    @Value("${toolshop.audit.capacity:65536}")
+    int capacity = 65536;
+
+    // Maximum number of records written per batch
+    @Value("${toolshop.audit.batch-size:512}")
+    int batchSize = 512;
+
+    @Value("${toolshop.audit.flush:BATCH}")
+    FlushPolicy flushPolicy = FlushPolicy.BATCH;
+
+    @Value("${toolshop.audit.flush-interval-ms:1000}")
+    long flushIntervalMillis = 1000;
+
+    @Value("${toolshop.audit.overflow:DROP}")
+    OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+
+    // How long a request may wait for queue space under the BLOCK policy before the record is dropped
+    @Value("${toolshop.audit.block-timeout-ms:5}")
+    long blockTimeoutMillis = 5;
+
+    @Autowired(required = false)
+    MeterRegistry meterRegistry;
+
+    private final ConcurrentLinkedQueue<AuditRecord> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder writeErrors = new LongAdder();
+
+    private volatile boolean running;
+    private volatile Thread writerThread;
+    private FileOutputStream fileStream;
+    private Writer out;
+
+    // Opens the journal file and starts the writer thread
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Path path = Path.of(file).toAbsolutePath();
+        Files.createDirectories(path.getParent());
+        fileStream = new FileOutputStream(path.toFile(), true);
+        out = new BufferedWriter(new OutputStreamWriter(fileStream, StandardCharsets.UTF_8), 64 * 1024);
+
+        running = true;
+        Thread thread = new Thread(this::writeLoop, "audit-journal-writer");
+        thread.setDaemon(true);
+        writerThread = thread;
+        thread.start();
+
+        if (meterRegistry != null) {
+            Gauge.builder("toolshop.audit.queue.depth", depth, AtomicInteger::get)
+                    .description("Audit records waiting to be written")
+                    .register(meterRegistry);
+            registerCounter("accepted", accepted);
+            registerCounter("dropped", dropped);
+            registerCounter("written", written);
+            registerCounter("write_error", writeErrors);
+        }
+        LOGGER.info("Rental audit journal writing to " + path + " (flush " + flushPolicy + ", overflow " + overflowPolicy + ")");
+    }
+
+    // Stops accepting records, writes everything still queued and closes the file
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        Thread thread = writerThread;
+        if (thread == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(thread);
+        thread.join(TimeUnit.SECONDS.toMillis(10));
+        writerThread = null;
+    }
+
+    // Hands a record to the writer; never blocks on disk
+    // Returns false if the record was dropped because the journal is disabled, stopped or full
+    public boolean record(AuditRecord record) {
+        if (!running) {
+            if (enabled) {
+                dropped.increment();
+            }
+            return false;
+        }
+        int before = reserve();
+        if (before < 0) {
+            dropped.increment();
+            return false;
+        }
+        queue.offer(record);
+        accepted.increment();
+        // Wake the writer when the queue goes from empty to non-empty
+        if (before == 0) {
+            LockSupport.unpark(writerThread);
+        }
+        return true;
+    }
+
+    // Reserves a queue slot with a CAS on the depth counter
+    // Returns the depth before the reservation, or -1 if no slot became free in time
+    private int reserve() {
+        long deadline = 0;
+        while (true) {
+            int current = depth.get();
+            if (current < capacity) {
+                if (depth.compareAndSet(current, current + 1)) {
+                    return current;
+                }
+                continue;
+            }
+            if (overflowPolicy == OverflowPolicy.DROP) {
+                return -1;
+            }
+            long now = System.nanoTime();
+            if (deadline == 0) {
+                deadline = now + TimeUnit.MILLISECONDS.toNanos(blockTimeoutMillis);
+            } else if (now >= deadline) {
+                return -1;
+            }
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(50));
+        }
+    }
+
+    private void writeLoop() {
+        StringBuilder batch = new StringBuilder(batchSize * 256);
+        long idleNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, Math.min(flushIntervalMillis, 100)));
+        long lastFlush = System.nanoTime();
+        boolean unflushed = false;
+
+        while (running || depth.get() > 0) {
+            int count = 0;
+            AuditRecord record;
+            while (count < batchSize && (record = queue.poll()) != null) {
+                record.appendJson(batch);
+                batch.append('\n');
+                count++;
+            }
+            if (count > 0) {
+                depth.addAndGet(-count);
+                try {
+                    out.append(batch);
+                    written.add(count);
+                    unflushed = true;
+                } catch (IOException ex) {
+                    writeErrors.add(count);
+                    LOGGER.log(Level.SEVERE, "Failed to write " + count + " audit records", ex);
+                }
+                batch.setLength(0);
+            }
+
+            long now = System.nanoTime();
+            if (unflushed && (flushPolicy != FlushPolicy.INTERVAL
+                    || now - lastFlush >= TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis)
+                    || !running)) {
+                flush();
+                unflushed = false;
+                lastFlush = now;
+            }
+            if (count == 0 && running) {
+                LockSupport.parkNanos(this, idleNanos);
+            }
+        }
+        flush();
+        try {
+            out.close();
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Failed to close audit journal", ex);
+        }
+    }
+
+    private void flush() {
+        try {
+            out.flush();
+            if (flushPolicy == FlushPolicy.SYNC) {
+                FileChannel channel = fileStream.getChannel();
+                channel.force(false);
+            }
+        } catch (IOException ex) {
+            LOGGER.log(Level.SEVERE, "Failed to flush audit journal", ex);
+        }
+    }
+
+    private void registerCounter(String result, LongAdder counter) {
+        FunctionCounter.builder("toolshop.audit.records", counter, LongAdder::sum)
+                .description("Audit records by result")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    // Number of records waiting to be written
+    public int getQueueDepth() {
+        return depth.get();
+    }
+
+    public long getAccepted() {
+        return accepted.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public long getWritten() {
+        return written.sum();
+    }
+
+    public long getWriteErrors() {
+        return writeErrors.sum();
+    }
+}
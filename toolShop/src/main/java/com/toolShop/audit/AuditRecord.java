@@ -0,0 +1,97 @@
+package com.toolShop.audit;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+import com.toolShop.cache.RentalAgreement;
+import com.toolShop.cache.Tool;
+import com.toolShop.money.Money;
+
+// Immutable snapshot of a generated rental agreement, written as one line of the audit journal
+// Captured on the request thread; formatting happens on the journal writer thread
+public final class AuditRecord {
+    private final long timestampMillis;
+    private final String toolCode;
+    private final String toolType;
+    private final String brand;
+    private final long dailyChargeCents;
+    private final int rentalDays;
+    private final LocalDate checkoutDate;
+    private final LocalDate dueDate;
+    private final int chargeDays;
+    private final long preDiscountCents;
+    private final float discount;
+    private final long moneySavedCents;
+    private final long totalCents;
+
+    private AuditRecord(Tool tool, RentalAgreement rentalAgreement) {
+        this.timestampMillis = System.currentTimeMillis();
+        this.toolCode = tool.getToolCode();
+        this.toolType = tool.getToolType();
+        this.brand = tool.getBrand();
+        this.dailyChargeCents = tool.getDailyChargeCents();
+        this.rentalDays = rentalAgreement.getTotalRentalDays();
+        this.checkoutDate = rentalAgreement.getCheckoutDate();
+        this.dueDate = rentalAgreement.getDueDate();
+        this.chargeDays = rentalAgreement.getChargeDays();
+        this.preDiscountCents = rentalAgreement.getPreDiscountCents();
+        this.discount = rentalAgreement.getDiscount();
+        this.moneySavedCents = rentalAgreement.getMoneySavedCents();
+        this.totalCents = rentalAgreement.getTotalCents();
+    }
+
+    // Captures the current state of a rental agreement for the given tool
+    public static AuditRecord of(Tool tool, RentalAgreement rentalAgreement) {
+        return new AuditRecord(tool, rentalAgreement);
+    }
+
+    // Appends the record as a single JSON object (no trailing newline)
+    public void appendJson(StringBuilder out) {
+        out.append("{\"timestamp\":\"").append(Instant.ofEpochMilli(timestampMillis)).append('"');
+        appendString(out, "toolCode", toolCode);
+        appendString(out, "toolType", toolType);
+        appendString(out, "brand", brand);
+        Money.append(out.append(",\"dailyCharge\":"), dailyChargeCents);
+        out.append(",\"rentalDays\":").append(rentalDays);
+        out.append(",\"checkoutDate\":\"").append(checkoutDate).append('"');
+        out.append(",\"dueDate\":\"").append(dueDate).append('"');
+        out.append(",\"chargeDays\":").append(chargeDays);
+        Money.append(out.append(",\"preDiscountPrice\":"), preDiscountCents);
+        out.append(",\"discount\":").append(discount);
+        Money.append(out.append(",\"moneySaved\":"), moneySavedCents);
+        Money.append(out.append(",\"totalPrice\":"), totalCents);
+        out.append('}');
+    }
+
+    private static void appendString(StringBuilder out, String name, String value) {
+        out.append(",\"").append(name).append("\":");
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.append('\\').append(c);
+            } else if (c < 0x20) {
+                out.append(String.format("\\u%04x", (int) c));
+            } else {
+                out.append(c);
+            }
+        }
+        out.append('"');
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    public String getToolCode() {
+        return toolCode;
+    }
+
+    public long getTotalCents() {
+        return totalCents;
+    }
+}
@@ -0,0 +1,44 @@
+package com.toolShop.cache;
+
+import java.util.List;
+
+// Model class representing the response of a batch quote request
+// Results are in the same order as the request lines
+public class BatchQuoteResponse {
+    // Number of lines that were priced
+    private int priced;
+
+    // Number of lines that failed validation or pricing
+    private int failed;
+
+    // Per-line results
+    private List<QuoteResult> results;
+
+    public BatchQuoteResponse(){}
+
+    public BatchQuoteResponse(List<QuoteResult> results) {
+        this.results = results;
+        for (QuoteResult result : results) {
+            if (result.getError() == null) {
+                priced++;
+            } else {
+                failed++;
+            }
+        }
+    }
+
+    // Getter for priced line count
+    public int getPriced() {
+        return priced;
+    }
+
+    // Getter for failed line count
+    public int getFailed() {
+        return failed;
+    }
+
+    // Getter for per-line results
+    public List<QuoteResult> getResults() {
+        return results;
+    }
+}
@@ -0,0 +1,57 @@
+package com.toolShop.cache;
+
+// Model class summarising a bulk pricing run
+// Reported at the end of a streamed NDJSON run and by the bulk pricing CLI
+public class BulkPricingSummary {
+    // Number of non-blank input lines read
+    private long lines;
+
+    // Number of lines that were priced
+    private long priced;
+
+    // Number of lines that failed parsing, validation or pricing
+    private long failed;
+
+    // Wall-clock duration of the run in milliseconds
+    private long elapsedMillis;
+
+    public BulkPricingSummary(){}
+
+    public BulkPricingSummary(long lines, long priced, long failed, long elapsedMillis) {
+        this.lines = lines;
+        this.priced = priced;
+        this.failed = failed;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    // Getter for line count
+    public long getLines() {
+        return lines;
+    }
+
+    // Getter for priced line count
+    public long getPriced() {
+        return priced;
+    }
+
+    // Getter for failed line count
+    public long getFailed() {
+        return failed;
+    }
+
+    // Getter for run duration
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    // Throughput of the run in lines per second
+    public long getLinesPerSecond() {
+        return elapsedMillis == 0 ? lines * 1000 : lines * 1000 / elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "lines=" + lines + ", priced=" + priced + ", failed=" + failed
+                + ", elapsed=" + elapsedMillis + "ms, throughput=" + getLinesPerSecond() + " lines/s";
+    }
+}
@@ -0,0 +1,65 @@
+package com.toolShop.cache;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+// Model class representing one page of the tool catalog
+// Holds the tools matching the request's type and brand filters, in catalog order, with the catalog
+// version they were read from and the number of matching tools across all pages
+// The property order is fixed, like CatalogTool's, so the page bytes and ETags don't depend on the mapper's settings
+@JsonPropertyOrder({"version", "page", "size", "totalTools", "totalPages", "tools"})
+public class CatalogPage {
+    // Version of the catalog the page was read from
+    private long version;
+
+    // Page number (0-based) and largest number of tools per page
+    private int page;
+    private int size;
+
+    // Number of tools matching the filters, across all pages
+    private int totalTools;
+
+    // Tools on this page
+    private List<CatalogTool> tools;
+
+    public CatalogPage(){}
+
+    public CatalogPage(long version, int page, int size, int totalTools, List<CatalogTool> tools) {
+        this.version = version;
+        this.page = page;
+        this.size = size;
+        this.totalTools = totalTools;
+        this.tools = tools;
+    }
+
+    // Getter for catalog version
+    public long getVersion() {
+        return version;
+    }
+
+    // Getter for page number
+    public int getPage() {
+        return page;
+    }
+
+    // Getter for page size
+    public int getSize() {
+        return size;
+    }
+
+    // Getter for number of matching tools
+    public int getTotalTools() {
+        return totalTools;
+    }
+
+    // Getter for number of pages, at least 1
+    public int getTotalPages() {
+        return Math.max(1, (totalTools + size - 1) / size);
+    }
+
+    // Getter for tools on the page
+    public List<CatalogTool> getTools() {
+        return tools;
+    }
+}
@@ -0,0 +1,76 @@
+package com.toolShop.cache;
+
+import java.math.BigDecimal;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.toolShop.money.Money;
+
+// Model class describing one tool in a catalog page
+// The tool's details as clients see them: the daily charge with two decimal places and which days are charged
+// The property order is fixed, since cached catalog pages and their ETags are built from the serialized bytes
+@JsonPropertyOrder({"toolCode", "toolType", "brand", "dailyCharge", "weekdayCharge", "weekendCharge", "holidayCharge"})
+public class CatalogTool {
+    // Unique code of the tool
+    private String toolCode;
+
+    // Type of tool (e.g., Chainsaw, Jackhammer)
+    private String toolType;
+
+    // Brand/manufacturer of the tool
+    private String brand;
+
+    // Daily rental charge, in cents
+    private long dailyChargeCents;
+
+    // Whether weekdays, weekends and holidays are charged
+    private boolean weekdayCharge;
+    private boolean weekendCharge;
+    private boolean holidayCharge;
+
+    public CatalogTool(){}
+
+    public CatalogTool(Tool tool) {
+        this.toolCode = tool.getToolCode();
+        this.toolType = tool.getToolType();
+        this.brand = tool.getBrand();
+        this.dailyChargeCents = tool.getDailyChargeCents();
+        this.weekdayCharge = tool.isWeekdayCharge();
+        this.weekendCharge = tool.isWeekEndCharge();
+        this.holidayCharge = tool.isHolidayCharge();
+    }
+
+    // Getter for tool code
+    public String getToolCode() {
+        return toolCode;
+    }
+
+    // Getter for tool type
+    public String getToolType() {
+        return toolType;
+    }
+
+    // Getter for brand
+    public String getBrand() {
+        return brand;
+    }
+
+    // Getter for daily charge, with two decimal places
+    public BigDecimal getDailyCharge() {
+        return Money.toDecimal(dailyChargeCents);
+    }
+
+    // Getter for weekday charge flag
+    public boolean isWeekdayCharge() {
+        return weekdayCharge;
+    }
+
+    // Getter for weekend charge flag
+    public boolean isWeekendCharge() {
+        return weekendCharge;
+    }
+
+    // Getter for holiday charge flag
+    public boolean isHolidayCharge() {
+        return holidayCharge;
+    }
+}
@@ -0,0 +1,61 @@
+package com.toolShop.cache;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+// Model class representing a price grid: prices for every checkout date in a range
+// and every rental length from 1 to maxDays, for one or more tools
+public class PriceGrid {
+    // First checkout date in the grid (date format: MM/dd/yy)
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "MM/dd/yy")
+    private LocalDate from;
+
+    // Number of consecutive checkout dates, starting at from
+    private int startDays;
+
+    // Longest rental length in the grid; lengths run from 1 to maxDays
+    private int maxDays;
+
+    // Discount percentage applied to every price
+    private float discount;
+
+    // One column set per tool, in request order
+    private List<ToolPriceGrid> tools;
+
+    public PriceGrid(){}
+
+    public PriceGrid(LocalDate from, int startDays, int maxDays, float discount, List<ToolPriceGrid> tools) {
+        this.from = from;
+        this.startDays = startDays;
+        this.maxDays = maxDays;
+        this.discount = discount;
+        this.tools = tools;
+    }
+
+    // Getter for the first checkout date
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    // Getter for the number of checkout dates
+    public int getStartDays() {
+        return startDays;
+    }
+
+    // Getter for the longest rental length
+    public int getMaxDays() {
+        return maxDays;
+    }
+
+    // Getter for discount percentage
+    public float getDiscount() {
+        return discount;
+    }
+
+    // Getter for per-tool prices
+    public List<ToolPriceGrid> getTools() {
+        return tools;
+    }
+}
@@ -0,0 +1,58 @@
+package com.toolShop.cache;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// Model class representing the outcome of pricing one batch line
+// Holds either the priced rental agreement or the error that line failed with
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class QuoteResult {
+    // Position of the line in the request (0-based)
+    private int line;
+
+    // Tool code the line asked for
+    private String toolCode;
+
+    // Priced rental agreement, null if the line failed
+    private RentalAgreement agreement;
+
+    // Error message, null if the line was priced
+    private String error;
+
+    public QuoteResult(){}
+
+    public static QuoteResult success(int line, String toolCode, RentalAgreement agreement) {
+        QuoteResult result = new QuoteResult();
+        result.line = line;
+        result.toolCode = toolCode;
+        result.agreement = agreement;
+        return result;
+    }
+
+    public static QuoteResult failure(int line, String toolCode, String error) {
+        QuoteResult result = new QuoteResult();
+        result.line = line;
+        result.toolCode = toolCode;
+        result.error = error;
+        return result;
+    }
+
+    // Getter for line position
+    public int getLine() {
+        return line;
+    }
+
+    // Getter for tool code
+    public String getToolCode() {
+        return toolCode;
+    }
+
+    // Getter for priced agreement
+    public RentalAgreement getAgreement() {
+        return agreement;
+    }
+
+    // Getter for error message
+    public String getError() {
+        return error;
+    }
+}
@@ -1,16 +1,35 @@
 package com.toolShop.cache;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
 
-import com.fasterxml.jackson.annotation.JsonFormat;
+import com.toolShop.json.RentalAgreementDeserializer;
+import com.toolShop.json.RentalAgreementSerializer;
+import com.toolShop.money.Money;
 
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 
+import tools.jackson.databind.annotation.JsonDeserialize;
+import tools.jackson.databind.annotation.JsonSerialize;
+
 // Model class representing a rental agreement for a tool
 // Contains rental period, dates, charges, and discount information
+// JSON is read and written by RentalAgreementSerializer/RentalAgreementDeserializer, which define the wire format
+@JsonSerialize(using = RentalAgreementSerializer.class)
+@JsonDeserialize(using = RentalAgreementDeserializer.class)
 public class RentalAgreement {
+    // Id assigned when the agreement is stored in the rental ledger (absent for quotes)
+    private Long agreementId;
+
+    // Code of the rented tool (set by the service, not read from the request)
+    private String toolCode;
+
+    // Inventory unit (1-based) reserved for the rental period (absent for quotes)
+    private Integer unit;
+
     // Total number of days the tool is being rented (must be 1-100)
     @NotNull(message = "Number of rentals days is required")
     @Min(value = 1, message="Number of rental days must be 1 or greater")
@@ -19,11 +38,9 @@ public class RentalAgreement {
     
     // The date when the tool is being checked out (date format: MM/dd/yy)
     @NotNull
-    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "MM/dd/yy")
     private LocalDate checkoutDate;
     
-    // The date when the tool must be returned (calculated based on rental days)
-    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "MM/dd/yy")
+    // The date when the tool must be returned (calculated based on rental days, date format: MM/dd/yy)
     private LocalDate dueDate;
     
     // Number of days that will actually be charged (may be less due to holidays/weekends)
@@ -35,17 +52,47 @@ public class RentalAgreement {
     @Max(value = 100, message = "Discount must be 100% or less")
     private Float discount;
     
+    // Amounts are held in cents and written to JSON as decimals with two places
+    // (preDiscountPrice, moneySaved, totalPrice)
+
     // Total price before discount is applied
-    private float preDiscountPrice;
+    private long preDiscountCents;
     
     // Total money saved due to the discount
-    private float moneySaved;
+    private long moneySavedCents;
     
     // Final total price after discount is applied
-    private float totalPrice;
+    private long totalCents;
 
     public RentalAgreement(){}
 
+    // Getter and Setter for agreement id
+    public Long getAgreementId() {
+        return agreementId;
+    }
+
+    public void setAgreementId(Long agreementId) {
+        this.agreementId = agreementId;
+    }
+
+    // Getter and Setter for tool code
+    public String getToolCode() {
+        return toolCode;
+    }
+
+    public void setToolCode(String toolCode) {
+        this.toolCode = toolCode;
+    }
+
+    // Getter and Setter for reserved unit
+    public Integer getUnit() {
+        return unit;
+    }
+
+    public void setUnit(Integer unit) {
+        this.unit = unit;
+    }
+
     // Getter and Setter for total rental days
     public Integer getTotalRentalDays() {
         return totalRentalDays;
@@ -82,31 +129,56 @@ public class RentalAgreement {
         this.chargeDays = chargeDays;
     }
 
-    // Getter and Setter for pre-discount price
-    public float getPreDiscountPrice() {
-        return preDiscountPrice;
+    // Getter and Setter for pre-discount price in cents
+    public long getPreDiscountCents() {
+        return preDiscountCents;
+    }
+
+    public void setPreDiscountCents(long preDiscountCents) {
+        this.preDiscountCents = preDiscountCents;
+    }
+
+    // Getter and Setter for money saved in cents
+    public long getMoneySavedCents() {
+        return moneySavedCents;
+    }
+
+    public void setMoneySavedCents(long moneySavedCents) {
+        this.moneySavedCents = moneySavedCents;
     }
 
-    public void setPreDiscountPrice(float preDiscountPrice) {
-        this.preDiscountPrice = preDiscountPrice;
+    // Getter and Setter for total price in cents
+    public long getTotalCents() {
+        return totalCents;
     }
 
-    // Getter and Setter for money saved
-    public float getMoneySaved() {
-        return moneySaved;
+    public void setTotalCents(long totalCents) {
+        this.totalCents = totalCents;
     }
 
-    public void setMoneySaved(float moneySaved) {
-        this.moneySaved = moneySaved;
+    // Decimal views of the amounts (the JSON form), always with two decimal places
+    public BigDecimal getPreDiscountPrice() {
+        return Money.toDecimal(preDiscountCents);
     }
 
-    // Getter and Setter for total price
-    public float getTotalPrice() {
-        return totalPrice;
+    public void setPreDiscountPrice(BigDecimal preDiscountPrice) {
+        this.preDiscountCents = Money.toCents(preDiscountPrice, RoundingMode.HALF_UP);
     }
 
-    public void setTotalPrice(float totalPrice) {
-        this.totalPrice = totalPrice;
+    public BigDecimal getMoneySaved() {
+        return Money.toDecimal(moneySavedCents);
+    }
+
+    public void setMoneySaved(BigDecimal moneySaved) {
+        this.moneySavedCents = Money.toCents(moneySaved, RoundingMode.HALF_UP);
+    }
+
+    public BigDecimal getTotalPrice() {
+        return Money.toDecimal(totalCents);
+    }
+
+    public void setTotalPrice(BigDecimal totalPrice) {
+        this.totalCents = Money.toCents(totalPrice, RoundingMode.HALF_UP);
     }
 
     // Getter and Setter for discount percentage
@@ -118,5 +190,10 @@ public class RentalAgreement {
         this.discount = discount;
     }
 
+    // Discount in basis points (10.5% -> 1050), as used by the pricing kernel
+    public int getDiscountBasisPoints() {
+        return Money.basisPoints(discount);
+    }
+
     
 }
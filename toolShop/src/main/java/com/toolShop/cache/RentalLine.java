@@ -0,0 +1,76 @@
+package com.toolShop.cache;
+
+import java.time.LocalDate;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+// Model class representing one line of a batch quote request
+// Carries the tool code alongside the same fields as a single rental request
+public class RentalLine {
+    // Code of the tool to price (e.g. CHNS, LADW)
+    private String toolCode;
+
+    // The date when the tool is being checked out (date format: MM/dd/yy)
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "MM/dd/yy")
+    private LocalDate checkoutDate;
+
+    // Total number of days the tool is being rented
+    private Integer totalRentalDays;
+
+    // Discount percentage applied to the rental
+    private Float discount;
+
+    public RentalLine(){}
+
+    public RentalLine(String toolCode, LocalDate checkoutDate, Integer totalRentalDays, Float discount) {
+        this.toolCode = toolCode;
+        this.checkoutDate = checkoutDate;
+        this.totalRentalDays = totalRentalDays;
+        this.discount = discount;
+    }
+
+    // Converts the line into a rental request so it can go through the normal validation and pricing
+    public RentalAgreement toRentalRequest() {
+        RentalAgreement rentalRequest = new RentalAgreement();
+        rentalRequest.settotalRentalDays(totalRentalDays);
+        rentalRequest.setCheckoutDate(checkoutDate);
+        rentalRequest.setDiscount(discount);
+        return rentalRequest;
+    }
+
+    // Getter and Setter for tool code
+    public String getToolCode() {
+        return toolCode;
+    }
+
+    public void setToolCode(String toolCode) {
+        this.toolCode = toolCode;
+    }
+
+    // Getter and Setter for checkout date
+    public LocalDate getCheckoutDate() {
+        return checkoutDate;
+    }
+
+    public void setCheckoutDate(LocalDate checkoutDate) {
+        this.checkoutDate = checkoutDate;
+    }
+
+    // Getter and Setter for total rental days
+    public Integer getTotalRentalDays() {
+        return totalRentalDays;
+    }
+
+    public void setTotalRentalDays(Integer totalRentalDays) {
+        this.totalRentalDays = totalRentalDays;
+    }
+
+    // Getter and Setter for discount percentage
+    public Float getDiscount() {
+        return discount;
+    }
+
+    public void setDiscount(Float discount) {
+        this.discount = discount;
+    }
+}
@@ -0,0 +1,96 @@
+package com.toolShop.cache;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import com.toolShop.money.Money;
+
+// Model class describing a re-pricing run of the rental ledger: its progress while it runs and
+// its totals per tool code. Returned by the re-pricing admin endpoints and written as summary.json
+public class RepricingStatus {
+
+    public enum State { IDLE, RUNNING, COMPLETED, CANCELLED, FAILED }
+
+    private State state;
+
+    // Agreement ids covered by the run: 1 to lastId, as stored when the run started
+    private long lastId;
+
+    // Agreements re-priced so far, including those of earlier sessions of a resumed run
+    private long processed;
+
+    // Agreements re-priced in this session, per second
+    private long agreementsPerSecond;
+
+    // Time spent in this session, in milliseconds
+    private long elapsedMillis;
+
+    // Error message of a failed run
+    private String error;
+
+    // Totals per tool code, in code order
+    private List<RepricingToolSummary> tools;
+
+    public RepricingStatus(){}
+
+    public RepricingStatus(State state, long lastId, long processed, long agreementsPerSecond, long elapsedMillis,
+            String error, List<RepricingToolSummary> tools) {
+        this.state = state;
+        this.lastId = lastId;
+        this.processed = processed;
+        this.agreementsPerSecond = agreementsPerSecond;
+        this.elapsedMillis = elapsedMillis;
+        this.error = error;
+        this.tools = tools;
+    }
+
+    // Getter for run state
+    public State getState() {
+        return state;
+    }
+
+    // Getter for the last agreement id of the run
+    public long getLastId() {
+        return lastId;
+    }
+
+    // Getter for re-priced agreement count
+    public long getProcessed() {
+        return processed;
+    }
+
+    // Share of the run that is done, from 0 to 100
+    public double getPercentDone() {
+        return lastId == 0 ? 100 : Math.floor(processed * 1000.0 / lastId) / 10;
+    }
+
+    // Getter for throughput
+    public long getAgreementsPerSecond() {
+        return agreementsPerSecond;
+    }
+
+    // Getter for session duration
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    // Getter for error message
+    public String getError() {
+        return error;
+    }
+
+    // Getter for per-tool totals
+    public List<RepricingToolSummary> getTools() {
+        return tools;
+    }
+
+    // Agreements whose charge days or totals changed, over all tool codes
+    public long getChanged() {
+        return tools.stream().mapToLong(RepricingToolSummary::getChanged).sum();
+    }
+
+    // New minus old total over all tool codes
+    public BigDecimal getDelta() {
+        return tools.stream().map(RepricingToolSummary::getDelta).reduce(Money.toDecimal(0), BigDecimal::add);
+    }
+}
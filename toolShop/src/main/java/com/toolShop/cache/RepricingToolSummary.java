@@ -0,0 +1,72 @@
+package com.toolShop.cache;
+
+import java.math.BigDecimal;
+
+import com.toolShop.money.Money;
+
+// Model class with the re-pricing totals of one tool code
+// Old amounts are the stored agreements' totals, new amounts the same agreements priced with the current catalog
+public class RepricingToolSummary {
+    private String toolCode;
+
+    // Agreements of this tool code that were scanned
+    private long agreements;
+
+    // Agreements whose charge days or totals changed
+    private long changed;
+
+    // Agreements that couldn't be re-priced because the tool code is no longer in the catalog
+    private long unpriced;
+
+    // Sum of the stored totals, in cents
+    private long oldTotalCents;
+
+    // Sum of the re-priced totals, in cents (stored totals for unpriced agreements)
+    private long newTotalCents;
+
+    public RepricingToolSummary(){}
+
+    public RepricingToolSummary(String toolCode, long agreements, long changed, long unpriced, long oldTotalCents, long newTotalCents) {
+        this.toolCode = toolCode;
+        this.agreements = agreements;
+        this.changed = changed;
+        this.unpriced = unpriced;
+        this.oldTotalCents = oldTotalCents;
+        this.newTotalCents = newTotalCents;
+    }
+
+    // Getter for tool code
+    public String getToolCode() {
+        return toolCode;
+    }
+
+    // Getter for scanned agreement count
+    public long getAgreements() {
+        return agreements;
+    }
+
+    // Getter for changed agreement count
+    public long getChanged() {
+        return changed;
+    }
+
+    // Getter for unpriced agreement count
+    public long getUnpriced() {
+        return unpriced;
+    }
+
+    // Sum of the stored totals
+    public BigDecimal getOldTotal() {
+        return Money.toDecimal(oldTotalCents);
+    }
+
+    // Sum of the re-priced totals
+    public BigDecimal getNewTotal() {
+        return Money.toDecimal(newTotalCents);
+    }
+
+    // New minus old total
+    public BigDecimal getDelta() {
+        return Money.toDecimal(newTotalCents - oldTotalCents);
+    }
+}
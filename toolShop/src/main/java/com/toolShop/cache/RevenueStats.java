@@ -0,0 +1,73 @@
+package com.toolShop.cache;
+
+import java.math.BigDecimal;
+
+import com.toolShop.money.Money;
+
+// Model class holding rental and revenue totals over a period
+// Returned by the stats endpoint for all time and for each rolling window, per tool code
+public class RevenueStats {
+    // Number of rentals
+    private long rentals;
+
+    // Sum of the rented days (totalRentalDays) of those rentals
+    private long rentalDays;
+
+    // Sum of their chargeable days
+    private long chargeDays;
+
+    // Revenue before discounts, in cents
+    private long preDiscountCents;
+
+    // Revenue after discounts, in cents
+    private long revenueCents;
+
+    // Length of the period in seconds
+    private long seconds;
+
+    public RevenueStats(){}
+
+    public RevenueStats(long rentals, long rentalDays, long chargeDays, long preDiscountCents, long revenueCents, long seconds) {
+        this.rentals = rentals;
+        this.rentalDays = rentalDays;
+        this.chargeDays = chargeDays;
+        this.preDiscountCents = preDiscountCents;
+        this.revenueCents = revenueCents;
+        this.seconds = seconds;
+    }
+
+    // Getter for rental count
+    public long getRentals() {
+        return rentals;
+    }
+
+    // Getter for rented days
+    public long getRentalDays() {
+        return rentalDays;
+    }
+
+    // Getter for charge days
+    public long getChargeDays() {
+        return chargeDays;
+    }
+
+    // Revenue before discounts
+    public BigDecimal getPreDiscountRevenue() {
+        return Money.toDecimal(preDiscountCents);
+    }
+
+    // Revenue after discounts
+    public BigDecimal getRevenue() {
+        return Money.toDecimal(revenueCents);
+    }
+
+    // Amount given away as discounts
+    public BigDecimal getDiscounts() {
+        return Money.toDecimal(preDiscountCents - revenueCents);
+    }
+
+    // Getter for period length
+    public long getSeconds() {
+        return seconds;
+    }
+}
@@ -3,89 +3,61 @@ package com.toolShop.cache;
 // Model class that represents a tool available for rental
 // Contains information about the tool type, brand, daily rental charge,
 // and which types of days (weekday/weekend/holidays) are charged
-public class Tool {
-    private String toolCode;              // Unique identifier for the tool
-    private String toolType;               // Type of tool (e.g., Chainsaw, Jackhammer)
-    private String brand;                  // Brand/manufacturer of the tool
-    private float dailyCharge;             // Daily rental charge for the tool
-    private boolean weekdayCharge;         // Whether weekdays are charged
-    private boolean weekendCharge;         // Whether weekends are charged
-    private boolean holidayCharge;         // Whether holidays are charged
-
-    public Tool(){}
+// Tools come from the tool catalog and are shared by every request, so they are immutable
+public final class Tool {
+    private final String toolCode;               // Unique identifier for the tool
+    private final String toolType;               // Type of tool (e.g., Chainsaw, Jackhammer)
+    private final String brand;                  // Brand/manufacturer of the tool
+    private final long dailyChargeCents;         // Daily rental charge for the tool, in cents
+    private final boolean weekdayCharge;         // Whether weekdays are charged
+    private final boolean weekendCharge;         // Whether weekends are charged
+    private final boolean holidayCharge;         // Whether holidays are charged
 
     // Constructor that initializes a tool with all its rental parameters
-    public Tool(String toolType, String brand, float dailyCharge, boolean weekdayCharge,
+    public Tool(String toolCode, String toolType, String brand, long dailyChargeCents, boolean weekdayCharge,
             boolean weekendCharge, boolean holidayCharge) {
+        this.toolCode = toolCode;
         this.toolType = toolType;
         this.brand = brand;
-        this.dailyCharge = dailyCharge;
+        this.dailyChargeCents = dailyChargeCents;
         this.weekdayCharge = weekdayCharge;
         this.weekendCharge = weekendCharge;
         this.holidayCharge = holidayCharge;
     }
 
-    // Getter and Setter for tool code
+    // Getter for tool code
     public String getToolCode() {
         return toolCode;
     }
 
-    public void setToolCode(String toolCode) {
-        this.toolCode = toolCode;
-    }
-
-    // Getter and Setter for tool type
+    // Getter for tool type
     public String getToolType() {
         return toolType;
     }
 
-    public void setToolType(String toolType) {
-        this.toolType = toolType;
-    }
-
-    // Getter and Setter for brand
+    // Getter for brand
     public String getBrand() {
         return brand;
     }
 
-    public void setBrand(String brand) {
-        this.brand = brand;
-    }
-
-    // Getter and Setter for daily charge
-    public float getDailyCharge() {
-        return dailyCharge;
-    }
-
-    public void setDailyCharge(float dailyCharge) {
-        this.dailyCharge = dailyCharge;
+    // Getter for daily charge in cents
+    public long getDailyChargeCents() {
+        return dailyChargeCents;
     }
 
-    // Getter and Setter for weekday charge flag
+    // Getter for weekday charge flag
     public boolean isWeekdayCharge() {
         return weekdayCharge;
     }
 
-    public void setWeekdayCharge(boolean weekdayCharge) {
-        this.weekdayCharge = weekdayCharge;
-    }
-
-    // Getter and Setter for weekend charge flag
+    // Getter for weekend charge flag
     public boolean isWeekEndCharge() {
         return weekendCharge;
     }
 
-    public void setWeekEndCharge(boolean weekEndCharge) {
-        this.weekendCharge = weekEndCharge;
-    }
-
-    // Getter and Setter for holiday charge flag
+    // Getter for holiday charge flag
     public boolean isHolidayCharge() {
         return holidayCharge;
     }
 
-    public void setHolidayCharge(boolean holidayCharge) {
-        this.holidayCharge = holidayCharge;
-    }
-    
 }
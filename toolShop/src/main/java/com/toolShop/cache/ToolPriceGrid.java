@@ -0,0 +1,51 @@
+package com.toolShop.cache;
+
+import java.math.BigDecimal;
+
+import com.toolShop.money.Money;
+
+// Model class holding the price grid of one tool in columnar form
+// There is one column per rental length: chargeDays[d - 1][s] and totalCents[d - 1][s] are the
+// charge days and discounted total (in cents) of a d day rental checked out s days after the grid start
+public class ToolPriceGrid {
+    // Code of the priced tool
+    private String toolCode;
+
+    // Daily charge in cents
+    private long dailyChargeCents;
+
+    // Charge days per rental length, then per checkout date
+    private int[][] chargeDays;
+
+    // Total price in cents after discount, per rental length, then per checkout date
+    private long[][] totalCents;
+
+    public ToolPriceGrid(){}
+
+    public ToolPriceGrid(String toolCode, long dailyChargeCents, int[][] chargeDays, long[][] totalCents) {
+        this.toolCode = toolCode;
+        this.dailyChargeCents = dailyChargeCents;
+        this.chargeDays = chargeDays;
+        this.totalCents = totalCents;
+    }
+
+    // Getter for tool code
+    public String getToolCode() {
+        return toolCode;
+    }
+
+    // Getter for daily charge, with two decimal places
+    public BigDecimal getDailyCharge() {
+        return Money.toDecimal(dailyChargeCents);
+    }
+
+    // Getter for charge day columns
+    public int[][] getChargeDays() {
+        return chargeDays;
+    }
+
+    // Getter for total price columns
+    public long[][] getTotalCents() {
+        return totalCents;
+    }
+}
@@ -0,0 +1,73 @@
+package com.toolShop.calendar;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.concurrent.ScheduledFuture;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.toolShop.util.Ticker;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+// Today's date for request checks, read from the system clock once per tick instead of per request
+// While ticking, today() is a single volatile read with no time zone lookup; the date it returns
+// can lag midnight by up to one tick. Until start() is called (unit tests, benchmarks) every call
+// reads the underlying clock, so an unstarted clock is never stale
+@Component
+public class CachedClock {
+
+    // How often the cached date is refreshed
+    @Value("${toolshop.clock.tick-millis:1000}")
+    long tickMillis = 1000;
+
+    private final Clock source;
+
+    // Date as of the last tick, null until the clock is started
+    private volatile LocalDate today;
+
+    private ScheduledFuture<?> ticker;
+
+    public CachedClock() {
+        this(Clock.systemDefaultZone());
+    }
+
+    public CachedClock(Clock source) {
+        this.source = source;
+    }
+
+    // Reads the date now and then refreshes it every tickMillis on the shared ticker
+    @PostConstruct
+    public synchronized void start() {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("toolshop.clock.tick-millis must be greater than 0");
+        }
+        if (ticker != null) {
+            return;
+        }
+        tick();
+        ticker = Ticker.schedule(this::tick, tickMillis);
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (ticker != null) {
+            ticker.cancel(false);
+            ticker = null;
+            today = null;
+        }
+    }
+
+    // Re-reads the date from the underlying clock
+    void tick() {
+        today = LocalDate.now(source);
+    }
+
+    // Today's date in the clock's time zone
+    public LocalDate today() {
+        LocalDate cached = today;
+        return cached != null ? cached : LocalDate.now(source);
+    }
+}
@@ -0,0 +1,43 @@
+package com.toolShop.calendar;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.MonthDay;
+
+// Holiday on the same month and day every year (e.g. Independence Day, July 4th)
+// When observed, a Saturday holiday moves to the Friday before and a Sunday holiday to the Monday after
+public class FixedDateRule implements HolidayRule {
+    private final String name;
+    private final MonthDay monthDay;
+    private final boolean observed;
+
+    public FixedDateRule(String name, int month, int day, boolean observed) {
+        this.name = name;
+        this.monthDay = MonthDay.of(month, day);
+        this.observed = observed;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public LocalDate dateIn(int year) {
+        // Feb 29th only exists in leap years
+        if (!monthDay.isValidYear(year)) {
+            return null;
+        }
+        LocalDate date = monthDay.atYear(year);
+        if (!observed) {
+            return date;
+        }
+        DayOfWeek dayOfWeek = date.getDayOfWeek();
+        if (dayOfWeek == DayOfWeek.SATURDAY) {
+            return date.minusDays(1);
+        } else if (dayOfWeek == DayOfWeek.SUNDAY) {
+            return date.plusDays(1);
+        }
+        return date;
+    }
+}
@@ -0,0 +1,170 @@
+package com.toolShop.calendar;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+// Holiday calendar used when counting charge days
+// Holiday rules are compiled into a bitset over whole years that is cached in memory,
+// so isHoliday(epochDay) is a bounds check and a bit test with no allocation
+// The default rules come from holidays.rules on the classpath and can be replaced
+// at startup with the file set in toolshop.holidays.file
+@Component
+public class HolidayCalendar {
+
+    private static final Logger LOGGER = Logger.getLogger(HolidayCalendar.class.getName());
+
+    // Classpath resource holding the default holiday rules
+    static final String DEFAULT_RULES = "holidays.rules";
+
+    // Optional path of a rules file that replaces the defaults at startup
+    @Value("${toolshop.holidays.file:}")
+    String rulesFile;
+
+    private volatile List<HolidayRule> rules;
+
+    // Compiled holidays for the years seen so far, replaced as a whole when it grows
+    private volatile YearRange years;
+
+    // Incremented every time the rules change so dependent caches can rebuild
+    private volatile int version;
+
+    public HolidayCalendar() {
+        this(loadDefaultRules());
+    }
+
+    public HolidayCalendar(List<HolidayRule> rules) {
+        setRules(rules);
+    }
+
+    // Loads the configured rules file, if any, once the bean is created
+    @PostConstruct
+    void loadRulesFile() throws IOException {
+        if (rulesFile != null && !rulesFile.isBlank()) {
+            setRules(HolidayRule.parse(Files.readAllLines(Path.of(rulesFile), StandardCharsets.UTF_8)));
+            LOGGER.info("Loaded " + rules.size() + " holiday rules from " + rulesFile);
+        }
+    }
+
+    // Replaces the holiday rules and drops every compiled year
+    public synchronized void setRules(List<HolidayRule> rules) {
+        this.rules = List.copyOf(rules);
+        this.years = null;
+        this.version++;
+    }
+
+    public List<HolidayRule> getRules() {
+        return rules;
+    }
+
+    // Version of the current rules, changes whenever setRules is called
+    public int getVersion() {
+        return version;
+    }
+
+    // Returns true if the given epoch day is an observed holiday
+    public boolean isHoliday(long epochDay) {
+        YearRange range = years;
+        if (range == null || !range.covers(epochDay)) {
+            range = extend(epochDay);
+        }
+        return range.isHoliday(epochDay);
+    }
+
+    public boolean isHoliday(LocalDate date) {
+        return isHoliday(date.toEpochDay());
+    }
+
+    // Returns the observed holidays falling in the given year, in date order
+    public List<LocalDate> getHolidays(int year) {
+        List<LocalDate> holidays = new ArrayList<>();
+        for (LocalDate date = LocalDate.of(year, 1, 1); date.getYear() == year; date = date.plusDays(1)) {
+            if (isHoliday(date)) {
+                holidays.add(date);
+            }
+        }
+        return holidays;
+    }
+
+    // Compiles a new range that covers the year of the given day plus every year already compiled
+    private synchronized YearRange extend(long epochDay) {
+        YearRange current = years;
+        if (current != null && current.covers(epochDay)) {
+            return current;
+        }
+        int year = LocalDate.ofEpochDay(epochDay).getYear();
+        int firstYear = current == null ? year : Math.min(year, current.firstYear);
+        int lastYear = current == null ? year : Math.max(year, current.lastYear);
+        YearRange range = YearRange.compile(rules, firstYear, lastYear);
+        years = range;
+        return range;
+    }
+
+    private static List<HolidayRule> loadDefaultRules() {
+        InputStream in = HolidayCalendar.class.getClassLoader().getResourceAsStream(DEFAULT_RULES);
+        if (in == null) {
+            throw new IllegalStateException("Holiday rules resource '" + DEFAULT_RULES + "' not found");
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            return HolidayRule.parse(reader.lines().toList());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    // Bitset of observed holidays over whole years [firstYear, lastYear]
+    // Bit i is set when firstDay + i is a holiday
+    private static final class YearRange {
+        private final int firstYear;
+        private final int lastYear;
+        private final long firstDay;
+        private final long endDay;
+        private final long[] bits;
+
+        private YearRange(int firstYear, int lastYear) {
+            this.firstYear = firstYear;
+            this.lastYear = lastYear;
+            this.firstDay = LocalDate.of(firstYear, 1, 1).toEpochDay();
+            this.endDay = LocalDate.of(lastYear + 1, 1, 1).toEpochDay();
+            this.bits = new long[(int) ((endDay - firstDay + 63) >>> 6)];
+        }
+
+        private static YearRange compile(List<HolidayRule> rules, int firstYear, int lastYear) {
+            YearRange range = new YearRange(firstYear, lastYear);
+            // Observance can move a holiday across Jan 1st, so evaluate the neighbouring years too
+            for (int year = firstYear - 1; year <= lastYear + 1; year++) {
+                for (HolidayRule rule : rules) {
+                    LocalDate date = rule.dateIn(year);
+                    if (date != null && range.covers(date.toEpochDay())) {
+                        int offset = (int) (date.toEpochDay() - range.firstDay);
+                        range.bits[offset >>> 6] |= 1L << offset;
+                    }
+                }
+            }
+            return range;
+        }
+
+        private boolean covers(long epochDay) {
+            return epochDay >= firstDay && epochDay < endDay;
+        }
+
+        private boolean isHoliday(long epochDay) {
+            int offset = (int) (epochDay - firstDay);
+            return (bits[offset >>> 6] & (1L << offset)) != 0;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.toolShop.calendar;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// A rule that produces the (observed) date of a holiday for a given year
+// Rules are compiled into per-year bitsets by HolidayCalendar
+public interface HolidayRule {
+
+    // Name of the holiday, used for logging and listings
+    String getName();
+
+    // Returns the date the holiday is observed on in the given year, or null if it doesn't occur that year
+    // The observed date may fall in the previous or next year (e.g. Jan 1st on a Saturday)
+    LocalDate dateIn(int year);
+
+    // Parses holiday rules, one per line, in the form "<name> = <rule>"
+    // Supported rules:
+    //   fixed <MM-dd> [observed]      fixed date, moved to Friday/Monday when it falls on a weekend if "observed"
+    //   nth <MM> <n|last> <DAYOFWEEK>  nth (1-5) or last given weekday of a month
+    // Blank lines and lines starting with '#' are ignored. Throws IllegalArgumentException on bad input.
+    static List<HolidayRule> parse(List<String> lines) {
+        List<HolidayRule> rules = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            int equals = line.indexOf('=');
+            if (equals <= 0) {
+                throw new IllegalArgumentException("Holiday rule on line " + (i + 1) + " must be '<name> = <rule>': " + line);
+            }
+            String name = line.substring(0, equals).strip();
+            String[] parts = line.substring(equals + 1).strip().split("\\s+");
+            try {
+                rules.add(parseRule(name, parts));
+            } catch (RuntimeException ex) {
+                throw new IllegalArgumentException("Invalid holiday rule on line " + (i + 1) + ": " + line, ex);
+            }
+        }
+        return rules;
+    }
+
+    private static HolidayRule parseRule(String name, String[] parts) {
+        switch (parts[0].toLowerCase(Locale.ROOT)) {
+            case "fixed": {
+                if (parts.length < 2 || parts.length > 3 || (parts.length == 3 && !parts[2].equalsIgnoreCase("observed"))) {
+                    throw new IllegalArgumentException("Expected: fixed <MM-dd> [observed]");
+                }
+                String[] monthDay = parts[1].split("-");
+                return new FixedDateRule(name, Integer.parseInt(monthDay[0]), Integer.parseInt(monthDay[1]), parts.length == 3);
+            }
+            case "nth": {
+                if (parts.length != 4) {
+                    throw new IllegalArgumentException("Expected: nth <MM> <n|last> <DAYOFWEEK>");
+                }
+                int ordinal = parts[2].equalsIgnoreCase("last") ? -1 : Integer.parseInt(parts[2]);
+                return new NthWeekdayRule(name, Integer.parseInt(parts[1]), ordinal,
+                        DayOfWeek.valueOf(parts[3].toUpperCase(Locale.ROOT)));
+            }
+            default:
+                throw new IllegalArgumentException("Unknown rule type '" + parts[0] + "'");
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.toolShop.calendar;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+// Holiday on the nth given weekday of a month (e.g. Labor Day, the first Monday in September)
+// An ordinal of -1 means the last such weekday of the month (e.g. Memorial Day)
+public class NthWeekdayRule implements HolidayRule {
+    private final String name;
+    private final int month;
+    private final int ordinal;
+    private final DayOfWeek dayOfWeek;
+
+    public NthWeekdayRule(String name, int month, int ordinal, DayOfWeek dayOfWeek) {
+        if (month < 1 || month > 12) {
+            throw new IllegalArgumentException("Month must be between 1 and 12");
+        }
+        if (ordinal != -1 && (ordinal < 1 || ordinal > 5)) {
+            throw new IllegalArgumentException("Ordinal must be between 1 and 5, or last");
+        }
+        this.name = name;
+        this.month = month;
+        this.ordinal = ordinal;
+        this.dayOfWeek = dayOfWeek;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public LocalDate dateIn(int year) {
+        LocalDate firstOfMonth = LocalDate.of(year, month, 1);
+        if (ordinal == -1) {
+            return firstOfMonth.with(TemporalAdjusters.lastInMonth(dayOfWeek));
+        }
+        LocalDate date = firstOfMonth.with(TemporalAdjusters.dayOfWeekInMonth(ordinal, dayOfWeek));
+        // A fifth weekday doesn't exist in every month
+        return date.getMonthValue() == month ? date : null;
+    }
+}
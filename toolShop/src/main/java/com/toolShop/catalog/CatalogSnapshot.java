@@ -0,0 +1,196 @@
+package com.toolShop.catalog;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.toolShop.cache.Tool;
+import com.toolShop.money.Money;
+
+// One immutable version of the tool catalog
+// A snapshot is never modified after it is built; ToolCatalog replaces the whole snapshot on reload,
+// so a request that reads one snapshot sees a consistent set of tools
+// All indexes are built up front: code lookups go through a case-insensitive hash index,
+// type and brand lookups through hash maps of tool lists, and code prefix lookups through
+// a binary search over the tools sorted by code
+public final class CatalogSnapshot {
+
+    private final long version;
+    private final List<Tool> tools;
+    private final List<String> toolCodes;
+    private final ToolIndex toolsByCode;
+
+    // Secondary indexes, keyed by lower case type/brand
+    private final Map<String, List<Tool>> toolsByType;
+    private final Map<String, List<Tool>> toolsByBrand;
+
+    // Tools sorted by canonical code, with the codes in a parallel array for binary search
+    private final List<Tool> toolsSortedByCode;
+    private final String[] sortedCodes;
+
+    // Builds a snapshot from tools in catalog order. Throws IllegalArgumentException on duplicate codes
+    public CatalogSnapshot(long version, List<Tool> tools) {
+        this.version = version;
+        this.tools = List.copyOf(tools);
+        this.toolsByCode = new ToolIndex(this.tools);
+
+        List<String> codes = new ArrayList<>(tools.size());
+        Map<String, List<Tool>> byType = new HashMap<>();
+        Map<String, List<Tool>> byBrand = new HashMap<>();
+        for (Tool tool : this.tools) {
+            codes.add(tool.getToolCode());
+            byType.computeIfAbsent(secondaryKey(tool.getToolType()), key -> new ArrayList<>()).add(tool);
+            byBrand.computeIfAbsent(secondaryKey(tool.getBrand()), key -> new ArrayList<>()).add(tool);
+        }
+        this.toolCodes = List.copyOf(codes);
+        this.toolsByType = copyOf(byType);
+        this.toolsByBrand = copyOf(byBrand);
+
+        List<Map.Entry<String, Tool>> sorted = new ArrayList<>(tools.size());
+        for (Tool tool : this.tools) {
+            sorted.add(Map.entry(ToolIndex.canonicalize(tool.getToolCode()), tool));
+        }
+        sorted.sort(Map.Entry.comparingByKey());
+        List<Tool> sortedTools = new ArrayList<>(sorted.size());
+        this.sortedCodes = new String[sorted.size()];
+        for (int i = 0; i < sortedCodes.length; i++) {
+            sortedCodes[i] = sorted.get(i).getKey();
+            sortedTools.add(sorted.get(i).getValue());
+        }
+        this.toolsSortedByCode = List.copyOf(sortedTools);
+    }
+
+    // Parses catalog lines in the form "code,type,brand,dailyCharge,weekdayCharge,weekendCharge,holidayCharge"
+    // Tool codes are stored upper case and daily charges must have at most two decimal places. Blank lines and lines starting with '#' are ignored.
+    // Throws IllegalArgumentException on bad input
+    public static CatalogSnapshot parse(long version, List<String> lines) {
+        List<Tool> tools = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split(",", -1);
+            if (fields.length != 7) {
+                throw new IllegalArgumentException("Catalog line " + (i + 1)
+                        + " must be 'code,type,brand,dailyCharge,weekdayCharge,weekendCharge,holidayCharge': " + line);
+            }
+            try {
+                String toolCode = ToolIndex.canonicalize(fields[0]);
+                if (toolCode.isEmpty()) {
+                    throw new IllegalArgumentException("Tool code is required");
+                }
+                long dailyChargeCents = Money.parseCents(fields[3].strip());
+                if (dailyChargeCents < 0) {
+                    throw new IllegalArgumentException("Daily charge must be 0 or greater");
+                }
+                tools.add(new Tool(toolCode, fields[1].strip(), fields[2].strip(), dailyChargeCents,
+                        parseFlag(fields[4]), parseFlag(fields[5]), parseFlag(fields[6])));
+            } catch (RuntimeException ex) {
+                throw new IllegalArgumentException("Invalid catalog line " + (i + 1) + ": " + line, ex);
+            }
+        }
+        return new CatalogSnapshot(version, tools);
+    }
+
+    // Index of the first sorted code that is not less than the key
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = sortedCodes.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sortedCodes[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static String secondaryKey(String value) {
+        return value.strip().toLowerCase(Locale.ROOT);
+    }
+
+    private static Map<String, List<Tool>> copyOf(Map<String, List<Tool>> index) {
+        Map<String, List<Tool>> copy = new HashMap<>();
+        index.forEach((key, list) -> copy.put(key, List.copyOf(list)));
+        return Map.copyOf(copy);
+    }
+
+    private static boolean parseFlag(String value) {
+        String flag = value.strip();
+        if (flag.equalsIgnoreCase("true")) {
+            return true;
+        }
+        if (flag.equalsIgnoreCase("false")) {
+            return false;
+        }
+        throw new IllegalArgumentException("Expected true or false but was '" + flag + "'");
+    }
+
+    // Version of this snapshot, incremented on every reload
+    public long getVersion() {
+        return version;
+    }
+
+    // Returns the tool with the given code (case-insensitive), or null if there is none
+    public Tool getTool(String toolCode) {
+        return toolsByCode.get(toolCode);
+    }
+
+    // Tools of the given type (case-insensitive), in catalog order
+    public List<Tool> getToolsByType(String toolType) {
+        return toolType == null ? List.of() : toolsByType.getOrDefault(secondaryKey(toolType), List.of());
+    }
+
+    // Tools of the given brand (case-insensitive), in catalog order
+    public List<Tool> getToolsByBrand(String brand) {
+        return brand == null ? List.of() : toolsByBrand.getOrDefault(secondaryKey(brand), List.of());
+    }
+
+    // Tools of the given type and brand (case-insensitive, null for any), in catalog order
+    // With both, the shorter of the two index lists is filtered by the other value
+    public List<Tool> getTools(String toolType, String brand) {
+        if (toolType == null) {
+            return brand == null ? tools : getToolsByBrand(brand);
+        }
+        if (brand == null) {
+            return getToolsByType(toolType);
+        }
+        List<Tool> byType = getToolsByType(toolType);
+        List<Tool> byBrand = getToolsByBrand(brand);
+        boolean filterByBrand = byType.size() <= byBrand.size();
+        String key = secondaryKey(filterByBrand ? brand : toolType);
+        List<Tool> matches = new ArrayList<>();
+        for (Tool tool : filterByBrand ? byType : byBrand) {
+            if (secondaryKey(filterByBrand ? tool.getBrand() : tool.getToolType()).equals(key)) {
+                matches.add(tool);
+            }
+        }
+        return matches;
+    }
+
+    // Tools whose code starts with the prefix (case-insensitive), in code order
+    public List<Tool> getToolsWithCodePrefix(String prefix) {
+        if (prefix == null) {
+            return toolsSortedByCode;
+        }
+        String canonical = ToolIndex.canonicalize(prefix);
+        int from = lowerBound(canonical);
+        int to = lowerBound(canonical + Character.MAX_VALUE);
+        return toolsSortedByCode.subList(from, to);
+    }
+
+    // Tools in catalog order
+    public List<Tool> getTools() {
+        return tools;
+    }
+
+    // Tool codes in catalog order
+    public List<String> getToolCodes() {
+        return toolCodes;
+    }
+}
@@ -0,0 +1,180 @@
+package com.toolShop.catalog;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.toolShop.cache.Tool;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+// Catalog of the tools that can be rented
+// Tools are loaded from tools.csv on the classpath, or from toolshop.catalog.file when it is set.
+// The catalog is held as an immutable CatalogSnapshot in a volatile field: readers never lock,
+// and a reload builds a complete new snapshot before swapping it in. A reload that fails
+// keeps the current snapshot. The file is reloaded when it changes (toolshop.catalog.watch)
+// or through the admin reload endpoint
+@Component
+public class ToolCatalog {
+
+    private static final Logger LOGGER = Logger.getLogger(ToolCatalog.class.getName());
+
+    // Classpath resource holding the default catalog
+    static final String DEFAULT_CATALOG = "tools.csv";
+
+    // Time to wait for further changes after the file changes, so a file being written is read once
+    private static final long SETTLE_MILLIS = 200;
+
+    // Optional path of a catalog file that replaces the default catalog
+    @Value("${toolshop.catalog.file:}")
+    String catalogFile;
+
+    // Reload the catalog file automatically when it changes
+    @Value("${toolshop.catalog.watch:true}")
+    boolean watch = true;
+
+    private volatile CatalogSnapshot snapshot;
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    private WatchService watchService;
+    private Thread watcher;
+
+    public ToolCatalog() {
+        this.snapshot = CatalogSnapshot.parse(1, readDefaultCatalog());
+    }
+
+    public ToolCatalog(List<Tool> tools) {
+        this.snapshot = new CatalogSnapshot(1, tools);
+    }
+
+    // Loads the configured catalog file, if any, and starts watching it
+    @PostConstruct
+    public void start() throws IOException {
+        if (catalogFile == null || catalogFile.isBlank()) {
+            return;
+        }
+        reload();
+        if (watch) {
+            startWatcher(Path.of(catalogFile).toAbsolutePath());
+        }
+    }
+
+    // Stops the file watcher
+    @PreDestroy
+    public void stop() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+            watcher.interrupt();
+            watchService = null;
+        }
+    }
+
+    // Current snapshot; read it once when several lookups must agree with each other
+    public CatalogSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    // Returns the tool with the given code (case-insensitive) in the current snapshot, or null
+    public Tool getTool(String toolCode) {
+        return snapshot.getTool(toolCode);
+    }
+
+    // Tool codes of the current snapshot, in catalog order
+    public List<String> getToolCodes() {
+        return snapshot.getToolCodes();
+    }
+
+    // Re-reads the catalog (the configured file, or the default resource) and swaps in the new snapshot
+    // Throws IllegalArgumentException if the catalog is invalid; the current snapshot is kept in that case
+    // Reloads are serialized with a lock rather than a monitor because the file is read while holding it
+    public CatalogSnapshot reload() {
+        reloadLock.lock();
+        try {
+            List<String> lines;
+            if (catalogFile == null || catalogFile.isBlank()) {
+                lines = readDefaultCatalog();
+            } else {
+                try {
+                    lines = Files.readAllLines(Path.of(catalogFile), StandardCharsets.UTF_8);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException("Failed to read tool catalog " + catalogFile, ex);
+                }
+            }
+            CatalogSnapshot loaded = CatalogSnapshot.parse(snapshot.getVersion() + 1, lines);
+            snapshot = loaded;
+            LOGGER.info("Loaded tool catalog version " + loaded.getVersion() + " with " + loaded.getTools().size() + " tools");
+            return loaded;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    // Watches the catalog file's directory and reloads when the file is created or modified
+    private void startWatcher(Path file) throws IOException {
+        watchService = FileSystems.getDefault().newWatchService();
+        file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        WatchService service = watchService;
+        Path fileName = file.getFileName();
+
+        watcher = new Thread(() -> {
+            try {
+                while (true) {
+                    WatchKey key = service.take();
+                    boolean changed = false;
+                    // Collect events until the directory has been quiet for SETTLE_MILLIS
+                    while (key != null) {
+                        for (WatchEvent<?> event : key.pollEvents()) {
+                            changed |= fileName.equals(event.context());
+                        }
+                        key.reset();
+                        key = service.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS);
+                    }
+                    if (changed) {
+                        try {
+                            reload();
+                        } catch (RuntimeException ex) {
+                            LOGGER.log(Level.WARNING, "Keeping tool catalog version " + snapshot.getVersion()
+                                    + ", reload of " + file + " failed", ex);
+                        }
+                    }
+                }
+            } catch (InterruptedException | ClosedWatchServiceException ex) {
+                // Stopped
+            }
+        }, "tool-catalog-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    private static List<String> readDefaultCatalog() {
+        InputStream in = ToolCatalog.class.getClassLoader().getResourceAsStream(DEFAULT_CATALOG);
+        if (in == null) {
+            throw new IllegalStateException("Tool catalog resource '" + DEFAULT_CATALOG + "' not found");
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            return reader.lines().toList();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.toolShop.catalog;
+
+import java.util.List;
+
+import com.toolShop.cache.Tool;
+
+// Case-insensitive tool code -> tool hash index
+// Open addressing with linear probing over parallel arrays, kept at most half full.
+// Lookups hash and compare the request's code while folding case on the fly, so resolving
+// "ladw" or "LADW" is one probe sequence with no String allocation, whatever the catalog size
+final class ToolIndex {
+
+    private final String[] codes;
+    private final Tool[] tools;
+    private final int mask;
+
+    // Builds the index. Throws IllegalArgumentException on duplicate codes (after case folding)
+    ToolIndex(List<Tool> entries) {
+        int capacity = 2;
+        while (capacity < entries.size() * 2) {
+            capacity <<= 1;
+        }
+        codes = new String[capacity];
+        tools = new Tool[capacity];
+        mask = capacity - 1;
+
+        for (Tool tool : entries) {
+            String code = canonicalize(tool.getToolCode());
+            int slot = hash(code) & mask;
+            while (codes[slot] != null) {
+                if (codes[slot].equals(code)) {
+                    throw new IllegalArgumentException("Duplicate tool code '" + tool.getToolCode() + "' in catalog");
+                }
+                slot = (slot + 1) & mask;
+            }
+            codes[slot] = code;
+            tools[slot] = tool;
+        }
+    }
+
+    // Returns the tool for the code (case-insensitive), or null
+    Tool get(CharSequence code) {
+        if (code == null) {
+            return null;
+        }
+        for (int slot = hash(code) & mask; ; slot = (slot + 1) & mask) {
+            String candidate = codes[slot];
+            if (candidate == null) {
+                return null;
+            }
+            if (matches(candidate, code)) {
+                return tools[slot];
+            }
+        }
+    }
+
+    // Canonical form of a tool code: surrounding whitespace removed and letters upper case
+    static String canonicalize(String code) {
+        String stripped = code.strip();
+        char[] chars = new char[stripped.length()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = fold(stripped.charAt(i));
+        }
+        return new String(chars);
+    }
+
+    private static boolean matches(String canonical, CharSequence code) {
+        int length = canonical.length();
+        if (code.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (canonical.charAt(i) != fold(code.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hash(CharSequence code) {
+        int hash = 0;
+        for (int i = 0; i < code.length(); i++) {
+            hash = 31 * hash + fold(code.charAt(i));
+        }
+        // Spread the high bits into the low ones used for the slot
+        return hash ^ (hash >>> 16);
+    }
+
+    private static char fold(char c) {
+        if (c < 128) {
+            return c >= 'a' && c <= 'z' ? (char) (c - ('a' - 'A')) : c;
+        }
+        return Character.toUpperCase(c);
+    }
+}
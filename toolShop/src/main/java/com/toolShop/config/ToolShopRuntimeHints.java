@@ -0,0 +1,57 @@
+package com.toolShop.config;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+import com.toolShop.cache.BatchQuoteResponse;
+import com.toolShop.cache.BulkPricingSummary;
+import com.toolShop.cache.CatalogPage;
+import com.toolShop.cache.CatalogTool;
+import com.toolShop.cache.PriceGrid;
+import com.toolShop.cache.QuoteResult;
+import com.toolShop.cache.RentalLine;
+import com.toolShop.cache.RepricingStatus;
+import com.toolShop.cache.RepricingToolSummary;
+import com.toolShop.cache.RevenueStats;
+import com.toolShop.cache.Tool;
+import com.toolShop.cache.ToolPriceGrid;
+import com.toolShop.controller.ErrorHandler;
+import com.toolShop.json.RentalAgreementDeserializer;
+import com.toolShop.json.RentalAgreementSerializer;
+
+// Reflection and resource hints for the ahead-of-time (native image) build
+// Spring's AOT processing already covers the beans and the request and response types of controller
+// methods. These are the parts it can't see: resources read with getResourceAsStream, model classes
+// that Jackson only reaches inside maps or through JsonMapper calls, the codecs named in annotations
+// and the exception handlers. Bean Validation doesn't run on requests (RentalRequestValidator checks
+// the constraints without reflection), so the constraint annotations need no hints
+public class ToolShopRuntimeHints implements RuntimeHintsRegistrar {
+
+    // Classpath resources read at startup by ToolCatalog, HolidayCalendar and PricingRules
+    static final String[] RESOURCES = {"tools.csv", "holidays.rules", "pricing.rules"};
+
+    // Classes written or read as JSON with Jackson's bean mapping
+    static final Class<?>[] JSON_TYPES = {
+        BatchQuoteResponse.class, BulkPricingSummary.class, CatalogPage.class, CatalogTool.class, PriceGrid.class,
+        QuoteResult.class, RentalLine.class, RepricingStatus.class, RepricingToolSummary.class, RevenueStats.class,
+        Tool.class, ToolPriceGrid.class,
+    };
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (String resource : RESOURCES) {
+            hints.resources().registerPattern(resource);
+        }
+
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), JSON_TYPES);
+
+        // RentalAgreement's JSON goes through its own codecs, which Jackson creates from @JsonSerialize/@JsonDeserialize
+        hints.reflection().registerType(RentalAgreementSerializer.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+        hints.reflection().registerType(RentalAgreementDeserializer.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+
+        // Exception handler methods are resolved by their exception parameter types
+        hints.reflection().registerType(ErrorHandler.class, MemberCategory.INVOKE_DECLARED_METHODS);
+    }
+}
@@ -0,0 +1,28 @@
+package com.toolShop.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.toolShop.admission.AdmissionInterceptor;
+import com.toolShop.metrics.RentalMetricsInterceptor;
+
+// Spring MVC configuration for the tool API
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Autowired
+    AdmissionInterceptor admissionInterceptor;
+
+    @Autowired
+    RentalMetricsInterceptor rentalMetricsInterceptor;
+
+    // Registers request interceptors for the API endpoints
+    // Admission control comes first so rejected requests cost as little as possible and aren't timed
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(admissionInterceptor).addPathPatterns("/api/tools", "/api/tools/**", "/api/admin/**");
+        registry.addInterceptor(rentalMetricsInterceptor).addPathPatterns("/api/**");
+    }
+}
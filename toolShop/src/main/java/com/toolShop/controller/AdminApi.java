@@ -0,0 +1,122 @@
+package com.toolShop.controller;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.toolShop.cache.RepricingStatus;
+import com.toolShop.cache.Tool;
+import com.toolShop.catalog.CatalogSnapshot;
+import com.toolShop.catalog.ToolCatalog;
+import com.toolShop.pricing.PricingRule;
+import com.toolShop.pricing.PricingRules;
+import com.toolShop.services.RepricingService;
+import com.toolShop.stats.RentalStats;
+
+// Operator endpoints: live stats, catalog and pricing rule reloads, and re-pricing
+// The endpoints that change state (reloads, starting and stopping re-pricing) aren't authenticated, so they
+// are off unless toolshop.admin.enabled is set and answer 404 as if they didn't exist. Enable them only where
+// /api/admin can be reached by operators alone. All admin requests go through admission control (ADMIN group)
+@RestController
+@RequestMapping("/api/admin")
+public class AdminApi {
+
+    @Value("${toolshop.admin.enabled:false}")
+    boolean enabled;
+
+    @Autowired
+    ToolCatalog toolCatalog;
+
+    @Autowired
+    RentalStats rentalStats;
+
+    @Autowired
+    RepricingService repricingService;
+
+    @Autowired
+    PricingRules pricingRules;
+
+    // POST endpoint that reloads the tool catalog file
+    // Returns the new catalog version and tool codes; an invalid file is rejected and the current catalog kept
+    @PostMapping("/catalog/reload")
+    public Map<String, Object> reloadCatalog(){
+        requireEnabled();
+        CatalogSnapshot snapshot = toolCatalog.reload();
+        return Map.of("version", snapshot.getVersion(), "tools", snapshot.getToolCodes());
+    }
+
+    // POST endpoint that reloads the pricing rules file (or the classpath defaults)
+    // Returns the new rules version and rule names; an invalid file is rejected and the current rules kept
+    @PostMapping("/pricing-rules/reload")
+    public Map<String, Object> reloadPricingRules() throws IOException {
+        requireEnabled();
+        List<PricingRule> rules = pricingRules.reload();
+        return Map.of("version", pricingRules.getVersion(), "rules", rules.stream().map(PricingRule::getName).toList());
+    }
+
+    // GET endpoint with live rental and revenue totals per tool code
+    // Each tool (and "all" tools together) has all-time totals and the last minute, hour and day;
+    // with toolCode only that tool is returned. Throws NoSuchElementException for an unknown tool code
+    @GetMapping("/stats")
+    public Map<String, Object> stats(@RequestParam(required = false) String toolCode){
+        Map<String, Object> result = new LinkedHashMap<>();
+        if (toolCode != null) {
+            Tool tool = toolCatalog.getTool(toolCode);
+            if (tool == null && !RentalStats.OTHER.equals(toolCode)) {
+                throw new NoSuchElementException("The tool code '" + toolCode + "' doesn't exist");
+            }
+            String code = tool != null ? tool.getToolCode() : toolCode;
+            result.put("tools", Map.of(code, rentalStats.forTool(code)));
+            return result;
+        }
+        result.put("all", rentalStats.all());
+        result.put("tools", rentalStats.byTool());
+        return result;
+    }
+
+    // POST endpoint that starts re-pricing every stored agreement with the current prices
+    // Resumes an interrupted run unless restart is true. Returns 202 with the run's status, or 409 with
+    // the status of the run in progress; a checkpoint taken under other prices is rejected with 400
+    @PostMapping("/repricing")
+    public ResponseEntity<RepricingStatus> startRepricing(@RequestParam(defaultValue = "false") boolean restart) throws IOException {
+        requireEnabled();
+        RepricingStatus status = repricingService.start(restart);
+        if (status == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(repricingService.getStatus());
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(status);
+    }
+
+    // GET endpoint with the progress, throughput and per-tool totals of the current or last re-pricing run
+    @GetMapping("/repricing")
+    public RepricingStatus repricingStatus(){
+        return repricingService.getStatus();
+    }
+
+    // DELETE endpoint that stops the re-pricing run after its current chunk; POST resumes it later
+    @DeleteMapping("/repricing")
+    public RepricingStatus cancelRepricing(){
+        requireEnabled();
+        return repricingService.cancel();
+    }
+
+    // Throws NoSuchElementException (404) unless the endpoints that change state are enabled
+    private void requireEnabled() {
+        if (!enabled) {
+            throw new NoSuchElementException("Admin operations are disabled");
+        }
+    }
+}
@@ -1,44 +1,131 @@
 package com.toolShop.controller;
 
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.LongAdder;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+import com.toolShop.errors.ErrorCode;
+import com.toolShop.errors.RejectedRequestException;
+import com.toolShop.idempotency.IdempotencyKeyReusedException;
+import com.toolShop.idempotency.IdempotencyStoreFullException;
+import com.toolShop.inventory.ToolUnavailableException;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PostConstruct;
+
+// Maps exceptions to error responses of the form {"error": message}
+// Every error response is counted by ErrorCode and published as toolshop.errors{code=...}
+// Request bodies aren't checked with @Valid, so field constraint violations arrive as RejectedRequestExceptions
+// from RentalRequestValidator rather than as MethodArgumentNotValidException
 @ControllerAdvice
 public class ErrorHandler {
 
+    private static final ErrorCode[] CODES = ErrorCode.values();
+
+    @Autowired(required = false)
+    MeterRegistry meterRegistry;
+
+    private final LongAdder[] errors = new LongAdder[CODES.length];
+
+    public ErrorHandler() {
+        for (ErrorCode code : CODES) {
+            errors[code.ordinal()] = new LongAdder();
+        }
+    }
+
+    // Registers one counter per error code
+    @PostConstruct
+    void registerMetrics() {
+        if (meterRegistry == null) {
+            return;
+        }
+        for (ErrorCode code : CODES) {
+            FunctionCounter.builder("toolshop.errors", errors[code.ordinal()], LongAdder::sum)
+                    .description("Error responses by error code")
+                    .tag("code", code.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    // Number of error responses sent with the code so far
+    public long getErrorCount(ErrorCode code) {
+        return errors[code.ordinal()].sum();
+    }
+
+    // Handles rejected requests (bad input found by validation)
+    // The exception is stackless and carries its response body, so nothing is built here
+    @ExceptionHandler(RejectedRequestException.class)
+    public ResponseEntity<Map<String,String>> handleRejected(RejectedRequestException ex) {
+        errors[ex.getCode().ordinal()].increment();
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(ex.getBody());
+    }
+
     // Handles IllegalArgumentException errors (when validation fails)
     // Returns a BAD_REQUEST response with the error message
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<Map<String,String>> handleBadArg(IllegalArgumentException ex) {
+        errors[ErrorCode.BAD_ARGUMENT.ordinal()].increment();
         return ResponseEntity
                 .status(HttpStatus.BAD_REQUEST)
                 .body(Map.of("error", ex.getMessage()));
     }
 
-    // Handles validation errors when input data doesn't meet requirements
-    // Formats all field validation errors into a readable message
-    // Returns a BAD_REQUEST response with all error details
-    @ExceptionHandler(MethodArgumentNotValidException.class)
-    public ResponseEntity<Map<String,String>> handleValidation(MethodArgumentNotValidException ex) {
-        // Combine all field validation errors into a single string
-        String msg = ex.getBindingResult().getFieldErrors().stream()
-                .map(fe -> fe.getField() + ": " + fe.getDefaultMessage())
-                .collect(Collectors.joining("; "));
+    // Handles NoSuchElementException errors (when a requested resource doesn't exist)
+    // Returns a NOT_FOUND response with the error message
+    @ExceptionHandler(NoSuchElementException.class)
+    public ResponseEntity<Map<String,String>> handleNotFound(NoSuchElementException ex) {
+        errors[ErrorCode.NOT_FOUND.ordinal()].increment();
         return ResponseEntity
-                .status(HttpStatus.BAD_REQUEST)
-                .body(Map.of("error", msg));
+                .status(HttpStatus.NOT_FOUND)
+                .body(Map.of("error", ex.getMessage()));
+    }
+
+    // Handles ToolUnavailableException errors (when every unit of a tool is already rented for the requested dates)
+    // Returns a CONFLICT response with the error message
+    @ExceptionHandler(ToolUnavailableException.class)
+    public ResponseEntity<Map<String,String>> handleUnavailable(ToolUnavailableException ex) {
+        errors[ErrorCode.UNAVAILABLE.ordinal()].increment();
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(Map.of("error", ex.getMessage()));
+    }
+
+    // Handles IdempotencyKeyReusedException errors (when an idempotency key is sent with a different request)
+    // Returns an UNPROCESSABLE_CONTENT (422) response with the error message
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<Map<String,String>> handleKeyReused(IdempotencyKeyReusedException ex) {
+        errors[ErrorCode.IDEMPOTENCY_KEY_REUSED.ordinal()].increment();
+        return ResponseEntity
+                .status(HttpStatus.UNPROCESSABLE_CONTENT)
+                .body(Map.of("error", ex.getMessage()));
+    }
+
+    // Handles IdempotencyStoreFullException errors (when a new idempotency key doesn't fit)
+    // Returns a SERVICE_UNAVAILABLE response with the error message and Retry-After
+    @ExceptionHandler(IdempotencyStoreFullException.class)
+    public ResponseEntity<Map<String,String>> handleStoreFull(IdempotencyStoreFullException ex) {
+        errors[ErrorCode.IDEMPOTENCY_STORE_FULL.ordinal()].increment();
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "1")
+                .body(Map.of("error", ex.getMessage()));
     }
 
     // Handles all other unexpected exceptions
     // Returns an INTERNAL_SERVER_ERROR response with a generic error message
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String,String>> handleOther(Exception ex) {
+        errors[ErrorCode.INTERNAL.ordinal()].increment();
         return ResponseEntity
                 .status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(Map.of("error", "Internal server error"));
@@ -1,19 +1,39 @@
 package com.toolShop.controller;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
 import java.util.List;
 
-import jakarta.validation.Valid;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.toolShop.admission.ClientIdentity;
+import com.toolShop.cache.BatchQuoteResponse;
+import com.toolShop.cache.BulkPricingSummary;
+import com.toolShop.cache.PriceGrid;
 import com.toolShop.cache.RentalAgreement;
+import com.toolShop.cache.RentalLine;
+import com.toolShop.idempotency.IdempotencyStore;
+import com.toolShop.services.BatchQuoteService;
+import com.toolShop.services.BulkPricingService;
+import com.toolShop.services.CatalogService;
+import com.toolShop.services.PriceGridService;
 import com.toolShop.services.ToolService;
 
 @RestController
@@ -23,6 +43,24 @@ public class ToolApi {
     @Autowired
     ToolService toolService;
 
+    @Autowired
+    BatchQuoteService batchQuoteService;
+
+    @Autowired
+    BulkPricingService bulkPricingService;
+
+    @Autowired
+    PriceGridService priceGridService;
+
+    @Autowired
+    IdempotencyStore idempotencyStore;
+
+    @Autowired
+    ClientIdentity clientIdentity;
+
+    @Autowired
+    CatalogService catalogService;
+
     // GET endpoint that returns a list of all available tool codes
     @GetMapping
     public List<String> listTools(){
@@ -31,9 +69,96 @@ public class ToolApi {
     // POST endpoint to rent a tool
     // Takes a rental request body and tool code as path parameter
     // Returns the completed rental agreement with calculated prices and dates
+    // The body is validated in one pass by ToolService.validateTool rather than by Bean Validation
+    // With an Idempotency-Key header the rental runs once per client and key: a retry gets the original
+    // agreement with an Idempotent-Replayed: true header instead of renting again
     @PostMapping("/rental/{toolCode}")
-    public ResponseEntity<?> rentTool(@Valid @RequestBody RentalAgreement rentalRequest, @PathVariable String toolCode){
+    public ResponseEntity<?> rentTool(@RequestBody RentalAgreement rentalRequest, @PathVariable String toolCode,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey, HttpServletRequest request){
+        if (idempotencyKey == null) {
+            return rentTool(rentalRequest, toolCode);
+        }
+        IdempotencyStore.Outcome outcome = idempotencyStore.execute(clientIdentity.clientKey(request), idempotencyKey,
+                IdempotencyStore.fingerprint(toolCode, rentalRequest), () -> toolService.rentTool(rentalRequest, toolCode));
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header("Idempotent-Replayed", Boolean.toString(outcome.replayed()))
+                .body(outcome.rentalAgreement());
+    }
+
+    // Rents a tool without an idempotency key
+    public ResponseEntity<?> rentTool(RentalAgreement rentalRequest, String toolCode){
         RentalAgreement ra = toolService.rentTool(rentalRequest, toolCode);
         return new ResponseEntity<>(ra, HttpStatus.CREATED);
     }
+
+    // GET endpoint that returns a stored rental agreement by its id
+    @GetMapping("/rental/{agreementId:\\d+}")
+    public RentalAgreement getRentalAgreement(@PathVariable long agreementId){
+        return toolService.getRentalAgreement(agreementId);
+    }
+
+    // POST endpoint to price many rentals in one call
+    // Takes a list of rental lines (tool code, checkout date, rental days, discount)
+    // Returns one result per line; invalid lines carry an error instead of failing the batch
+    @PostMapping("/rental/batch")
+    public ResponseEntity<BatchQuoteResponse> quoteBatch(@RequestBody List<RentalLine> lines){
+        return ResponseEntity.ok(batchQuoteService.quote(lines));
+    }
+
+    // POST endpoint to stream very large pricing runs
+    // Reads newline-delimited JSON rental lines and streams one NDJSON result per line back,
+    // followed by a final {"summary": {...}} line with counts and throughput
+    @PostMapping(value = "/rental/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public void bulkPrice(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        OutputStream out = response.getOutputStream();
+        BulkPricingSummary summary = bulkPricingService.price(request.getInputStream(), out);
+        bulkPricingService.writeSummary(summary, out);
+    }
+
+    // GET endpoint that prices every checkout date in a range for every rental length up to maxDays
+    // Takes optional tool codes (default: every tool), start date (default: today), number of checkout
+    // dates, longest rental length and discount. Returns 304 when If-None-Match holds the grid's ETag
+    @GetMapping("/price-grid")
+    public ResponseEntity<PriceGrid> priceGrid(
+            @RequestParam(value = "toolCode", required = false) List<String> toolCodes,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "MM/dd/yy") LocalDate from,
+            @RequestParam(defaultValue = "90") int startDays,
+            @RequestParam(defaultValue = "7") int maxDays,
+            @RequestParam(defaultValue = "0") float discount,
+            WebRequest request){
+        PriceGridService.Plan plan = priceGridService.plan(toolCodes, from, startDays, maxDays, discount);
+        if (request.checkNotModified(plan.getETag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(plan.getETag()).build();
+        }
+        return ResponseEntity.ok().eTag(plan.getETag()).body(plan.build());
+    }
+
+    // GET endpoint that returns a page of the tool catalog with each tool's type, brand, daily charge and charged days
+    // Takes optional type and brand filters (any case), a 0-based page number and a page size. The JSON is
+    // built once per catalog version and sent gzip-compressed to clients that accept it. Returns 304 when
+    // If-None-Match holds the page's ETag
+    @GetMapping("/catalog")
+    public ResponseEntity<byte[]> catalog(
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String brand,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest request){
+        CatalogService.Page catalogPage = catalogService.page(type, brand, page, size);
+        boolean gzip = catalogPage.getGzip() != null && CatalogService.acceptsGzip(acceptEncoding);
+        String eTag = catalogPage.getETag(gzip);
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).varyBy(HttpHeaders.ACCEPT_ENCODING).build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(eTag)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(catalogPage.getGzip());
+        }
+        return response.body(catalogPage.getJson());
+    }
 }
@@ -0,0 +1,15 @@
+package com.toolShop.errors;
+
+// Why a request failed, used as the `code` tag of the toolshop.errors counter
+public enum ErrorCode {
+    INVALID_REQUEST,        // Field constraints of the request body (400)
+    UNKNOWN_TOOL,           // Tool code not in the catalog (400)
+    MISSING_REQUEST,        // No request body (400)
+    PAST_CHECKOUT_DATE,     // Checkout date before today (400)
+    BAD_ARGUMENT,           // Any other IllegalArgumentException (400)
+    NOT_FOUND,              // Requested resource doesn't exist (404)
+    UNAVAILABLE,            // Every unit of the tool is rented (409)
+    IDEMPOTENCY_KEY_REUSED, // Idempotency key sent with a different request (422)
+    IDEMPOTENCY_STORE_FULL, // No room for a new idempotency key (503)
+    INTERNAL                // Unexpected exception (500)
+}
@@ -0,0 +1,34 @@
+package com.toolShop.errors;
+
+import java.util.Map;
+
+// Thrown when a request is rejected for bad input
+// Stackless: no stack trace is captured, so throwing costs about as much as a return, and the
+// {"error": message} response body is built once up front. Rejections with a fixed message are
+// created once and rethrown, so they must never be given a cause or suppressed exceptions.
+// Extends IllegalArgumentException so existing callers that catch it keep working
+public class RejectedRequestException extends IllegalArgumentException {
+
+    private final ErrorCode code;
+    private final Map<String, String> body;
+
+    public RejectedRequestException(ErrorCode code, String message) {
+        super(message);
+        this.code = code;
+        this.body = Map.of("error", message);
+    }
+
+    public ErrorCode getCode() {
+        return code;
+    }
+
+    // Response body for ErrorHandler
+    public Map<String, String> getBody() {
+        return body;
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
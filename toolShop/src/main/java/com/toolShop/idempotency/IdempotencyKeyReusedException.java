@@ -0,0 +1,9 @@
+package com.toolShop.idempotency;
+
+// Thrown when an idempotency key is sent again with a different request
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    public IdempotencyKeyReusedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,271 @@
+package com.toolShop.idempotency;
+
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.toolShop.cache.RentalAgreement;
+import com.toolShop.money.Money;
+import com.toolShop.util.Fnv1a;
+import com.toolShop.util.Ticker;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+// Results of rental requests sent with an Idempotency-Key header, so retries don't rent twice
+// The first request with a key runs; requests with the same key that arrive while it runs wait for it
+// and get its result, and later ones get the stored result without running. Only successful rentals are
+// kept: a failed request releases its key so a retry runs again. Each key is tied to a fingerprint
+// of the request, and reusing a key for a different request is rejected. Keys are scoped by client,
+// so two clients that send the same key neither get each other's rentals nor learn that the key exists.
+// ClientIdentity sets the client; it includes the user name, the client header or the remote address.
+// At most max-keys results are held; stored results expire ttl-seconds after they complete, found by
+// a timing wheel that only visits the keys due in each tick instead of scanning the whole store
+@Component
+public class IdempotencyStore {
+
+    // Slots in the expiry wheel; keys further out than one turn are revisited once per turn
+    static final int WHEEL_SLOTS = 4096;
+
+    // Fingerprint value of a missing request field; outside the range of every field
+    private static final long ABSENT = Long.MIN_VALUE;
+
+    @Autowired(required = false)
+    MeterRegistry meterRegistry;
+
+    @Value("${toolshop.idempotency.enabled:true}")
+    boolean enabled = true;
+
+    // Most keys held at once, in flight or completed
+    @Value("${toolshop.idempotency.max-keys:1000000}")
+    int maxKeys = 1_000_000;
+
+    // How long a completed result is kept
+    @Value("${toolshop.idempotency.ttl-seconds:86400}")
+    long ttlSeconds = 86400;
+
+    // Expiry granularity
+    @Value("${toolshop.idempotency.tick-millis:1000}")
+    long tickMillis = 1000;
+
+    private final LongSupplier clock;
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder replayed = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private TimingWheel<Entry> wheel;
+    private ScheduledFuture<?> ticker;
+
+    public IdempotencyStore() {
+        this(System::currentTimeMillis);
+    }
+
+    // Store on a custom millisecond clock; tests call expire() instead of starting the ticker
+    public IdempotencyStore(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    // Result of a request with an idempotency key
+    public record Outcome(RentalAgreement rentalAgreement, boolean replayed) {
+    }
+
+    // Builds the expiry wheel, starts its ticker and registers the metrics
+    @PostConstruct
+    public void start() {
+        init();
+        if (!enabled) {
+            return;
+        }
+        ticker = Ticker.schedule(this::expire, tickMillis);
+
+        if (meterRegistry == null) {
+            return;
+        }
+        Gauge.builder("toolshop.idempotency.keys", size, AtomicInteger::get)
+                .description("Idempotency keys held, in flight or completed")
+                .register(meterRegistry);
+        registerCounter("executed", executed);
+        registerCounter("replayed", replayed);
+        registerCounter("coalesced", coalesced);
+        registerCounter("expired", expired);
+    }
+
+    // Builds the expiry wheel without starting the ticker
+    void init() {
+        if (maxKeys < 1 || ttlSeconds < 1 || tickMillis < 1) {
+            throw new IllegalArgumentException("toolshop.idempotency max-keys, ttl-seconds and tick-millis must be greater than 0");
+        }
+        wheel = new TimingWheel<>(WHEEL_SLOTS, tickMillis, clock.getAsLong(), entry -> entry.expiresAt);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (ticker != null) {
+            ticker.cancel(false);
+        }
+    }
+
+    private void registerCounter(String result, LongAdder counter) {
+        FunctionCounter.builder("toolshop.idempotency.requests", counter, LongAdder::sum)
+                .description("Requests with an idempotency key by how they were answered")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    // Runs the rental once per client and key and returns its result
+    // The client is the caller's identity (ClientIdentity.clientKey) and the key the Idempotency-Key header.
+    // Throws IdempotencyKeyReusedException if the key was used for a different request, and
+    // IdempotencyStoreFullException if a new key doesn't fit. Exceptions from the rental are rethrown
+    // to the request that ran it and to the duplicates that waited for it
+    public Outcome execute(String client, String key, long fingerprint, Supplier<RentalAgreement> rental) {
+        if (!enabled) {
+            return new Outcome(rental.get(), false);
+        }
+        if (key.isBlank() || key.length() > 255) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1 to 255 characters");
+        }
+
+        Key scopedKey = new Key(client, key);
+        Entry entry = new Entry(scopedKey, fingerprint);
+        Entry existing = reserve(scopedKey, entry);
+        if (existing != null) {
+            if (existing.fingerprint != fingerprint) {
+                throw new IdempotencyKeyReusedException("Idempotency-Key '" + key + "' was already used for a different request");
+            }
+            return await(existing);
+        }
+
+        RentalAgreement rentalAgreement;
+        try {
+            rentalAgreement = rental.get();
+        } catch (RuntimeException | Error ex) {
+            // Nothing was stored, so a retry may run again
+            remove(scopedKey, entry);
+            entry.result.completeExceptionally(ex);
+            throw ex;
+        }
+        executed.increment();
+        entry.expiresAt = clock.getAsLong() + TimeUnit.SECONDS.toMillis(ttlSeconds);
+        entry.result.complete(rentalAgreement);
+        wheel.schedule(entry);
+        return new Outcome(rentalAgreement, false);
+    }
+
+    // Adds the entry for a new key, or returns the entry already held for it
+    private Entry reserve(Key key, Entry entry) {
+        Entry existing = entries.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        if (size.incrementAndGet() > maxKeys) {
+            size.decrementAndGet();
+            existing = entries.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            throw new IdempotencyStoreFullException("Too many idempotency keys in use, retry later");
+        }
+        existing = entries.putIfAbsent(key, entry);
+        if (existing != null) {
+            size.decrementAndGet();
+        }
+        return existing;
+    }
+
+    private Outcome await(Entry existing) {
+        boolean done = existing.result.isDone();
+        RentalAgreement rentalAgreement;
+        try {
+            rentalAgreement = existing.result.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a duplicate request", ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new CompletionException(cause);
+        }
+        (done ? replayed : coalesced).increment();
+        return new Outcome(rentalAgreement, true);
+    }
+
+    private void remove(Key key, Entry entry) {
+        if (entries.remove(key, entry)) {
+            size.decrementAndGet();
+        }
+    }
+
+    // Removes the results that have expired; run every tick on the shared ticker
+    void expire() {
+        int count = wheel.advance(clock.getAsLong(), entry -> remove(entry.key, entry));
+        expired.add(count);
+    }
+
+    // Number of keys held, in flight or completed
+    public int size() {
+        return size.get();
+    }
+
+    // Fingerprint of a rental request: the same tool code and request fields give the same value
+    // The code is mixed as its text, after its length, and the fields as their values (days, epoch day,
+    // discount basis points), so requests that differ don't meet through equal hash codes. A missing
+    // field mixes ABSENT, which no field value can take
+    public static long fingerprint(String toolCode, RentalAgreement rentalRequest) {
+        long hash = Fnv1a.OFFSET_BASIS;
+        if (toolCode == null) {
+            hash = Fnv1a.mix(hash, ABSENT);
+        } else {
+            hash = Fnv1a.mix(hash, toolCode.length());
+            hash = Fnv1a.mix(hash, toolCode.toUpperCase(Locale.ROOT));
+        }
+        Integer days = rentalRequest == null ? null : rentalRequest.getTotalRentalDays();
+        LocalDate checkoutDate = rentalRequest == null ? null : rentalRequest.getCheckoutDate();
+        Float discount = rentalRequest == null ? null : rentalRequest.getDiscount();
+        hash = Fnv1a.mix(hash, days == null ? ABSENT : days);
+        hash = Fnv1a.mix(hash, checkoutDate == null ? ABSENT : checkoutDate.toEpochDay());
+        return Fnv1a.mix(hash, discount == null ? ABSENT : Money.basisPoints(discount));
+    }
+
+    // An idempotency key within one client's requests
+    private record Key(String client, String key) {
+    }
+
+    // One key's request: its fingerprint and its result once it completes
+    private static final class Entry {
+        final Key key;
+        final long fingerprint;
+        final CompletableFuture<RentalAgreement> result = new CompletableFuture<>();
+        // Set before the entry is scheduled for expiry
+        long expiresAt;
+
+        Entry(Key key, long fingerprint) {
+            this.key = key;
+            this.fingerprint = fingerprint;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.toolShop.idempotency;
+
+// Thrown when a new idempotency key doesn't fit in the store
+public class IdempotencyStoreFullException extends RuntimeException {
+
+    public IdempotencyStoreFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,80 @@
+package com.toolShop.idempotency;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+// Hashed timing wheel for expiring items without scanning them all
+// Time is cut into ticks of tickMillis; an item goes into the slot of the tick its deadline falls in,
+// so advancing the clock only visits the slots of the ticks that have fully passed (items expire up
+// to one tick late, never early). Deadlines more than one
+// turn of the wheel away stay in their slot and are put back when it is visited before they are due.
+// Any thread may schedule (each slot is a lock-free queue); advance is called by a single thread
+public final class TimingWheel<T> {
+
+    private final long tickMillis;
+    private final Queue<T>[] slots;
+    private final ToLongFunction<T> deadline;
+
+    // Last tick whose slot was visited, all of it in the past
+    private volatile long currentTick;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(int slotCount, long tickMillis, long nowMillis, ToLongFunction<T> deadline) {
+        if (slotCount < 1 || tickMillis < 1) {
+            throw new IllegalArgumentException("Timing wheel needs at least one slot and a tick of at least 1 ms");
+        }
+        this.tickMillis = tickMillis;
+        this.deadline = deadline;
+        this.slots = new Queue[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.currentTick = nowMillis / tickMillis - 1;
+    }
+
+    // Adds an item; it is handed to the expiry callback once advance reaches its deadline
+    // Deadlines in ticks already visited go into the next tick's slot
+    public void schedule(T item) {
+        long tick = Math.max(deadline.applyAsLong(item) / tickMillis, currentTick + 1);
+        slots[slot(tick)].add(item);
+    }
+
+    // Moves the wheel to nowMillis and passes every item whose deadline tick has ended to expired
+    // Returns the number of expired items
+    public int advance(long nowMillis, Consumer<T> expired) {
+        // The tick nowMillis falls in hasn't ended yet
+        long nowTick = nowMillis / tickMillis - 1;
+        // No need to visit a slot more than once per call
+        long fromTick = Math.max(currentTick + 1, nowTick - slots.length + 1);
+        int count = 0;
+        for (long tick = fromTick; tick <= nowTick; tick++) {
+            Queue<T> slot = slots[slot(tick)];
+            List<T> notDue = null;
+            for (T item; (item = slot.poll()) != null;) {
+                if (deadline.applyAsLong(item) <= nowMillis) {
+                    expired.accept(item);
+                    count++;
+                } else {
+                    if (notDue == null) {
+                        notDue = new ArrayList<>();
+                    }
+                    notDue.add(item);
+                }
+            }
+            // Deadlines in a later turn of the wheel go back into the same slot
+            if (notDue != null) {
+                slot.addAll(notDue);
+            }
+        }
+        currentTick = Math.max(currentTick, nowTick);
+        return count;
+    }
+
+    private int slot(long tick) {
+        return (int) Math.floorMod(tick, (long) slots.length);
+    }
+}
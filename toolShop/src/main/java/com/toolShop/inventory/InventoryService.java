@@ -0,0 +1,136 @@
+package com.toolShop.inventory;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.toolShop.cache.RentalAgreement;
+import com.toolShop.ledger.RentalLedger;
+
+import jakarta.annotation.PostConstruct;
+
+// Tracks the physical units of every tool and which dates each unit is rented for
+// A rental books one unit from the checkout date through the due date (inclusive);
+// when every unit is booked for part of that window the rental is rejected.
+// Bookings are kept in memory and rebuilt from the rental ledger on startup
+@Service
+public class InventoryService {
+
+    private static final Logger LOGGER = Logger.getLogger(InventoryService.class.getName());
+
+    @Value("${toolshop.inventory.enabled:true}")
+    boolean enabled = true;
+
+    // Units per tool code, e.g. CHNS:4,LADW:6
+    @Value("${toolshop.inventory.units:}")
+    String units = "";
+
+    // Units for tool codes not listed in toolshop.inventory.units
+    @Value("${toolshop.inventory.default-units:5}")
+    int defaultUnits = 5;
+
+    @Autowired(required = false)
+    RentalLedger rentalLedger;
+
+    private Map<String, Integer> unitCounts = Map.of();
+
+    // Inventory per tool code, created the first time the code is booked so tools added
+    // to the catalog at runtime get units too
+    private final Map<String, ToolInventory> inventories = new ConcurrentHashMap<>();
+
+    // Reads the unit counts and restores current bookings from the ledger
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        unitCounts = parseUnits(units);
+
+        if (rentalLedger != null && rentalLedger.isOpen()) {
+            long today = LocalDate.now().toEpochDay();
+            int[] restored = new int[2];
+            rentalLedger.forEach(rentalAgreement -> {
+                if (rentalAgreement.getUnit() == null || rentalAgreement.getDueDate().toEpochDay() < today) {
+                    return;
+                }
+                boolean booked = inventory(rentalAgreement.getToolCode()).reserve(rentalAgreement.getUnit(),
+                        rentalAgreement.getCheckoutDate().toEpochDay(), rentalAgreement.getDueDate().toEpochDay(), today);
+                restored[booked ? 0 : 1]++;
+            });
+            LOGGER.info("Restored " + restored[0] + " current bookings from the rental ledger"
+                    + (restored[1] > 0 ? ", skipped " + restored[1] + " that no longer fit the configured units" : ""));
+        }
+    }
+
+    // Books a free unit of the tool for the rental period and returns its unit number (1-based)
+    // Returns 0 when the inventory is disabled
+    // Throws ToolUnavailableException if no unit is free for the whole period
+    public int reserve(String toolCode, LocalDate checkoutDate, LocalDate dueDate) {
+        if (!enabled) {
+            return 0;
+        }
+        int unit = inventory(toolCode).reserve(checkoutDate.toEpochDay(), dueDate.toEpochDay(),
+                LocalDate.now().toEpochDay());
+        if (unit == 0) {
+            throw new ToolUnavailableException("No " + toolCode + " units are available from "
+                    + checkoutDate + " to " + dueDate);
+        }
+        return unit;
+    }
+
+    // Books the unit of the tool for the agreement's rental period and stores the unit number on it
+    // Does nothing when the inventory is disabled
+    public void reserve(RentalAgreement rentalAgreement) {
+        int unit = reserve(rentalAgreement.getToolCode(), rentalAgreement.getCheckoutDate(), rentalAgreement.getDueDate());
+        if (unit > 0) {
+            rentalAgreement.setUnit(unit);
+        }
+    }
+
+    // Frees a booking made with reserve, returns false if there was no such booking
+    public boolean release(String toolCode, int unit, LocalDate checkoutDate, LocalDate dueDate) {
+        ToolInventory inventory = inventories.get(toolCode);
+        return inventory != null && inventory.release(unit, checkoutDate.toEpochDay(), dueDate.toEpochDay());
+    }
+
+    // Number of units of the tool that are free for the whole period
+    public int getAvailableUnits(String toolCode, LocalDate checkoutDate, LocalDate dueDate) {
+        return inventory(toolCode).available(checkoutDate.toEpochDay(), dueDate.toEpochDay());
+    }
+
+    // Total number of units of the tool
+    public int getUnits(String toolCode) {
+        return inventory(toolCode).getUnitCount();
+    }
+
+    private ToolInventory inventory(String toolCode) {
+        return inventories.computeIfAbsent(toolCode,
+                code -> new ToolInventory(unitCounts.getOrDefault(code, defaultUnits)));
+    }
+
+    // Parses "CODE:count,CODE:count"
+    static Map<String, Integer> parseUnits(String value) {
+        Map<String, Integer> counts = new HashMap<>();
+        if (value == null || value.isBlank()) {
+            return counts;
+        }
+        for (String entry : value.split(",")) {
+            String[] parts = entry.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid inventory entry '" + entry.trim() + "', expected CODE:units");
+            }
+            int count = Integer.parseInt(parts[1].trim());
+            if (count < 0) {
+                throw new IllegalArgumentException("Invalid unit count in '" + entry.trim() + "'");
+            }
+            counts.put(parts[0].trim().toUpperCase(), count);
+        }
+        return counts;
+    }
+}
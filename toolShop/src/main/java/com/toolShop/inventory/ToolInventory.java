@@ -0,0 +1,115 @@
+package com.toolShop.inventory;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Physical units of one tool code and the bookings held on each of them
+// Every unit has its own lock, so bookings for different units (and different tool codes)
+// never wait on each other. The locks are ReentrantLocks rather than monitors so virtual request
+// threads queued on a busy unit unmount instead of pinning their carrier thread. Searches start at a rotating unit to spread concurrent
+// requests across the units instead of piling them onto the first one
+final class ToolInventory {
+
+    private final Unit[] units;
+    private final AtomicInteger nextUnit = new AtomicInteger();
+
+    ToolInventory(int unitCount) {
+        units = new Unit[unitCount];
+        for (int i = 0; i < unitCount; i++) {
+            units[i] = new Unit();
+        }
+    }
+
+    int getUnitCount() {
+        return units.length;
+    }
+
+    // Books the first free unit for the inclusive epoch-day window [fromDay, toDay]
+    // Returns the 1-based unit number, or 0 when every unit is booked for part of the window
+    int reserve(long fromDay, long toDay, long today) {
+        if (units.length == 0) {
+            return 0;
+        }
+        int start = Math.floorMod(nextUnit.getAndIncrement(), units.length);
+        for (int i = 0; i < units.length; i++) {
+            int index = (start + i) % units.length;
+            if (units[index].book(fromDay, toDay, today)) {
+                return index + 1;
+            }
+        }
+        return 0;
+    }
+
+    // Books a specific unit; used when restoring bookings from the rental ledger
+    boolean reserve(int unit, long fromDay, long toDay, long today) {
+        return unit >= 1 && unit <= units.length && units[unit - 1].book(fromDay, toDay, today);
+    }
+
+    // Removes a booking made with reserve, returns false if there was no such booking
+    boolean release(int unit, long fromDay, long toDay) {
+        return unit >= 1 && unit <= units.length && units[unit - 1].release(fromDay, toDay);
+    }
+
+    // Number of units that are free for the whole window
+    int available(long fromDay, long toDay) {
+        int free = 0;
+        for (Unit unit : units) {
+            if (unit.isFree(fromDay, toDay)) {
+                free++;
+            }
+        }
+        return free;
+    }
+
+    // Bookings on one unit, keyed by first day with the (inclusive) last day as value
+    // Bookings never overlap, so both keys and values are increasing and the only booking
+    // that can overlap a window is the one starting closest before the window ends
+    private static final class Unit {
+        private final TreeMap<Long, Long> bookings = new TreeMap<>();
+        private final ReentrantLock lock = new ReentrantLock();
+
+        boolean book(long fromDay, long toDay, long today) {
+            lock.lock();
+            try {
+                // Drop bookings that ended before today so the map only holds current rentals
+                Map.Entry<Long, Long> first = bookings.firstEntry();
+                while (first != null && first.getValue() < today) {
+                    bookings.pollFirstEntry();
+                    first = bookings.firstEntry();
+                }
+                if (!overlapsBooking(fromDay, toDay)) {
+                    bookings.put(fromDay, toDay);
+                    return true;
+                }
+                return false;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean release(long fromDay, long toDay) {
+            lock.lock();
+            try {
+                return bookings.remove(fromDay, toDay);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean isFree(long fromDay, long toDay) {
+            lock.lock();
+            try {
+                return !overlapsBooking(fromDay, toDay);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private boolean overlapsBooking(long fromDay, long toDay) {
+            Map.Entry<Long, Long> before = bookings.floorEntry(toDay);
+            return before != null && before.getValue() >= fromDay;
+        }
+    }
+}
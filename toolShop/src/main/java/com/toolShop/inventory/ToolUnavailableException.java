@@ -0,0 +1,9 @@
+package com.toolShop.inventory;
+
+// Thrown when every unit of a tool is already rented for part of the requested period
+public class ToolUnavailableException extends RuntimeException {
+
+    public ToolUnavailableException(String message) {
+        super(message);
+    }
+}
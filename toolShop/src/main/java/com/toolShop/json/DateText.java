@@ -0,0 +1,80 @@
+package com.toolShop.json;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
+import java.time.format.DateTimeFormatter;
+
+import tools.jackson.core.SerializableString;
+import tools.jackson.core.io.SerializedString;
+
+// The API's MM/dd/yy dates, formatted and parsed without DateTimeFormatter on the common path
+// Formatted dates are cached per epoch day for the years 2000-2099 (the years a two-digit year names)
+// as pre-encoded JSON strings, so writing a date copies bytes straight into the generator's buffer.
+// Parsing follows DateTimeFormatter.ofPattern("MM/dd/yy"): two-digit years are 2000-2099 and a day
+// past the end of the month is clipped to the last day; anything else goes through the formatter
+public final class DateText {
+
+    public static final String PATTERN = "MM/dd/yy";
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern(PATTERN);
+    private static final long FIRST_DAY = LocalDate.of(2000, 1, 1).toEpochDay();
+    private static final long END_DAY = LocalDate.of(2100, 1, 1).toEpochDay();
+
+    // Filled lazily; threads that race on a slot store equal immutable values
+    private static final SerializedString[] CACHE = new SerializedString[(int) (END_DAY - FIRST_DAY)];
+
+    private DateText() {
+    }
+
+    // The date as an MM/dd/yy JSON string value
+    public static SerializableString format(LocalDate date) {
+        long day = date.toEpochDay();
+        if (day < FIRST_DAY || day >= END_DAY) {
+            return new SerializedString(toText(date));
+        }
+        int slot = (int) (day - FIRST_DAY);
+        SerializedString text = CACHE[slot];
+        if (text == null) {
+            text = new SerializedString(toText(date));
+            CACHE[slot] = text;
+        }
+        return text;
+    }
+
+    // Parses len chars of buf starting at off as an MM/dd/yy date, surrounding whitespace ignored
+    // Returns null for blank text. Throws DateTimeParseException with the formatter's message
+    // when the text isn't a valid date
+    public static LocalDate parse(char[] buf, int off, int len) {
+        if (len == 8 && buf[off + 2] == '/' && buf[off + 5] == '/') {
+            int month = twoDigits(buf, off);
+            int day = twoDigits(buf, off + 3);
+            int year = twoDigits(buf, off + 6);
+            if (month >= 1 && month <= 12 && day >= 1 && day <= 31 && year >= 0) {
+                int monthLength = Month.of(month).length(Year.isLeap(2000 + year));
+                return LocalDate.of(2000 + year, month, Math.min(day, monthLength));
+            }
+        }
+        String text = new String(buf, off, len).trim();
+        return text.isEmpty() ? null : LocalDate.parse(text, FORMATTER);
+    }
+
+    // Value of two decimal digits, or -1 if either char isn't a digit
+    private static int twoDigits(char[] buf, int off) {
+        int tens = buf[off] - '0';
+        int ones = buf[off + 1] - '0';
+        if (tens < 0 || tens > 9 || ones < 0 || ones > 9) {
+            return -1;
+        }
+        return tens * 10 + ones;
+    }
+
+    private static String toText(LocalDate date) {
+        int year = Math.floorMod(date.getYear(), 100);
+        char[] text = {
+                (char) ('0' + date.getMonthValue() / 10), (char) ('0' + date.getMonthValue() % 10), '/',
+                (char) ('0' + date.getDayOfMonth() / 10), (char) ('0' + date.getDayOfMonth() % 10), '/',
+                (char) ('0' + year / 10), (char) ('0' + year % 10) };
+        return new String(text);
+    }
+}
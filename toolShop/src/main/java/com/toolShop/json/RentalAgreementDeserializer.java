@@ -0,0 +1,117 @@
+package com.toolShop.json;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+import com.toolShop.cache.RentalAgreement;
+import com.toolShop.money.Money;
+
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.DeserializationContext;
+import tools.jackson.databind.ValueDeserializer;
+
+// Reads a RentalAgreement without reflection
+// Accepts every property the serializer writes and skips unknown ones. The usual token for each
+// property is read straight off the parser (dates from the parser's char buffer, without a String);
+// any other token is handed to Jackson's own deserializer for that type, so coercions and errors
+// are the same as with the bean deserializer. The field constraints are checked afterwards by
+// ToolService.validateTool (RentalRequestValidator), not by Bean Validation
+public class RentalAgreementDeserializer extends ValueDeserializer<RentalAgreement> {
+
+    @Override
+    public RentalAgreement deserialize(JsonParser p, DeserializationContext ctxt) {
+        String name;
+        if (p.isExpectedStartObjectToken()) {
+            name = p.nextName();
+        } else if (p.hasToken(JsonToken.PROPERTY_NAME)) {
+            name = p.currentName();
+        } else {
+            return (RentalAgreement) ctxt.handleUnexpectedToken(RentalAgreement.class, p);
+        }
+
+        RentalAgreement rentalAgreement = new RentalAgreement();
+        for (; name != null; name = p.nextName()) {
+            JsonToken token = p.nextToken();
+            switch (name) {
+                case "totalRentalDays" -> rentalAgreement.settotalRentalDays(readInteger(p, ctxt, token));
+                case "checkoutDate" -> rentalAgreement.setCheckoutDate(readDate(p, ctxt, token));
+                case "discount" -> rentalAgreement.setDiscount(readFloat(p, ctxt, token));
+                case "dueDate" -> rentalAgreement.setDueDate(readDate(p, ctxt, token));
+                case "chargeDays" -> {
+                    Integer chargeDays = readInteger(p, ctxt, token);
+                    rentalAgreement.setChargeDays(chargeDays == null ? 0 : chargeDays);
+                }
+                case "preDiscountPrice" -> rentalAgreement.setPreDiscountCents(readCents(p, ctxt, token));
+                case "moneySaved" -> rentalAgreement.setMoneySavedCents(readCents(p, ctxt, token));
+                case "totalPrice" -> rentalAgreement.setTotalCents(readCents(p, ctxt, token));
+                case "agreementId" -> rentalAgreement.setAgreementId(readLong(p, ctxt, token));
+                case "toolCode" -> rentalAgreement.setToolCode(readString(p, ctxt, token));
+                case "unit" -> rentalAgreement.setUnit(readInteger(p, ctxt, token));
+                default -> p.skipChildren();
+            }
+        }
+        return rentalAgreement;
+    }
+
+    // Null tokens are handled here because Jackson's value deserializers leave them to the property layer
+    private static Integer readInteger(JsonParser p, DeserializationContext ctxt, JsonToken token) {
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            return p.getIntValue();
+        }
+        return token == JsonToken.VALUE_NULL ? null : ctxt.readValue(p, Integer.class);
+    }
+
+    private static Long readLong(JsonParser p, DeserializationContext ctxt, JsonToken token) {
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            return p.getLongValue();
+        }
+        return token == JsonToken.VALUE_NULL ? null : ctxt.readValue(p, Long.class);
+    }
+
+    private static Float readFloat(JsonParser p, DeserializationContext ctxt, JsonToken token) {
+        if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return p.getFloatValue();
+        }
+        return token == JsonToken.VALUE_NULL ? null : ctxt.readValue(p, Float.class);
+    }
+
+    private static String readString(JsonParser p, DeserializationContext ctxt, JsonToken token) {
+        if (token == JsonToken.VALUE_STRING) {
+            return p.getString();
+        }
+        return token == JsonToken.VALUE_NULL ? null : ctxt.readValue(p, String.class);
+    }
+
+    // Amounts are decimals on the wire; null means zero
+    private static long readCents(JsonParser p, DeserializationContext ctxt, JsonToken token) {
+        if (token == JsonToken.VALUE_NULL) {
+            return 0;
+        }
+        BigDecimal amount = token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT
+                ? p.getDecimalValue() : ctxt.readValue(p, BigDecimal.class);
+        return amount == null ? 0 : Money.toCents(amount, RoundingMode.HALF_UP);
+    }
+
+    // MM/dd/yy dates; null and blank strings are null
+    private static LocalDate readDate(JsonParser p, DeserializationContext ctxt, JsonToken token) {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        try {
+            if (token == JsonToken.VALUE_STRING) {
+                return DateText.parse(p.getStringCharacters(), p.getStringOffset(), p.getStringLength());
+            }
+            if (token == JsonToken.VALUE_NUMBER_INT) {
+                // Jackson's LocalDate deserializer reads a number as an epoch day
+                return LocalDate.ofEpochDay(p.getLongValue());
+            }
+            String text = ctxt.readValue(p, String.class);
+            return text == null ? null : DateText.parse(text.toCharArray(), 0, text.length());
+        } catch (DateTimeParseException ex) {
+            throw ctxt.weirdStringException(ex.getParsedString(), LocalDate.class, ex.getMessage());
+        }
+    }
+}
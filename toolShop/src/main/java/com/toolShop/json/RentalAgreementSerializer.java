@@ -0,0 +1,86 @@
+package com.toolShop.json;
+
+import java.time.LocalDate;
+
+import com.toolShop.cache.RentalAgreement;
+import com.toolShop.money.Money;
+
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.io.SerializedString;
+import tools.jackson.databind.SerializationContext;
+import tools.jackson.databind.ValueSerializer;
+
+// Writes a RentalAgreement without reflection
+// Produces exactly what the bean serializer did: properties in alphabetical order, agreementId,
+// toolCode and unit left out when null, dates as MM/dd/yy and amounts with two decimal places.
+// Property names and dates are pre-encoded, and amounts are written from cents without a BigDecimal
+public class RentalAgreementSerializer extends ValueSerializer<RentalAgreement> {
+
+    private static final SerializedString AGREEMENT_ID = new SerializedString("agreementId");
+    private static final SerializedString CHARGE_DAYS = new SerializedString("chargeDays");
+    private static final SerializedString CHECKOUT_DATE = new SerializedString("checkoutDate");
+    private static final SerializedString DISCOUNT = new SerializedString("discount");
+    private static final SerializedString DUE_DATE = new SerializedString("dueDate");
+    private static final SerializedString MONEY_SAVED = new SerializedString("moneySaved");
+    private static final SerializedString PRE_DISCOUNT_PRICE = new SerializedString("preDiscountPrice");
+    private static final SerializedString TOOL_CODE = new SerializedString("toolCode");
+    private static final SerializedString TOTAL_PRICE = new SerializedString("totalPrice");
+    private static final SerializedString TOTAL_RENTAL_DAYS = new SerializedString("totalRentalDays");
+    private static final SerializedString UNIT = new SerializedString("unit");
+
+    // Scratch space for formatting amounts, reused by every agreement serialized on the thread
+    // (the generator copies the digits out before the next amount is formatted)
+    private static final ThreadLocal<char[]> DIGITS = ThreadLocal.withInitial(() -> new char[24]);
+
+    @Override
+    public void serialize(RentalAgreement rentalAgreement, JsonGenerator gen, SerializationContext ctxt) {
+        char[] digits = DIGITS.get();
+        gen.writeStartObject(rentalAgreement);
+        if (rentalAgreement.getAgreementId() != null) {
+            gen.writeName(AGREEMENT_ID);
+            gen.writeNumber(rentalAgreement.getAgreementId().longValue());
+        }
+        gen.writeName(CHARGE_DAYS);
+        gen.writeNumber(rentalAgreement.getChargeDays());
+        writeDate(gen, CHECKOUT_DATE, rentalAgreement.getCheckoutDate());
+        gen.writeName(DISCOUNT);
+        if (rentalAgreement.getDiscount() == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(rentalAgreement.getDiscount().floatValue());
+        }
+        writeDate(gen, DUE_DATE, rentalAgreement.getDueDate());
+        writeAmount(gen, MONEY_SAVED, rentalAgreement.getMoneySavedCents(), digits);
+        writeAmount(gen, PRE_DISCOUNT_PRICE, rentalAgreement.getPreDiscountCents(), digits);
+        if (rentalAgreement.getToolCode() != null) {
+            gen.writeName(TOOL_CODE);
+            gen.writeString(rentalAgreement.getToolCode());
+        }
+        writeAmount(gen, TOTAL_PRICE, rentalAgreement.getTotalCents(), digits);
+        gen.writeName(TOTAL_RENTAL_DAYS);
+        if (rentalAgreement.getTotalRentalDays() == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(rentalAgreement.getTotalRentalDays().intValue());
+        }
+        if (rentalAgreement.getUnit() != null) {
+            gen.writeName(UNIT);
+            gen.writeNumber(rentalAgreement.getUnit().intValue());
+        }
+        gen.writeEndObject();
+    }
+
+    private static void writeDate(JsonGenerator gen, SerializedString name, LocalDate date) {
+        gen.writeName(name);
+        if (date == null) {
+            gen.writeNull();
+        } else {
+            gen.writeString(DateText.format(date));
+        }
+    }
+
+    private static void writeAmount(JsonGenerator gen, SerializedString name, long cents, char[] digits) {
+        gen.writeName(name);
+        gen.writeNumber(digits, 0, Money.getChars(cents, digits));
+    }
+}
@@ -0,0 +1,449 @@
+package com.toolShop.ledger;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.toolShop.cache.RentalAgreement;
+import com.toolShop.cache.Tool;
+import com.toolShop.money.Money;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+// Durable, append-only ledger of rental agreements
+// Agreements are stored as fixed-size binary records in memory-mapped segment files
+// (ledger-<firstId>.seg, pre-sized to toolshop.ledger.segment-size). Ids are assigned
+// sequentially, so a segment holds a contiguous id range and lookup by id is a binary
+// search over segments plus an offset computation. On startup every segment is scanned;
+// the first record with a bad magic, id or checksum ends the segment and, in the last
+// segment, the torn tail is zeroed so appends resume there. The directory is locked
+// (ledger.lock) while the ledger is open, so a second process or ledger can't append to
+// or truncate the same segments; opening a locked directory fails.
+//
+// Record layout (little endian, RECORD_SIZE bytes):
+//   0 magic int | 4 id long | 12 timestamp millis long | 20 tool code (16 bytes, ASCII, zero padded)
+//  36 checkout epoch day int | 40 rental days int | 44 due epoch day int | 48 charge days int
+//  52 discount basis points int | 56 inventory unit int (0 = none) | 60 daily charge cents long
+//  68 pre-discount cents long | 76 money saved cents long | 84 total cents long | 92 CRC32C of bytes 0-91 int
+@Component
+public class RentalLedger {
+
+    private static final Logger LOGGER = Logger.getLogger(RentalLedger.class.getName());
+
+    static final int RECORD_SIZE = 96;
+    static final int MAGIC = 0x52414731;
+    static final int TOOL_CODE_BYTES = 16;
+    private static final int CRC_OFFSET = 92;
+    private static final String SEGMENT_PREFIX = "ledger-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String LOCK_FILE = "ledger.lock";
+
+    @Value("${toolshop.ledger.enabled:true}")
+    boolean enabled = true;
+
+    @Value("${toolshop.ledger.dir:data/ledger}")
+    String dir = "data/ledger";
+
+    // Size of each segment file in bytes, rounded down to whole records
+    @Value("${toolshop.ledger.segment-size:67108864}")
+    long segmentSize = 64L * 1024 * 1024;
+
+    // Force every append to disk before returning (survives power loss, much slower)
+    @Value("${toolshop.ledger.sync:false}")
+    boolean sync;
+
+    // Segments in id order; replaced as a whole when a segment is added so readers never lock
+    private volatile Segment[] segments = new Segment[0];
+
+    // Highest id that is fully written and visible to readers
+    private volatile long lastId;
+
+    // Guards writers: a lock rather than a monitor, so virtual threads waiting for it while another
+    // append forces its record or maps a new segment unmount instead of pinning their carrier
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private long nextId = 1;
+    private Path directory;
+    private FileChannel lockChannel;
+
+    public RentalLedger() {
+    }
+
+    // Ledger stored in the given directory, with the default segment size
+    public RentalLedger(String dir) {
+        this.dir = dir;
+    }
+
+    // Opens the ledger directory, recovering existing segments
+    @PostConstruct
+    public void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        lock.lock();
+        try {
+            Path path = Path.of(dir).toAbsolutePath();
+            Files.createDirectories(path);
+            lockDirectory(path);
+            try {
+                recover(path);
+            } catch (IOException | RuntimeException ex) {
+                directory = null;
+                unlockDirectory();
+                throw ex;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Takes the lock file of the directory, failing if another process or ledger holds it
+    // The OS releases the lock if the process dies, so a crash never leaves the directory locked
+    private void lockDirectory(Path path) throws IOException {
+        Path lockFile = path.resolve(LOCK_FILE);
+        FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock fileLock;
+        try {
+            fileLock = channel.tryLock();
+        } catch (OverlappingFileLockException ex) {
+            // Held by another ledger in this JVM
+            fileLock = null;
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+        if (fileLock == null) {
+            channel.close();
+            throw new IllegalStateException("Rental ledger directory " + path + " is in use by another process ("
+                    + lockFile + " is locked); stop it or set toolshop.ledger.dir to another directory");
+        }
+        lockChannel = channel;
+    }
+
+    // Releases the directory lock by closing its channel
+    private void unlockDirectory() throws IOException {
+        if (lockChannel != null) {
+            lockChannel.close();
+            lockChannel = null;
+        }
+    }
+
+    private void recover(Path ledgerDirectory) throws IOException {
+        directory = ledgerDirectory;
+
+        List<Path> files;
+        try (Stream<Path> list = Files.list(directory)) {
+            files = list.filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX)
+                    && path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+
+        List<Segment> recovered = new ArrayList<>();
+        for (int i = 0; i < files.size(); i++) {
+            Segment segment = Segment.open(files.get(i));
+            boolean last = i == files.size() - 1;
+            int torn = segment.recover(last);
+            if (torn > 0) {
+                LOGGER.warning("Rental ledger segment " + segment.path.getFileName() + " had a torn record after "
+                        + segment.count + " records" + (last ? ", truncated" : ", segment sealed"));
+            }
+            recovered.add(segment);
+        }
+        segments = recovered.toArray(new Segment[0]);
+
+        if (!recovered.isEmpty()) {
+            Segment tail = recovered.get(recovered.size() - 1);
+            nextId = tail.firstId + tail.count;
+        }
+        lastId = nextId - 1;
+        LOGGER.info("Rental ledger opened at " + directory + " with " + lastId + " agreements in "
+                + recovered.size() + " segments");
+    }
+
+    // Flushes and closes every segment, then releases the directory lock
+    @PreDestroy
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            for (Segment segment : segments) {
+                segment.close();
+            }
+            segments = new Segment[0];
+            directory = null;
+        } finally {
+            try {
+                unlockDirectory();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    public boolean isOpen() {
+        return directory != null;
+    }
+
+    // Appends an agreement for the given tool and returns its new id
+    // Returns 0 without storing anything when the ledger is disabled
+    public long append(Tool tool, RentalAgreement rentalAgreement) {
+        lock.lock();
+        try {
+            return write(tool, rentalAgreement);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long write(Tool tool, RentalAgreement rentalAgreement) {
+        if (directory == null) {
+            return 0;
+        }
+        Segment segment = segments.length == 0 ? null : segments[segments.length - 1];
+        if (segment == null || segment.count == segment.capacity) {
+            segment = roll();
+        }
+
+        long id = nextId;
+        int offset = segment.count * RECORD_SIZE;
+        MappedByteBuffer buffer = segment.buffer;
+        buffer.putInt(offset, MAGIC);
+        buffer.putLong(offset + 4, id);
+        buffer.putLong(offset + 12, System.currentTimeMillis());
+        putToolCode(buffer, offset + 20, tool.getToolCode());
+        buffer.putInt(offset + 36, (int) rentalAgreement.getCheckoutDate().toEpochDay());
+        buffer.putInt(offset + 40, rentalAgreement.getTotalRentalDays());
+        buffer.putInt(offset + 44, (int) rentalAgreement.getDueDate().toEpochDay());
+        buffer.putInt(offset + 48, rentalAgreement.getChargeDays());
+        buffer.putInt(offset + 52, rentalAgreement.getDiscountBasisPoints());
+        buffer.putInt(offset + 56, rentalAgreement.getUnit() == null ? 0 : rentalAgreement.getUnit());
+        buffer.putLong(offset + 60, tool.getDailyChargeCents());
+        buffer.putLong(offset + 68, rentalAgreement.getPreDiscountCents());
+        buffer.putLong(offset + 76, rentalAgreement.getMoneySavedCents());
+        buffer.putLong(offset + 84, rentalAgreement.getTotalCents());
+        buffer.putInt(offset + CRC_OFFSET, checksum(buffer, offset));
+        if (sync) {
+            buffer.force(offset, RECORD_SIZE);
+        }
+
+        // Publish the record to readers
+        segment.count++;
+        nextId = id + 1;
+        lastId = id;
+        return id;
+    }
+
+    // Returns the stored agreement with the given id, or null if there is none
+    public RentalAgreement find(long id) {
+        if (id < 1 || id > lastId) {
+            return null;
+        }
+        Segment[] current = segments;
+        int low = 0;
+        int high = current.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (current[mid].firstId > id) {
+                high = mid - 1;
+            } else {
+                low = mid + 1;
+            }
+        }
+        if (high < 0) {
+            return null;
+        }
+        Segment segment = current[high];
+        long index = id - segment.firstId;
+        if (index >= segment.count) {
+            return null;
+        }
+        return decode(segment.buffer, (int) index * RECORD_SIZE);
+    }
+
+    // Visits every stored agreement in id order
+    public void forEach(Consumer<RentalAgreement> consumer) {
+        forEach(1, consumer);
+    }
+
+    // Visits every stored agreement with an id of at least fromId, in id order
+    public void forEach(long fromId, Consumer<RentalAgreement> consumer) {
+        forEach(fromId, Long.MAX_VALUE, consumer);
+    }
+
+    // Visits the stored agreements with ids in [fromId, toId), in id order
+    // Safe to call from several threads at once, e.g. for disjoint id ranges
+    public void forEach(long fromId, long toId, Consumer<RentalAgreement> consumer) {
+        for (Segment segment : segments) {
+            long start = Math.max(0, fromId - segment.firstId);
+            long end = Math.min(segment.count, toId - segment.firstId);
+            for (long index = start; index < end; index++) {
+                consumer.accept(decode(segment.buffer, (int) index * RECORD_SIZE));
+            }
+        }
+    }
+
+    // Number of stored agreements
+    public long size() {
+        return lastId;
+    }
+
+    // Starts a new segment whose first id is the next id to be assigned
+    private Segment roll() {
+        Segment[] current = segments;
+        if (current.length > 0) {
+            current[current.length - 1].buffer.force();
+        }
+        try {
+            long capacity = Math.max(1, segmentSize / RECORD_SIZE);
+            Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, nextId, SEGMENT_SUFFIX));
+            Segment segment = Segment.create(path, nextId, (int) Math.min(capacity, Integer.MAX_VALUE / RECORD_SIZE));
+            Segment[] next = Arrays.copyOf(current, current.length + 1);
+            next[current.length] = segment;
+            segments = next;
+            return segment;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to create rental ledger segment", ex);
+        }
+    }
+
+    private static void putToolCode(ByteBuffer buffer, int offset, String toolCode) {
+        byte[] bytes = toolCode.getBytes(StandardCharsets.US_ASCII);
+        if (bytes.length > TOOL_CODE_BYTES) {
+            throw new IllegalArgumentException("Tool code '" + toolCode + "' is longer than " + TOOL_CODE_BYTES + " characters");
+        }
+        for (int i = 0; i < TOOL_CODE_BYTES; i++) {
+            buffer.put(offset + i, i < bytes.length ? bytes[i] : 0);
+        }
+    }
+
+    private static RentalAgreement decode(ByteBuffer buffer, int offset) {
+        int length = 0;
+        while (length < TOOL_CODE_BYTES && buffer.get(offset + 20 + length) != 0) {
+            length++;
+        }
+        byte[] toolCode = new byte[length];
+        buffer.get(offset + 20, toolCode);
+
+        RentalAgreement rentalAgreement = new RentalAgreement();
+        rentalAgreement.setAgreementId(buffer.getLong(offset + 4));
+        rentalAgreement.setToolCode(new String(toolCode, StandardCharsets.US_ASCII));
+        rentalAgreement.setCheckoutDate(LocalDate.ofEpochDay(buffer.getInt(offset + 36)));
+        rentalAgreement.settotalRentalDays(buffer.getInt(offset + 40));
+        rentalAgreement.setDueDate(LocalDate.ofEpochDay(buffer.getInt(offset + 44)));
+        rentalAgreement.setChargeDays(buffer.getInt(offset + 48));
+        rentalAgreement.setDiscount(Money.percent(buffer.getInt(offset + 52)));
+        int unit = buffer.getInt(offset + 56);
+        if (unit > 0) {
+            rentalAgreement.setUnit(unit);
+        }
+        rentalAgreement.setPreDiscountCents(buffer.getLong(offset + 68));
+        rentalAgreement.setMoneySavedCents(buffer.getLong(offset + 76));
+        rentalAgreement.setTotalCents(buffer.getLong(offset + 84));
+        return rentalAgreement;
+    }
+
+    private static int checksum(ByteBuffer buffer, int offset) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset, CRC_OFFSET));
+        return (int) crc.getValue();
+    }
+
+    // One memory-mapped segment file holding records for ids [firstId, firstId + count)
+    private static final class Segment {
+        private final Path path;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private final long firstId;
+        private final int capacity;
+        private volatile int count;
+
+        private Segment(Path path, FileChannel channel, long firstId, int capacity) throws IOException {
+            this.path = path;
+            this.channel = channel;
+            this.firstId = firstId;
+            this.capacity = capacity;
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) capacity * RECORD_SIZE);
+            this.buffer.order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        private static Segment create(Path path, long firstId, int capacity) throws IOException {
+            try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+                file.setLength((long) capacity * RECORD_SIZE);
+            }
+            return new Segment(path, FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE),
+                    firstId, capacity);
+        }
+
+        private static Segment open(Path path) throws IOException {
+            String name = path.getFileName().toString();
+            long firstId = Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            int capacity = (int) (channel.size() / RECORD_SIZE);
+            return new Segment(path, channel, firstId, capacity);
+        }
+
+        // Counts the valid records at the start of the segment
+        // Appends are sequential, so a crash can only tear the record right after the last valid one;
+        // when truncating, that slot is zeroed. Returns the number of torn bytes found
+        private int recover(boolean truncate) {
+            int valid = 0;
+            while (valid < capacity) {
+                int offset = valid * RECORD_SIZE;
+                if (buffer.getInt(offset) != MAGIC
+                        || buffer.getLong(offset + 4) != firstId + valid
+                        || buffer.getInt(offset + CRC_OFFSET) != checksum(buffer, offset)) {
+                    break;
+                }
+                valid++;
+            }
+            count = valid;
+            if (valid == capacity) {
+                return 0;
+            }
+
+            int offset = valid * RECORD_SIZE;
+            boolean torn = false;
+            for (int i = 0; i < RECORD_SIZE && !torn; i += Long.BYTES) {
+                torn = buffer.getLong(offset + i) != 0;
+            }
+            if (!torn) {
+                return 0;
+            }
+            if (truncate) {
+                for (int i = 0; i < RECORD_SIZE; i += Long.BYTES) {
+                    buffer.putLong(offset + i, 0L);
+                }
+                buffer.force(offset, RECORD_SIZE);
+            }
+            return RECORD_SIZE;
+        }
+
+        private void close() throws IOException {
+            buffer.force();
+            channel.close();
+        }
+    }
+}
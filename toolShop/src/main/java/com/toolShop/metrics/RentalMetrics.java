@@ -0,0 +1,129 @@
+package com.toolShop.metrics;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.toolShop.cache.Tool;
+import com.toolShop.catalog.ToolCatalog;
+import com.toolShop.metrics.StageTimings.Stage;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+
+// Records API request latency per stage into Micrometer timers with percentile histograms
+// Metrics (exposed under /actuator/metrics and /actuator/prometheus):
+//   toolshop.request         total request time, tagged by endpoint, toolCode and outcome
+//   toolshop.request.stage   time per stage, tagged by endpoint, outcome and stage
+// Every histogram is dozens of series, so toolCode is only on the total and only takes the codes in
+// toolshop.metrics.tool-codes; other catalog tools are tagged OTHER, as in RentalStats.
+// Timers are looked up once per tag combination and cached, so recording doesn't allocate
+@Component
+public class RentalMetrics {
+
+    // Outcome tag derived from the response status
+    public enum Outcome { SUCCESS, CLIENT_ERROR, SERVER_ERROR }
+
+    private static final Stage[] STAGES = Stage.values();
+    private static final Outcome[] OUTCOMES = Outcome.values();
+
+    // Tag values used when the request has no tool code, an unknown one, or a tool that isn't tagged
+    static final String NO_TOOL = "NONE";
+    static final String UNKNOWN_TOOL = "UNKNOWN";
+    static final String OTHER_TOOL = "OTHER";
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    ToolCatalog toolCatalog;
+
+    // Tool codes that get their own toolCode tag value, comma-separated
+    @Value("${toolshop.metrics.tool-codes:}")
+    String[] toolCodes = {};
+
+    private Set<String> taggedTools = Set.of();
+
+    // endpoint -> [outcome][stage] stage timers
+    private final Map<String, Timer[][]> stageTimers = new ConcurrentHashMap<>();
+
+    // endpoint -> tool tag -> [outcome] total timers
+    private final Map<String, Map<String, Timer[]>> requestTimers = new ConcurrentHashMap<>();
+
+    // Reads the tagged tool codes
+    @PostConstruct
+    public void start() {
+        Set<String> codes = new HashSet<>();
+        for (String toolCode : toolCodes) {
+            if (!toolCode.isBlank()) {
+                codes.add(toolCode.strip().toUpperCase(Locale.ROOT));
+            }
+        }
+        taggedTools = Set.copyOf(codes);
+    }
+
+    // Records the timings of a finished request
+    public void record(String endpoint, String toolCode, Outcome outcome, StageTimings timings) {
+        Timer[] outcomeTimers = stageTimers.computeIfAbsent(endpoint, this::registerStages)[outcome.ordinal()];
+        for (Stage stage : STAGES) {
+            if (timings.isRecorded(stage)) {
+                outcomeTimers[stage.ordinal()].record(timings.getNanos(stage), TimeUnit.NANOSECONDS);
+            }
+        }
+
+        String toolTag = toolTag(toolCode);
+        requestTimers.computeIfAbsent(endpoint, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(toolTag, key -> registerRequest(endpoint, toolTag))[outcome.ordinal()]
+                .record(timings.getElapsedNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    // Keeps tag cardinality bounded: only configured tool codes become tag values
+    String toolTag(String toolCode) {
+        if (toolCode == null) {
+            return NO_TOOL;
+        }
+        Tool tool = toolCatalog.getTool(toolCode);
+        if (tool == null) {
+            return UNKNOWN_TOOL;
+        }
+        return taggedTools.contains(tool.getToolCode()) ? tool.getToolCode() : OTHER_TOOL;
+    }
+
+    private Timer[][] registerStages(String endpoint) {
+        Timer[][] byOutcome = new Timer[OUTCOMES.length][STAGES.length];
+        for (Outcome outcome : OUTCOMES) {
+            for (Stage stage : STAGES) {
+                byOutcome[outcome.ordinal()][stage.ordinal()] = Timer.builder("toolshop.request.stage")
+                        .description("Time spent in one stage of an API request")
+                        .tag("endpoint", endpoint)
+                        .tag("outcome", outcome.name())
+                        .tag("stage", stage.getMetricName())
+                        .publishPercentileHistogram()
+                        .register(meterRegistry);
+            }
+        }
+        return byOutcome;
+    }
+
+    private Timer[] registerRequest(String endpoint, String toolTag) {
+        Timer[] byOutcome = new Timer[OUTCOMES.length];
+        for (Outcome outcome : OUTCOMES) {
+            byOutcome[outcome.ordinal()] = Timer.builder("toolshop.request")
+                    .description("Total time of an API request")
+                    .tag("endpoint", endpoint)
+                    .tag("toolCode", toolTag)
+                    .tag("outcome", outcome.name())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+        }
+        return byOutcome;
+    }
+}
@@ -0,0 +1,53 @@
+package com.toolShop.metrics;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.toolShop.metrics.RentalMetrics.Outcome;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Starts stage timing when an API request reaches its handler and records it once the response is complete
+@Component
+public class RentalMetricsInterceptor implements HandlerInterceptor {
+
+    @Autowired
+    RentalMetrics rentalMetrics;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        StageTimings.begin();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        StageTimings timings = StageTimings.end();
+        if (timings == null) {
+            return;
+        }
+        // Response serialization runs from the mark set just before the body was written until now
+        timings.finish();
+
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String endpoint = request.getMethod() + " " + (pattern != null ? pattern : "unmapped");
+
+        @SuppressWarnings("unchecked")
+        Map<String, String> pathVariables = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String toolCode = pathVariables != null ? pathVariables.get("toolCode") : null;
+
+        rentalMetrics.record(endpoint, toolCode, outcome(response.getStatus(), ex), timings);
+    }
+
+    private static Outcome outcome(int status, Exception ex) {
+        if (ex != null || status >= 500) {
+            return Outcome.SERVER_ERROR;
+        }
+        return status >= 400 ? Outcome.CLIENT_ERROR : Outcome.SUCCESS;
+    }
+}
@@ -0,0 +1,131 @@
+package com.toolShop.metrics;
+
+// Per-request stage timings for the rental request path
+// One instance is bound to the request thread for the duration of an API request;
+// code along the path calls mark() when a stage starts and lap(stage) when it ends.
+// Both are no-ops when no request is being timed (e.g. batch worker threads or unit tests)
+public final class StageTimings {
+
+    // Stages of a rental request, in the order they happen
+    public enum Stage {
+        PARSE("parse"),                        // Jackson request body parsing
+        BEAN_VALIDATION("validation"),         // Field constraints of the request body (RentalRequestValidator)
+        VALIDATE_TOOL("validateTool"),         // Tool code and checkout date checks in ToolService.validateTool
+        CALCULATE_PRICE("price"),              // ToolService.calculatePrice
+        GENERATE_AGREEMENT("agreement"),       // ToolService.generateRentalAgreement
+        SERIALIZE("serialize");                // Jackson response body serialization
+
+        private final String metricName;
+
+        Stage(String metricName) {
+            this.metricName = metricName;
+        }
+
+        public String getMetricName() {
+            return metricName;
+        }
+    }
+
+    private static final Stage[] STAGES = Stage.values();
+
+    private static final ThreadLocal<StageTimings> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private final long[] durations = new long[STAGES.length];
+    private int recorded;
+    private long mark = startNanos;
+    private Stage pending;
+
+    private StageTimings() {}
+
+    // Starts timing a request on the current thread
+    public static StageTimings begin() {
+        StageTimings timings = new StageTimings();
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    // Stops timing on the current thread and returns the timings, or null if none were started
+    public static StageTimings end() {
+        StageTimings timings = CURRENT.get();
+        CURRENT.remove();
+        return timings;
+    }
+
+    // Returns the timings of the current thread, or null if none were started
+    public static StageTimings current() {
+        return CURRENT.get();
+    }
+
+    // Marks the start of a stage
+    public static void mark() {
+        StageTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.mark = System.nanoTime();
+        }
+    }
+
+    // Marks the start of a stage whose end isn't observable on the request path (e.g. response serialization)
+    // The stage is recorded when the request timing finishes
+    public static void mark(Stage pendingStage) {
+        StageTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.mark = System.nanoTime();
+            timings.pending = pendingStage;
+        }
+    }
+
+    // Records the time since the last mark (or lap) against a stage and starts a new mark
+    public static void lap(Stage stage) {
+        StageTimings timings = CURRENT.get();
+        if (timings != null) {
+            long now = System.nanoTime();
+            timings.durations[stage.ordinal()] += now - timings.mark;
+            timings.recorded |= 1 << stage.ordinal();
+            timings.mark = now;
+        }
+    }
+
+    // Records the pending stage, if any, up to now
+    public void finish() {
+        if (pending != null) {
+            durations[pending.ordinal()] += System.nanoTime() - mark;
+            recorded |= 1 << pending.ordinal();
+            pending = null;
+        }
+    }
+
+    public boolean isRecorded(Stage stage) {
+        return (recorded & (1 << stage.ordinal())) != 0;
+    }
+
+    // Duration of a stage in nanoseconds
+    public long getNanos(Stage stage) {
+        return durations[stage.ordinal()];
+    }
+
+    // Time since the request started in nanoseconds
+    public long getElapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    // Formats the stages recorded so far as a Server-Timing header value (durations in milliseconds)
+    public String toServerTiming() {
+        StringBuilder header = new StringBuilder(128);
+        for (Stage stage : STAGES) {
+            if (isRecorded(stage)) {
+                if (header.length() > 0) {
+                    header.append(", ");
+                }
+                long micros = durations[stage.ordinal()] / 1_000;
+                header.append(stage.metricName).append(";dur=").append(micros / 1_000).append('.');
+                long fraction = micros % 1_000;
+                if (fraction < 100) {
+                    header.append(fraction < 10 ? "00" : "0");
+                }
+                header.append(fraction);
+            }
+        }
+        return header.toString();
+    }
+}
@@ -0,0 +1,175 @@
+package com.toolShop.money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Fixed-point money arithmetic
+// Amounts are long cents and rates are int basis points (1/100 of a percent), so pricing is exact
+// integer arithmetic with no boxing and no intermediate objects. The only rounding happens where an
+// operation divides, and it always uses an explicit RoundingMode. Overflow throws ArithmeticException.
+// Conversions to and from BigDecimal and text are for the edges (JSON, catalog files), not the hot path
+public final class Money {
+
+    public static final int CENTS_PER_UNIT = 100;
+    public static final int BASIS_POINTS_PER_UNIT = 10_000;
+
+    private Money() {
+    }
+
+    // Price of `quantity` units at `unitCents` each
+    public static long times(long unitCents, int quantity) {
+        return Math.multiplyExact(unitCents, (long) quantity);
+    }
+
+    // `basisPoints` / 10000 of the amount, rounded to whole cents with the given mode
+    public static long percentage(long cents, int basisPoints, RoundingMode mode) {
+        return divide(Math.multiplyExact(cents, (long) basisPoints), BASIS_POINTS_PER_UNIT, mode);
+    }
+
+    // Integer division rounded with the given mode, matching BigDecimal's definition of each mode
+    // Throws ArithmeticException for UNNECESSARY when the division is inexact
+    public static long divide(long dividend, long divisor, RoundingMode mode) {
+        long quotient = dividend / divisor;
+        long remainder = dividend - quotient * divisor;
+        if (remainder == 0) {
+            return quotient;
+        }
+        // +1 when the exact result is positive, -1 when it is negative
+        int signum = 1 | (int) ((dividend ^ divisor) >> 63);
+        boolean increment = switch (mode) {
+            case UNNECESSARY -> throw new ArithmeticException("Rounding necessary");
+            case DOWN -> false;
+            case UP -> true;
+            case FLOOR -> signum < 0;
+            case CEILING -> signum > 0;
+            case HALF_UP, HALF_DOWN, HALF_EVEN -> {
+                long absRemainder = Math.abs(remainder);
+                // Sign of (remainder - divisor / 2) in magnitude, computed without overflow
+                long halfComparison = absRemainder - (Math.abs(divisor) - absRemainder);
+                if (halfComparison == 0) {
+                    yield mode == RoundingMode.HALF_UP || (mode == RoundingMode.HALF_EVEN && (quotient & 1) != 0);
+                }
+                yield halfComparison > 0;
+            }
+        };
+        return increment ? quotient + signum : quotient;
+    }
+
+    // Basis points for a percentage (10.5 -> 1050), rounded half up
+    public static int basisPoints(float percent) {
+        return Math.round(percent * 100f);
+    }
+
+    // Percentage for basis points (1050 -> 10.5)
+    public static float percent(int basisPoints) {
+        return basisPoints / 100f;
+    }
+
+    // Parses a decimal amount with at most two fraction digits ("1.99", "2", "-0.5") into cents
+    // Throws IllegalArgumentException on anything else, so catalog prices are never rounded silently
+    public static long parseCents(CharSequence text) {
+        int length = text.length();
+        int i = 0;
+        boolean negative = false;
+        if (i < length && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+            negative = text.charAt(i) == '-';
+            i++;
+        }
+        long units = 0;
+        int unitDigits = 0;
+        for (; i < length && text.charAt(i) != '.'; i++) {
+            units = Math.addExact(Math.multiplyExact(units, 10L), digit(text, i));
+            unitDigits++;
+        }
+        long cents = 0;
+        int fractionDigits = 0;
+        if (i < length) {
+            for (i++; i < length; i++) {
+                if (++fractionDigits > 2) {
+                    throw new IllegalArgumentException("Amount '" + text + "' has more than two decimal places");
+                }
+                cents = cents * 10 + digit(text, i);
+            }
+            if (fractionDigits == 0) {
+                throw new IllegalArgumentException("Amount '" + text + "' has no digits after the decimal point");
+            }
+        }
+        if (unitDigits == 0 && fractionDigits == 0) {
+            throw new IllegalArgumentException("Amount '" + text + "' is not a number");
+        }
+        if (fractionDigits == 1) {
+            cents *= 10;
+        }
+        long total = Math.addExact(Math.multiplyExact(units, (long) CENTS_PER_UNIT), cents);
+        return negative ? -total : total;
+    }
+
+    // Cents for a decimal amount, rounded to two places with the given mode
+    public static long toCents(BigDecimal amount, RoundingMode mode) {
+        return amount.setScale(2, mode).unscaledValue().longValueExact();
+    }
+
+    // Decimal amount with exactly two fraction digits (447 -> 4.47, 80 -> 0.80)
+    public static BigDecimal toDecimal(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    // Appends the amount with exactly two fraction digits, without allocating
+    public static StringBuilder append(StringBuilder out, long cents) {
+        if (cents < 0) {
+            out.append('-');
+            if (cents == Long.MIN_VALUE) {
+                // -Long.MIN_VALUE overflows; its last two digits are 08
+                return out.append(-(Long.MIN_VALUE / CENTS_PER_UNIT)).append(".08");
+            }
+            cents = -cents;
+        }
+        long fraction = cents % CENTS_PER_UNIT;
+        out.append(cents / CENTS_PER_UNIT).append('.');
+        if (fraction < 10) {
+            out.append('0');
+        }
+        return out.append(fraction);
+    }
+
+    // Writes the amount with exactly two fraction digits into buf (at least 21 chars) and returns its length
+    public static int getChars(long cents, char[] buf) {
+        if (cents == Long.MIN_VALUE) {
+            String text = format(cents);
+            text.getChars(0, text.length(), buf, 0);
+            return text.length();
+        }
+        int length = 0;
+        if (cents < 0) {
+            buf[length++] = '-';
+            cents = -cents;
+        }
+        // Digits are produced least significant first into the tail of buf, then moved to the front
+        int pos = buf.length;
+        buf[--pos] = (char) ('0' + cents % 10);
+        cents /= 10;
+        buf[--pos] = (char) ('0' + cents % 10);
+        cents /= 10;
+        buf[--pos] = '.';
+        do {
+            buf[--pos] = (char) ('0' + cents % 10);
+            cents /= 10;
+        } while (cents > 0);
+        int digits = buf.length - pos;
+        System.arraycopy(buf, pos, buf, length, digits);
+        return length + digits;
+    }
+
+    // The amount as text with exactly two fraction digits
+    public static String format(long cents) {
+        return append(new StringBuilder(24), cents).toString();
+    }
+
+    private static int digit(CharSequence text, int index) {
+        char c = text.charAt(index);
+        if (c < '0' || c > '9') {
+            throw new IllegalArgumentException("Amount '" + text + "' is not a number");
+        }
+        return c - '0';
+    }
+}
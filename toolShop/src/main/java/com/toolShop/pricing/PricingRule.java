@@ -0,0 +1,212 @@
+package com.toolShop.pricing;
+
+import java.math.BigDecimal;
+import java.time.MonthDay;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.toolShop.cache.Tool;
+
+// One declarative pricing rule: an action (seasonal rate, surcharge or discount) and the conditions under
+// which it applies. Rules are immutable and are compiled into RulePrograms by PricingRules
+public final class PricingRule {
+
+    public enum Action {
+        RATE,       // Daily charge of the charge days inside the season, as a percentage of the tool's daily charge
+        SURCHARGE,  // Percentage added to the rental's charge
+        DISCOUNT    // Rental discount; the largest matching discount and the requested one applies
+    }
+
+    // Largest bound of a days condition (rentals themselves are limited to 100 days)
+    static final int MAX_DAYS = 1000;
+
+    private final String name;
+    private final String definition;
+    private final Action action;
+    private final int basisPoints;
+    // Null when the rule applies to any tool code, type or brand; types and brands are lower case
+    private final Set<String> toolCodes;
+    private final Set<String> toolTypes;
+    private final Set<String> brands;
+    // Null when the rule applies all year; may wrap the year end (12-15..01-05)
+    private final MonthDay seasonStart;
+    private final MonthDay seasonEnd;
+    private final int minDays;
+    private final int maxDays;
+
+    PricingRule(String name, String definition, Action action, int basisPoints, Set<String> toolCodes,
+            Set<String> toolTypes, Set<String> brands, MonthDay seasonStart, MonthDay seasonEnd, int minDays, int maxDays) {
+        if (action == Action.RATE && (seasonStart == null || minDays != 1 || maxDays != Integer.MAX_VALUE)) {
+            throw new IllegalArgumentException("A rate needs a season and can't have a days condition");
+        }
+        if (basisPoints < 0 || (action == Action.DISCOUNT && basisPoints > 10_000)) {
+            throw new IllegalArgumentException("A discount must be between 0% and 100%");
+        }
+        this.name = name;
+        this.definition = definition;
+        this.action = action;
+        this.basisPoints = basisPoints;
+        this.toolCodes = toolCodes;
+        this.toolTypes = toolTypes;
+        this.brands = brands;
+        this.seasonStart = seasonStart;
+        this.seasonEnd = seasonEnd;
+        this.minDays = minDays;
+        this.maxDays = maxDays;
+    }
+
+    // Name of the rule, used for logging and listings
+    public String getName() {
+        return name;
+    }
+
+    // The rule as written after the '=', used to fingerprint the rule set
+    public String getDefinition() {
+        return definition;
+    }
+
+    public Action getAction() {
+        return action;
+    }
+
+    // Percentage of the action in basis points (12.5% -> 1250)
+    public int getBasisPoints() {
+        return basisPoints;
+    }
+
+    // Returns true if the tool code, type and brand conditions hold for the tool
+    public boolean appliesTo(Tool tool) {
+        return (toolCodes == null || toolCodes.contains(tool.getToolCode()))
+                && (toolTypes == null || toolTypes.contains(tool.getToolType().toLowerCase(Locale.ROOT)))
+                && (brands == null || brands.contains(tool.getBrand().toLowerCase(Locale.ROOT)));
+    }
+
+    // Marks the day indexes (see RuleProgram.dayIndex) inside the season
+    void markSeason(boolean[] days) {
+        if (seasonStart == null) {
+            Arrays.fill(days, true);
+            return;
+        }
+        int start = RuleProgram.dayIndex(seasonStart.getMonthValue(), seasonStart.getDayOfMonth());
+        int end = RuleProgram.dayIndex(seasonEnd.getMonthValue(), seasonEnd.getDayOfMonth());
+        for (int i = start; i != end; i = (i + 1) % days.length) {
+            days[i] = true;
+        }
+        days[end] = true;
+    }
+
+    int getMinDays() {
+        return minDays;
+    }
+
+    int getMaxDays() {
+        return maxDays;
+    }
+
+    // Parses pricing rules, one per line, in the form "<name> = <action> [<condition> ...]"
+    // Actions:
+    //   rate <percent>%        daily charge of the charge days inside the season (needs a season)
+    //   surcharge <percent>%   added to the charge of the rental
+    //   discount <percent>%    the largest of the matching discounts and the requested one applies
+    // Conditions, each at most once, all of which must hold:
+    //   tool <CODE>[,<CODE>...]  type <type>[,...]  brand <brand>[,...]
+    //   season <MM-dd>..<MM-dd>  checkout date in the season (for rates: each charge day)
+    //   days <n>..<m> | days <n>+  rental length in days
+    // Blank lines and lines starting with '#' are ignored. Throws IllegalArgumentException on bad input.
+    public static List<PricingRule> parse(List<String> lines) {
+        List<PricingRule> rules = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            int equals = line.indexOf('=');
+            if (equals <= 0) {
+                throw new IllegalArgumentException("Pricing rule on line " + (i + 1) + " must be '<name> = <rule>': " + line);
+            }
+            String name = line.substring(0, equals).strip();
+            String definition = line.substring(equals + 1).strip();
+            try {
+                rules.add(parseRule(name, definition));
+            } catch (RuntimeException ex) {
+                throw new IllegalArgumentException("Invalid pricing rule on line " + (i + 1) + ": " + line, ex);
+            }
+        }
+        return rules;
+    }
+
+    private static PricingRule parseRule(String name, String definition) {
+        String[] parts = definition.split("\\s+");
+        if (parts.length < 2 || parts.length % 2 != 0 || !parts[1].endsWith("%")) {
+            throw new IllegalArgumentException("Expected: <rate|surcharge|discount> <percent>% [<condition> <value> ...]");
+        }
+        Action action = Action.valueOf(parts[0].toUpperCase(Locale.ROOT));
+        int basisPoints = new BigDecimal(parts[1].substring(0, parts[1].length() - 1)).movePointRight(2).intValueExact();
+
+        Set<String> toolCodes = null;
+        Set<String> toolTypes = null;
+        Set<String> brands = null;
+        MonthDay seasonStart = null;
+        MonthDay seasonEnd = null;
+        int minDays = 1;
+        int maxDays = Integer.MAX_VALUE;
+        boolean days = false;
+        for (int p = 2; p < parts.length; p += 2) {
+            String condition = parts[p].toLowerCase(Locale.ROOT);
+            String value = parts[p + 1];
+            switch (condition) {
+                case "tool" -> toolCodes = once(toolCodes, list(value, false), condition);
+                case "type" -> toolTypes = once(toolTypes, list(value, true), condition);
+                case "brand" -> brands = once(brands, list(value, true), condition);
+                case "season" -> {
+                    String[] range = value.split("\\.\\.");
+                    if (seasonStart != null || range.length != 2) {
+                        throw new IllegalArgumentException("Expected one season <MM-dd>..<MM-dd>");
+                    }
+                    seasonStart = MonthDay.parse("--" + range[0]);
+                    seasonEnd = MonthDay.parse("--" + range[1]);
+                }
+                case "days" -> {
+                    if (days) {
+                        throw new IllegalArgumentException("Expected one days condition");
+                    }
+                    days = true;
+                    if (value.endsWith("+")) {
+                        minDays = Integer.parseInt(value.substring(0, value.length() - 1));
+                    } else {
+                        String[] range = value.split("\\.\\.");
+                        if (range.length != 2) {
+                            throw new IllegalArgumentException("Expected: days <n>..<m> or days <n>+");
+                        }
+                        minDays = Integer.parseInt(range[0]);
+                        maxDays = Integer.parseInt(range[1]);
+                    }
+                    if (minDays < 1 || minDays > MAX_DAYS || maxDays < minDays
+                            || (maxDays != Integer.MAX_VALUE && maxDays > MAX_DAYS)) {
+                        throw new IllegalArgumentException("Days must be between 1 and " + MAX_DAYS);
+                    }
+                }
+                default -> throw new IllegalArgumentException("Unknown condition '" + parts[p] + "'");
+            }
+        }
+        return new PricingRule(name, definition, action, basisPoints, toolCodes, toolTypes, brands,
+                seasonStart, seasonEnd, minDays, maxDays);
+    }
+
+    private static Set<String> list(String value, boolean lowerCase) {
+        return Arrays.stream(value.split(","))
+                .map(item -> lowerCase ? item.toLowerCase(Locale.ROOT) : item)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    private static Set<String> once(Set<String> current, Set<String> value, String condition) {
+        if (current != null) {
+            throw new IllegalArgumentException("Condition '" + condition + "' given twice");
+        }
+        return value;
+    }
+}
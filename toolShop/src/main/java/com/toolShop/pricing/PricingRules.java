@@ -0,0 +1,140 @@
+package com.toolShop.pricing;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.toolShop.cache.Tool;
+
+import jakarta.annotation.PostConstruct;
+
+// Declarative pricing rules (seasonal rates, surcharges and discounts) applied on top of each tool's
+// daily charge and charge-day flags
+// The default rules come from pricing.rules on the classpath and can be replaced with the file set in
+// toolshop.pricing.rules-file, at startup or with reload(). Rules are compiled once per tool when it is
+// first priced: its tool code, type and brand conditions are resolved then, and tools that the same rules
+// apply to share one RuleProgram. Replacing the rules drops every compiled program
+@Component
+public class PricingRules {
+
+    private static final Logger LOGGER = Logger.getLogger(PricingRules.class.getName());
+
+    // Classpath resource holding the default pricing rules
+    static final String DEFAULT_RULES = "pricing.rules";
+
+    // Optional path of a rules file that replaces the defaults
+    @Value("${toolshop.pricing.rules-file:}")
+    String rulesFile;
+
+    private volatile Compiled compiled;
+
+    // Incremented every time the rules change so dependent caches can rebuild
+    private volatile int version;
+
+    public PricingRules() {
+        this(loadDefaultRules());
+    }
+
+    public PricingRules(List<PricingRule> rules) {
+        setRules(rules);
+    }
+
+    // Loads the configured rules file, if any, once the bean is created
+    @PostConstruct
+    void loadRulesFile() throws IOException {
+        if (rulesFile != null && !rulesFile.isBlank()) {
+            reload();
+        }
+    }
+
+    // Reads the configured rules file (or the defaults when there is none) and replaces the rules
+    // Throws IllegalArgumentException for an invalid file and keeps the current rules
+    public List<PricingRule> reload() throws IOException {
+        boolean fromFile = rulesFile != null && !rulesFile.isBlank();
+        List<PricingRule> rules = fromFile
+                ? PricingRule.parse(Files.readAllLines(Path.of(rulesFile), StandardCharsets.UTF_8))
+                : loadDefaultRules();
+        setRules(rules);
+        LOGGER.info("Loaded " + rules.size() + " pricing rules from " + (fromFile ? rulesFile : DEFAULT_RULES));
+        return getRules();
+    }
+
+    // Replaces the pricing rules and drops every compiled program
+    public synchronized void setRules(List<PricingRule> rules) {
+        this.compiled = new Compiled(List.copyOf(rules));
+        this.version++;
+    }
+
+    public List<PricingRule> getRules() {
+        return compiled.rules;
+    }
+
+    // Version of the current rules, changes whenever setRules is called
+    public int getVersion() {
+        return version;
+    }
+
+    // Compiled rules for the tool; RuleProgram.NONE when no rule applies to it
+    public RuleProgram programFor(Tool tool) {
+        Compiled current = compiled;
+        Binding binding = current.byToolCode.get(tool.getToolCode());
+        // Tools are immutable catalog entries, so a reloaded catalog brings new instances
+        if (binding == null || binding.tool != tool) {
+            binding = new Binding(tool, current.compile(tool));
+            current.byToolCode.put(tool.getToolCode(), binding);
+        }
+        return binding.program;
+    }
+
+    private static List<PricingRule> loadDefaultRules() {
+        InputStream in = PricingRules.class.getClassLoader().getResourceAsStream(DEFAULT_RULES);
+        if (in == null) {
+            throw new IllegalStateException("Pricing rules resource '" + DEFAULT_RULES + "' not found");
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            return PricingRule.parse(reader.lines().toList());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private record Binding(Tool tool, RuleProgram program) {
+    }
+
+    // One version of the rules with the programs compiled from it, keyed by tool code and by the rules they hold
+    private static final class Compiled {
+        private final List<PricingRule> rules;
+        private final Map<String, Binding> byToolCode = new ConcurrentHashMap<>();
+        private final Map<List<PricingRule>, RuleProgram> byRules = new ConcurrentHashMap<>();
+
+        private Compiled(List<PricingRule> rules) {
+            this.rules = rules;
+        }
+
+        private RuleProgram compile(Tool tool) {
+            List<PricingRule> applicable = new ArrayList<>();
+            for (PricingRule rule : rules) {
+                if (rule.appliesTo(tool)) {
+                    applicable.add(rule);
+                }
+            }
+            if (applicable.isEmpty()) {
+                return RuleProgram.NONE;
+            }
+            return byRules.computeIfAbsent(applicable, RuleProgram::compile);
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.toolShop.pricing;
+
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.toolShop.money.Money;
+
+// The pricing rules that apply to a tool, compiled into flat tables evaluated once per rental
+// Surcharges and discounts only depend on the checkout date's day of the year and the rental length.
+// Each of the two is mapped through a small array to a class (a range in which no rule's condition
+// changes), and a table indexed by both classes holds the summed surcharge and the largest discount,
+// so a lookup is three array reads however many rules there are. Rates are compiled into segments of
+// the year with one daily rate each (the first matching rule wins), and a rental's charge adds up the
+// charge days of each segment it crosses as counted by the charge-day index.
+// Day indexes number the days of a leap year (Feb 29 is 59), so a season covers the same dates every year
+public final class RuleProgram {
+
+    static final int DAYS_IN_YEAR = 366;
+
+    // Daily rate of a day without a rate rule: the tool's own daily charge
+    static final int BASE_RATE = 10_000;
+
+    private static final int FEB_29 = 59;
+    private static final int[] MONTH_OFFSET = {0, 31, 60, 91, 121, 152, 182, 213, 244, 274, 305, 335};
+
+    // Program of a tool that no rule applies to
+    public static final RuleProgram NONE = compile(List.of());
+
+    // Counts the chargeable days of the tool in the inclusive epoch-day range [fromDay, toDay]
+    @FunctionalInterface
+    public interface ChargeDayCounter {
+        int count(long fromDay, long toDay);
+    }
+
+    private final boolean empty;
+    private final boolean rated;
+    // Day index -> season class, rental days (capped at the last entry) -> days class
+    private final short[] seasonClass;
+    private final short[] daysClass;
+    private final int daysClasses;
+    // Indexed by seasonClass * daysClasses + daysClass
+    private final int[] surchargeBasisPoints;
+    private final int[] discountBasisPoints;
+    // Day index -> rate segment, and each segment's last day index and daily rate in basis points
+    private final short[] rateSegment;
+    private final int[] segmentEnd;
+    private final int[] segmentRate;
+
+    private RuleProgram(boolean empty, short[] seasonClass, short[] daysClass, int[] surchargeBasisPoints,
+            int[] discountBasisPoints, short[] rateSegment, int[] segmentEnd, int[] segmentRate) {
+        this.empty = empty;
+        this.seasonClass = seasonClass;
+        this.daysClass = daysClass;
+        this.daysClasses = daysClass[daysClass.length - 1] + 1;
+        this.surchargeBasisPoints = surchargeBasisPoints;
+        this.discountBasisPoints = discountBasisPoints;
+        this.rateSegment = rateSegment;
+        this.segmentEnd = segmentEnd;
+        this.segmentRate = segmentRate;
+        this.rated = segmentRate.length > 1 || segmentRate[0] != BASE_RATE;
+    }
+
+    // Compiles the rules that apply to one tool, in rule order
+    static RuleProgram compile(List<PricingRule> rules) {
+        // A class starts wherever a season starts or ends, or a days condition starts or ends
+        boolean[] seasonBreaks = new boolean[DAYS_IN_YEAR];
+        boolean[] daysBreaks = new boolean[PricingRule.MAX_DAYS + 2];
+        int lastDaysBreak = 0;
+        List<boolean[]> seasons = new ArrayList<>(rules.size());
+        for (PricingRule rule : rules) {
+            boolean[] season = new boolean[DAYS_IN_YEAR];
+            rule.markSeason(season);
+            seasons.add(season);
+            if (rule.getAction() == PricingRule.Action.RATE) {
+                continue;
+            }
+            for (int i = 1; i < DAYS_IN_YEAR; i++) {
+                seasonBreaks[i] |= season[i] != season[i - 1];
+            }
+            daysBreaks[rule.getMinDays()] = true;
+            lastDaysBreak = Math.max(lastDaysBreak, rule.getMinDays());
+            if (rule.getMaxDays() != Integer.MAX_VALUE) {
+                daysBreaks[rule.getMaxDays() + 1] = true;
+                lastDaysBreak = Math.max(lastDaysBreak, rule.getMaxDays() + 1);
+            }
+        }
+        short[] seasonClass = classes(seasonBreaks, DAYS_IN_YEAR);
+        short[] daysClass = classes(daysBreaks, lastDaysBreak + 1);
+        int seasonClasses = seasonClass[DAYS_IN_YEAR - 1] + 1;
+        int daysClasses = daysClass[daysClass.length - 1] + 1;
+
+        int[] surcharges = new int[seasonClasses * daysClasses];
+        int[] discounts = new int[seasonClasses * daysClasses];
+        int[] rates = new int[DAYS_IN_YEAR];
+        boolean[] rateSet = new boolean[DAYS_IN_YEAR];
+        Arrays.fill(rates, BASE_RATE);
+        for (int r = 0; r < rules.size(); r++) {
+            PricingRule rule = rules.get(r);
+            boolean[] season = seasons.get(r);
+            if (rule.getAction() == PricingRule.Action.RATE) {
+                for (int i = 0; i < DAYS_IN_YEAR; i++) {
+                    if (season[i] && !rateSet[i]) {
+                        rates[i] = rule.getBasisPoints();
+                        rateSet[i] = true;
+                    }
+                }
+                continue;
+            }
+            boolean[] inSeason = new boolean[seasonClasses];
+            for (int i = 0; i < DAYS_IN_YEAR; i++) {
+                inSeason[seasonClass[i]] |= season[i];
+            }
+            int fromDays = daysClass[rule.getMinDays()];
+            int toDays = rule.getMaxDays() == Integer.MAX_VALUE ? daysClasses - 1 : daysClass[rule.getMaxDays()];
+            for (int s = 0; s < seasonClasses; s++) {
+                if (!inSeason[s]) {
+                    continue;
+                }
+                for (int d = fromDays; d <= toDays; d++) {
+                    int cell = s * daysClasses + d;
+                    if (rule.getAction() == PricingRule.Action.SURCHARGE) {
+                        surcharges[cell] += rule.getBasisPoints();
+                    } else {
+                        discounts[cell] = Math.max(discounts[cell], rule.getBasisPoints());
+                    }
+                }
+            }
+        }
+
+        // Runs of days with the same rate become segments
+        short[] rateSegment = new short[DAYS_IN_YEAR];
+        int[] segmentEnd = new int[DAYS_IN_YEAR];
+        int[] segmentRate = new int[DAYS_IN_YEAR];
+        int segments = 0;
+        for (int i = 0; i < DAYS_IN_YEAR; i++) {
+            if (i == 0 || rates[i] != rates[i - 1]) {
+                segmentRate[segments++] = rates[i];
+            }
+            rateSegment[i] = (short) (segments - 1);
+            segmentEnd[segments - 1] = i;
+        }
+        return new RuleProgram(rules.isEmpty(), seasonClass, daysClass, surcharges, discounts, rateSegment,
+                Arrays.copyOf(segmentEnd, segments), Arrays.copyOf(segmentRate, segments));
+    }
+
+    // Numbers the ranges between breaks: entry i is the number of breaks in 1..i
+    private static short[] classes(boolean[] breaks, int length) {
+        short[] classes = new short[length];
+        for (int i = 1; i < length; i++) {
+            classes[i] = (short) (classes[i - 1] + (breaks[i] ? 1 : 0));
+        }
+        return classes;
+    }
+
+    // True if no rule applies: the tool is priced at its daily charge with the requested discount only
+    public boolean isEmpty() {
+        return empty;
+    }
+
+    // Index of a date's month and day in a leap year, 0 to 365
+    public static int dayIndex(LocalDate date) {
+        return dayIndex(date.getMonthValue(), date.getDayOfMonth());
+    }
+
+    static int dayIndex(int month, int day) {
+        return MONTH_OFFSET[month - 1] + day - 1;
+    }
+
+    // Table cell of the surcharge and discount for a rental checked out on the day index
+    public int cell(int checkoutDayIndex, int rentalDays) {
+        return seasonClass[checkoutDayIndex] * daysClasses + daysClass[Math.min(rentalDays, daysClass.length - 1)];
+    }
+
+    // Sum of the matching surcharges in basis points
+    public int surchargeBasisPoints(int cell) {
+        return surchargeBasisPoints[cell];
+    }
+
+    // Largest matching discount in basis points, 0 if none
+    public int discountBasisPoints(int cell) {
+        return discountBasisPoints[cell];
+    }
+
+    // Surcharge on a charge, rounded half up to whole cents
+    public long surchargeCents(long chargeCents, int cell) {
+        return Money.percentage(chargeCents, surchargeBasisPoints[cell], RoundingMode.HALF_UP);
+    }
+
+    // Charge for the charge days in the epoch days [fromDay, toDay], each at the daily rate of its season
+    // A seasonal daily rate is rounded half up to whole cents. Without rates this is the daily charge
+    // times the charge days; otherwise one count per rate segment the range crosses
+    public long chargeCents(long dailyChargeCents, long fromDay, long toDay, ChargeDayCounter counter) {
+        if (!rated) {
+            return Money.times(dailyChargeCents, counter.count(fromDay, toDay));
+        }
+        long cents = 0;
+        for (long day = fromDay; day <= toDay; ) {
+            LocalDate date = LocalDate.ofEpochDay(day);
+            int index = dayIndex(date);
+            int segment = rateSegment[index];
+            long end = day + segmentEnd[segment] - index;
+            // Day indexes count Feb 29 in every year
+            if (index < FEB_29 && segmentEnd[segment] >= FEB_29 && !date.isLeapYear()) {
+                end--;
+            }
+            end = Math.min(end, toDay);
+            int chargeDays = counter.count(day, end);
+            if (chargeDays > 0) {
+                long dailyCents = Money.percentage(dailyChargeCents, segmentRate[segment], RoundingMode.HALF_UP);
+                cents += Money.times(dailyCents, chargeDays);
+            }
+            day = end + 1;
+        }
+        return cents;
+    }
+}
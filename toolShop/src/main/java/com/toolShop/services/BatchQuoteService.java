@@ -0,0 +1,124 @@
+package com.toolShop.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.toolShop.cache.BatchQuoteResponse;
+import com.toolShop.cache.QuoteResult;
+import com.toolShop.cache.RentalAgreement;
+import com.toolShop.cache.RentalLine;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+@Service
+public class BatchQuoteService {
+
+    // Batches smaller than this many lines per thread are priced on the request thread
+    static final int MIN_LINES_PER_TASK = 16;
+
+    @Autowired
+    ToolService toolService;
+
+    // Maximum number of lines accepted in one batch
+    @Value("${toolshop.batch.max-lines:1000}")
+    int maxLines;
+
+    // Number of pricing threads, 0 means one per available processor
+    @Value("${toolshop.batch.threads:0}")
+    int threads;
+
+    private ThreadPoolExecutor executor;
+
+    // Starts the bounded pricing pool shared by all batch requests
+    // When the queue is full the submitting request thread prices the chunk itself
+    @PostConstruct
+    void start() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(poolSize * 4),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "batch-quote-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdown();
+    }
+
+    // Prices every line of a batch and returns one result per line, in request order
+    // Invalid lines produce an error result instead of failing the whole batch
+    public BatchQuoteResponse quote(List<RentalLine> lines) {
+        if (lines == null || lines.isEmpty()) {
+            throw new IllegalArgumentException("At least one rental line is required");
+        }
+        if (lines.size() > maxLines) {
+            throw new IllegalArgumentException("A batch can contain at most " + maxLines + " rental lines");
+        }
+
+        QuoteResult[] results = new QuoteResult[lines.size()];
+        int tasks = Math.min(executor.getMaximumPoolSize() + 1, lines.size() / MIN_LINES_PER_TASK);
+        if (tasks <= 1) {
+            quoteRange(lines, results, 0, lines.size());
+            return new BatchQuoteResponse(Arrays.asList(results));
+        }
+
+        // Split the batch into contiguous chunks; the request thread prices the last chunk itself
+        int chunkSize = (lines.size() + tasks - 1) / tasks;
+        List<Future<?>> futures = new ArrayList<>(tasks - 1);
+        int from = 0;
+        for (; from + chunkSize < lines.size(); from += chunkSize) {
+            int start = from;
+            futures.add(executor.submit(() -> quoteRange(lines, results, start, start + chunkSize)));
+        }
+        quoteRange(lines, results, from, lines.size());
+
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Batch quote interrupted", ex);
+            } catch (ExecutionException ex) {
+                throw new IllegalStateException("Batch quote failed", ex.getCause());
+            }
+        }
+        return new BatchQuoteResponse(Arrays.asList(results));
+    }
+
+    private void quoteRange(List<RentalLine> lines, QuoteResult[] results, int from, int to) {
+        for (int i = from; i < to; i++) {
+            results[i] = quoteLine(i, lines.get(i));
+        }
+    }
+
+    // Validates and prices a single line with the same rules as a single rental request
+    QuoteResult quoteLine(int index, RentalLine line) {
+        if (line == null) {
+            return QuoteResult.failure(index, null, "Rental line is required");
+        }
+        RentalAgreement rentalRequest = line.toRentalRequest();
+        // Field constraint violations are reported by quoteTool like any other invalid input
+        try {
+            return QuoteResult.success(index, line.getToolCode(), toolService.quoteTool(rentalRequest, line.getToolCode()));
+        } catch (IllegalArgumentException ex) {
+            return QuoteResult.failure(index, line.getToolCode(), ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.toolShop.services;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.toolShop.cache.BulkPricingSummary;
+import com.toolShop.cache.QuoteResult;
+import com.toolShop.cache.RentalLine;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+// Streams newline-delimited JSON rental lines through the batch pricing logic
+// Input is read one line at a time on the request thread and priced on a worker pool shared by all
+// runs; results are written as NDJSON in input order by the same request thread. Each run has its
+// own window of at most `window` lines read but not yet written, so reading stops (backpressure)
+// when pricing or the output falls behind and memory stays flat. Concurrent runs share the pool's
+// threads and queue instead of starting threads of their own
+@Service
+public class BulkPricingService {
+
+    private static final Logger LOGGER = Logger.getLogger(BulkPricingService.class.getName());
+
+    @Autowired
+    BatchQuoteService batchQuoteService;
+
+    @Autowired
+    JsonMapper jsonMapper;
+
+    // Number of pricing threads, 0 means one per available processor
+    @Value("${toolshop.bulk.threads:0}")
+    int threads;
+
+    // Maximum number of lines read but not yet written, per run
+    @Value("${toolshop.bulk.window:1024}")
+    int window;
+
+    private ThreadPoolExecutor workers;
+
+    // Starts the bounded pricing pool shared by all bulk runs
+    // When its queue is full the request thread prices the line itself, which also slows its reading
+    @PostConstruct
+    void start() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        workers = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, window)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "bulk-pricing-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    void stop() {
+        workers.shutdown();
+    }
+
+    // Prices every NDJSON line read from `in` and writes one NDJSON QuoteResult per line to `out`
+    // Lines that can't be parsed produce an error result like any other invalid line
+    public BulkPricingSummary price(InputStream in, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        Deque<Future<QuoteResult>> pending = new ArrayDeque<>();
+        ResultWriter writer = new ResultWriter(out);
+        int limit = Math.max(1, window);
+
+        long lines = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String text;
+            int index = 0;
+            while ((text = reader.readLine()) != null) {
+                int lineIndex = index++;
+                if (text.isBlank()) {
+                    continue;
+                }
+                String line = text;
+                // Make room in the window, then write whatever else is already priced
+                while (pending.size() >= limit) {
+                    writer.write(pending.poll());
+                }
+                pending.add(CompletableFuture.supplyAsync(() -> priceLine(lineIndex, line), workers));
+                lines++;
+                while (!pending.isEmpty() && pending.peek().isDone()) {
+                    writer.write(pending.poll());
+                }
+                // Push results out as soon as the writer has caught up with pricing
+                if (pending.isEmpty()) {
+                    writer.flush();
+                }
+            }
+            while (!pending.isEmpty()) {
+                writer.write(pending.poll());
+            }
+            writer.flush();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Bulk pricing interrupted", ex);
+        } finally {
+            // Lines still queued after a failure (e.g. the client disconnected) aren't worth pricing
+            for (Future<QuoteResult> future : pending) {
+                future.cancel(false);
+            }
+        }
+
+        BulkPricingSummary summary = new BulkPricingSummary(lines, writer.priced, writer.failed,
+                (System.nanoTime() - start) / 1_000_000);
+        LOGGER.info("Bulk pricing finished: " + summary);
+        return summary;
+    }
+
+    // Writes the run summary as a final NDJSON line of the form {"summary":{...}}
+    public void writeSummary(BulkPricingSummary summary, OutputStream out) throws IOException {
+        out.write(jsonMapper.writeValueAsBytes(Map.of("summary", summary)));
+        out.write('\n');
+        out.flush();
+    }
+
+    private QuoteResult priceLine(int index, String text) {
+        RentalLine line;
+        try {
+            line = jsonMapper.readValue(text, RentalLine.class);
+        } catch (JacksonException ex) {
+            return QuoteResult.failure(index, null, "Invalid rental line: " + ex.getOriginalMessage());
+        }
+        return batchQuoteService.quoteLine(index, line);
+    }
+
+    // Writes finished results in input order and counts outcomes
+    private final class ResultWriter {
+        private final OutputStream out;
+        private long priced;
+        private long failed;
+
+        private ResultWriter(OutputStream out) {
+            this.out = new BufferedOutputStream(out, 64 * 1024);
+        }
+
+        // Waits for the result and writes it
+        // Unexpected pricing failures abort the run instead of being written as a line result
+        private void write(Future<QuoteResult> next) throws IOException, InterruptedException {
+            QuoteResult result;
+            try {
+                result = next.get();
+            } catch (ExecutionException ex) {
+                throw new IOException("Bulk pricing failed", ex.getCause());
+            }
+            if (result.getError() == null) {
+                priced++;
+            } else {
+                failed++;
+            }
+            out.write(jsonMapper.writeValueAsBytes(result));
+            out.write('\n');
+        }
+
+        private void flush() throws IOException {
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.toolShop.services;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.toolShop.cache.CatalogPage;
+import com.toolShop.cache.CatalogTool;
+import com.toolShop.cache.Tool;
+import com.toolShop.catalog.CatalogSnapshot;
+import com.toolShop.catalog.ToolCatalog;
+import com.toolShop.util.Fnv1a;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import tools.jackson.databind.json.JsonMapper;
+
+// Pages of the tool catalog with each tool's details, held as ready-to-send JSON
+// A page is serialized and gzip-compressed once per catalog version and request (filters, page, size),
+// so serving it again is a map lookup and a copy of the bytes. Its ETag combines the catalog version
+// with a hash of the JSON, so it changes exactly when the content does and conditional requests are
+// answered with 304 from the cached page. Pages of earlier catalog versions are dropped on the first
+// request after a reload. At most toolshop.catalog-pages.max-pages pages are kept; beyond that, pages
+// are built for each request
+@Service
+public class CatalogService {
+
+    @Autowired
+    ToolCatalog toolCatalog;
+
+    @Autowired
+    JsonMapper jsonMapper;
+
+    @Autowired(required = false)
+    MeterRegistry meterRegistry;
+
+    // Largest number of tools per page
+    @Value("${toolshop.catalog-pages.max-page-size:500}")
+    int maxPageSize = 500;
+
+    // Largest number of cached pages for one catalog version
+    @Value("${toolshop.catalog-pages.max-pages:4096}")
+    int maxPages = 4096;
+
+    // Pages with less JSON than this are only sent uncompressed
+    @Value("${toolshop.catalog-pages.min-compress-size:1024}")
+    int minCompressSize = 1024;
+
+    private volatile Pages pages;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    // Registers the page cache counters
+    @PostConstruct
+    void registerMetrics() {
+        if (meterRegistry == null) {
+            return;
+        }
+        registerCounter("hit", hits);
+        registerCounter("miss", misses);
+    }
+
+    private void registerCounter(String result, LongAdder counter) {
+        FunctionCounter.builder("toolshop.catalog.pages", counter, LongAdder::sum)
+                .description("Catalog page requests by page cache result")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    // Returns a page of the tools of the given type and brand (case-insensitive, null or blank for any)
+    // A page past the last one has no tools. Throws IllegalArgumentException for a negative page or
+    // a size out of range
+    public Page page(String toolType, String brand, int page, int size) {
+        if (page < 0) {
+            throw new IllegalArgumentException("Page must be 0 or greater");
+        }
+        if (size < 1 || size > maxPageSize) {
+            throw new IllegalArgumentException("Size must be between 1 and " + maxPageSize);
+        }
+        String type = filterKey(toolType);
+        String brandKey = filterKey(brand);
+
+        // One snapshot for the whole page so the tools, the version and the ETag agree
+        CatalogSnapshot snapshot = toolCatalog.getSnapshot();
+        Pages current = pagesFor(snapshot.getVersion());
+        Key key = new Key(type, brandKey, page, size);
+        Page cached = current == null ? null : current.byKey.get(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        Page built = build(snapshot, type, brandKey, page, size);
+        if (current == null || current.byKey.size() >= maxPages) {
+            return built;
+        }
+        Page raced = current.byKey.putIfAbsent(key, built);
+        return raced == null ? built : raced;
+    }
+
+    // Cached pages of the catalog version, replacing the pages of an earlier version
+    // Returns null for a version older than the cached one, which a request that read the snapshot
+    // just before a reload can still be serving
+    private Pages pagesFor(long version) {
+        Pages current = pages;
+        if (current != null && current.version == version) {
+            return current;
+        }
+        synchronized (this) {
+            current = pages;
+            if (current == null || current.version < version) {
+                current = new Pages(version);
+                pages = current;
+            }
+            return current.version == version ? current : null;
+        }
+    }
+
+    private Page build(CatalogSnapshot snapshot, String toolType, String brand, int page, int size) {
+        List<Tool> matches = snapshot.getTools(toolType, brand);
+        long from = (long) page * size;
+        List<CatalogTool> tools = new ArrayList<>(from >= matches.size() ? 0 : (int) Math.min(size, matches.size() - from));
+        for (long i = from; i < matches.size() && i < from + size; i++) {
+            tools.add(new CatalogTool(matches.get((int) i)));
+        }
+        byte[] json = jsonMapper.writeValueAsBytes(new CatalogPage(snapshot.getVersion(), page, size, matches.size(), tools));
+        byte[] gzip = json.length < minCompressSize ? null : gzip(json);
+        return new Page("cat-" + snapshot.getVersion() + "-" + Long.toHexString(Fnv1a.hash(json)), json, gzip);
+    }
+
+    // Blank filters match every tool
+    private static String filterKey(String value) {
+        return value == null || value.isBlank() ? null : value.strip().toLowerCase(Locale.ROOT);
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+
+    // True if an Accept-Encoding header value accepts gzip (explicitly or through *) with a q-value above 0
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].strip().toLowerCase(Locale.ROOT);
+            if (!name.equals("gzip") && !name.equals("x-gzip") && !name.equals("*")) {
+                continue;
+            }
+            double quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].strip();
+                if (parameter.startsWith("q=") || parameter.startsWith("Q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2));
+                    } catch (NumberFormatException ex) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (quality > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record Key(String toolType, String brand, int page, int size) {
+    }
+
+    // Pages of one catalog version
+    private static final class Pages {
+        private final long version;
+        private final Map<Key, Page> byKey = new ConcurrentHashMap<>();
+
+        private Pages(long version) {
+            this.version = version;
+        }
+    }
+
+    // One serialized catalog page: the JSON and, for pages of at least minCompressSize bytes, its gzip encoding
+    // The arrays are shared by every request for the page and must not be modified
+    public static final class Page {
+        private final String tag;
+        private final byte[] json;
+        private final byte[] gzip;
+
+        Page(String tag, byte[] json, byte[] gzip) {
+            this.tag = tag;
+            this.json = json;
+            this.gzip = gzip;
+        }
+
+        // Strong ETag of the JSON, or of its gzip encoding: the two are different representations
+        public String getETag(boolean gzipped) {
+            return "\"" + tag + (gzipped ? "-gz" : "") + "\"";
+        }
+
+        public byte[] getJson() {
+            return json;
+        }
+
+        // Null if the page is too small to be worth compressing
+        public byte[] getGzip() {
+            return gzip;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.toolShop.services;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.toolShop.cache.Tool;
+import com.toolShop.calendar.HolidayCalendar;
+
+// Chargeable-day index used by the pricing code
+// Keeps one prefix-sum table per charge profile (the weekday/weekend/holiday flag combination
+// on a Tool) so the number of charge days in any rental window is two array lookups
+// Tables cover whole calendar years, are built lazily the first time a year is needed
+// and are shared by every request. Tables are rebuilt when the holiday rules change
+@Component
+public class ChargeDayIndex {
+
+    // Bit flags that make up a charge profile
+    static final int WEEKDAY = 1;
+    static final int WEEKEND = 2;
+    static final int HOLIDAY = 4;
+
+    // One table per profile, indexed by the profile bits (8 combinations)
+    private final AtomicReferenceArray<Table> tables = new AtomicReferenceArray<>(8);
+
+    private final HolidayCalendar holidayCalendar;
+
+    public ChargeDayIndex() {
+        this(new HolidayCalendar());
+    }
+
+    @Autowired
+    public ChargeDayIndex(HolidayCalendar holidayCalendar) {
+        this.holidayCalendar = holidayCalendar;
+    }
+
+    public HolidayCalendar getHolidayCalendar() {
+        return holidayCalendar;
+    }
+
+    // Returns the number of charge days for a rental of the given tool
+    // Charge days run from the day after checkout through and including the due date
+    public int countChargeDays(Tool tool, LocalDate checkoutDate, LocalDate dueDate) {
+        return countChargeDays(profileOf(tool), checkoutDate.toEpochDay() + 1, dueDate.toEpochDay());
+    }
+
+    // Returns the number of chargeable days for the profile in the inclusive epoch-day window [fromDay, toDay]
+    public int countChargeDays(int profile, long fromDay, long toDay) {
+        if (fromDay > toDay) {
+            return 0;
+        }
+        Table table = tables.get(profile);
+        if (table == null || !table.covers(fromDay, toDay) || table.calendarVersion != holidayCalendar.getVersion()) {
+            table = extend(profile, fromDay, toDay);
+        }
+        return table.count(fromDay, toDay);
+    }
+
+    // Returns running counts of chargeable days for the profile starting at fromDay:
+    // counts[i] is the number of chargeable days in [fromDay, fromDay + i), for i in 0..days
+    // so the charge days of any window inside the range are counts[end] - counts[start]
+    public int[] prefixCounts(int profile, long fromDay, int days) {
+        if (days == 0) {
+            return new int[1];
+        }
+        long toDay = fromDay + days - 1;
+        Table table = tables.get(profile);
+        if (table == null || !table.covers(fromDay, toDay) || table.calendarVersion != holidayCalendar.getVersion()) {
+            table = extend(profile, fromDay, toDay);
+        }
+        return table.prefixCounts(fromDay, days);
+    }
+
+    // Returns the charge profile bits for a tool
+    public static int profileOf(Tool tool) {
+        return (tool.isWeekdayCharge() ? WEEKDAY : 0)
+                | (tool.isWeekEndCharge() ? WEEKEND : 0)
+                | (tool.isHolidayCharge() ? HOLIDAY : 0);
+    }
+
+    // Returns true if a day is charged under the given profile
+    // Holidays take precedence over the weekend/weekday rules
+    static boolean isChargeable(int profile, LocalDate date, boolean holiday) {
+        if (holiday) {
+            return (profile & HOLIDAY) != 0;
+        }
+        DayOfWeek dayOfWeek = date.getDayOfWeek();
+        if (dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY) {
+            return (profile & WEEKEND) != 0;
+        }
+        return (profile & WEEKDAY) != 0;
+    }
+
+    // Rebuilds the table for a profile so it covers the requested window plus every year it already covered
+    // Readers never lock: they either see the old table or the fully built new one
+    private synchronized Table extend(int profile, long fromDay, long toDay) {
+        int calendarVersion = holidayCalendar.getVersion();
+        Table current = tables.get(profile);
+        if (current != null && current.calendarVersion != calendarVersion) {
+            // Holiday rules changed since this table was built, start over from the requested years
+            current = null;
+        }
+        if (current != null && current.covers(fromDay, toDay)) {
+            return current;
+        }
+        int firstYear = LocalDate.ofEpochDay(fromDay).getYear();
+        int lastYear = LocalDate.ofEpochDay(toDay).getYear();
+        if (current != null) {
+            firstYear = Math.min(firstYear, current.firstYear);
+            lastYear = Math.max(lastYear, current.lastYear);
+        }
+        Table table = Table.build(profile, holidayCalendar, calendarVersion, firstYear, lastYear);
+        tables.set(profile, table);
+        return table;
+    }
+
+    // Prefix sums of chargeable days over whole years [firstYear, lastYear]
+    // prefix[i] holds the number of chargeable days in [firstDay, firstDay + i)
+    private static final class Table {
+        private final int calendarVersion;
+        private final int firstYear;
+        private final int lastYear;
+        private final long firstDay;
+        private final int[] prefix;
+
+        private Table(int calendarVersion, int firstYear, int lastYear, long firstDay, int[] prefix) {
+            this.calendarVersion = calendarVersion;
+            this.firstYear = firstYear;
+            this.lastYear = lastYear;
+            this.firstDay = firstDay;
+            this.prefix = prefix;
+        }
+
+        private static Table build(int profile, HolidayCalendar holidayCalendar, int calendarVersion,
+                int firstYear, int lastYear) {
+            long firstDay = LocalDate.of(firstYear, 1, 1).toEpochDay();
+            long endDay = LocalDate.of(lastYear + 1, 1, 1).toEpochDay();
+            int[] prefix = new int[(int) (endDay - firstDay) + 1];
+
+            LocalDate date = LocalDate.ofEpochDay(firstDay);
+            for (int i = 0; i < prefix.length - 1; i++, date = date.plusDays(1)) {
+                boolean holiday = holidayCalendar.isHoliday(firstDay + i);
+                prefix[i + 1] = prefix[i] + (isChargeable(profile, date, holiday) ? 1 : 0);
+            }
+            return new Table(calendarVersion, firstYear, lastYear, firstDay, prefix);
+        }
+
+        private boolean covers(long fromDay, long toDay) {
+            return fromDay >= firstDay && toDay < firstDay + prefix.length - 1;
+        }
+
+        private int count(long fromDay, long toDay) {
+            return prefix[(int) (toDay - firstDay) + 1] - prefix[(int) (fromDay - firstDay)];
+        }
+
+        private int[] prefixCounts(long fromDay, int days) {
+            int start = (int) (fromDay - firstDay);
+            int base = prefix[start];
+            int[] counts = new int[days + 1];
+            for (int i = 0; i <= days; i++) {
+                counts[i] = prefix[start + i] - base;
+            }
+            return counts;
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.toolShop.services;
+
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.toolShop.cache.PriceGrid;
+import com.toolShop.cache.Tool;
+import com.toolShop.cache.ToolPriceGrid;
+import com.toolShop.catalog.CatalogSnapshot;
+import com.toolShop.catalog.ToolCatalog;
+import com.toolShop.money.Money;
+import com.toolShop.pricing.PricingRule;
+import com.toolShop.pricing.PricingRules;
+import com.toolShop.pricing.RuleProgram;
+import com.toolShop.util.Fnv1a;
+
+// Prices whole grids of rentals: every checkout date in a range times every rental length up to maxDays
+// Instead of pricing each cell, the grid takes one run of charge-day prefix counts per charge profile
+// covering the whole range, so the charge days of any cell are a difference of two counts. Tools with
+// the same profile share those columns, and each tool prices the at most maxDays + 1 distinct charge
+// day counts once and looks the rest up. Tools with pricing rules price every cell with their compiled
+// rules instead, using the same charge-day counts. Results match calculatePrice cell for cell.
+@Service
+public class PriceGridService {
+
+    @Autowired
+    ToolCatalog toolCatalog;
+
+    @Autowired
+    ChargeDayIndex chargeDayIndex;
+
+    @Autowired
+    PricingRules pricingRules = new PricingRules();
+
+    // Same rounding as single rentals, see ToolService
+    @Value("${toolshop.pricing.discount-rounding:HALF_UP}")
+    RoundingMode discountRounding = RoundingMode.HALF_UP;
+
+    // Largest number of checkout dates in one grid
+    @Value("${toolshop.price-grid.max-start-days:366}")
+    int maxStartDays = 366;
+
+    // Longest rental length in one grid (rentals are limited to 100 days)
+    @Value("${toolshop.price-grid.max-days:100}")
+    int maxRentalDays = 100;
+
+    // Largest number of cells (tools x checkout dates x rental lengths) in one grid
+    @Value("${toolshop.price-grid.max-cells:2000000}")
+    long maxCells = 2_000_000;
+
+    // Validates a grid request and resolves its tools and charge-day counts
+    // A null or empty tool code list means every tool in the catalog; a null start date means today.
+    // Throws IllegalArgumentException for unknown tools or out of range arguments
+    public Plan plan(List<String> toolCodes, LocalDate from, int startDays, int maxDays, Float discount) {
+        LocalDate currentDate = LocalDate.now();
+        LocalDate start = from == null ? currentDate : from;
+        if (start.isBefore(currentDate)) {
+            throw new IllegalArgumentException("The rental day must be on or after the current date: " + currentDate);
+        }
+        if (startDays < 1 || startDays > maxStartDays) {
+            throw new IllegalArgumentException("Start days must be between 1 and " + maxStartDays);
+        }
+        if (maxDays < 1 || maxDays > maxRentalDays) {
+            throw new IllegalArgumentException("Max days must be between 1 and " + maxRentalDays);
+        }
+        float percent = discount == null ? 0f : discount;
+        if (!(percent >= 0 && percent <= 100)) {
+            throw new IllegalArgumentException("Discount must be between 0 and 100");
+        }
+
+        // One snapshot for the whole grid so every tool comes from the same catalog version
+        CatalogSnapshot snapshot = toolCatalog.getSnapshot();
+        List<Tool> tools;
+        if (toolCodes == null || toolCodes.isEmpty()) {
+            tools = snapshot.getTools();
+        } else {
+            tools = new ArrayList<>(toolCodes.size());
+            for (String toolCode : toolCodes) {
+                Tool tool = snapshot.getTool(toolCode);
+                if (tool == null) {
+                    throw new IllegalArgumentException("The tool code '" + toolCode + "' doesn't exist");
+                }
+                tools.add(tool);
+            }
+        }
+        long cells = (long) tools.size() * startDays * maxDays;
+        if (cells > maxCells) {
+            throw new IllegalArgumentException("Price grid of " + cells + " cells exceeds the limit of " + maxCells);
+        }
+
+        // Charge days start the day after checkout, so the counts start the day after the first checkout
+        // and run through the last due date
+        int[][] countsByProfile = new int[8][];
+        int[] profiles = new int[tools.size()];
+        RuleProgram[] programs = new RuleProgram[tools.size()];
+        for (int i = 0; i < profiles.length; i++) {
+            programs[i] = pricingRules.programFor(tools.get(i));
+            int profile = ChargeDayIndex.profileOf(tools.get(i));
+            if (countsByProfile[profile] == null) {
+                countsByProfile[profile] = chargeDayIndex.prefixCounts(profile, start.toEpochDay() + 1,
+                        startDays - 1 + maxDays);
+            }
+            profiles[i] = profile;
+        }
+        return new Plan(start, startDays, maxDays, Money.basisPoints(percent), discountRounding,
+                tools, profiles, countsByProfile, programs, pricingRules.getRules());
+    }
+
+    // A validated grid request with everything the prices depend on already resolved
+    // The ETag is derived from those inputs, so an unchanged grid can be answered with 304 before it is built
+    public static final class Plan {
+        private final LocalDate from;
+        private final int startDays;
+        private final int maxDays;
+        private final int discountBasisPoints;
+        private final RoundingMode rounding;
+        private final List<Tool> tools;
+        private final int[] profiles;
+        private final int[][] countsByProfile;
+        private final RuleProgram[] programs;
+        private final String eTag;
+
+        private Plan(LocalDate from, int startDays, int maxDays, int discountBasisPoints, RoundingMode rounding,
+                List<Tool> tools, int[] profiles, int[][] countsByProfile, RuleProgram[] programs, List<PricingRule> rules) {
+            this.from = from;
+            this.startDays = startDays;
+            this.maxDays = maxDays;
+            this.discountBasisPoints = discountBasisPoints;
+            this.rounding = rounding;
+            this.tools = tools;
+            this.profiles = profiles;
+            this.countsByProfile = countsByProfile;
+            this.programs = programs;
+            this.eTag = computeETag(rules);
+        }
+
+        // Strong validator for the grid: a 64-bit FNV-1a hash of the request, each tool's code, daily charge,
+        // charge-day counts and the pricing rules. Counts reflect the holiday rules, so rule or price changes
+        // give a new tag
+        private String computeETag(List<PricingRule> rules) {
+            long hash = Fnv1a.OFFSET_BASIS;
+            hash = Fnv1a.mix(hash, from.toEpochDay());
+            hash = Fnv1a.mix(hash, startDays);
+            hash = Fnv1a.mix(hash, maxDays);
+            hash = Fnv1a.mix(hash, discountBasisPoints);
+            hash = Fnv1a.mix(hash, rounding.ordinal());
+            for (int i = 0; i < tools.size(); i++) {
+                Tool tool = tools.get(i);
+                hash = Fnv1a.mix(hash, tool.getToolCode());
+                hash = Fnv1a.mix(hash, tool.getDailyChargeCents());
+                hash = Fnv1a.mix(hash, profiles[i]);
+            }
+            for (int[] counts : countsByProfile) {
+                if (counts != null) {
+                    for (int count : counts) {
+                        hash = Fnv1a.mix(hash, count);
+                    }
+                }
+            }
+            for (PricingRule rule : rules) {
+                hash = Fnv1a.mix(hash, rule.getDefinition());
+            }
+            return "\"pg-" + Long.toHexString(hash) + "\"";
+        }
+
+        public String getETag() {
+            return eTag;
+        }
+
+        // Builds the grid columns
+        public PriceGrid build() {
+            List<ToolPriceGrid> grids = new ArrayList<>(tools.size());
+            // Tools sharing a profile share the same charge day columns
+            int[][][] chargeDaysByProfile = new int[countsByProfile.length][][];
+            for (int i = 0; i < tools.size(); i++) {
+                int profile = profiles[i];
+                if (chargeDaysByProfile[profile] == null) {
+                    chargeDaysByProfile[profile] = chargeDayColumns(countsByProfile[profile]);
+                }
+                int[][] chargeDays = chargeDaysByProfile[profile];
+
+                Tool tool = tools.get(i);
+                long[][] totals = programs[i].isEmpty()
+                        ? totalColumns(tool.getDailyChargeCents(), chargeDays)
+                        : ruleTotalColumns(tool.getDailyChargeCents(), programs[i], countsByProfile[profile]);
+                grids.add(new ToolPriceGrid(tool.getToolCode(), tool.getDailyChargeCents(), chargeDays, totals));
+            }
+            return new PriceGrid(from, startDays, maxDays, Money.percent(discountBasisPoints), grids);
+        }
+
+        // chargeDays[d - 1][s]: charge days of a d day rental checked out on day s
+        private int[][] chargeDayColumns(int[] counts) {
+            int[][] columns = new int[maxDays][startDays];
+            for (int days = 1; days <= maxDays; days++) {
+                int[] column = columns[days - 1];
+                for (int s = 0; s < startDays; s++) {
+                    column[s] = counts[s + days] - counts[s];
+                }
+            }
+            return columns;
+        }
+
+        // Prices each possible charge day count once (the same way as calculatePrice), then maps every cell
+        private long[][] totalColumns(long dailyChargeCents, int[][] chargeDays) {
+            long[] totalByChargeDays = new long[maxDays + 1];
+            for (int n = 0; n <= maxDays; n++) {
+                long preDiscountCents = Money.times(dailyChargeCents, n);
+                totalByChargeDays[n] = preDiscountCents - Money.percentage(preDiscountCents, discountBasisPoints, rounding);
+            }
+            long[][] columns = new long[maxDays][startDays];
+            for (int d = 0; d < maxDays; d++) {
+                int[] chargeColumn = chargeDays[d];
+                long[] column = columns[d];
+                for (int s = 0; s < startDays; s++) {
+                    column[s] = totalByChargeDays[chargeColumn[s]];
+                }
+            }
+            return columns;
+        }
+
+        // Prices every cell with the tool's compiled pricing rules, the same way as calculatePrice
+        // counts[i] holds the charge days from the day after the first checkout up to i days later
+        private long[][] ruleTotalColumns(long dailyChargeCents, RuleProgram rules, int[] counts) {
+            long firstDay = from.toEpochDay() + 1;
+            RuleProgram.ChargeDayCounter counter =
+                    (fromDay, toDay) -> counts[(int) (toDay - firstDay) + 1] - counts[(int) (fromDay - firstDay)];
+            long[][] columns = new long[maxDays][startDays];
+            for (int s = 0; s < startDays; s++) {
+                long checkoutDay = from.toEpochDay() + s;
+                int checkoutDayIndex = RuleProgram.dayIndex(from.plusDays(s));
+                for (int days = 1; days <= maxDays; days++) {
+                    long chargeCents = rules.chargeCents(dailyChargeCents, checkoutDay + 1, checkoutDay + days, counter);
+                    int cell = rules.cell(checkoutDayIndex, days);
+                    long preDiscountCents = chargeCents + rules.surchargeCents(chargeCents, cell);
+                    int basisPoints = Math.max(discountBasisPoints, rules.discountBasisPoints(cell));
+                    columns[days - 1][s] = preDiscountCents - Money.percentage(preDiscountCents, basisPoints, rounding);
+                }
+            }
+            return columns;
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.toolShop.services;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.toolShop.cache.RentalAgreement;
+import com.toolShop.cache.Tool;
+import com.toolShop.calendar.HolidayCalendar;
+import com.toolShop.catalog.ToolCatalog;
+import com.toolShop.pricing.PricingRules;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+// Bounded memo of priced quotes keyed on (tool, checkout date, rental days, discount)
+// Pricing is a pure function of those inputs plus the holiday and pricing rules, so repeated requests
+// reuse the stored result. Entries are immutable snapshots of the priced fields that are copied
+// onto the caller's agreement, so nothing a caller does can change a cached result.
+// The cache is split into lock-striped LRU segments bounded by toolshop.quote-cache.max-size,
+// entries expire after toolshop.quote-cache.ttl-seconds, and everything is dropped whenever
+// the tool catalog, holiday rules or pricing rules change version
+@Component
+public class QuoteCache {
+
+    private static final int SEGMENTS = 16;
+
+    @Value("${toolshop.quote-cache.enabled:true}")
+    boolean enabled = true;
+
+    @Value("${toolshop.quote-cache.max-size:100000}")
+    int maxSize = 100_000;
+
+    // 0 keeps entries until they are evicted by size or invalidated
+    @Value("${toolshop.quote-cache.ttl-seconds:600}")
+    long ttlSeconds = 600;
+
+    @Autowired(required = false)
+    MeterRegistry meterRegistry;
+
+    private final ToolCatalog toolCatalog;
+    private final HolidayCalendar holidayCalendar;
+    private final PricingRules pricingRules;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    // Versions of the catalog, holiday rules and pricing rules the cached entries were priced with
+    private volatile long catalogVersion;
+    private volatile int holidayVersion;
+    private volatile int rulesVersion;
+
+    // Cache for a pricer that uses the default pricing rules
+    public QuoteCache(ToolCatalog toolCatalog, HolidayCalendar holidayCalendar) {
+        this(toolCatalog, holidayCalendar, new PricingRules());
+    }
+
+    @Autowired
+    public QuoteCache(ToolCatalog toolCatalog, HolidayCalendar holidayCalendar, PricingRules pricingRules) {
+        this.toolCatalog = toolCatalog;
+        this.holidayCalendar = holidayCalendar;
+        this.pricingRules = pricingRules;
+        this.catalogVersion = toolCatalog.getSnapshot().getVersion();
+        this.holidayVersion = holidayCalendar.getVersion();
+        this.rulesVersion = pricingRules.getVersion();
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    // Registers the cache metrics
+    @PostConstruct
+    public void start() {
+        if (meterRegistry == null || !enabled) {
+            return;
+        }
+        Gauge.builder("toolshop.quote.cache.size", this, QuoteCache::size)
+                .description("Quotes held in the quote cache")
+                .register(meterRegistry);
+        registerCounter("hit", hits);
+        registerCounter("miss", misses);
+        registerCounter("eviction", evictions);
+        registerCounter("invalidation", invalidations);
+    }
+
+    // Prices the agreement for the tool, reusing a cached result for the same inputs
+    // On a miss the pricer fills in the agreement and the priced fields are stored
+    public void price(Tool tool, RentalAgreement rentalAgreement, BiConsumer<Tool, RentalAgreement> pricer) {
+        if (!enabled) {
+            pricer.accept(tool, rentalAgreement);
+            return;
+        }
+        long pricedCatalogVersion = toolCatalog.getSnapshot().getVersion();
+        int pricedHolidayVersion = holidayCalendar.getVersion();
+        int pricedRulesVersion = pricingRules.getVersion();
+        if (pricedCatalogVersion != catalogVersion || pricedHolidayVersion != holidayVersion
+                || pricedRulesVersion != rulesVersion) {
+            invalidate(pricedCatalogVersion, pricedHolidayVersion, pricedRulesVersion);
+        }
+
+        Key key = new Key(tool, rentalAgreement.getCheckoutDate().toEpochDay(), rentalAgreement.getTotalRentalDays(),
+                rentalAgreement.getDiscountBasisPoints());
+        Segment segment = segments[(key.hashCode() ^ (key.hashCode() >>> 16)) & (SEGMENTS - 1)];
+        long now = System.nanoTime();
+
+        Quote quote = segment.get(key, now);
+        if (quote != null) {
+            hits.increment();
+            quote.applyTo(rentalAgreement);
+            return;
+        }
+        misses.increment();
+        pricer.accept(tool, rentalAgreement);
+
+        long expiresAt = now + TimeUnit.SECONDS.toNanos(ttlSeconds);
+        segment.put(key, new Quote(rentalAgreement, expiresAt), pricedCatalogVersion, pricedHolidayVersion, pricedRulesVersion);
+    }
+
+    // Drops every entry
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    // Clears the cache once per version change, however many requests notice it
+    private synchronized void invalidate(long newCatalogVersion, int newHolidayVersion, int newRulesVersion) {
+        if (newCatalogVersion == catalogVersion && newHolidayVersion == holidayVersion && newRulesVersion == rulesVersion) {
+            return;
+        }
+        catalogVersion = newCatalogVersion;
+        holidayVersion = newHolidayVersion;
+        rulesVersion = newRulesVersion;
+        clear();
+        invalidations.increment();
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    // Entries removed because a segment was full or the entry expired
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    // Number of times the cache was cleared because the catalog, holiday rules or pricing rules changed
+    public long getInvalidations() {
+        return invalidations.sum();
+    }
+
+    private void registerCounter(String result, LongAdder counter) {
+        FunctionCounter.builder("toolshop.quote.cache", counter, LongAdder::sum)
+                .description("Quote cache lookups and removals by result")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    // Tools are immutable catalog entries, so the key holds the tool itself (compared by identity)
+    private record Key(Tool tool, long checkoutDay, int totalRentalDays, int discountBasisPoints) {
+    }
+
+    // Immutable copy of the fields calculatePrice sets
+    private static final class Quote {
+        private final LocalDate dueDate;
+        private final int chargeDays;
+        private final long preDiscountCents;
+        private final long moneySavedCents;
+        private final long totalCents;
+        private final long expiresAt;
+
+        private Quote(RentalAgreement priced, long expiresAt) {
+            this.dueDate = priced.getDueDate();
+            this.chargeDays = priced.getChargeDays();
+            this.preDiscountCents = priced.getPreDiscountCents();
+            this.moneySavedCents = priced.getMoneySavedCents();
+            this.totalCents = priced.getTotalCents();
+            this.expiresAt = expiresAt;
+        }
+
+        private void applyTo(RentalAgreement rentalAgreement) {
+            rentalAgreement.setDueDate(dueDate);
+            rentalAgreement.setChargeDays(chargeDays);
+            rentalAgreement.setPreDiscountCents(preDiscountCents);
+            rentalAgreement.setMoneySavedCents(moneySavedCents);
+            rentalAgreement.setTotalCents(totalCents);
+        }
+    }
+
+    // One lock stripe: an access-ordered map that drops its least recently used entry when full
+    private final class Segment {
+        private final LinkedHashMap<Key, Quote> entries = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Quote> eldest) {
+                if (size() > Math.max(1, maxSize / SEGMENTS)) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        synchronized Quote get(Key key, long now) {
+            Quote quote = entries.get(key);
+            if (quote != null && ttlSeconds > 0 && quote.expiresAt - now < 0) {
+                entries.remove(key);
+                evictions.increment();
+                return null;
+            }
+            return quote;
+        }
+
+        // Stores the quote unless the catalog or rules changed while it was being priced;
+        // an invalidation that happens after this clears it under the same lock
+        synchronized void put(Key key, Quote quote, long pricedCatalogVersion, int pricedHolidayVersion, int pricedRulesVersion) {
+            if (pricedCatalogVersion == toolCatalog.getSnapshot().getVersion()
+                    && pricedHolidayVersion == holidayCalendar.getVersion()
+                    && pricedRulesVersion == pricingRules.getVersion()) {
+                entries.put(key, quote);
+            }
+        }
+
+        synchronized void clear() {
+            entries.clear();
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+    }
+}
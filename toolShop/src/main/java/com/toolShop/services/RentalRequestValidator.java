@@ -0,0 +1,99 @@
+package com.toolShop.services;
+
+import com.toolShop.cache.RentalAgreement;
+import com.toolShop.errors.ErrorCode;
+import com.toolShop.errors.RejectedRequestException;
+
+// The Bean Validation constraints declared on RentalAgreement, checked in one pass without reflection
+// Messages are the constraints' messages, reported as "field: message" and joined with "; "
+// in field name order, the same text Hibernate Validator produced for rentals and batch results
+// before this replaced it. Keep the bounds and messages in step with the annotations.
+// Each violated constraint is one bit, and the rejection for every combination of bits is built
+// once when the class loads, so checking a request never allocates, valid or not
+public final class RentalRequestValidator {
+
+    static final int MIN_RENTAL_DAYS = 1;
+    static final int MAX_RENTAL_DAYS = 100;
+    static final float MIN_DISCOUNT = 0f;
+    static final float MAX_DISCOUNT = 100f;
+
+    // Messages in field name order; bit i of a violation mask is MESSAGES[i]
+    private static final String[] MESSAGES = {
+        "checkoutDate: must not be null",
+        "discount: Discount is required",
+        "discount: Discount must be 0% or greater",
+        "discount: Discount must be 100% or less",
+        "totalRentalDays: Number of rentals days is required",
+        "totalRentalDays: Number of rental days must be 1 or greater",
+        "totalRentalDays: Number of rental days must be less than or equal to 100",
+    };
+
+    private static final int CHECKOUT_DATE_REQUIRED = 1;
+    private static final int DISCOUNT_REQUIRED = 1 << 1;
+    private static final int DISCOUNT_TOO_LOW = 1 << 2;
+    private static final int DISCOUNT_TOO_HIGH = 1 << 3;
+    private static final int RENTAL_DAYS_REQUIRED = 1 << 4;
+    private static final int RENTAL_DAYS_TOO_LOW = 1 << 5;
+    private static final int RENTAL_DAYS_TOO_HIGH = 1 << 6;
+
+    // Rejection for each violation mask (index 0, no violations, is null)
+    private static final RejectedRequestException[] REJECTIONS = new RejectedRequestException[1 << MESSAGES.length];
+
+    static {
+        for (int mask = 1; mask < REJECTIONS.length; mask++) {
+            StringBuilder message = new StringBuilder();
+            for (int bit = 0; bit < MESSAGES.length; bit++) {
+                if ((mask & (1 << bit)) != 0) {
+                    if (message.length() > 0) {
+                        message.append("; ");
+                    }
+                    message.append(MESSAGES[bit]);
+                }
+            }
+            REJECTIONS[mask] = new RejectedRequestException(ErrorCode.INVALID_REQUEST, message.toString());
+        }
+    }
+
+    private RentalRequestValidator() {
+    }
+
+    // Returns the rejection for the request's violated constraints, or null when it is valid
+    public static RejectedRequestException check(RentalAgreement rentalRequest) {
+        int violations = 0;
+
+        if (rentalRequest.getCheckoutDate() == null) {
+            violations |= CHECKOUT_DATE_REQUIRED;
+        }
+
+        Float discount = rentalRequest.getDiscount();
+        if (discount == null) {
+            violations |= DISCOUNT_REQUIRED;
+        } else {
+            // NaN fails both bounds
+            float percent = discount;
+            if (!(percent >= MIN_DISCOUNT)) {
+                violations |= DISCOUNT_TOO_LOW;
+            }
+            if (!(percent <= MAX_DISCOUNT)) {
+                violations |= DISCOUNT_TOO_HIGH;
+            }
+        }
+
+        Integer totalRentalDays = rentalRequest.getTotalRentalDays();
+        if (totalRentalDays == null) {
+            violations |= RENTAL_DAYS_REQUIRED;
+        } else if (totalRentalDays < MIN_RENTAL_DAYS) {
+            violations |= RENTAL_DAYS_TOO_LOW;
+        } else if (totalRentalDays > MAX_RENTAL_DAYS) {
+            violations |= RENTAL_DAYS_TOO_HIGH;
+        }
+
+        return REJECTIONS[violations];
+    }
+
+    // Returns the violated constraints of the request as text, or null when it is valid
+    public static String violations(RentalAgreement rentalRequest) {
+        RejectedRequestException rejection = check(rentalRequest);
+        return rejection == null ? null : rejection.getMessage();
+    }
+}
@@ -0,0 +1,451 @@
+package com.toolShop.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.toolShop.cache.RentalAgreement;
+import com.toolShop.cache.RepricingStatus;
+import com.toolShop.cache.RepricingStatus.State;
+import com.toolShop.cache.RepricingToolSummary;
+import com.toolShop.cache.Tool;
+import com.toolShop.calendar.HolidayCalendar;
+import com.toolShop.catalog.CatalogSnapshot;
+import com.toolShop.json.DateText;
+import com.toolShop.ledger.RentalLedger;
+import com.toolShop.money.Money;
+import com.toolShop.pricing.PricingRule;
+import com.toolShop.util.Fnv1a;
+
+import jakarta.annotation.PreDestroy;
+import tools.jackson.databind.json.JsonMapper;
+
+// Re-prices every stored rental agreement with the current catalog and holiday rules and reports the difference
+// A run covers the agreements stored when it starts (ids 1 to lastId). They are read from the ledger in chunks of
+// chunk-size ids; each chunk is split into slices re-priced in parallel on a fork-join pool with calculatePrice,
+// and the slice results are joined back in id order. After every chunk the changed agreements are appended to
+// diffs.ndjson and the checkpoint (next id, report length, totals per tool code) is atomically replaced, so a
+// cancelled or killed run resumes after its last finished chunk. A checkpoint is only resumed while prices are
+// the same as when the run started (tools, holidays, pricing rules and discount rounding); otherwise the run has to restart
+@Service
+public class RepricingService {
+
+    private static final Logger LOGGER = Logger.getLogger(RepricingService.class.getName());
+
+    static final String CHECKPOINT_FILE = "checkpoint.properties";
+    static final String DIFF_FILE = "diffs.ndjson";
+    static final String SUMMARY_FILE = "summary.json";
+
+    // Holidays of these years are part of the pricing fingerprint (the years MM/dd/yy dates can hold)
+    private static final int FIRST_YEAR = 2000;
+    private static final int LAST_YEAR = 2099;
+
+    @Autowired
+    RentalLedger rentalLedger;
+
+    @Autowired
+    ToolService toolService;
+
+    @Autowired
+    JsonMapper jsonMapper;
+
+    // Directory holding the checkpoint and the reports
+    @Value("${toolshop.repricing.dir:data/repricing}")
+    String dir = "data/repricing";
+
+    // Agreement ids per checkpoint
+    @Value("${toolshop.repricing.chunk-size:65536}")
+    int chunkSize = 65536;
+
+    // Fork-join parallelism, 0 means one thread per available processor
+    @Value("${toolshop.repricing.threads:0}")
+    int threads;
+
+    // Agreement ids re-priced by one fork-join task
+    int sliceSize = 1024;
+
+    private volatile Run current;
+
+    // Starts a run on a background thread: resumes an unfinished checkpoint unless restart is set
+    // Returns null if a run is already in progress; throws IllegalArgumentException if the checkpoint
+    // can't be resumed because prices changed
+    public synchronized RepricingStatus start(boolean restart) throws IOException {
+        Run running = current;
+        if (running != null && running.state == State.RUNNING) {
+            return null;
+        }
+        Run run = open(restart);
+        current = run;
+        Thread thread = new Thread(() -> execute(run), "repricing-job");
+        thread.setDaemon(true);
+        thread.start();
+        return run.status();
+    }
+
+    // Stops the current run after its chunk in progress; it can be resumed with start(false)
+    public RepricingStatus cancel() {
+        Run run = current;
+        if (run != null) {
+            run.cancelRequested = true;
+        }
+        return getStatus();
+    }
+
+    @PreDestroy
+    void stop() {
+        cancel();
+    }
+
+    // Progress and totals of the current or last run of this process
+    public RepricingStatus getStatus() {
+        Run run = current;
+        return run != null ? run.status() : new RepricingStatus(State.IDLE, 0, 0, 0, 0, null, List.of());
+    }
+
+    private void execute(Run run) {
+        try {
+            while (!run.cancelRequested && run.step()) {
+                LOGGER.info("Re-priced " + run.processed + " of " + run.lastId + " agreements ("
+                        + run.agreementsPerSecond() + "/s)");
+            }
+            run.state = run.isFinished() ? State.COMPLETED : State.CANCELLED;
+            RepricingStatus status = run.status();
+            if (run.state == State.COMPLETED) {
+                Files.write(run.directory.resolve(SUMMARY_FILE), jsonMapper.writeValueAsBytes(status));
+            }
+            LOGGER.info("Re-pricing " + run.state.name().toLowerCase() + " after " + run.processed + " of " + run.lastId
+                    + " agreements, " + status.getChanged() + " changed, delta " + status.getDelta());
+        } catch (Exception ex) {
+            run.error = ex.getMessage();
+            run.state = State.FAILED;
+            LOGGER.log(Level.SEVERE, "Re-pricing failed at agreement " + run.nextId, ex);
+        } finally {
+            run.close();
+        }
+    }
+
+    // Opens a run in the configured directory, resuming its checkpoint when there is an unfinished one
+    Run open(boolean restart) throws IOException {
+        Path directory = Path.of(dir).toAbsolutePath();
+        Files.createDirectories(directory);
+        CatalogSnapshot snapshot = toolService.toolCatalog.getSnapshot();
+        long fingerprint = pricingFingerprint(snapshot);
+
+        Properties checkpoint = restart ? null : readCheckpoint(directory.resolve(CHECKPOINT_FILE));
+        if (checkpoint != null && Boolean.parseBoolean(checkpoint.getProperty("completed"))) {
+            checkpoint = null;
+        }
+        if (checkpoint == null) {
+            Files.deleteIfExists(directory.resolve(CHECKPOINT_FILE));
+            Files.deleteIfExists(directory.resolve(SUMMARY_FILE));
+            FileChannel diffs = FileChannel.open(directory.resolve(DIFF_FILE), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            return new Run(directory, snapshot, fingerprint, rentalLedger.size(), 1, 0, diffs, new TreeMap<>());
+        }
+
+        if (Long.parseLong(checkpoint.getProperty("fingerprint")) != fingerprint) {
+            throw new IllegalArgumentException("Prices changed since the interrupted re-pricing run started, restart it");
+        }
+        long diffBytes = Long.parseLong(checkpoint.getProperty("diffBytes"));
+        FileChannel diffs = FileChannel.open(directory.resolve(DIFF_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        if (diffs.size() < diffBytes) {
+            diffs.close();
+            throw new IllegalStateException("Re-pricing report " + DIFF_FILE + " is shorter than its checkpoint, restart the run");
+        }
+        // Drop lines written after the last checkpoint
+        diffs.truncate(diffBytes);
+        diffs.position(diffBytes);
+
+        Map<String, ToolDelta> totals = new TreeMap<>();
+        for (String name : checkpoint.stringPropertyNames()) {
+            if (name.startsWith("tool.")) {
+                totals.put(name.substring(5), ToolDelta.parse(checkpoint.getProperty(name)));
+            }
+        }
+        Run run = new Run(directory, snapshot, fingerprint, Long.parseLong(checkpoint.getProperty("lastId")),
+                Long.parseLong(checkpoint.getProperty("nextId")), diffBytes, diffs, totals);
+        LOGGER.info("Resuming re-pricing at agreement " + run.nextId + " of " + run.lastId);
+        return run;
+    }
+
+    private static Properties readCheckpoint(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+        }
+        return properties;
+    }
+
+    // 64-bit FNV-1a hash of everything that prices an agreement: each tool's code, daily charge and
+    // charge rules, the pricing rules, the discount rounding mode, and the holidays of FIRST_YEAR to LAST_YEAR
+    long pricingFingerprint(CatalogSnapshot snapshot) {
+        long hash = Fnv1a.OFFSET_BASIS;
+        for (Tool tool : snapshot.getTools()) {
+            hash = Fnv1a.mix(hash, tool.getToolCode());
+            hash = Fnv1a.mix(hash, tool.getDailyChargeCents());
+            hash = Fnv1a.mix(hash, ChargeDayIndex.profileOf(tool));
+        }
+        for (PricingRule rule : toolService.pricingRules.getRules()) {
+            hash = Fnv1a.mix(hash, rule.getDefinition());
+        }
+        hash = Fnv1a.mix(hash, toolService.discountRounding.ordinal());
+        HolidayCalendar holidays = toolService.chargeDayIndex.getHolidayCalendar();
+        for (int year = FIRST_YEAR; year <= LAST_YEAR; year++) {
+            for (LocalDate holiday : holidays.getHolidays(year)) {
+                hash = Fnv1a.mix(hash, holiday.toEpochDay());
+            }
+        }
+        return hash;
+    }
+
+
+    // One run: its position, report file and totals so far
+    // step() and close() are called by one thread at a time; status() may be called from any thread
+    final class Run {
+        private final Path directory;
+        private final CatalogSnapshot snapshot;
+        private final long fingerprint;
+        private final long lastId;
+        private final FileChannel diffs;
+        private final ForkJoinPool pool;
+        // Guarded by itself
+        private final Map<String, ToolDelta> totals;
+        private final long sessionStart = System.nanoTime();
+
+        private long diffBytes;
+        private volatile long nextId;
+        private volatile long processed;
+        private volatile long sessionProcessed;
+        private volatile long sessionNanos;
+        private volatile State state = State.RUNNING;
+        private volatile String error;
+        private volatile boolean cancelRequested;
+
+        private Run(Path directory, CatalogSnapshot snapshot, long fingerprint, long lastId, long nextId, long diffBytes,
+                FileChannel diffs, Map<String, ToolDelta> totals) {
+            this.directory = directory;
+            this.snapshot = snapshot;
+            this.fingerprint = fingerprint;
+            this.lastId = lastId;
+            this.nextId = nextId;
+            this.processed = nextId - 1;
+            this.diffBytes = diffBytes;
+            this.diffs = diffs;
+            this.totals = totals;
+            this.pool = new ForkJoinPool(threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+        }
+
+        boolean isFinished() {
+            return nextId > lastId;
+        }
+
+        // Re-prices and checkpoints the next chunk; returns false once every agreement is done
+        boolean step() throws IOException {
+            if (isFinished()) {
+                return false;
+            }
+            long from = nextId;
+            long to = Math.min(lastId + 1, from + Math.max(1, chunkSize));
+            Slice result = pool.invoke(new RepriceTask(from, to));
+
+            ByteBuffer bytes = ByteBuffer.wrap(result.diffs.toString().getBytes(StandardCharsets.UTF_8));
+            while (bytes.hasRemaining()) {
+                diffBytes += diffs.write(bytes);
+            }
+            // The report must be on disk before a checkpoint points past it
+            diffs.force(false);
+            synchronized (totals) {
+                result.tools.forEach((toolCode, delta) -> totals.computeIfAbsent(toolCode, key -> new ToolDelta()).add(delta));
+            }
+            nextId = to;
+            processed = to - 1;
+            sessionProcessed += to - from;
+            sessionNanos = System.nanoTime() - sessionStart;
+            writeCheckpoint();
+            return !isFinished();
+        }
+
+        private void writeCheckpoint() throws IOException {
+            Properties checkpoint = new Properties();
+            checkpoint.setProperty("fingerprint", Long.toString(fingerprint));
+            checkpoint.setProperty("lastId", Long.toString(lastId));
+            checkpoint.setProperty("nextId", Long.toString(nextId));
+            checkpoint.setProperty("diffBytes", Long.toString(diffBytes));
+            checkpoint.setProperty("completed", Boolean.toString(isFinished()));
+            synchronized (totals) {
+                totals.forEach((toolCode, delta) -> checkpoint.setProperty("tool." + toolCode, delta.format()));
+            }
+            Path temp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                checkpoint.store(out, "Re-pricing checkpoint");
+            }
+            Files.move(temp, directory.resolve(CHECKPOINT_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        long agreementsPerSecond() {
+            long nanos = sessionNanos;
+            return nanos == 0 ? 0 : sessionProcessed * TimeUnit.SECONDS.toNanos(1) / nanos;
+        }
+
+        RepricingStatus status() {
+            List<RepricingToolSummary> tools = new ArrayList<>();
+            synchronized (totals) {
+                totals.forEach((toolCode, delta) -> tools.add(delta.summary(toolCode)));
+            }
+            long elapsed = state == State.RUNNING ? System.nanoTime() - sessionStart : sessionNanos;
+            return new RepricingStatus(state, lastId, processed, agreementsPerSecond(),
+                    TimeUnit.NANOSECONDS.toMillis(elapsed), error, tools);
+        }
+
+        void close() {
+            pool.shutdownNow();
+            try {
+                diffs.close();
+            } catch (IOException ex) {
+                LOGGER.log(Level.WARNING, "Failed to close re-pricing report", ex);
+            }
+        }
+
+        // Re-prices the ids [from, to), splitting the range in halves down to sliceSize ids
+        private final class RepriceTask extends RecursiveTask<Slice> {
+            private final long from;
+            private final long to;
+
+            RepriceTask(long from, long to) {
+                this.from = from;
+                this.to = to;
+            }
+
+            @Override
+            protected Slice compute() {
+                if (to - from <= sliceSize) {
+                    return reprice(from, to);
+                }
+                long mid = (from + to) >>> 1;
+                RepriceTask left = new RepriceTask(from, mid);
+                left.fork();
+                Slice right = new RepriceTask(mid, to).compute();
+                return left.join().append(right);
+            }
+        }
+
+        private Slice reprice(long from, long to) {
+            Slice slice = new Slice();
+            rentalLedger.forEach(from, to, rentalAgreement -> {
+                String toolCode = rentalAgreement.getToolCode();
+                ToolDelta delta = slice.tools.computeIfAbsent(toolCode, key -> new ToolDelta());
+                int oldChargeDays = rentalAgreement.getChargeDays();
+                long oldPreDiscountCents = rentalAgreement.getPreDiscountCents();
+                long oldTotalCents = rentalAgreement.getTotalCents();
+                delta.agreements++;
+                delta.oldTotalCents += oldTotalCents;
+
+                Tool tool = snapshot.getTool(toolCode);
+                if (tool == null) {
+                    delta.unpriced++;
+                    delta.newTotalCents += oldTotalCents;
+                    return;
+                }
+                toolService.calculatePrice(tool, rentalAgreement);
+                delta.newTotalCents += rentalAgreement.getTotalCents();
+                if (rentalAgreement.getChargeDays() != oldChargeDays
+                        || rentalAgreement.getPreDiscountCents() != oldPreDiscountCents
+                        || rentalAgreement.getTotalCents() != oldTotalCents) {
+                    delta.changed++;
+                    appendDiff(slice.diffs, rentalAgreement, oldChargeDays, oldTotalCents);
+                }
+            });
+            return slice;
+        }
+    }
+
+    // One changed agreement as an NDJSON line
+    static void appendDiff(StringBuilder out, RentalAgreement rentalAgreement, int oldChargeDays, long oldTotalCents) {
+        out.append("{\"agreementId\":").append(rentalAgreement.getAgreementId().longValue())
+                .append(",\"toolCode\":\"").append(rentalAgreement.getToolCode())
+                .append("\",\"checkoutDate\":\"").append(DateText.format(rentalAgreement.getCheckoutDate()).getValue())
+                .append("\",\"totalRentalDays\":").append(rentalAgreement.getTotalRentalDays().intValue())
+                .append(",\"oldChargeDays\":").append(oldChargeDays)
+                .append(",\"newChargeDays\":").append(rentalAgreement.getChargeDays())
+                .append(",\"oldTotal\":");
+        Money.append(out, oldTotalCents).append(",\"newTotal\":");
+        Money.append(out, rentalAgreement.getTotalCents()).append(",\"delta\":");
+        Money.append(out, rentalAgreement.getTotalCents() - oldTotalCents).append("}\n");
+    }
+
+    // Result of re-pricing a range of ids: the report lines of changed agreements and totals per tool code
+    private static final class Slice {
+        private final StringBuilder diffs = new StringBuilder();
+        private final Map<String, ToolDelta> tools = new HashMap<>();
+
+        // Adds a result for the ids right after this one
+        Slice append(Slice next) {
+            diffs.append(next.diffs);
+            next.tools.forEach((toolCode, delta) -> tools.computeIfAbsent(toolCode, key -> new ToolDelta()).add(delta));
+            return this;
+        }
+    }
+
+    // Re-pricing totals of one tool code
+    private static final class ToolDelta {
+        private long agreements;
+        private long changed;
+        private long unpriced;
+        private long oldTotalCents;
+        private long newTotalCents;
+
+        void add(ToolDelta other) {
+            agreements += other.agreements;
+            changed += other.changed;
+            unpriced += other.unpriced;
+            oldTotalCents += other.oldTotalCents;
+            newTotalCents += other.newTotalCents;
+        }
+
+        // Checkpoint form: agreements,changed,unpriced,oldTotalCents,newTotalCents
+        String format() {
+            return agreements + "," + changed + "," + unpriced + "," + oldTotalCents + "," + newTotalCents;
+        }
+
+        static ToolDelta parse(String text) {
+            String[] fields = text.split(",");
+            ToolDelta delta = new ToolDelta();
+            delta.agreements = Long.parseLong(fields[0]);
+            delta.changed = Long.parseLong(fields[1]);
+            delta.unpriced = Long.parseLong(fields[2]);
+            delta.oldTotalCents = Long.parseLong(fields[3]);
+            delta.newTotalCents = Long.parseLong(fields[4]);
+            return delta;
+        }
+
+        RepricingToolSummary summary(String toolCode) {
+            return new RepricingToolSummary(toolCode, agreements, changed, unpriced, oldTotalCents, newTotalCents);
+        }
+    }
+}
@@ -1,129 +1,235 @@
 package com.toolShop.services;
 
+import java.math.RoundingMode;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.temporal.TemporalAdjusters;
 import java.util.List;
-import java.util.logging.Logger;
+import java.util.NoSuchElementException;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.toolShop.audit.AuditJournal;
+import com.toolShop.audit.AuditRecord;
 import com.toolShop.cache.RentalAgreement;
 import com.toolShop.cache.Tool;
-import com.toolShop.constant.Constants;
+import com.toolShop.calendar.CachedClock;
+import com.toolShop.catalog.ToolCatalog;
+import com.toolShop.errors.ErrorCode;
+import com.toolShop.errors.RejectedRequestException;
+import com.toolShop.inventory.InventoryService;
+import com.toolShop.ledger.RentalLedger;
+import com.toolShop.metrics.StageTimings;
+import com.toolShop.metrics.StageTimings.Stage;
+import com.toolShop.money.Money;
+import com.toolShop.pricing.PricingRules;
+import com.toolShop.pricing.RuleProgram;
+import com.toolShop.stats.RentalStats;
 
 @Service
 public class ToolService {
 
-    private static final Logger LOGGER = Logger.getLogger(ToolService.class.getName());
+    private static final RejectedRequestException MISSING_REQUEST =
+            new RejectedRequestException(ErrorCode.MISSING_REQUEST, "Rental request is required");
+
+    @Autowired
+    ToolCatalog toolCatalog;
+
+    @Autowired
+    ChargeDayIndex chargeDayIndex;
+
+    @Autowired
+    QuoteCache quoteCache;
+
+    @Autowired
+    AuditJournal auditJournal;
+
+    @Autowired
+    RentalLedger rentalLedger;
+
+    @Autowired
+    InventoryService inventoryService;
+
+    // Seasonal rates, surcharges and discounts on top of the daily charge (the classpath defaults until injected)
+    @Autowired
+    PricingRules pricingRules = new PricingRules();
+
+    // Live per-tool rental and revenue totals (not ticking until started)
+    @Autowired
+    RentalStats rentalStats = new RentalStats();
+
+    // Source of today's date for the checkout date check (reads the system clock until started)
+    @Autowired
+    CachedClock clock = new CachedClock();
+
+    // Rejection for checkout dates before today, rebuilt when the date changes
+    private volatile PastDateRejection pastDateRejection;
+
+    // How the discount is rounded to whole cents
+    @Value("${toolshop.pricing.discount-rounding:HALF_UP}")
+    RoundingMode discountRounding = RoundingMode.HALF_UP;
 
     // Main function to process a tool rental request
     // Takes a rental agreement and tool code, validates them, calculates the total price,
     // and generates a rental agreement with all details
     public RentalAgreement rentTool(RentalAgreement rentalAgreement, String toolCode){
-        // Validate inputs (will throw IllegalArgumentException on invalid input)
-        validateTool(rentalAgreement, toolCode);
+        Tool curTool = price(rentalAgreement, toolCode);
 
-        Tool curTool = Constants.TOOL_MAP.get(toolCode.toUpperCase());
-        curTool.setToolCode(toolCode.toUpperCase());
+        // Book a free unit for the rental period (throws ToolUnavailableException if every unit is taken)
+        inventoryService.reserve(rentalAgreement);
 
-        rentalAgreement = calculatePrice(curTool, rentalAgreement);
+        // Store the agreement in the ledger; the id is 0 when the ledger is disabled
+        long agreementId;
+        try {
+            agreementId = rentalLedger.append(curTool, rentalAgreement);
+        } catch (RuntimeException ex) {
+            if (rentalAgreement.getUnit() != null) {
+                inventoryService.release(curTool.getToolCode(), rentalAgreement.getUnit(),
+                        rentalAgreement.getCheckoutDate(), rentalAgreement.getDueDate());
+            }
+            throw ex;
+        }
+        if (agreementId > 0) {
+            rentalAgreement.setAgreementId(agreementId);
+        }
 
         generateRentalAgreement(curTool, rentalAgreement);
+        StageTimings.lap(Stage.GENERATE_AGREEMENT);
 
         return rentalAgreement;
     }
 
-    // Validates the rental request to ensure all required information is provided
-    // Checks that: tool code exists, rental request is provided, checkout date is provided,
-    // and checkout date is not in the past. Throws IllegalArgumentException if any check fails.
-    public void validateTool(RentalAgreement rentalRequest, String toolCode){
-        LocalDate currentDate = LocalDate.now();
+    // Prices a rental request without generating a rental agreement
+    // Runs the same validation and pricing as rentTool; used for quotes and batch pricing
+    public RentalAgreement quoteTool(RentalAgreement rentalAgreement, String toolCode){
+        price(rentalAgreement, toolCode);
+        return rentalAgreement;
+    }
 
-        // Check if tool code is provided and exists in the available tools list (case-insensitive comparison)
-        if(toolCode == null || !Constants.ALL_TOOLS.stream().anyMatch(x -> x.equals(toolCode.toUpperCase()))){
-            throw new IllegalArgumentException("The tool code '" + toolCode + "' doesn't exist");
+    // Validates and prices the request against the current catalog, returns the tool it was priced with
+    private Tool price(RentalAgreement rentalAgreement, String toolCode){
+        // Validate inputs (will throw IllegalArgumentException on invalid input)
+        Tool curTool = validateTool(rentalAgreement, toolCode);
+        StageTimings.lap(Stage.VALIDATE_TOOL);
+
+        // Reuses the result of an identical recent request when there is one
+        quoteCache.price(curTool, rentalAgreement, this::calculatePrice);
+        rentalAgreement.setToolCode(curTool.getToolCode());
+        StageTimings.lap(Stage.CALCULATE_PRICE);
+        return curTool;
+    }
+
+    // Validates the rental request in a single step
+    // Checks, in order: the constraints declared on RentalAgreement (rental days, checkout date, discount),
+    // that the tool code exists, that the rental request is provided, and that the checkout date is not
+    // in the past. Throws a stackless RejectedRequestException (an IllegalArgumentException) if any check
+    // fails; apart from an unknown tool code the rejections are preallocated. Returns the catalog tool for the code
+    public Tool validateTool(RentalAgreement rentalRequest, String toolCode){
+        // Field constraints, reported with the same messages Bean Validation produced
+        if(rentalRequest != null){
+            RejectedRequestException rejection = RentalRequestValidator.check(rentalRequest);
+            StageTimings.lap(Stage.BEAN_VALIDATION);
+            if(rejection != null){
+                throw rejection;
+            }
+        }
+
+        // Check if tool code is provided and exists in the current catalog (case-insensitive comparison)
+        Tool tool = toolCatalog.getTool(toolCode);
+        if(tool == null){
+            throw new RejectedRequestException(ErrorCode.UNKNOWN_TOOL, "The tool code '" + toolCode + "' doesn't exist");
         }
         // Check if rental request object is provided
         if(rentalRequest == null){
-            throw new IllegalArgumentException("Rental request is required");
-        }
-        // Check if checkout date is provided
-        if(rentalRequest.getCheckoutDate() == null){
-            throw new IllegalArgumentException("Checkout date is required");
+            throw MISSING_REQUEST;
         }
         // Check if checkout date is not in the past (must be today or later)
+        // The checkout date is present once the field constraints pass
+        LocalDate currentDate = clock.today();
         if(rentalRequest.getCheckoutDate().isBefore(currentDate)){
-            throw new IllegalArgumentException("The rental day must be on or after the current date: " + currentDate);
+            throw pastDateRejection(currentDate);
+        }
+        return tool;
+    }
+
+    // The message names today's date, so the rejection is built once per day
+    private RejectedRequestException pastDateRejection(LocalDate currentDate){
+        PastDateRejection cached = pastDateRejection;
+        if(cached == null || !cached.date().equals(currentDate)){
+            cached = new PastDateRejection(currentDate, new RejectedRequestException(ErrorCode.PAST_CHECKOUT_DATE,
+                    "The rental day must be on or after the current date: " + currentDate));
+            pastDateRejection = cached;
         }
+        return cached.rejection();
+    }
+
+    private record PastDateRejection(LocalDate date, RejectedRequestException rejection) {
+    }
+
+    // Returns a stored rental agreement by id
+    // Throws NoSuchElementException if no agreement with that id exists
+    public RentalAgreement getRentalAgreement(long agreementId){
+        RentalAgreement rentalAgreement = rentalLedger.find(agreementId);
+        if(rentalAgreement == null){
+            throw new NoSuchElementException("Rental agreement " + agreementId + " doesn't exist");
+        }
+        return rentalAgreement;
     }
 
     // Returns a list of all the tool codes that are available for rental
     public List<String> getAllTools(){
-        return Constants.ALL_TOOLS;
+        return toolCatalog.getToolCodes();
     }
-    // Logs all details of the rental agreement to the console
-    // This includes tool information, rental dates, charges, discount, and final total
+    // Records all details of the rental agreement in the audit journal
+    // This includes tool information, rental dates, charges, discount, and final total.
+    // The record is written asynchronously so the request thread never waits on disk.
+    // The rental is also added to the live per-tool stats
     public void generateRentalAgreement(Tool tool, RentalAgreement rentalAgreement){
-        LOGGER.info("Tool Code: " + tool.getToolCode());
-        LOGGER.info("Tool Type: " + tool.getToolType());
-        LOGGER.info("Tool Brand: " + tool.getBrand());
-        LOGGER.info("Rental Days: " + rentalAgreement.getTotalRentalDays());
-        LOGGER.info("Checkout date: " + rentalAgreement.getCheckoutDate());
-        LOGGER.info("Due date: " + rentalAgreement.getDueDate());
-        LOGGER.info("Daily Charge: $" + tool.getDailyCharge());
-        LOGGER.info("Charge days: " + rentalAgreement.getChargeDays());
-        LOGGER.info("Pre-discount price: $" + rentalAgreement.getPreDiscountPrice());
-        LOGGER.info("Discount: " + rentalAgreement.getDiscount() + "%");
-        LOGGER.info("Discount amount: $" + rentalAgreement.getMoneySaved());
-        LOGGER.info("Final Charge: $" + rentalAgreement.getTotalPrice());
+        auditJournal.record(AuditRecord.of(tool, rentalAgreement));
+        rentalStats.record(rentalAgreement);
     }
+
     // Calculates the total rental price based on daily charge, rental days, and applicable discounts
-    // Accounts for holidays (Independence Day and Labor Day) and weekends that may not be charged
-    // depending on the tool's charging rules
+    // Accounts for holidays (from the holiday calendar) and weekends that may not be charged
+    // depending on the tool's charging rules, and for the pricing rules that apply to the tool:
+    // seasonal daily rates, surcharges added to the charge and the largest of the rule discounts
+    // and the requested discount. The agreement keeps the requested discount
     public RentalAgreement calculatePrice(Tool tool, RentalAgreement rentalAgreement){
-        float totalPrice = 0f;
-
-        // Get the dates when Independence Day and Labor Day are observed (considering weekends)
-        LocalDate independenceDay = getIndependenceDayObservance(rentalAgreement.getCheckoutDate().getYear());
-        LocalDate laborDay = getLaborDay(rentalAgreement.getCheckoutDate().getYear());
-
         // Calculate the due date by adding the rental days to the checkout date
         LocalDate endDate = rentalAgreement.getCheckoutDate().plusDays(rentalAgreement.getTotalRentalDays());
         rentalAgreement.setDueDate(endDate);
 
-        // Start with the total rental days and subtract days that shouldn't be charged
-        int totalRentalDays = rentalAgreement.getTotalRentalDays();
+        // Count the chargeable days from the precomputed per-profile calendar index
+        // Holidays, weekends and weekdays are only counted if the tool charges for them
+        int totalRentalDays = chargeDayIndex.countChargeDays(tool, rentalAgreement.getCheckoutDate(), endDate);
 
-        // Loop through each day of the rental period and determine if it should be charged
-        for (LocalDate currentDate = rentalAgreement.getCheckoutDate(); !currentDate.isAfter(endDate); currentDate = currentDate.plusDays(1)){
-            // If it's a holiday and the tool doesn't charge for holidays, skip the charge
-            if(currentDate == independenceDay || currentDate == laborDay && !tool.isHolidayCharge()){
-                totalRentalDays--;
-            }
-            // If it's a weekend and the tool doesn't charge for weekends, skip the charge
-            else if(currentDate.getDayOfWeek() == DayOfWeek.SATURDAY || currentDate.getDayOfWeek() == DayOfWeek.SUNDAY && !tool.isWeekEndCharge()){
-                totalRentalDays--;
-            }
-            // If it's a weekday and the tool doesn't charge for weekdays, skip the charge
-            else if(!tool.isWeekdayCharge()){
-                totalRentalDays--;
-            }
-        }
         // Set the number of days that will actually be charged
         rentalAgreement.setChargeDays(totalRentalDays);
 
-        // Calculate the price before discount by multiplying daily charge by chargeable days
-        // Round to 2 decimal places for currency
-        totalPrice = Math.round(tool.getDailyCharge() * rentalAgreement.getChargeDays() * 100.0f) / 100.0f;
-        rentalAgreement.setPreDiscountPrice(totalPrice);
+        // All amounts are whole cents, so the price before discount is exact
+        long preDiscountCents = Money.times(tool.getDailyChargeCents(), totalRentalDays);
+        int discountBasisPoints = rentalAgreement.getDiscountBasisPoints();
+
+        // Apply the compiled pricing rules, if any apply to this tool; each is evaluated once per rental
+        RuleProgram rules = pricingRules.programFor(tool);
+        if (!rules.isEmpty()) {
+            int profile = ChargeDayIndex.profileOf(tool);
+            long chargeCents = rules.chargeCents(tool.getDailyChargeCents(), rentalAgreement.getCheckoutDate().toEpochDay() + 1,
+                    endDate.toEpochDay(), (fromDay, toDay) -> chargeDayIndex.countChargeDays(profile, fromDay, toDay));
+            int cell = rules.cell(RuleProgram.dayIndex(rentalAgreement.getCheckoutDate()), rentalAgreement.getTotalRentalDays());
+            preDiscountCents = chargeCents + rules.surchargeCents(chargeCents, cell);
+            discountBasisPoints = Math.max(discountBasisPoints, rules.discountBasisPoints(cell));
+        }
+        rentalAgreement.setPreDiscountCents(preDiscountCents);
 
-        // Calculate the discount amount by applying the discount percentage to the pre-discount price
-        // Round to 2 decimal places for currency
-        rentalAgreement.setMoneySaved(Math.round(totalPrice * (rentalAgreement.getDiscount() / 100) *100.0f) / 100.0f);
+        // The discount is rounded to whole cents with the configured mode (seasonal rates and surcharges round half up)
+        long moneySavedCents = Money.percentage(preDiscountCents, discountBasisPoints, discountRounding);
+        rentalAgreement.setMoneySavedCents(moneySavedCents);
 
         // Calculate the final price by subtracting the discount amount from the pre-discount price
-        rentalAgreement.setTotalPrice(totalPrice - rentalAgreement.getMoneySaved());
+        rentalAgreement.setTotalCents(preDiscountCents - moneySavedCents);
 
         return rentalAgreement;
     }
@@ -0,0 +1,331 @@
+package com.toolShop.stats;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.toolShop.cache.RentalAgreement;
+import com.toolShop.cache.RevenueStats;
+import com.toolShop.util.Ticker;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+// Live rental and revenue aggregates per tool code
+// Every completed rental adds to five LongAdders of its tool code (rentals, rental days, charge days,
+// pre-discount and discounted revenue in cents), so recording never locks and spreads over cells
+// when many threads rent the same tool. Rolling windows are derived from these running totals:
+// once a second a ticker copies the totals into one ring per window, with SLOTS slots of 1 s for the
+// last minute, 1 min for the last hour and 24 min for the last day. A window's value is the current
+// total minus the copy taken one window length ago, so it covers its length plus at most one slot,
+// and the request path does no time bookkeeping at all.
+// Only tools rented since their last copy are copied, and a ring only holds the slots in which its
+// totals changed, growing up to SLOTS + 1 entries. Tools rented now and then cost a few entries
+// rather than full rings, and the ticker only reads one counter of each idle tool.
+// At most max-tools tool codes get their own totals; rentals of any others are added to OTHER
+@Component
+public class RentalStats {
+
+    // Rolling windows reported next to the all-time totals
+    public enum Window {
+        LAST_MINUTE("lastMinute", TimeUnit.MINUTES.toMillis(1)),
+        LAST_HOUR("lastHour", TimeUnit.HOURS.toMillis(1)),
+        LAST_DAY("lastDay", TimeUnit.DAYS.toMillis(1));
+
+        private final String key;
+        private final long lengthMillis;
+
+        Window(String key, long lengthMillis) {
+            this.key = key;
+            this.lengthMillis = lengthMillis;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        // Time between two copies of the totals
+        long slotMillis() {
+            return lengthMillis / SLOTS;
+        }
+    }
+
+    // Slots per window; each ring holds one more so the copy one window ago is still there
+    static final int SLOTS = 60;
+
+    // Tool code under which rentals beyond max-tools are counted
+    public static final String OTHER = "OTHER";
+
+    private static final Window[] WINDOWS = Window.values();
+
+    // Totals per tool: rentals, rental days, charge days, pre-discount cents, discounted cents
+    private static final int FIELDS = 5;
+
+    private static final long TICK_MILLIS = 1000;
+
+    @Value("${toolshop.stats.enabled:true}")
+    boolean enabled = true;
+
+    // Most tool codes with their own totals
+    @Value("${toolshop.stats.max-tools:10000}")
+    int maxTools = 10_000;
+
+    private final LongSupplier clock;
+    private final long startMillis;
+    private final Map<String, ToolTotals> tools = new ConcurrentHashMap<>();
+
+    // Guards the rings and lastSlot: taken by the ticker and by readers, never by recording
+    private final ReentrantLock lock = new ReentrantLock();
+    private final long[] lastSlot = new long[WINDOWS.length];
+
+    private ScheduledFuture<?> ticker;
+
+    public RentalStats() {
+        this(System::currentTimeMillis);
+    }
+
+    // Stats on a custom millisecond clock; tests call tick() instead of starting the ticker
+    public RentalStats(LongSupplier clock) {
+        this.clock = clock;
+        this.startMillis = clock.getAsLong();
+    }
+
+    // Starts copying the totals into the window rings every second
+    @PostConstruct
+    public void start() {
+        if (maxTools < 1) {
+            throw new IllegalArgumentException("toolshop.stats.max-tools must be greater than 0");
+        }
+        if (!enabled) {
+            return;
+        }
+        ticker = Ticker.schedule(this::tick, TICK_MILLIS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (ticker != null) {
+            ticker.cancel(false);
+        }
+    }
+
+    // Adds a completed rental to the totals of its tool code
+    public void record(RentalAgreement rentalAgreement) {
+        if (!enabled) {
+            return;
+        }
+        String toolCode = rentalAgreement.getToolCode();
+        ToolTotals totals = tools.get(toolCode);
+        if (totals == null) {
+            totals = register(toolCode);
+        }
+        totals.add(rentalAgreement);
+    }
+
+    private ToolTotals register(String toolCode) {
+        if (tools.size() >= maxTools) {
+            ToolTotals other = tools.get(OTHER);
+            if (other != null) {
+                return other;
+            }
+            toolCode = OTHER;
+        }
+        return tools.computeIfAbsent(toolCode, key -> new ToolTotals());
+    }
+
+    // Copies the changed totals into every ring whose slot has passed since the last tick
+    // A late tick's copy stands for the slots it missed, up to one turn of the ring
+    void tick() {
+        long elapsed = clock.getAsLong() - startMillis;
+        long[] slots = new long[WINDOWS.length];
+        long[] current = new long[FIELDS];
+        lock.lock();
+        try {
+            boolean due = false;
+            for (Window window : WINDOWS) {
+                slots[window.ordinal()] = elapsed / window.slotMillis();
+                due |= slots[window.ordinal()] > lastSlot[window.ordinal()];
+            }
+            if (!due) {
+                return;
+            }
+            for (ToolTotals totals : tools.values()) {
+                long rentals = totals.rentals();
+                boolean summed = false;
+                for (int w = 0; w < WINDOWS.length; w++) {
+                    if (slots[w] <= lastSlot[w] || rentals == totals.rings[w].latestRentals()) {
+                        continue;
+                    }
+                    if (!summed) {
+                        Arrays.fill(current, 0);
+                        totals.sum(current);
+                        summed = true;
+                    }
+                    totals.rings[w].add(Math.max(lastSlot[w] + 1, slots[w] - SLOTS), current);
+                }
+            }
+            for (int w = 0; w < WINDOWS.length; w++) {
+                lastSlot[w] = Math.max(lastSlot[w], slots[w]);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // All-time totals and rolling windows of each tool code that has been rented, in code order
+    public Map<String, Map<String, RevenueStats>> byTool() {
+        Map<String, Map<String, RevenueStats>> result = new TreeMap<>();
+        for (String toolCode : tools.keySet()) {
+            result.put(toolCode, forTool(toolCode));
+        }
+        return result;
+    }
+
+    // All-time totals and rolling windows of one tool code; all zero if it hasn't been rented
+    public Map<String, RevenueStats> forTool(String toolCode) {
+        ToolTotals totals = tools.get(toolCode);
+        return report(totals == null ? new ToolTotals[0] : new ToolTotals[] {totals});
+    }
+
+    // All-time totals and rolling windows summed over every tool code
+    public Map<String, RevenueStats> all() {
+        return report(tools.values().toArray(new ToolTotals[0]));
+    }
+
+    private Map<String, RevenueStats> report(ToolTotals[] selected) {
+        long now = clock.getAsLong();
+        Map<String, RevenueStats> report = new LinkedHashMap<>();
+        long[] current = new long[FIELDS];
+        lock.lock();
+        try {
+            for (ToolTotals totals : selected) {
+                totals.sum(current);
+            }
+            report.put("total", stats(current, new long[FIELDS], now - startMillis));
+            for (Window window : WINDOWS) {
+                int w = window.ordinal();
+                // Slot of the copy taken one window length before the latest one
+                long base = lastSlot[w] - SLOTS;
+                long[] before = new long[FIELDS];
+                if (base > 0) {
+                    for (ToolTotals totals : selected) {
+                        totals.rings[w].addCopy(base, before);
+                    }
+                }
+                long from = startMillis + Math.max(0, base) * window.slotMillis();
+                report.put(window.getKey(), stats(current, before, now - from));
+            }
+        } finally {
+            lock.unlock();
+        }
+        return report;
+    }
+
+    private static RevenueStats stats(long[] current, long[] before, long millis) {
+        return new RevenueStats(current[0] - before[0], current[1] - before[1], current[2] - before[2],
+                current[3] - before[3], current[4] - before[4], millis / 1000);
+    }
+
+    // Running totals of one tool code, and the copies of them taken for each window
+    private static final class ToolTotals {
+        private final LongAdder[] adders = new LongAdder[FIELDS];
+        private final Ring[] rings = new Ring[WINDOWS.length];
+
+        ToolTotals() {
+            for (int i = 0; i < FIELDS; i++) {
+                adders[i] = new LongAdder();
+            }
+            for (int w = 0; w < rings.length; w++) {
+                rings[w] = new Ring();
+            }
+        }
+
+        // The rental count goes last, so a tick that sees it unchanged has copied every completed rental
+        void add(RentalAgreement rentalAgreement) {
+            adders[1].add(rentalAgreement.getTotalRentalDays());
+            adders[2].add(rentalAgreement.getChargeDays());
+            adders[3].add(rentalAgreement.getPreDiscountCents());
+            adders[4].add(rentalAgreement.getTotalCents());
+            adders[0].increment();
+        }
+
+        long rentals() {
+            return adders[0].sum();
+        }
+
+        void sum(long[] into) {
+            for (int i = 0; i < FIELDS; i++) {
+                into[i] += adders[i].sum();
+            }
+        }
+    }
+
+    // Copies of one tool's totals for one window, guarded by the stats lock
+    // One entry per slot in which the totals changed, in slot order; a copy stands for every slot from
+    // its own up to the next entry's. Once SLOTS + 1 entries are held the oldest is dropped, and the
+    // oldest left is still at or before the slot one window length back
+    private static final class Ring {
+        private long[] slots = new long[2];
+        private long[] copies = new long[2 * FIELDS];
+        // Index of the oldest entry, and the number of entries
+        private int first;
+        private int size;
+
+        long latestRentals() {
+            return size == 0 ? 0 : copies[index(size - 1) * FIELDS];
+        }
+
+        void add(long slot, long[] totals) {
+            if (size == SLOTS + 1) {
+                first = index(1);
+                size--;
+            } else if (size == slots.length) {
+                grow();
+            }
+            int i = index(size++);
+            slots[i] = slot;
+            System.arraycopy(totals, 0, copies, i * FIELDS, FIELDS);
+        }
+
+        // Adds the copy that stands for the slot; nothing if the tool had no rentals yet then
+        void addCopy(long slot, long[] into) {
+            for (int k = size - 1; k >= 0; k--) {
+                int i = index(k);
+                if (slots[i] <= slot) {
+                    for (int f = 0; f < FIELDS; f++) {
+                        into[f] += copies[i * FIELDS + f];
+                    }
+                    return;
+                }
+            }
+        }
+
+        private int index(int k) {
+            return (first + k) % slots.length;
+        }
+
+        private void grow() {
+            int capacity = Math.min(slots.length * 2, SLOTS + 1);
+            long[] grownSlots = new long[capacity];
+            long[] grownCopies = new long[capacity * FIELDS];
+            for (int k = 0; k < size; k++) {
+                int i = index(k);
+                grownSlots[k] = slots[i];
+                System.arraycopy(copies, i * FIELDS, grownCopies, k * FIELDS, FIELDS);
+            }
+            slots = grownSlots;
+            copies = grownCopies;
+            first = 0;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.toolShop.util;
+
+// 64-bit FNV-1a hashing for ETags and fingerprints
+// Start from OFFSET_BASIS and mix in values; numbers are mixed as their 8 bytes, lowest first, and text
+// as each character's value. Not a cryptographic hash: it detects changes, it doesn't resist forgery
+public final class Fnv1a {
+
+    public static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    private static final long PRIME = 0x100000001b3L;
+
+    private Fnv1a() {
+    }
+
+    // Hash of the bytes
+    public static long hash(byte[] bytes) {
+        long hash = OFFSET_BASIS;
+        for (byte b : bytes) {
+            hash ^= b & 0xff;
+            hash *= PRIME;
+        }
+        return hash;
+    }
+
+    // Mixes the 8 bytes of the value into the hash
+    public static long mix(long hash, long value) {
+        for (int shift = 0; shift < 64; shift += 8) {
+            hash ^= (value >>> shift) & 0xff;
+            hash *= PRIME;
+        }
+        return hash;
+    }
+
+    // Mixes every character of the text into the hash
+    public static long mix(long hash, CharSequence text) {
+        for (int c = 0; c < text.length(); c++) {
+            hash = mix(hash, text.charAt(c));
+        }
+        return hash;
+    }
+}
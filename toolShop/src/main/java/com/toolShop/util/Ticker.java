@@ -0,0 +1,31 @@
+package com.toolShop.util;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+// One daemon thread for the application's periodic in-memory housekeeping: the cached clock, idempotency
+// key expiry and the rental stats windows. Each task is short, so sharing a thread only delays a task
+// by the others' run time, instead of every component starting a thread of its own
+// Components cancel the ScheduledFuture they get back when they stop; the thread stays for the JVM
+public final class Ticker {
+
+    private Ticker() {
+    }
+
+    // Created on first use
+    private static final class Holder {
+        private static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "toolshop-ticker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Runs the task every periodMillis, first after one period
+    // The task must not throw: like any fixed-rate task, it isn't run again after an exception
+    public static ScheduledFuture<?> schedule(Runnable task, long periodMillis) {
+        return Holder.EXECUTOR.scheduleAtFixedRate(task, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,54 @@
+package com.toolShop;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+class BulkPricingCliTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void writesOnlyResultsToStdout() throws Exception {
+		String tomorrow = LocalDate.now().plusDays(1).format(DateTimeFormatter.ofPattern("MM/dd/yy"));
+		Path input = dir.resolve("rentals.ndjson");
+		Files.write(input, List.of(
+				"{\"toolCode\":\"LADW\",\"checkoutDate\":\"" + tomorrow + "\",\"totalRentalDays\":3,\"discount\":0}",
+				"{\"toolCode\":\"CHNS\",\"checkoutDate\":\"" + tomorrow + "\",\"totalRentalDays\":5,\"discount\":10}"));
+
+		ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+		PrintStream previous = System.out;
+		System.setOut(new PrintStream(stdout, true, StandardCharsets.UTF_8));
+		int exitCode;
+		try {
+			exitCode = BulkPricingCli.run(new String[] {input.toString(), "-"});
+		} finally {
+			System.setOut(previous);
+		}
+
+		assertEquals(0, exitCode);
+		// No banner or log lines: every line is a result
+		String[] lines = stdout.toString(StandardCharsets.UTF_8).split("\n");
+		assertEquals(2, lines.length);
+		JsonMapper jsonMapper = JsonMapper.builder().build();
+		for (int i = 0; i < lines.length; i++) {
+			JsonNode result = jsonMapper.readTree(lines[i]);
+			assertEquals(i, result.get("line").asInt());
+			assertNotNull(result.get("agreement"));
+		}
+	}
+}
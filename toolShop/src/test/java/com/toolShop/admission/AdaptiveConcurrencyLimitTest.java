@@ -0,0 +1,63 @@
+package com.toolShop.admission;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class AdaptiveConcurrencyLimitTest {
+
+    private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void rejectsOnceTheLimitIsInFlight() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 10, 2.0);
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+        assertFalse(limit.tryAcquire());
+        limit.release();
+        assertEquals(1, limit.getInFlight());
+        assertTrue(limit.tryAcquire());
+    }
+
+    // Holds `inFlight` slots and releases one with the given latency, keeping the count steady
+    private static void sample(AdaptiveConcurrencyLimit limit, int inFlight, long latencyNanos) {
+        while (limit.getInFlight() < inFlight && limit.tryAcquire()) {
+        }
+        limit.release(latencyNanos);
+    }
+
+    @Test
+    void growsUnderSteadyLatencyAndShrinksWhenRequestsSlowDown() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 5, 200, 2.0);
+        for (int i = 0; i < 200; i++) {
+            sample(limit, limit.getLimit(), 10 * MILLI);
+        }
+        int grown = limit.getLimit();
+        assertEquals(200, grown);
+
+        // Queueing: latency jumps well past twice the usual
+        for (int i = 0; i < 50; i++) {
+            sample(limit, limit.getLimit(), 100 * MILLI);
+        }
+        assertTrue(limit.getLimit() < grown / 2, "limit " + limit.getLimit());
+        assertTrue(limit.getLimit() >= 5);
+    }
+
+    @Test
+    void doesNotGrowWhileMostlyIdle() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 5, 200, 2.0);
+        for (int i = 0; i < 200; i++) {
+            sample(limit, 2, 10 * MILLI);
+        }
+        assertEquals(20, limit.getLimit());
+    }
+
+    @Test
+    void rejectsBadSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimit(1, 2, 10, 2.0));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimit(5, 1, 4, 2.0));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimit(5, 1, 10, 0.5));
+    }
+}
@@ -0,0 +1,30 @@
+package com.toolShop.admission;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.toolShop.admission.AdmissionInterceptor.EndpointGroup;
+
+public class AdmissionInterceptorTest {
+
+    private static MockHttpServletRequest request(String method, String pattern) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, pattern);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+        return request;
+    }
+
+    @Test
+    void groupsRequestsByEndpoint() {
+        assertEquals(EndpointGroup.CATALOG, AdmissionInterceptor.group(request("GET", "/api/tools")));
+        assertEquals(EndpointGroup.CATALOG, AdmissionInterceptor.group(request("GET", "/api/tools/{toolCode}/price-grid")));
+        assertEquals(EndpointGroup.RENTAL, AdmissionInterceptor.group(request("POST", "/api/tools/rental/{toolCode}")));
+        assertEquals(EndpointGroup.BATCH, AdmissionInterceptor.group(request("POST", "/api/tools/rental/bulk")));
+        assertEquals(EndpointGroup.ADMIN, AdmissionInterceptor.group(request("POST", "/api/admin/catalog/reload")));
+        assertEquals(EndpointGroup.ADMIN, AdmissionInterceptor.group(request("GET", "/api/admin/stats")));
+        // Without a matched pattern the path is used
+        assertEquals(EndpointGroup.ADMIN, AdmissionInterceptor.group(new MockHttpServletRequest("POST", "/api/admin/unknown")));
+    }
+}
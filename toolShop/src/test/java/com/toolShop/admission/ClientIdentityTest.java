@@ -0,0 +1,46 @@
+package com.toolShop.admission;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+public class ClientIdentityTest {
+
+    private final ClientIdentity clientIdentity = new ClientIdentity();
+
+    private static MockHttpServletRequest request(String remoteAddr, String clientId) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(remoteAddr);
+        if (clientId != null) {
+            request.addHeader("X-Client-Id", clientId);
+        }
+        return request;
+    }
+
+    @Test
+    void clientHeaderIsIgnoredByDefault() {
+        assertEquals("10.0.0.9", clientIdentity.clientKey(request("10.0.0.9", "partner-a")));
+        assertEquals("10.0.0.9", clientIdentity.clientKey(request("10.0.0.9", "partner-b")));
+    }
+
+    @Test
+    void clientHeaderIsHonoredFromTrustedProxies() {
+        clientIdentity.trustedProxies = new String[] {"10.0.0.1", " 10.0.0.2"};
+
+        assertEquals("client:partner-a", clientIdentity.clientKey(request("10.0.0.2", "partner-a")));
+        assertEquals("10.0.0.1", clientIdentity.clientKey(request("10.0.0.1", null)));
+        // Anyone else still can't pick their own key
+        assertEquals("10.0.0.9", clientIdentity.clientKey(request("10.0.0.9", "partner-a")));
+
+        clientIdentity.clientHeader = "";
+        assertEquals("10.0.0.2", clientIdentity.clientKey(request("10.0.0.2", "partner-a")));
+    }
+
+    @Test
+    void authenticatedUsersAreKeyedByName() {
+        MockHttpServletRequest request = request("10.0.0.9", "partner-a");
+        request.setUserPrincipal(() -> "alice");
+        assertEquals("user:alice", clientIdentity.clientKey(request));
+    }
+}
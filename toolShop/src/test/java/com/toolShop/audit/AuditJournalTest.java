@@ -0,0 +1,93 @@
+package com.toolShop.audit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.toolShop.cache.RentalAgreement;
+import com.toolShop.cache.Tool;
+
+public class AuditJournalTest {
+
+    private static AuditRecord sampleRecord(int days) {
+        Tool tool = new Tool("LADW", "Ladder", "Wer\"ner", 149, true, true, false);
+        RentalAgreement ra = new RentalAgreement();
+        ra.settotalRentalDays(days);
+        ra.setCheckoutDate(LocalDate.of(2021, 8, 1));
+        ra.setDueDate(LocalDate.of(2021, 8, 1).plusDays(days));
+        ra.setChargeDays(days);
+        ra.setDiscount(10f);
+        ra.setPreDiscountCents(447);
+        ra.setMoneySavedCents(45);
+        ra.setTotalCents(402);
+        return AuditRecord.of(tool, ra);
+    }
+
+    @Test
+    void writesOneLinePerRecordFromManyThreads() throws Exception {
+        Path file = Files.createTempDirectory("audit").resolve("journal/rental-audit.jsonl");
+        AuditJournal journal = new AuditJournal();
+        journal.file = file.toString();
+        journal.batchSize = 64;
+        journal.start();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    assertTrue(journal.record(sampleRecord(3)));
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        journal.stop();
+
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertEquals(4000, lines.size());
+        assertEquals(4000, journal.getWritten());
+        assertEquals(0, journal.getDropped());
+        assertEquals(0, journal.getQueueDepth());
+        assertTrue(lines.get(0).startsWith("{\"timestamp\":\""));
+        assertTrue(lines.get(0).contains("\"toolCode\":\"LADW\""));
+        assertTrue(lines.get(0).contains("\"brand\":\"Wer\\\"ner\""));
+        assertTrue(lines.get(0).endsWith("\"totalPrice\":4.02}"));
+    }
+
+    @Test
+    void fullQueueDropsAndCounts() throws Exception {
+        AuditJournal journal = new AuditJournal();
+        journal.file = Files.createTempDirectory("audit").resolve("rental-audit.jsonl").toString();
+        journal.capacity = 2;
+        journal.flushPolicy = AuditJournal.FlushPolicy.SYNC;
+        journal.start();
+        // A two-record queue with an fsync per batch can't keep up: every record is either written or counted as dropped
+        int accepted = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (journal.record(sampleRecord(1))) {
+                accepted++;
+            }
+        }
+        journal.stop();
+
+        assertEquals(10_000, accepted + journal.getDropped());
+        assertEquals(accepted, journal.getWritten());
+    }
+
+    @Test
+    void recordsAreDroppedWhenNotRunning() {
+        AuditJournal journal = new AuditJournal();
+        assertFalse(journal.record(sampleRecord(1)));
+        assertEquals(1, journal.getDropped());
+    }
+}
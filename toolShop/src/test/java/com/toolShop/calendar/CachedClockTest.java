@@ -0,0 +1,84 @@
+package com.toolShop.calendar;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.Test;
+
+public class CachedClockTest {
+
+    // Clock whose instant the test moves by hand
+    private static final class ManualClock extends Clock {
+        private volatile Instant instant;
+
+        ManualClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+
+    @Test
+    void readsTheSourceUntilStarted() {
+        ManualClock source = new ManualClock(Instant.parse("2025-01-20T23:59:59Z"));
+        CachedClock clock = new CachedClock(source);
+        assertEquals(LocalDate.of(2025, 1, 20), clock.today());
+        source.instant = Instant.parse("2025-01-21T00:00:00Z");
+        assertEquals(LocalDate.of(2025, 1, 21), clock.today());
+    }
+
+    @Test
+    void changesDateOnTick() {
+        ManualClock source = new ManualClock(Instant.parse("2025-01-20T23:59:59Z"));
+        CachedClock clock = new CachedClock(source);
+        clock.tickMillis = 60_000;
+        clock.start();
+        try {
+            source.instant = Instant.parse("2025-01-21T00:00:00Z");
+            // Cached until the next tick
+            assertEquals(LocalDate.of(2025, 1, 20), clock.today());
+            clock.tick();
+            assertEquals(LocalDate.of(2025, 1, 21), clock.today());
+        } finally {
+            clock.stop();
+        }
+        source.instant = Instant.parse("2025-01-22T00:00:00Z");
+        assertEquals(LocalDate.of(2025, 1, 22), clock.today());
+    }
+
+    @Test
+    void ticksInTheBackground() throws InterruptedException {
+        ManualClock source = new ManualClock(Instant.parse("2025-01-20T12:00:00Z"));
+        CachedClock clock = new CachedClock(source);
+        clock.tickMillis = 5;
+        clock.start();
+        try {
+            source.instant = Instant.parse("2025-01-21T12:00:00Z");
+            long deadline = System.nanoTime() + 5_000_000_000L;
+            while (!clock.today().equals(LocalDate.of(2025, 1, 21)) && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            assertEquals(LocalDate.of(2025, 1, 21), clock.today());
+        } finally {
+            clock.stop();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.toolShop.calendar;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.toolShop.services.ToolService;
+
+public class HolidayCalendarTest {
+
+    @Test
+    void defaultRulesMatchIndependenceAndLaborDay() {
+        HolidayCalendar calendar = new HolidayCalendar();
+        for (int year = 2000; year <= 2040; year++) {
+            assertEquals(List.of(ToolService.getIndependenceDayObservance(year), ToolService.getLaborDay(year)),
+                    calendar.getHolidays(year));
+        }
+    }
+
+    @Test
+    void observedDateCanCrossYearBoundary() {
+        // Jan 1st 2022 is a Saturday, so it is observed on Friday Dec 31st 2021
+        HolidayCalendar calendar = new HolidayCalendar(HolidayRule.parse(List.of("New Year's Day = fixed 01-01 observed")));
+        assertTrue(calendar.isHoliday(LocalDate.of(2021, 12, 31)));
+        assertFalse(calendar.isHoliday(LocalDate.of(2022, 1, 1)));
+        // Asking for the later year first still finds the holiday once the earlier year is compiled
+        assertTrue(calendar.isHoliday(LocalDate.of(2027, 12, 31)));
+    }
+
+    @Test
+    void parsesNthAndLastWeekdayRules() {
+        HolidayCalendar calendar = new HolidayCalendar(HolidayRule.parse(List.of(
+                "# comment",
+                "",
+                "Memorial Day = nth 05 last MONDAY",
+                "Thanksgiving = nth 11 4 thursday")));
+        assertEquals(List.of(LocalDate.of(2024, 5, 27), LocalDate.of(2024, 11, 28)), calendar.getHolidays(2024));
+    }
+
+    @Test
+    void setRulesChangesVersionAndHolidays() {
+        HolidayCalendar calendar = new HolidayCalendar();
+        int version = calendar.getVersion();
+        assertTrue(calendar.isHoliday(LocalDate.of(2021, 9, 6)));
+
+        calendar.setRules(List.of());
+        assertNotEquals(version, calendar.getVersion());
+        assertFalse(calendar.isHoliday(LocalDate.of(2021, 9, 6)));
+    }
+
+    @Test
+    void invalidRulesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> HolidayRule.parse(List.of("fixed 07-04")));
+        assertThrows(IllegalArgumentException.class, () -> HolidayRule.parse(List.of("Bad = weekly MONDAY")));
+        assertThrows(IllegalArgumentException.class, () -> HolidayRule.parse(List.of("Bad = nth 13 1 MONDAY")));
+    }
+}
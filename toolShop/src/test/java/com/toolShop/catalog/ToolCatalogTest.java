@@ -0,0 +1,133 @@
+package com.toolShop.catalog;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.toolShop.cache.Tool;
+
+public class ToolCatalogTest {
+
+    private static final String HEADER = "# code,type,brand,dailyCharge,weekdayCharge,weekendCharge,holidayCharge\n";
+
+    @Test
+    void defaultCatalogHasTheStandardTools() {
+        ToolCatalog catalog = new ToolCatalog();
+        assertEquals(List.of("CHNS", "LADW", "JAKD", "JAKR"), catalog.getToolCodes());
+
+        Tool chns = catalog.getTool("chns");
+        assertEquals("CHNS", chns.getToolCode());
+        assertEquals("Chainsaw", chns.getToolType());
+        assertEquals(199, chns.getDailyChargeCents());
+        assertTrue(chns.isWeekdayCharge());
+        assertFalse(chns.isWeekEndCharge());
+        assertTrue(chns.isHolidayCharge());
+
+        assertNull(catalog.getTool("NOPE"));
+        assertNull(catalog.getTool(null));
+        assertThrows(UnsupportedOperationException.class, () -> catalog.getSnapshot().getTools().clear());
+    }
+
+    @Test
+    void invalidCatalogLinesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> CatalogSnapshot.parse(1, List.of("CHNS,Chainsaw,Stihl,1.99,true,false")));
+        assertThrows(IllegalArgumentException.class, () -> CatalogSnapshot.parse(1, List.of("CHNS,Chainsaw,Stihl,abc,true,false,true")));
+        assertThrows(IllegalArgumentException.class, () -> CatalogSnapshot.parse(1, List.of("CHNS,Chainsaw,Stihl,1.999,true,false,true")));
+        assertThrows(IllegalArgumentException.class, () -> CatalogSnapshot.parse(1, List.of("CHNS,Chainsaw,Stihl,-1.99,true,false,true")));
+        assertThrows(IllegalArgumentException.class, () -> CatalogSnapshot.parse(1, List.of("CHNS,Chainsaw,Stihl,1.99,yes,false,true")));
+        assertThrows(IllegalArgumentException.class, () -> CatalogSnapshot.parse(1, List.of(
+                "CHNS,Chainsaw,Stihl,1.99,true,false,true", "chns,Chainsaw,Other,2.99,true,false,true")));
+    }
+
+    @Test
+    void indexesResolveCodesTypesBrandsAndPrefixes() {
+        List<Tool> tools = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            tools.add(new Tool(String.format("SKU%06d", i), i % 2 == 0 ? "Jackhammer" : "Ladder",
+                    i % 3 == 0 ? "DeWalt" : "Werner", 299, true, false, false));
+        }
+        CatalogSnapshot snapshot = new CatalogSnapshot(1, tools);
+
+        for (int i = 0; i < 50_000; i += 7) {
+            String code = String.format("SKU%06d", i);
+            assertSame(tools.get(i), snapshot.getTool(code));
+            assertSame(tools.get(i), snapshot.getTool(code.toLowerCase()));
+        }
+        assertNull(snapshot.getTool("SKU050000"));
+        assertNull(snapshot.getTool("SKU00000"));
+
+        assertEquals(25_000, snapshot.getToolsByType("JACKHAMMER").size());
+        assertEquals(16_667, snapshot.getToolsByBrand("dewalt").size());
+        assertTrue(snapshot.getToolsByType("Drill").isEmpty());
+
+        List<Tool> dewaltJackhammers = snapshot.getTools("jackhammer", "DEWALT");
+        assertEquals(8_334, dewaltJackhammers.size());
+        assertSame(tools.get(6), dewaltJackhammers.get(1));
+        assertEquals(16_667, snapshot.getTools("Ladder", "Werner").size());
+        assertSame(snapshot.getTools(), snapshot.getTools(null, null));
+        assertTrue(snapshot.getTools("Ladder", "Stihl").isEmpty());
+
+        List<Tool> prefixed = snapshot.getToolsWithCodePrefix("sku0012");
+        assertEquals(100, prefixed.size());
+        assertEquals("SKU001200", prefixed.get(0).getToolCode());
+        assertEquals("SKU001299", prefixed.get(99).getToolCode());
+        assertTrue(snapshot.getToolsWithCodePrefix("X").isEmpty());
+    }
+
+    @Test
+    void reloadSwapsTheWholeSnapshot() throws Exception {
+        Path file = Files.createTempDirectory("catalog").resolve("tools.csv");
+        Files.writeString(file, HEADER + "LADW,Ladder,Werner,1.49,true,true,false\n", StandardCharsets.UTF_8);
+
+        ToolCatalog catalog = new ToolCatalog();
+        catalog.catalogFile = file.toString();
+        catalog.watch = false;
+        catalog.start();
+        CatalogSnapshot first = catalog.getSnapshot();
+        assertEquals(List.of("LADW"), first.getToolCodes());
+
+        Files.writeString(file, HEADER + "LADW,Ladder,Werner,1.79,true,true,false\nDRLL,Drill,Bosch,3.49,true,false,false\n",
+                StandardCharsets.UTF_8);
+        CatalogSnapshot second = catalog.reload();
+        assertEquals(first.getVersion() + 1, second.getVersion());
+        assertEquals(179, catalog.getTool("LADW").getDailyChargeCents());
+        assertEquals("Drill", catalog.getTool("drll").getToolType());
+
+        // Readers holding the old snapshot still see the old prices
+        assertEquals(149, first.getTool("LADW").getDailyChargeCents());
+
+        // A bad file keeps the current snapshot
+        Files.writeString(file, HEADER + "LADW,Ladder\n", StandardCharsets.UTF_8);
+        assertThrows(IllegalArgumentException.class, catalog::reload);
+        assertSame(second, catalog.getSnapshot());
+    }
+
+    @Test
+    void watcherReloadsWhenTheFileChanges() throws Exception {
+        Path file = Files.createTempDirectory("catalog").resolve("tools.csv");
+        Files.writeString(file, HEADER + "LADW,Ladder,Werner,1.49,true,true,false\n", StandardCharsets.UTF_8);
+
+        ToolCatalog catalog = new ToolCatalog();
+        catalog.catalogFile = file.toString();
+        catalog.start();
+        try {
+            long version = catalog.getSnapshot().getVersion();
+            Files.writeString(file, HEADER + "LADW,Ladder,Werner,2.49,true,true,false\n", StandardCharsets.UTF_8);
+
+            // Watch services may poll, so allow plenty of time for the change to be seen
+            long deadline = System.currentTimeMillis() + 30_000;
+            while (catalog.getSnapshot().getVersion() == version && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            assertEquals(249, catalog.getTool("LADW").getDailyChargeCents());
+        } finally {
+            catalog.stop();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.toolShop.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import com.toolShop.cache.QuoteResult;
+import com.toolShop.cache.RevenueStats;
+import com.toolShop.controller.ErrorHandler;
+import com.toolShop.json.RentalAgreementDeserializer;
+import com.toolShop.json.RentalAgreementSerializer;
+
+public class ToolShopRuntimeHintsTest {
+
+    private RuntimeHints hints;
+
+    @BeforeEach
+    void setUp() {
+        hints = new RuntimeHints();
+        new ToolShopRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void resourcesReadAtStartupAreIncluded() {
+        for (String resource : ToolShopRuntimeHints.RESOURCES) {
+            assertNotNull(getClass().getClassLoader().getResource(resource), resource);
+            assertTrue(RuntimeHintsPredicates.resource().forResource(resource).test(hints), resource);
+        }
+    }
+
+    @Test
+    void jsonTypesAndCodecsCanBeCreatedReflectively() {
+        for (Class<?> type : new Class<?>[] {QuoteResult.class, RevenueStats.class, RentalAgreementSerializer.class,
+                RentalAgreementDeserializer.class}) {
+            assertTrue(RuntimeHintsPredicates.reflection().onType(type)
+                    .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS).test(hints), type.getName());
+        }
+    }
+
+    @Test
+    void exceptionHandlersAreReflective() {
+        assertTrue(RuntimeHintsPredicates.reflection().onType(ErrorHandler.class)
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_METHODS).test(hints));
+    }
+}
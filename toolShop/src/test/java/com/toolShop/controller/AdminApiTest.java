@@ -0,0 +1,46 @@
+package com.toolShop.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.NoSuchElementException;
+
+import org.junit.jupiter.api.Test;
+
+import com.toolShop.cache.RepricingStatus;
+import com.toolShop.services.RepricingService;
+
+public class AdminApiTest {
+
+    @Test
+    void operationsThatChangeStateAreOffByDefault() {
+        AdminApi adminApi = new AdminApi();
+        assertFalse(adminApi.enabled);
+
+        // Rejected before reaching the catalog, pricing rules or re-pricing service, none of which are set
+        assertThrows(NoSuchElementException.class, adminApi::reloadCatalog);
+        assertThrows(NoSuchElementException.class, adminApi::reloadPricingRules);
+        assertThrows(NoSuchElementException.class, () -> adminApi.startRepricing(false));
+        assertThrows(NoSuchElementException.class, adminApi::cancelRepricing);
+    }
+
+    @Test
+    void statusStaysReadableAndOperationsRunOnceEnabled() {
+        AdminApi adminApi = new AdminApi();
+        RepricingStatus status = new RepricingStatus();
+        adminApi.repricingService = new RepricingService() {
+            @Override
+            public RepricingStatus getStatus() {
+                return status;
+            }
+
+            @Override
+            public RepricingStatus cancel() {
+                return status;
+            }
+        };
+        assertSame(status, adminApi.repricingStatus());
+
+        adminApi.enabled = true;
+        assertSame(status, adminApi.cancelRepricing());
+    }
+}
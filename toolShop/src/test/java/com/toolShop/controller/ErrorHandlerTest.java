@@ -0,0 +1,50 @@
+package com.toolShop.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.toolShop.errors.ErrorCode;
+import com.toolShop.errors.RejectedRequestException;
+import com.toolShop.idempotency.IdempotencyKeyReusedException;
+import com.toolShop.idempotency.IdempotencyStoreFullException;
+import com.toolShop.inventory.ToolUnavailableException;
+
+public class ErrorHandlerTest {
+
+    private final ErrorHandler handler = new ErrorHandler();
+
+    @Test
+    void rejectionsReuseTheirBodyAndAreCountedByCode() {
+        RejectedRequestException rejection = new RejectedRequestException(ErrorCode.UNKNOWN_TOOL,
+                "The tool code 'NOPE' doesn't exist");
+        assertEquals(0, rejection.getStackTrace().length);
+
+        ResponseEntity<Map<String,String>> response = handler.handleRejected(rejection);
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertSame(rejection.getBody(), response.getBody());
+        assertEquals("The tool code 'NOPE' doesn't exist", response.getBody().get("error"));
+        handler.handleRejected(rejection);
+
+        handler.handleBadArg(new IllegalArgumentException("bad"));
+        handler.handleNotFound(new NoSuchElementException("missing"));
+        assertEquals(HttpStatus.CONFLICT, handler.handleUnavailable(new ToolUnavailableException("taken")).getStatusCode());
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, handler.handleOther(new IllegalStateException()).getStatusCode());
+        assertEquals(HttpStatus.UNPROCESSABLE_CONTENT, handler.handleKeyReused(new IdempotencyKeyReusedException("reused")).getStatusCode());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, handler.handleStoreFull(new IdempotencyStoreFullException("full")).getStatusCode());
+
+        assertEquals(2, handler.getErrorCount(ErrorCode.UNKNOWN_TOOL));
+        assertEquals(1, handler.getErrorCount(ErrorCode.BAD_ARGUMENT));
+        assertEquals(1, handler.getErrorCount(ErrorCode.NOT_FOUND));
+        assertEquals(1, handler.getErrorCount(ErrorCode.UNAVAILABLE));
+        assertEquals(1, handler.getErrorCount(ErrorCode.INTERNAL));
+        assertEquals(1, handler.getErrorCount(ErrorCode.IDEMPOTENCY_KEY_REUSED));
+        assertEquals(1, handler.getErrorCount(ErrorCode.IDEMPOTENCY_STORE_FULL));
+        assertEquals(0, handler.getErrorCount(ErrorCode.INVALID_REQUEST));
+    }
+}
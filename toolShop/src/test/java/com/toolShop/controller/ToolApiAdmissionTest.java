@@ -0,0 +1,90 @@
+package com.toolShop.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.toolShop.admission.AdmissionInterceptor;
+import com.toolShop.admission.AdmissionInterceptor.EndpointGroup;
+import com.toolShop.admission.AdmissionInterceptor.Reason;
+
+// MockMvc requests come from 127.0.0.1, trusted here as a proxy so its X-Client-Id header is used
+// The ledger is off: the default test context already holds the ledger directory's lock
+@SpringBootTest(properties = {
+        "toolshop.ledger.enabled=false",
+        "toolshop.admission.rental.rate=0.01",
+        "toolshop.admission.rental.burst=2",
+        "toolshop.admission.trusted-proxies=127.0.0.1"
+})
+public class ToolApiAdmissionTest {
+
+    @Autowired
+    private WebApplicationContext wac;
+
+    @Autowired
+    private AdmissionInterceptor admissionInterceptor;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        this.mockMvc = MockMvcBuilders.webAppContextSetup(this.wac).build();
+    }
+
+    @Test
+    void clientOverItsRateGets429WithRetryAfter() throws Exception {
+        long rejected = admissionInterceptor.getRejectedCount(EndpointGroup.RENTAL, Reason.RATE_LIMITED);
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/api/tools/rental/LADW")
+                    .header("X-Client-Id", "partner-a")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{}"))
+                    .andExpect(status().isBadRequest());
+        }
+        mockMvc.perform(post("/api/tools/rental/LADW")
+                .header("X-Client-Id", "partner-a")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"))
+                .andExpect(jsonPath("$.error").value("Too many requests"));
+        assertEquals(rejected + 1, admissionInterceptor.getRejectedCount(EndpointGroup.RENTAL, Reason.RATE_LIMITED));
+
+        // Other clients and other endpoint groups have their own buckets
+        mockMvc.perform(post("/api/tools/rental/LADW")
+                .header("X-Client-Id", "partner-b")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/tools").header("X-Client-Id", "partner-a"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void untrustedClientsCantGetAFreshBucketPerRequest() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            int client = i;
+            mockMvc.perform(post("/api/tools/rental/LADW")
+                    .with(request -> {
+                        request.setRemoteAddr("10.0.0.9");
+                        return request;
+                    })
+                    .header("X-Client-Id", "partner-" + client)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{}"))
+                    .andExpect(i < 2 ? status().isBadRequest() : status().isTooManyRequests());
+        }
+    }
+}
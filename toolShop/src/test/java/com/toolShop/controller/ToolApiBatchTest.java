@@ -0,0 +1,89 @@
+package com.toolShop.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+@SpringBootTest
+public class ToolApiBatchTest {
+
+    @Autowired
+    private WebApplicationContext wac;
+
+    private MockMvc mockMvc;
+
+    private final DateTimeFormatter fmt = DateTimeFormatter.ofPattern("MM/dd/yy");
+
+    @BeforeEach
+    void setUp() {
+        this.mockMvc = MockMvcBuilders.webAppContextSetup(this.wac).build();
+    }
+
+    private String line(String toolCode, String checkoutDate, int days, int discount) {
+        return String.format("{\"toolCode\":\"%s\",\"checkoutDate\":\"%s\",\"totalRentalDays\":%d,\"discount\":%d}",
+                toolCode, checkoutDate, days, discount);
+    }
+
+    @Test
+    void batch_pricesGoodLinesAndReportsBadLines() throws Exception {
+        String tomorrow = LocalDate.now().plusDays(1).format(fmt);
+        String yesterday = LocalDate.now().minusDays(1).format(fmt);
+        String json = "[" + String.join(",",
+                line("LADW", tomorrow, 3, 10),
+                line("NOPE", tomorrow, 3, 0),
+                line("JAKR", tomorrow, 3, 101),
+                line("CHNS", yesterday, 3, 0)) + "]";
+
+        mockMvc.perform(post("/api/tools/rental/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.priced").value(1))
+                .andExpect(jsonPath("$.failed").value(3))
+                .andExpect(jsonPath("$.results[0].agreement.totalRentalDays").value(3))
+                .andExpect(jsonPath("$.results[1].error", Matchers.containsString("doesn't exist")))
+                .andExpect(jsonPath("$.results[2].error", Matchers.containsString("Discount must be 100% or less")))
+                .andExpect(jsonPath("$.results[3].error", Matchers.containsString("on or after the current date")));
+    }
+
+    @Test
+    void batch_largeBatchKeepsLineOrder() throws Exception {
+        String tomorrow = LocalDate.now().plusDays(1).format(fmt);
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 200; i++) {
+            json.append(i == 0 ? "" : ",").append(line(i % 2 == 0 ? "LADW" : "JAKD", tomorrow, 1 + i % 100, 0));
+        }
+        json.append("]");
+
+        mockMvc.perform(post("/api/tools/rental/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.priced").value(200))
+                .andExpect(jsonPath("$.results[150].line").value(150))
+                .andExpect(jsonPath("$.results[150].toolCode").value("LADW"))
+                .andExpect(jsonPath("$.results[150].agreement.totalRentalDays").value(51));
+    }
+
+    @Test
+    void batch_emptyReturns400() throws Exception {
+        mockMvc.perform(post("/api/tools/rental/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", Matchers.containsString("At least one rental line is required")));
+    }
+}
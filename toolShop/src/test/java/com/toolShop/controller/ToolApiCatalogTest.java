@@ -0,0 +1,84 @@
+package com.toolShop.controller;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.ByteArrayInputStream;
+import java.util.zip.GZIPInputStream;
+
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+// Compresses every catalog page, however small
+// The ledger is off: the default test context already holds the ledger directory's lock
+@SpringBootTest(properties = {
+        "toolshop.ledger.enabled=false",
+        "toolshop.catalog-pages.min-compress-size=0"
+})
+public class ToolApiCatalogTest {
+
+    @Autowired
+    private WebApplicationContext wac;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        this.mockMvc = MockMvcBuilders.webAppContextSetup(this.wac).build();
+    }
+
+    @Test
+    void catalog_returnsToolDetailsAndHonoursETag() throws Exception {
+        String eTag = mockMvc.perform(get("/api/tools/catalog").param("type", "jackhammer"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(header().string("Vary", Matchers.containsString("Accept-Encoding")))
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(jsonPath("$.totalTools").value(2))
+                .andExpect(jsonPath("$.tools[0].toolCode").value("JAKD"))
+                .andExpect(jsonPath("$.tools[0].brand").value("DeWalt"))
+                .andExpect(jsonPath("$.tools[0].dailyCharge").value(2.99))
+                .andExpect(jsonPath("$.tools[1].toolCode").value("JAKR"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/tools/catalog").param("type", "Jackhammer").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(get("/api/tools/catalog").param("type", "jackhammer").param("brand", "Ridgid"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tools", Matchers.hasSize(1)))
+                .andExpect(jsonPath("$.tools[0].toolCode").value("JAKR"));
+    }
+
+    @Test
+    void catalog_sendsPrecompressedPagesToGzipClients() throws Exception {
+        byte[] json = mockMvc.perform(get("/api/tools/catalog").param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] gzip = mockMvc.perform(get("/api/tools/catalog").param("size", "10").header("Accept-Encoding", "gzip, br"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("ETag", Matchers.endsWith("-gz\"")))
+                .andReturn().getResponse().getContentAsByteArray();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            assertArrayEquals(json, in.readAllBytes());
+        }
+    }
+
+    @Test
+    void catalog_rejectsBadPages() throws Exception {
+        mockMvc.perform(get("/api/tools/catalog").param("size", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", Matchers.containsString("Size must be between 1 and")));
+    }
+}
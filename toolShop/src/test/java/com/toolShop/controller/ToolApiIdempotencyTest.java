@@ -0,0 +1,123 @@
+package com.toolShop.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.jayway.jsonpath.JsonPath;
+import com.toolShop.idempotency.IdempotencyStore;
+
+@SpringBootTest(properties = {
+        "toolshop.ledger.enabled=false",
+        "toolshop.audit.enabled=false"
+})
+public class ToolApiIdempotencyTest {
+
+    @Autowired
+    private WebApplicationContext wac;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    private MockMvc mockMvc;
+
+    private final DateTimeFormatter fmt = DateTimeFormatter.ofPattern("MM/dd/yy");
+
+    @BeforeEach
+    void setUp() {
+        this.mockMvc = MockMvcBuilders.webAppContextSetup(this.wac).build();
+    }
+
+    private String body(int days) {
+        return "{\"totalRentalDays\":" + days + ",\"checkoutDate\":\"" + LocalDate.now().plusDays(30).format(fmt)
+                + "\",\"discount\":0}";
+    }
+
+    @Test
+    void retryWithTheSameKeyReplaysTheAgreement() throws Exception {
+        MvcResult first = mockMvc.perform(post("/api/tools/rental/JAKD")
+                .header("Idempotency-Key", "retry-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body(3)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "false"))
+                .andReturn();
+        String firstJson = first.getResponse().getContentAsString();
+        int keys = idempotencyStore.size();
+
+        // The ledger is off, so there is no agreementId; the replay has the first rental's unit
+        mockMvc.perform(post("/api/tools/rental/JAKD")
+                .header("Idempotency-Key", "retry-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body(3)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.unit").value(JsonPath.<Integer>read(firstJson, "$.unit")))
+                .andExpect(jsonPath("$.dueDate").value(JsonPath.<String>read(firstJson, "$.dueDate")))
+                .andExpect(jsonPath("$.totalPrice").value(JsonPath.<Number>read(firstJson, "$.totalPrice")));
+        assertEquals(keys, idempotencyStore.size());
+    }
+
+    @Test
+    void keyReusedForADifferentRequestGets422() throws Exception {
+        mockMvc.perform(post("/api/tools/rental/JAKR")
+                .header("Idempotency-Key", "reuse-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body(2)))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/api/tools/rental/JAKR")
+                .header("Idempotency-Key", "reuse-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body(4)))
+                .andExpect(status().is(422))
+                .andExpect(jsonPath("$.error").exists());
+    }
+
+    @Test
+    void keysAreScopedByClient() throws Exception {
+        mockMvc.perform(post("/api/tools/rental/CHNS")
+                .header("Idempotency-Key", "shared-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body(2)))
+                .andExpect(status().isCreated());
+
+        // Same key from another address: neither a replay nor a 422
+        mockMvc.perform(post("/api/tools/rental/CHNS")
+                .with(request -> {
+                    request.setRemoteAddr("10.0.0.9");
+                    return request;
+                })
+                .header("Idempotency-Key", "shared-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body(4)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "false"));
+    }
+
+    @Test
+    void failedRequestsDontKeepTheirKey() throws Exception {
+        int keys = idempotencyStore.size();
+        mockMvc.perform(post("/api/tools/rental/NOPE")
+                .header("Idempotency-Key", "failed-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body(2)))
+                .andExpect(status().isBadRequest());
+        assertEquals(keys, idempotencyStore.size());
+    }
+}
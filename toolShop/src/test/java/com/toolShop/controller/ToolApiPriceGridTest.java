@@ -0,0 +1,69 @@
+package com.toolShop.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+@SpringBootTest
+public class ToolApiPriceGridTest {
+
+    @Autowired
+    private WebApplicationContext wac;
+
+    private MockMvc mockMvc;
+
+    private final DateTimeFormatter fmt = DateTimeFormatter.ofPattern("MM/dd/yy");
+
+    @BeforeEach
+    void setUp() {
+        this.mockMvc = MockMvcBuilders.webAppContextSetup(this.wac).build();
+    }
+
+    @Test
+    void priceGrid_returnsColumnsAndHonoursETag() throws Exception {
+        String from = LocalDate.now().plusDays(1).format(fmt);
+        String eTag = mockMvc.perform(get("/api/tools/price-grid")
+                .param("toolCode", "LADW", "CHNS")
+                .param("from", from)
+                .param("startDays", "30")
+                .param("maxDays", "5"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$.from").value(from))
+                .andExpect(jsonPath("$.tools[0].toolCode").value("LADW"))
+                .andExpect(jsonPath("$.tools[0].dailyCharge").value(1.49))
+                .andExpect(jsonPath("$.tools[0].chargeDays", Matchers.hasSize(5)))
+                .andExpect(jsonPath("$.tools[0].chargeDays[0]", Matchers.hasSize(30)))
+                // A ladder charges every non-holiday day, so one day is almost always 149 cents
+                .andExpect(jsonPath("$.tools[0].totalCents[0]", Matchers.hasItem(149)))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/tools/price-grid")
+                .param("toolCode", "LADW", "CHNS")
+                .param("from", from)
+                .param("startDays", "30")
+                .param("maxDays", "5")
+                .header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void priceGrid_rejectsUnknownTools() throws Exception {
+        mockMvc.perform(get("/api/tools/price-grid").param("toolCode", "NOPE"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", Matchers.containsString("doesn't exist")));
+    }
+}
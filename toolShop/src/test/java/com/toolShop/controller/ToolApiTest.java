@@ -52,7 +52,7 @@ public class ToolApiTest {
         returned.settotalRentalDays(3);
         returned.setCheckoutDate(ra.getCheckoutDate());
         returned.setDueDate(ra.getCheckoutDate().plusDays(3));
-        returned.setPreDiscountPrice(4.47f);
+        returned.setPreDiscountCents(447);
 
         when(toolService.rentTool(any(), eq("LADW"))).thenReturn(returned);
 
@@ -72,7 +72,7 @@ public class ToolApiTest {
         returned.settotalRentalDays(5);
         returned.setCheckoutDate(ra.getCheckoutDate());
         returned.setDueDate(ra.getCheckoutDate().plusDays(5));
-        returned.setPreDiscountPrice(9.95f);
+        returned.setPreDiscountCents(995);
 
         when(toolService.rentTool(any(), eq("CHNS"))).thenReturn(returned);
 
@@ -92,7 +92,7 @@ public class ToolApiTest {
         returned.settotalRentalDays(6);
         returned.setCheckoutDate(ra.getCheckoutDate());
         returned.setDueDate(ra.getCheckoutDate().plusDays(6));
-        returned.setPreDiscountPrice(17.94f);
+        returned.setPreDiscountCents(1794);
 
         when(toolService.rentTool(any(), eq("JAKD"))).thenReturn(returned);
 
@@ -112,7 +112,7 @@ public class ToolApiTest {
         returned.settotalRentalDays(9);
         returned.setCheckoutDate(ra.getCheckoutDate());
         returned.setDueDate(ra.getCheckoutDate().plusDays(9));
-        returned.setPreDiscountPrice(26.91f);
+        returned.setPreDiscountCents(2691);
 
         when(toolService.rentTool(any(), eq("JAKR"))).thenReturn(returned);
 
@@ -132,7 +132,7 @@ public class ToolApiTest {
         returned.settotalRentalDays(6);
         returned.setCheckoutDate(ra.getCheckoutDate());
         returned.setDueDate(ra.getCheckoutDate().plusDays(6));
-        returned.setPreDiscountPrice(17.94f);
+        returned.setPreDiscountCents(1794);
 
         when(toolService.rentTool(any(), eq("JAKR"))).thenReturn(returned);
 
@@ -152,7 +152,7 @@ public class ToolApiTest {
         returned.settotalRentalDays(2);
         returned.setCheckoutDate(ra.getCheckoutDate());
         returned.setDueDate(ra.getCheckoutDate().plusDays(2));
-        returned.setPreDiscountPrice(1.49f);
+        returned.setPreDiscountCents(149);
 
         when(toolService.rentTool(ra, "LADW")).thenReturn(returned);
 
@@ -161,7 +161,7 @@ public class ToolApiTest {
         assertNotNull(resp.getBody());
         assertTrue(resp.getBody() instanceof RentalAgreement);
         RentalAgreement body = (RentalAgreement) resp.getBody();
-        assertEquals(returned.getPreDiscountPrice(), body.getPreDiscountPrice());
+        assertEquals(returned.getPreDiscountCents(), body.getPreDiscountCents());
     }
 
     @Test
@@ -98,6 +98,27 @@ public class ToolApiValidationTest {
                 .andExpect(jsonPath("$.error", Matchers.containsString("Discount is required")));
     }
 
+    @Test
+    void emptyBody_returns400_withEveryViolation() throws Exception {
+        mockMvc.perform(post("/api/tools/rental/LADW")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("checkoutDate: must not be null; discount: Discount is required; "
+                        + "totalRentalDays: Number of rentals days is required"));
+    }
+
+    @Test
+    void invalidBodyIsReportedBeforeUnknownTool() throws Exception {
+        String json = "{\"totalRentalDays\":0,\"checkoutDate\":\"07/02/20\",\"discount\":0}";
+
+        mockMvc.perform(post("/api/tools/rental/NOPE")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("totalRentalDays: Number of rental days must be 1 or greater"));
+    }
+
     @Test
     void checkoutDateBeforeToday_returns400_fromService() throws Exception {
         String past = LocalDate.now().minusDays(1).format(fmt);
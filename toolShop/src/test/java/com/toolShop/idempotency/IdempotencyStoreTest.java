@@ -0,0 +1,168 @@
+package com.toolShop.idempotency;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.toolShop.cache.RentalAgreement;
+
+public class IdempotencyStoreTest {
+
+    private static final String CLIENT = "10.0.0.1";
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final AtomicInteger rentals = new AtomicInteger();
+
+    private IdempotencyStore store(int maxKeys) {
+        IdempotencyStore store = new IdempotencyStore(now::get);
+        store.maxKeys = maxKeys;
+        store.ttlSeconds = 60;
+        store.init();
+        return store;
+    }
+
+    private RentalAgreement rent() {
+        rentals.incrementAndGet();
+        RentalAgreement ra = new RentalAgreement();
+        ra.setAgreementId((long) rentals.get());
+        return ra;
+    }
+
+    private static RentalAgreement request(int days) {
+        RentalAgreement ra = new RentalAgreement();
+        ra.settotalRentalDays(days);
+        ra.setCheckoutDate(LocalDate.of(2025, 1, 20));
+        ra.setDiscount(10f);
+        return ra;
+    }
+
+    @Test
+    void replaysTheFirstResultUntilItExpires() {
+        IdempotencyStore store = store(10);
+        long fingerprint = IdempotencyStore.fingerprint("LADW", request(3));
+
+        IdempotencyStore.Outcome first = store.execute(CLIENT, "k1", fingerprint, this::rent);
+        IdempotencyStore.Outcome retry = store.execute(CLIENT, "k1", fingerprint, this::rent);
+        assertFalse(first.replayed());
+        assertTrue(retry.replayed());
+        assertSame(first.rentalAgreement(), retry.rentalAgreement());
+        assertEquals(1, rentals.get());
+
+        now.addAndGet(59_000);
+        store.expire();
+        assertEquals(1, store.size());
+        now.addAndGet(2_000);
+        store.expire();
+        assertEquals(0, store.size());
+        assertFalse(store.execute(CLIENT, "k1", fingerprint, this::rent).replayed());
+        assertEquals(2, rentals.get());
+    }
+
+    @Test
+    void rejectsAKeyReusedForADifferentRequest() {
+        IdempotencyStore store = store(10);
+        assertEquals(IdempotencyStore.fingerprint("ladw", request(3)), IdempotencyStore.fingerprint("LADW", request(3)));
+        store.execute(CLIENT, "k1", IdempotencyStore.fingerprint("LADW", request(3)), this::rent);
+        assertThrows(IdempotencyKeyReusedException.class,
+                () -> store.execute(CLIENT, "k1", IdempotencyStore.fingerprint("LADW", request(4)), this::rent));
+        assertThrows(IdempotencyKeyReusedException.class,
+                () -> store.execute(CLIENT, "k1", IdempotencyStore.fingerprint("CHNS", request(3)), this::rent));
+        assertThrows(IllegalArgumentException.class, () -> store.execute(CLIENT, " ", 1, this::rent));
+    }
+
+    @Test
+    void fingerprintsDontCollideOnHashCodes() {
+        // Codes with equal hash codes still give different fingerprints
+        assertEquals("AO".hashCode(), "B0".hashCode());
+        assertNotEquals(IdempotencyStore.fingerprint("AO", request(3)), IdempotencyStore.fingerprint("B0", request(3)));
+
+        // A missing field differs from every value, including zero
+        RentalAgreement noDiscount = request(3);
+        noDiscount.setDiscount(null);
+        RentalAgreement zeroDiscount = request(3);
+        zeroDiscount.setDiscount(0f);
+        assertNotEquals(IdempotencyStore.fingerprint("LADW", noDiscount), IdempotencyStore.fingerprint("LADW", zeroDiscount));
+        assertNotEquals(IdempotencyStore.fingerprint(null, request(3)), IdempotencyStore.fingerprint("", request(3)));
+    }
+
+    @Test
+    void keysAreScopedByClient() {
+        IdempotencyStore store = store(10);
+        long fingerprint = IdempotencyStore.fingerprint("LADW", request(3));
+        IdempotencyStore.Outcome first = store.execute(CLIENT, "k1", fingerprint, this::rent);
+
+        // Another client's request with the same key and body runs on its own, and a different body isn't rejected
+        IdempotencyStore.Outcome other = store.execute("10.0.0.2", "k1", fingerprint, this::rent);
+        assertFalse(other.replayed());
+        assertNotSame(first.rentalAgreement(), other.rentalAgreement());
+        assertFalse(store.execute("10.0.0.3", "k1", IdempotencyStore.fingerprint("LADW", request(4)), this::rent).replayed());
+        assertEquals(3, rentals.get());
+        assertSame(first.rentalAgreement(), store.execute(CLIENT, "k1", fingerprint, this::rent).rentalAgreement());
+    }
+
+    @Test
+    void failedRequestsReleaseTheirKey() {
+        IdempotencyStore store = store(10);
+        assertThrows(IllegalStateException.class, () -> store.execute(CLIENT, "k1", 1, () -> {
+            throw new IllegalStateException("no units");
+        }));
+        assertEquals(0, store.size());
+        assertFalse(store.execute(CLIENT, "k1", 1, this::rent).replayed());
+    }
+
+    @Test
+    void boundedByMaxKeys() {
+        IdempotencyStore store = store(2);
+        store.execute(CLIENT, "k1", 1, this::rent);
+        store.execute(CLIENT, "k2", 1, this::rent);
+        assertThrows(IdempotencyStoreFullException.class, () -> store.execute(CLIENT, "k3", 1, this::rent));
+        // Existing keys are still answered
+        assertTrue(store.execute(CLIENT, "k1", 1, this::rent).replayed());
+    }
+
+    @Test
+    void concurrentDuplicatesShareOneRental() throws Exception {
+        IdempotencyStore store = store(10);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            Future<IdempotencyStore.Outcome> owner = pool.submit(() -> store.execute(CLIENT, "k1", 1, () -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    throw new IllegalStateException(ex);
+                }
+                return rent();
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            List<Future<IdempotencyStore.Outcome>> duplicates = new ArrayList<>();
+            for (int i = 0; i < 7; i++) {
+                duplicates.add(pool.submit(() -> store.execute(CLIENT, "k1", 1, this::rent)));
+            }
+            release.countDown();
+
+            RentalAgreement rentalAgreement = owner.get(5, TimeUnit.SECONDS).rentalAgreement();
+            for (Future<IdempotencyStore.Outcome> duplicate : duplicates) {
+                IdempotencyStore.Outcome outcome = duplicate.get(5, TimeUnit.SECONDS);
+                assertTrue(outcome.replayed());
+                assertSame(rentalAgreement, outcome.rentalAgreement());
+            }
+            assertEquals(1, rentals.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.toolShop.idempotency;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class TimingWheelTest {
+
+    private record Item(String name, long deadline) {
+    }
+
+    @Test
+    void expiresItemsWhenTheirTickPasses() {
+        TimingWheel<Item> wheel = new TimingWheel<>(8, 100, 1_000, Item::deadline);
+        wheel.schedule(new Item("a", 1_250));
+        wheel.schedule(new Item("b", 1_250));
+        wheel.schedule(new Item("c", 1_480));
+        List<String> expired = new ArrayList<>();
+
+        assertEquals(0, wheel.advance(1_299, item -> expired.add(item.name())));
+        assertEquals(2, wheel.advance(1_300, item -> expired.add(item.name())));
+        assertEquals(List.of("a", "b"), expired);
+        assertEquals(1, wheel.advance(1_500, item -> expired.add(item.name())));
+        assertEquals(List.of("a", "b", "c"), expired);
+    }
+
+    @Test
+    void keepsItemsDueLaterInTheirTickOrALaterTurn() {
+        // 4 slots of 10 ms: one turn is 40 ms
+        TimingWheel<Item> wheel = new TimingWheel<>(4, 10, 0, Item::deadline);
+        wheel.schedule(new Item("far", 95));
+        List<String> expired = new ArrayList<>();
+        for (long now = 0; now < 95; now += 5) {
+            wheel.advance(now, item -> expired.add(item.name()));
+        }
+        assertTrue(expired.isEmpty());
+        wheel.advance(100, item -> expired.add(item.name()));
+        assertEquals(List.of("far"), expired);
+    }
+
+    @Test
+    void pastDeadlinesExpireOnTheNextTick() {
+        TimingWheel<Item> wheel = new TimingWheel<>(4, 10, 0, Item::deadline);
+        wheel.advance(55, item -> { });
+        wheel.schedule(new Item("late", 20));
+        List<String> expired = new ArrayList<>();
+        wheel.advance(60, item -> expired.add(item.name()));
+        assertEquals(List.of("late"), expired);
+    }
+
+    @Test
+    void aLongPauseVisitsEachSlotOnce() {
+        TimingWheel<Item> wheel = new TimingWheel<>(4, 10, 0, Item::deadline);
+        for (int i = 1; i <= 20; i++) {
+            wheel.schedule(new Item("i" + i, i * 10));
+        }
+        List<String> expired = new ArrayList<>();
+        assertEquals(20, wheel.advance(1_000, item -> expired.add(item.name())));
+        assertEquals(20, expired.size());
+    }
+}
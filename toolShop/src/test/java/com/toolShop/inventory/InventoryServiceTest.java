@@ -0,0 +1,146 @@
+package com.toolShop.inventory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.toolShop.cache.RentalAgreement;
+import com.toolShop.cache.Tool;
+import com.toolShop.ledger.RentalLedger;
+
+public class InventoryServiceTest {
+
+    private static InventoryService inventory(String units) {
+        InventoryService inventory = new InventoryService();
+        inventory.units = units;
+        inventory.start();
+        return inventory;
+    }
+
+    @Test
+    void rejectsWhenEveryUnitIsBooked() {
+        InventoryService inventory = inventory("LADW:2");
+        LocalDate checkout = LocalDate.now().plusDays(10);
+        LocalDate due = checkout.plusDays(3);
+
+        int first = inventory.reserve("LADW", checkout, due);
+        int second = inventory.reserve("LADW", checkout.plusDays(1), due.plusDays(1));
+        assertNotEquals(first, second);
+        assertEquals(0, inventory.getAvailableUnits("LADW", checkout, due));
+        assertThrows(ToolUnavailableException.class, () -> inventory.reserve("LADW", due, due.plusDays(2)));
+
+        // The day after a rental is due the unit is free again
+        assertEquals(1, inventory.getAvailableUnits("LADW", due.plusDays(1), due.plusDays(4)));
+        assertTrue(inventory.reserve("LADW", due.plusDays(2), due.plusDays(4)) > 0);
+
+        // Releasing a booking makes its unit available
+        assertTrue(inventory.release("LADW", first, checkout, due));
+        assertFalse(inventory.release("LADW", first, checkout, due));
+        assertEquals(first, inventory.reserve("LADW", checkout, due));
+
+        // Other tool codes use the default unit count
+        assertEquals(5, inventory.getUnits("CHNS"));
+    }
+
+    @Test
+    void concurrentBookingsNeverOverlapOnAUnit() throws Exception {
+        InventoryService inventory = inventory("LADW:3,JAKD:2");
+        LocalDate today = LocalDate.now();
+        ConcurrentLinkedQueue<String[]> booked = new ConcurrentLinkedQueue<>();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch go = new CountDownLatch(1);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                try {
+                    go.await();
+                } catch (InterruptedException ex) {
+                    return;
+                }
+                for (int i = 0; i < 5000; i++) {
+                    String toolCode = random.nextBoolean() ? "LADW" : "JAKD";
+                    LocalDate checkout = today.plusDays(random.nextInt(120));
+                    LocalDate due = checkout.plusDays(1 + random.nextInt(6));
+                    try {
+                        int unit = inventory.reserve(toolCode, checkout, due);
+                        booked.add(new String[] {toolCode + "#" + unit, checkout.toString(), due.toString()});
+                    } catch (ToolUnavailableException ex) {
+                        rejected.incrementAndGet();
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        go.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertFalse(booked.isEmpty());
+        assertTrue(rejected.get() > 0);
+
+        // Within each unit, sorted bookings must not overlap
+        List<String[]> sorted = new ArrayList<>(booked);
+        sorted.sort(Comparator.<String[], String>comparing(b -> b[0]).thenComparing(b -> b[1]));
+        for (int i = 1; i < sorted.size(); i++) {
+            String[] previous = sorted.get(i - 1);
+            String[] current = sorted.get(i);
+            if (previous[0].equals(current[0])) {
+                assertTrue(LocalDate.parse(previous[2]).isBefore(LocalDate.parse(current[1])),
+                        current[0] + " double booked: " + previous[1] + ".." + previous[2] + " and " + current[1] + ".." + current[2]);
+            }
+        }
+    }
+
+    @Test
+    void restoresCurrentBookingsFromTheLedger() throws Exception {
+        RentalLedger ledger = new RentalLedger(Files.createTempDirectory("ledger").toString());
+        ledger.open();
+
+        Tool ladder = new Tool("LADW", "Ladder", "Werner", 149, true, true, false);
+        LocalDate checkout = LocalDate.now().plusDays(3);
+        for (int unit = 1; unit <= 2; unit++) {
+            RentalAgreement ra = new RentalAgreement();
+            ra.setToolCode("LADW");
+            ra.setUnit(unit);
+            ra.settotalRentalDays(4);
+            ra.setCheckoutDate(checkout);
+            ra.setDueDate(checkout.plusDays(4));
+            ra.setDiscount(0f);
+            ledger.append(ladder, ra);
+        }
+
+        InventoryService inventory = new InventoryService();
+        inventory.units = "LADW:2";
+        inventory.rentalLedger = ledger;
+        inventory.start();
+        ledger.close();
+
+        assertEquals(0, inventory.getAvailableUnits("LADW", checkout, checkout.plusDays(4)));
+        assertThrows(ToolUnavailableException.class, () -> inventory.reserve("LADW", checkout.plusDays(2), checkout.plusDays(6)));
+    }
+
+    @Test
+    void disabledInventoryNeverRejects() {
+        InventoryService inventory = new InventoryService();
+        inventory.enabled = false;
+        inventory.start();
+        LocalDate checkout = LocalDate.now();
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, inventory.reserve("LADW", checkout, checkout.plusDays(5)));
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.toolShop.json;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+import org.junit.jupiter.api.Test;
+
+public class DateTextTest {
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern(DateText.PATTERN);
+
+    private static LocalDate parse(String text) {
+        return DateText.parse(text.toCharArray(), 0, text.length());
+    }
+
+    @Test
+    void formatsLikeTheFormatter() {
+        for (LocalDate date = LocalDate.of(1999, 12, 1); date.isBefore(LocalDate.of(2101, 2, 1)); date = date.plusDays(1)) {
+            assertEquals(FORMATTER.format(date), DateText.format(date).getValue());
+        }
+        assertSame(DateText.format(LocalDate.of(2025, 1, 20)), DateText.format(LocalDate.of(2025, 1, 20)));
+    }
+
+    @Test
+    void parsesLikeTheFormatter() {
+        for (LocalDate date = LocalDate.of(2000, 1, 1); date.isBefore(LocalDate.of(2100, 1, 1)); date = date.plusDays(1)) {
+            assertEquals(date, parse(FORMATTER.format(date)));
+        }
+        // Days past the end of the month are clipped, as with the formatter's default resolver
+        assertEquals(LocalDate.of(2021, 2, 28), parse("02/30/21"));
+        assertEquals(LocalDate.of(2024, 2, 29), parse("02/31/24"));
+        assertEquals(LocalDate.of(2020, 7, 2), parse(" 07/02/20 "));
+        assertNull(parse("  "));
+
+        for (String bad : new String[] { "13/01/21", "00/10/21", "02/00/21", "02/32/21", "2/3/21", "02/03/2021", "ab/cd/ef" }) {
+            DateTimeParseException ex = assertThrows(DateTimeParseException.class, () -> parse(bad));
+            assertEquals(assertThrows(DateTimeParseException.class, () -> LocalDate.parse(bad, FORMATTER)).getMessage(),
+                    ex.getMessage());
+        }
+
+        char[] buffer = "{\"checkoutDate\":\"07/02/20\"}".toCharArray();
+        assertEquals(LocalDate.of(2020, 7, 2), DateText.parse(buffer, 17, 8));
+    }
+}
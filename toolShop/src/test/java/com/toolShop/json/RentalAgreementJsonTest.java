@@ -0,0 +1,63 @@
+package com.toolShop.json;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+import com.toolShop.cache.RentalAgreement;
+
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+public class RentalAgreementJsonTest {
+
+    private static final String AGREEMENT = "{\"agreementId\":42,\"chargeDays\":4,\"checkoutDate\":\"01/20/25\","
+            + "\"discount\":10.0,\"dueDate\":\"01/25/25\",\"moneySaved\":0.80,\"preDiscountPrice\":7.96,"
+            + "\"toolCode\":\"CHNS\",\"totalPrice\":7.16,\"totalRentalDays\":5,\"unit\":2}";
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    @Test
+    void writesTheRentalAgreementWireFormat() {
+        RentalAgreement ra = new RentalAgreement();
+        ra.setAgreementId(42L);
+        ra.setToolCode("CHNS");
+        ra.setUnit(2);
+        ra.settotalRentalDays(5);
+        ra.setCheckoutDate(LocalDate.of(2025, 1, 20));
+        ra.setDueDate(LocalDate.of(2025, 1, 25));
+        ra.setChargeDays(4);
+        ra.setDiscount(10f);
+        ra.setPreDiscountCents(796);
+        ra.setMoneySavedCents(80);
+        ra.setTotalCents(716);
+        assertEquals(AGREEMENT, jsonMapper.writeValueAsString(ra));
+
+        // Quotes have no id, tool code or unit, and missing request fields are written as null
+        assertEquals("{\"chargeDays\":0,\"checkoutDate\":null,\"discount\":null,\"dueDate\":null,\"moneySaved\":0.00,"
+                + "\"preDiscountPrice\":0.00,\"totalPrice\":0.00,\"totalRentalDays\":null}",
+                jsonMapper.writeValueAsString(new RentalAgreement()));
+    }
+
+    @Test
+    void readsRequestsAndResponses() {
+        RentalAgreement request = jsonMapper.readValue(
+                "{\"totalRentalDays\":\"3\",\"checkoutDate\":\" 02/30/21 \",\"discount\":12.5,\"extra\":{\"a\":[1,{}]}}",
+                RentalAgreement.class);
+        assertEquals(3, request.getTotalRentalDays().intValue());
+        assertEquals(LocalDate.of(2021, 2, 28), request.getCheckoutDate());
+        assertEquals(12.5f, request.getDiscount());
+
+        assertEquals(AGREEMENT, jsonMapper.writeValueAsString(jsonMapper.readValue(AGREEMENT, RentalAgreement.class)));
+
+        RentalAgreement empty = jsonMapper.readValue("{\"checkoutDate\":\"\",\"discount\":null}", RentalAgreement.class);
+        assertNull(empty.getCheckoutDate());
+        assertNull(empty.getDiscount());
+
+        assertThrows(JacksonException.class, () -> jsonMapper.readValue("{\"checkoutDate\":\"13/01/21\"}", RentalAgreement.class));
+        assertThrows(JacksonException.class, () -> jsonMapper.readValue("{\"totalRentalDays\":\"abc\"}", RentalAgreement.class));
+        assertThrows(JacksonException.class, () -> jsonMapper.readValue("[]", RentalAgreement.class));
+    }
+}
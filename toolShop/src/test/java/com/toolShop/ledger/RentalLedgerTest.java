@@ -0,0 +1,206 @@
+package com.toolShop.ledger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.channels.FileChannel;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import com.toolShop.cache.RentalAgreement;
+import com.toolShop.cache.Tool;
+
+public class RentalLedgerTest {
+
+    private static final Tool LADW = ladder();
+
+    private static Tool ladder() {
+        return new Tool("LADW", "Ladder", "Werner", 199, true, true, false);
+    }
+
+    private static RentalAgreement agreement(int days) {
+        RentalAgreement ra = new RentalAgreement();
+        ra.settotalRentalDays(days);
+        ra.setCheckoutDate(LocalDate.of(2020, 7, 2));
+        ra.setDueDate(LocalDate.of(2020, 7, 2).plusDays(days));
+        ra.setChargeDays(days);
+        ra.setDiscount(10f);
+        ra.setPreDiscountCents(199 * days);
+        ra.setMoneySavedCents(20 * days);
+        ra.setTotalCents(179 * days);
+        return ra;
+    }
+
+    // Ledger with room for 4 records per segment so tests roll over quickly
+    private static RentalLedger ledger(Path dir) throws Exception {
+        RentalLedger ledger = new RentalLedger();
+        ledger.dir = dir.toString();
+        ledger.segmentSize = 4 * RentalLedger.RECORD_SIZE;
+        ledger.open();
+        return ledger;
+    }
+
+    private static List<Path> segmentFiles(Path dir) throws Exception {
+        try (Stream<Path> list = Files.list(dir)) {
+            return list.filter(path -> path.getFileName().toString().endsWith(".seg")).sorted().toList();
+        }
+    }
+
+    @Test
+    void appendsAndFindsAcrossSegments() throws Exception {
+        Path dir = Files.createTempDirectory("ledger");
+        RentalLedger ledger = ledger(dir);
+        for (int days = 1; days <= 10; days++) {
+            assertEquals(days, ledger.append(LADW, agreement(days)));
+        }
+        assertEquals(3, segmentFiles(dir).size());
+        assertEquals(10, ledger.size());
+
+        RentalAgreement found = ledger.find(7);
+        assertEquals(7L, found.getAgreementId().longValue());
+        assertEquals("LADW", found.getToolCode());
+        assertEquals(7, found.getTotalRentalDays().intValue());
+        assertEquals(LocalDate.of(2020, 7, 2), found.getCheckoutDate());
+        assertEquals(LocalDate.of(2020, 7, 9), found.getDueDate());
+        assertEquals(10f, found.getDiscount());
+        assertEquals(179 * 7, found.getTotalCents());
+
+        assertNull(ledger.find(0));
+        assertNull(ledger.find(11));
+
+        List<Long> ids = new ArrayList<>();
+        ledger.forEach(5, ra -> ids.add(ra.getAgreementId()));
+        assertEquals(List.of(5L, 6L, 7L, 8L, 9L, 10L), ids);
+        ledger.close();
+    }
+
+    @Test
+    void reopenRecoversStoredAgreements() throws Exception {
+        Path dir = Files.createTempDirectory("ledger");
+        RentalLedger ledger = ledger(dir);
+        for (int days = 1; days <= 6; days++) {
+            ledger.append(LADW, agreement(days));
+        }
+        ledger.close();
+
+        RentalLedger reopened = ledger(dir);
+        assertEquals(6, reopened.size());
+        assertEquals(5, reopened.find(5).getTotalRentalDays().intValue());
+        assertEquals(7, reopened.append(LADW, agreement(7)));
+        assertEquals(7, reopened.find(7).getTotalRentalDays().intValue());
+        reopened.close();
+    }
+
+    @Test
+    void directoryIsLockedWhileOpen() throws Exception {
+        Path dir = Files.createTempDirectory("ledger");
+        RentalLedger ledger = ledger(dir);
+        ledger.append(LADW, agreement(1));
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class, () -> ledger(dir));
+        assertTrue(ex.getMessage().contains("is in use by another process"));
+        assertEquals(1, ledger.size());
+        assertEquals(2, ledger.append(LADW, agreement(2)));
+
+        // Closing releases the lock
+        ledger.close();
+        RentalLedger reopened = ledger(dir);
+        assertEquals(2, reopened.size());
+        reopened.close();
+    }
+
+    @Test
+    void tornRecordIsDiscardedOnRecovery() throws Exception {
+        Path dir = Files.createTempDirectory("ledger");
+        RentalLedger ledger = ledger(dir);
+        for (int days = 1; days <= 3; days++) {
+            ledger.append(LADW, agreement(days));
+        }
+        ledger.close();
+
+        // Simulate a crash halfway through writing the 4th record
+        Path segment = segmentFiles(dir).get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {1, 2, 3, 4, 5, 6, 7, 8}), 3L * RentalLedger.RECORD_SIZE);
+        }
+
+        RentalLedger reopened = ledger(dir);
+        assertEquals(3, reopened.size());
+        assertNull(reopened.find(4));
+        assertEquals(4, reopened.append(LADW, agreement(4)));
+        assertEquals(4, reopened.find(4).getTotalRentalDays().intValue());
+        reopened.close();
+
+        assertEquals(4, ledger(dir).size());
+    }
+
+    @Test
+    void concurrentAppendsGetDistinctIds() throws Exception {
+        Path dir = Files.createTempDirectory("ledger");
+        RentalLedger ledger = ledger(dir);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 250; i++) {
+                    assertTrue(ledger.append(LADW, agreement(1 + i % 100)) > 0);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(1000, ledger.size());
+
+        long[] expected = {1};
+        ledger.forEach(ra -> assertEquals(expected[0]++, ra.getAgreementId().longValue()));
+        assertEquals(1001, expected[0]);
+        ledger.close();
+    }
+
+    @Test
+    void syncedAppendsFromVirtualThreads() throws Exception {
+        Path dir = Files.createTempDirectory("ledger");
+        RentalLedger ledger = ledger(dir);
+        ledger.sync = true;
+        List<Future<Long>> ids = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int t = 0; t < 200; t++) {
+                int days = 1 + t % 100;
+                ids.add(executor.submit(() -> ledger.append(LADW, agreement(days))));
+            }
+        }
+        Set<Long> distinct = new HashSet<>();
+        for (Future<Long> id : ids) {
+            assertTrue(distinct.add(id.get()));
+        }
+        assertEquals(200, ledger.size());
+        assertEquals(200L, Collections.max(distinct).longValue());
+        assertEquals(50, segmentFiles(dir).size());
+        ledger.close();
+    }
+
+    @Test
+    void disabledLedgerStoresNothing() throws Exception {
+        RentalLedger ledger = new RentalLedger();
+        ledger.enabled = false;
+        ledger.open();
+        assertFalse(ledger.isOpen());
+        assertEquals(0, ledger.append(LADW, agreement(3)));
+        assertNull(ledger.find(1));
+    }
+}
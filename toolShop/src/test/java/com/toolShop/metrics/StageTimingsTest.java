@@ -0,0 +1,60 @@
+package com.toolShop.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.toolShop.catalog.ToolCatalog;
+import com.toolShop.metrics.StageTimings.Stage;
+
+public class StageTimingsTest {
+
+    @Test
+    void lapsRecordStagesOnlyWhileTiming() {
+        // Nothing is timed outside a request
+        StageTimings.lap(Stage.PARSE);
+        assertNull(StageTimings.current());
+
+        StageTimings timings = StageTimings.begin();
+        StageTimings.mark();
+        StageTimings.lap(Stage.PARSE);
+        StageTimings.lap(Stage.CALCULATE_PRICE);
+        StageTimings.mark(Stage.SERIALIZE);
+        assertSame(timings, StageTimings.end());
+        assertNull(StageTimings.current());
+
+        assertTrue(timings.isRecorded(Stage.PARSE));
+        assertTrue(timings.isRecorded(Stage.CALCULATE_PRICE));
+        assertFalse(timings.isRecorded(Stage.VALIDATE_TOOL));
+        assertFalse(timings.isRecorded(Stage.SERIALIZE));
+
+        timings.finish();
+        assertTrue(timings.isRecorded(Stage.SERIALIZE));
+        assertTrue(timings.getElapsedNanos() >= timings.getNanos(Stage.PARSE) + timings.getNanos(Stage.CALCULATE_PRICE));
+    }
+
+    @Test
+    void serverTimingListsRecordedStagesInMilliseconds() {
+        StageTimings timings = StageTimings.begin();
+        StageTimings.lap(Stage.PARSE);
+        StageTimings.lap(Stage.CALCULATE_PRICE);
+        StageTimings.end();
+
+        String header = timings.toServerTiming();
+        assertTrue(header.matches("parse;dur=\\d+\\.\\d{3}, price;dur=\\d+\\.\\d{3}"), header);
+    }
+
+    @Test
+    void unknownToolCodesShareOneTag() {
+        RentalMetrics metrics = new RentalMetrics();
+        metrics.toolCatalog = new ToolCatalog();
+        metrics.toolCodes = new String[] {"ladw", " JAKD"};
+        metrics.start();
+        assertEquals("LADW", metrics.toolTag("ladw"));
+        assertEquals("JAKD", metrics.toolTag("JAKD"));
+        // Catalog tools that aren't listed share one tag too
+        assertEquals(RentalMetrics.OTHER_TOOL, metrics.toolTag("CHNS"));
+        assertEquals(RentalMetrics.UNKNOWN_TOOL, metrics.toolTag("random-" + System.nanoTime()));
+        assertEquals(RentalMetrics.NO_TOOL, metrics.toolTag(null));
+    }
+}
@@ -0,0 +1,68 @@
+package com.toolShop.money;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import org.junit.jupiter.api.Test;
+
+public class MoneyTest {
+
+    @Test
+    void divideMatchesBigDecimalForEveryRoundingMode() {
+        long[] dividends = {0, 1, 4, 5, 6, 15, 25, 44_700, 44_750, 44_751, -5, -15, -25, -44_750, Long.MAX_VALUE, Long.MIN_VALUE + 1};
+        long[] divisors = {10, 10_000, 3, -10};
+        for (RoundingMode mode : RoundingMode.values()) {
+            if (mode == RoundingMode.UNNECESSARY) {
+                continue;
+            }
+            for (long dividend : dividends) {
+                for (long divisor : divisors) {
+                    long expected = BigDecimal.valueOf(dividend).divide(BigDecimal.valueOf(divisor), 0, mode).longValueExact();
+                    assertEquals(expected, Money.divide(dividend, divisor, mode), dividend + " / " + divisor + " " + mode);
+                }
+            }
+        }
+        assertEquals(4, Money.divide(40, 10, RoundingMode.UNNECESSARY));
+        assertThrows(ArithmeticException.class, () -> Money.divide(41, 10, RoundingMode.UNNECESSARY));
+    }
+
+    @Test
+    void discountsRoundToWholeCents() {
+        // 10% of $4.47 is 44.7 cents
+        assertEquals(45, Money.percentage(447, 1000, RoundingMode.HALF_UP));
+        assertEquals(44, Money.percentage(447, 1000, RoundingMode.DOWN));
+        // 50% of 5 cents is exactly half a cent
+        assertEquals(3, Money.percentage(5, 5000, RoundingMode.HALF_UP));
+        assertEquals(2, Money.percentage(5, 5000, RoundingMode.HALF_EVEN));
+        assertEquals(1194, Money.times(199, 6));
+        assertEquals(1050, Money.basisPoints(10.5f));
+        assertThrows(ArithmeticException.class, () -> Money.times(Long.MAX_VALUE, 2));
+    }
+
+    @Test
+    void parsesAndFormatsTwoDecimalAmounts() {
+        assertEquals(199, Money.parseCents("1.99"));
+        assertEquals(200, Money.parseCents("2"));
+        assertEquals(250, Money.parseCents("2.5"));
+        assertEquals(50, Money.parseCents(".50"));
+        assertEquals(-150, Money.parseCents("-1.50"));
+        assertThrows(IllegalArgumentException.class, () -> Money.parseCents("1.999"));
+        assertThrows(IllegalArgumentException.class, () -> Money.parseCents("1."));
+        assertThrows(IllegalArgumentException.class, () -> Money.parseCents("abc"));
+        assertThrows(IllegalArgumentException.class, () -> Money.parseCents(""));
+
+        assertEquals("4.02", Money.format(402));
+        assertEquals("0.80", Money.format(80));
+        assertEquals("0.05", Money.format(5));
+        assertEquals("-1.50", Money.format(-150));
+        assertEquals(new BigDecimal(Long.MIN_VALUE).movePointLeft(2).toPlainString(), Money.format(Long.MIN_VALUE));
+        char[] buf = new char[24];
+        for (long cents : new long[] { 0, 5, 80, 402, -150, Long.MAX_VALUE, Long.MIN_VALUE }) {
+            assertEquals(Money.format(cents), new String(buf, 0, Money.getChars(cents, buf)));
+        }
+        assertEquals("0.80", Money.toDecimal(80).toString());
+        assertEquals(402, Money.toCents(new BigDecimal("4.015"), RoundingMode.HALF_UP));
+    }
+}
@@ -0,0 +1,127 @@
+package com.toolShop.pricing;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.toolShop.cache.Tool;
+import com.toolShop.catalog.ToolCatalog;
+
+public class PricingRulesTest {
+
+    private static final ToolCatalog CATALOG = new ToolCatalog();
+
+    // Counts every day as a charge day
+    private static final RuleProgram.ChargeDayCounter EVERY_DAY = (fromDay, toDay) -> (int) (toDay - fromDay + 1);
+
+    private static RuleProgram program(String... lines) {
+        return new PricingRules(PricingRule.parse(List.of(lines))).programFor(CATALOG.getTool("LADW"));
+    }
+
+    @Test
+    void firstMatchingRateWinsAcrossTheYearEnd() {
+        RuleProgram program = program(
+                "Holidays = rate 200% season 12-20..01-10",
+                "Winter = rate 50% season 12-01..02-29");
+
+        // 12/18-12/19 at 50%, 12/20-01/10 at 200%, 01/11-01/12 at 50%
+        long from = LocalDate.of(2023, 12, 18).toEpochDay();
+        long to = LocalDate.of(2024, 1, 12).toEpochDay();
+        assertEquals(2 * 50 + 22 * 200 + 2 * 50, program.chargeCents(100, from, to, EVERY_DAY));
+
+        // Day indexes count Feb 29, which only some years have
+        assertEquals(2 * 50 + 2 * 100, program.chargeCents(100,
+                LocalDate.of(2023, 2, 27).toEpochDay(), LocalDate.of(2023, 3, 2).toEpochDay(), EVERY_DAY));
+        assertEquals(3 * 50 + 100, program.chargeCents(100,
+                LocalDate.of(2024, 2, 27).toEpochDay(), LocalDate.of(2024, 3, 1).toEpochDay(), EVERY_DAY));
+    }
+
+    @Test
+    void toolsWithTheSameRulesShareAProgram() {
+        PricingRules rules = new PricingRules(PricingRule.parse(List.of(
+                "Werner promo = discount 5% brand werner",
+                "Chainsaws = surcharge 10% tool CHNS")));
+        Tool ladder = CATALOG.getTool("LADW");
+        Tool otherLadder = new Tool("LADX", "Ladder", "Werner", 249, true, true, false);
+
+        assertSame(rules.programFor(ladder), rules.programFor(otherLadder));
+        assertNotSame(rules.programFor(ladder), rules.programFor(CATALOG.getTool("CHNS")));
+        assertSame(RuleProgram.NONE, rules.programFor(CATALOG.getTool("JAKD")));
+
+        int version = rules.getVersion();
+        rules.setRules(List.of());
+        assertNotEquals(version, rules.getVersion());
+        assertSame(RuleProgram.NONE, rules.programFor(ladder));
+    }
+
+    @Test
+    void tablesMatchEvaluatingEveryRule() {
+        Random random = new Random(42);
+        List<String> lines = new ArrayList<>();
+        List<int[]> rules = new ArrayList<>();
+        for (int r = 0; r < 200; r++) {
+            boolean surcharge = random.nextBoolean();
+            int percent = 1 + random.nextInt(30);
+            MonthDay start = MonthDay.from(LocalDate.of(2024, 1, 1).plusDays(random.nextInt(366)));
+            MonthDay end = MonthDay.from(LocalDate.of(2024, 1, 1).plusDays(random.nextInt(366)));
+            int minDays = 1 + random.nextInt(20);
+            int maxDays = random.nextInt(4) == 0 ? Integer.MAX_VALUE : minDays + random.nextInt(30);
+            lines.add("Rule " + r + " = " + (surcharge ? "surcharge " : "discount ") + percent + "%"
+                    + String.format(" season %02d-%02d..%02d-%02d", start.getMonthValue(), start.getDayOfMonth(),
+                            end.getMonthValue(), end.getDayOfMonth())
+                    + " days " + minDays + (maxDays == Integer.MAX_VALUE ? "+" : ".." + maxDays));
+            rules.add(new int[] {surcharge ? 1 : 0, percent * 100, RuleProgram.dayIndex(start.getMonthValue(), start.getDayOfMonth()),
+                    RuleProgram.dayIndex(end.getMonthValue(), end.getDayOfMonth()), minDays, maxDays});
+        }
+        RuleProgram program = program(lines.toArray(new String[0]));
+
+        for (int day = 0; day < RuleProgram.DAYS_IN_YEAR; day++) {
+            for (int days = 1; days <= 100; days++) {
+                int surcharge = 0;
+                int discount = 0;
+                for (int[] rule : rules) {
+                    boolean inSeason = rule[2] <= rule[3] ? day >= rule[2] && day <= rule[3] : day >= rule[2] || day <= rule[3];
+                    if (inSeason && days >= rule[4] && days <= rule[5]) {
+                        if (rule[0] == 1) {
+                            surcharge += rule[1];
+                        } else {
+                            discount = Math.max(discount, rule[1]);
+                        }
+                    }
+                }
+                int cell = program.cell(day, days);
+                assertEquals(surcharge, program.surchargeBasisPoints(cell), "day " + day + ", " + days + " days");
+                assertEquals(discount, program.discountBasisPoints(cell), "day " + day + ", " + days + " days");
+            }
+        }
+    }
+
+    @Test
+    void invalidRulesAreRejected() {
+        for (String line : List.of(
+                "No equals sign",
+                "Rate without season = rate 120%",
+                "Rate with days = rate 120% season 06-01..06-30 days 3+",
+                "Too much = discount 120%",
+                "No days = discount 10% days 0..3",
+                "Backwards = discount 10% days 5..3",
+                "Unknown action = markup 10%",
+                "Unknown condition = discount 10% color red",
+                "No percent sign = discount 10",
+                "Bad date = discount 10% season 06-01..06-31",
+                "Twice = discount 10% brand werner brand stihl")) {
+            assertThrows(IllegalArgumentException.class, () -> PricingRule.parse(List.of(line)), line);
+        }
+    }
+
+    @Test
+    void defaultRulesAreEmpty() {
+        assertEquals(List.of(), new PricingRules().getRules());
+    }
+}
@@ -0,0 +1,53 @@
+package com.toolShop.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.toolShop.cache.BulkPricingSummary;
+
+@SpringBootTest
+public class BulkPricingServiceTest {
+
+    @Autowired
+    private BulkPricingService bulkPricingService;
+
+    private final DateTimeFormatter fmt = DateTimeFormatter.ofPattern("MM/dd/yy");
+
+    @Test
+    void streamsResultsInInputOrderWithErrorCounts() throws Exception {
+        String tomorrow = LocalDate.now().plusDays(1).format(fmt);
+        StringBuilder input = new StringBuilder();
+        int lines = 5000;
+        for (int i = 0; i < lines; i++) {
+            input.append(String.format("{\"toolCode\":\"%s\",\"checkoutDate\":\"%s\",\"totalRentalDays\":%d,\"discount\":0}%n",
+                    i % 2 == 0 ? "LADW" : "JAKD", tomorrow, 1 + i % 100));
+        }
+        input.append("\n");
+        input.append("not json\n");
+        input.append("{\"toolCode\":\"NOPE\",\"checkoutDate\":\"" + tomorrow + "\",\"totalRentalDays\":1,\"discount\":0}\n");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BulkPricingSummary summary = bulkPricingService.price(
+                new ByteArrayInputStream(input.toString().getBytes(StandardCharsets.UTF_8)), out);
+
+        assertEquals(lines + 2, summary.getLines());
+        assertEquals(lines, summary.getPriced());
+        assertEquals(2, summary.getFailed());
+
+        String[] results = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(lines + 2, results.length);
+        assertTrue(results[0].contains("\"line\":0,"));
+        assertTrue(results[lines - 1].contains("\"line\":" + (lines - 1) + ","));
+        assertTrue(results[lines].contains("Invalid rental line"));
+        assertTrue(results[lines + 1].contains("doesn't exist"));
+    }
+}
@@ -0,0 +1,116 @@
+package com.toolShop.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.jackson.autoconfigure.JacksonAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import com.toolShop.cache.Tool;
+import com.toolShop.catalog.ToolCatalog;
+
+import tools.jackson.databind.json.JsonMapper;
+
+public class CatalogServiceTest {
+
+    private final CatalogService service = new CatalogService();
+
+    public CatalogServiceTest() {
+        List<Tool> tools = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            tools.add(new Tool(String.format("SKU%04d", i), i % 2 == 0 ? "Jackhammer" : "Ladder",
+                    i % 5 == 0 ? "DeWalt" : "Werner", 100 + i, true, i % 3 == 0, false));
+        }
+        service.toolCatalog = new ToolCatalog(tools);
+        service.jsonMapper = springJsonMapper();
+    }
+
+    // The mapper Spring Boot configures for the application, so the page bytes match production's
+    private static JsonMapper springJsonMapper() {
+        AtomicReference<JsonMapper> mapper = new AtomicReference<>();
+        new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(JacksonAutoConfiguration.class))
+                .run(context -> mapper.set(context.getBean(JsonMapper.class)));
+        return mapper.get();
+    }
+
+    private static String text(byte[] json) {
+        return new String(json, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void pagesAreFilteredAndServedFromTheCache() throws IOException {
+        CatalogService.Page page = service.page("ladder", " werner ", 2, 100);
+        String json = text(page.getJson());
+        // 500 ladders, all odd numbers, of which 100 are DeWalt (odd multiples of 5)
+        assertTrue(json.contains("\"totalTools\":400"), json);
+        assertTrue(json.contains("\"totalPages\":4"), json);
+        // Page 2 starts after 200 matches, which take 500 numbers
+        assertTrue(json.contains("\"tools\":[{\"toolCode\":\"SKU0501\",\"toolType\":\"Ladder\",\"brand\":\"Werner\","), json);
+        assertTrue(json.contains("\"dailyCharge\":6.01"), json);
+        assertTrue(json.contains("\"weekendCharge\":true"), json);
+        assertTrue(json.contains("\"SKU0749\""), json);
+        assertFalse(json.contains("\"SKU0751\""), json);
+        assertFalse(json.contains("\"SKU0505\""), json);
+
+        assertSame(page, service.page("LADDER", "Werner", 2, 100));
+        assertNotSame(page, service.page("Ladder", "Werner", 2, 50));
+        assertNotEquals(page.getETag(false), service.page(null, null, 2, 100).getETag(false));
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(page.getGzip()))) {
+            assertArrayEquals(page.getJson(), in.readAllBytes());
+        }
+        assertNotEquals(page.getETag(false), page.getETag(true));
+        assertTrue(page.getETag(false).startsWith("\"cat-1-"));
+
+        String past = text(service.page(null, "DeWalt", 3, 100).getJson());
+        assertTrue(past.contains("\"totalTools\":200,"), past);
+        assertTrue(past.contains("\"tools\":[]"), past);
+    }
+
+    @Test
+    void smallPagesAreNotCompressed() {
+        assertNull(service.page(null, null, 0, 1).getGzip());
+    }
+
+    @Test
+    void reloadingTheCatalogReplacesThePages() {
+        ToolCatalog catalog = new ToolCatalog();
+        service.toolCatalog = catalog;
+        CatalogService.Page before = service.page(null, null, 0, 50);
+        assertSame(before, service.page(null, null, 0, 50));
+        assertTrue(text(before.getJson()).contains("\"version\":1,"));
+
+        // Same tools in a new version still get a new tag, since the tag includes the version
+        catalog.reload();
+        CatalogService.Page after = service.page(null, null, 0, 50);
+        assertNotEquals(before.getETag(false), after.getETag(false));
+        assertTrue(text(after.getJson()).contains("\"version\":2,"));
+    }
+
+    @Test
+    void invalidPagesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> service.page(null, null, -1, 50));
+        assertThrows(IllegalArgumentException.class, () -> service.page(null, null, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> service.page(null, null, 0, 501));
+    }
+
+    @Test
+    void acceptEncodingIsParsed() {
+        assertTrue(CatalogService.acceptsGzip("gzip, deflate, br"));
+        assertTrue(CatalogService.acceptsGzip("br;q=1.0, GZIP;q=0.5"));
+        assertTrue(CatalogService.acceptsGzip("*"));
+        assertFalse(CatalogService.acceptsGzip("gzip;q=0"));
+        assertFalse(CatalogService.acceptsGzip("br, deflate"));
+        assertFalse(CatalogService.acceptsGzip(null));
+    }
+}
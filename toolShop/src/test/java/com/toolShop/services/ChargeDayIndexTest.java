@@ -0,0 +1,82 @@
+package com.toolShop.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.toolShop.cache.Tool;
+import com.toolShop.calendar.HolidayCalendar;
+import com.toolShop.calendar.HolidayRule;
+import com.toolShop.catalog.ToolCatalog;
+
+public class ChargeDayIndexTest {
+
+    private final ChargeDayIndex index = new ChargeDayIndex();
+    private final ToolCatalog catalog = new ToolCatalog();
+
+    // Straightforward day-by-day count used as the reference for the index
+    private static int loopChargeDays(Tool tool, LocalDate checkoutDate, LocalDate dueDate) {
+        int chargeDays = 0;
+        for (LocalDate day = checkoutDate.plusDays(1); !day.isAfter(dueDate); day = day.plusDays(1)) {
+            boolean holiday = day.equals(ToolService.getIndependenceDayObservance(day.getYear()))
+                    || day.equals(ToolService.getLaborDay(day.getYear()));
+            boolean weekend = day.getDayOfWeek() == DayOfWeek.SATURDAY || day.getDayOfWeek() == DayOfWeek.SUNDAY;
+            if (holiday ? tool.isHolidayCharge() : weekend ? tool.isWeekEndCharge() : tool.isWeekdayCharge()) {
+                chargeDays++;
+            }
+        }
+        return chargeDays;
+    }
+
+    @Test
+    void matchesDayLoopForEveryTool() {
+        LocalDate start = LocalDate.of(2019, 12, 1);
+        for (Tool tool : catalog.getSnapshot().getTools()) {
+            for (int offset = 0; offset < 800; offset += 3) {
+                LocalDate checkout = start.plusDays(offset);
+                for (int days = 1; days <= 100; days += 7) {
+                    LocalDate due = checkout.plusDays(days);
+                    assertEquals(loopChargeDays(tool, checkout, due), index.countChargeDays(tool, checkout, due),
+                            tool.getToolCode() + " " + checkout + " +" + days);
+                }
+            }
+        }
+    }
+
+    @Test
+    void holidaysAreNotChargedWhenToolSkipsThem() {
+        // JAKD charges weekdays only: 07/02/20 for 4 days covers Fri 07/03 (observed holiday), Sat, Sun, Mon
+        Tool jakd = catalog.getTool("JAKD");
+        assertEquals(1, index.countChargeDays(jakd, LocalDate.of(2020, 7, 2), LocalDate.of(2020, 7, 6)));
+
+        // CHNS charges holidays: the observed holiday and Monday are charged
+        Tool chns = catalog.getTool("CHNS");
+        assertEquals(2, index.countChargeDays(chns, LocalDate.of(2020, 7, 2), LocalDate.of(2020, 7, 6)));
+    }
+
+    @Test
+    void windowsCrossingYearsExtendTheTable() {
+        Tool ladw = catalog.getTool("LADW");
+        assertEquals(5, index.countChargeDays(ladw, LocalDate.of(2021, 12, 29), LocalDate.of(2022, 1, 3)));
+        // Earlier year is added after a later one has already been built
+        assertEquals(10, index.countChargeDays(ladw, LocalDate.of(2015, 1, 1), LocalDate.of(2015, 1, 11)));
+        assertEquals(5, index.countChargeDays(ladw, LocalDate.of(2021, 12, 29), LocalDate.of(2022, 1, 3)));
+    }
+
+    @Test
+    void rentalsCrossingNewYearSeeNextYearsHolidays() {
+        HolidayCalendar calendar = new HolidayCalendar(HolidayRule.parse(List.of("New Year's Day = fixed 01-01 observed")));
+        ChargeDayIndex newYearIndex = new ChargeDayIndex(calendar);
+        Tool jakd = catalog.getTool("JAKD");
+        // Thu 12/30/21 for 4 days: Fri 12/31 (observed New Year's Day), Sat, Sun, Mon 01/03
+        assertEquals(1, newYearIndex.countChargeDays(jakd, LocalDate.of(2021, 12, 30), LocalDate.of(2022, 1, 3)));
+
+        // Changing the rules rebuilds the tables
+        calendar.setRules(List.of());
+        assertEquals(2, newYearIndex.countChargeDays(jakd, LocalDate.of(2021, 12, 30), LocalDate.of(2022, 1, 3)));
+    }
+}
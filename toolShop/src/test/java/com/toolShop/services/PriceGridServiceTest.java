@@ -0,0 +1,113 @@
+package com.toolShop.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.toolShop.cache.PriceGrid;
+import com.toolShop.cache.RentalAgreement;
+import com.toolShop.cache.ToolPriceGrid;
+import com.toolShop.calendar.HolidayCalendar;
+import com.toolShop.catalog.ToolCatalog;
+import com.toolShop.pricing.PricingRule;
+
+public class PriceGridServiceTest {
+
+    // Late June next year, so the grid covers Independence Day and Labor Day
+    private static final LocalDate FROM = LocalDate.now().plusYears(1).withMonth(6).withDayOfMonth(25);
+
+    private final HolidayCalendar calendar = new HolidayCalendar();
+    private final ToolService toolService = new ToolService();
+    private final PriceGridService service = new PriceGridService();
+
+    public PriceGridServiceTest() {
+        toolService.toolCatalog = new ToolCatalog();
+        toolService.chargeDayIndex = new ChargeDayIndex(calendar);
+        service.toolCatalog = toolService.toolCatalog;
+        service.chargeDayIndex = toolService.chargeDayIndex;
+        service.pricingRules = toolService.pricingRules;
+    }
+
+    @Test
+    void everyCellMatchesCalculatePrice() {
+        PriceGrid grid = service.plan(null, FROM, 90, 14, 15f).build();
+        assertEquals(FROM, grid.getFrom());
+        assertEquals(List.of("CHNS", "LADW", "JAKD", "JAKR"), grid.getTools().stream().map(ToolPriceGrid::getToolCode).toList());
+
+        for (ToolPriceGrid toolGrid : grid.getTools()) {
+            for (int days = 1; days <= 14; days++) {
+                for (int s = 0; s < 90; s++) {
+                    RentalAgreement ra = new RentalAgreement();
+                    ra.setCheckoutDate(FROM.plusDays(s));
+                    ra.settotalRentalDays(days);
+                    ra.setDiscount(15f);
+                    toolService.calculatePrice(toolService.toolCatalog.getTool(toolGrid.getToolCode()), ra);
+
+                    String cell = toolGrid.getToolCode() + " " + ra.getCheckoutDate() + " " + days;
+                    assertEquals(ra.getChargeDays(), toolGrid.getChargeDays()[days - 1][s], cell);
+                    assertEquals(ra.getTotalCents(), toolGrid.getTotalCents()[days - 1][s], cell);
+                }
+            }
+        }
+
+        // Both jackhammers charge weekdays only, so they share their charge day columns
+        assertSame(grid.getTools().get(2).getChargeDays(), grid.getTools().get(3).getChargeDays());
+    }
+
+    @Test
+    void pricingRulesMatchCalculatePrice() {
+        toolService.pricingRules.setRules(PricingRule.parse(List.of(
+                "Summer ladders = rate 125% type Ladder season 07-01..08-15",
+                "Peak = surcharge 10% season 07-01..07-10",
+                "Week = discount 10% days 7..13",
+                "Two weeks = discount 25% days 14+ brand Werner")));
+        PriceGrid grid = service.plan(List.of("LADW", "JAKD"), FROM, 60, 21, 15f).build();
+
+        for (ToolPriceGrid toolGrid : grid.getTools()) {
+            for (int days = 1; days <= 21; days++) {
+                for (int s = 0; s < 60; s++) {
+                    RentalAgreement ra = new RentalAgreement();
+                    ra.setCheckoutDate(FROM.plusDays(s));
+                    ra.settotalRentalDays(days);
+                    ra.setDiscount(15f);
+                    toolService.calculatePrice(toolService.toolCatalog.getTool(toolGrid.getToolCode()), ra);
+                    assertEquals(ra.getTotalCents(), toolGrid.getTotalCents()[days - 1][s],
+                            toolGrid.getToolCode() + " " + ra.getCheckoutDate() + " " + days);
+                }
+            }
+        }
+    }
+
+    @Test
+    void eTagChangesOnlyWhenThePricesCan() {
+        String eTag = service.plan(List.of("ladw", "CHNS"), FROM, 30, 7, 10f).getETag();
+        assertEquals(eTag, service.plan(List.of("LADW", "chns"), FROM, 30, 7, 10f).getETag());
+        assertNotEquals(eTag, service.plan(List.of("CHNS", "LADW"), FROM, 30, 7, 10f).getETag());
+        assertNotEquals(eTag, service.plan(List.of("LADW", "CHNS"), FROM.plusDays(1), 30, 7, 10f).getETag());
+        assertNotEquals(eTag, service.plan(List.of("LADW", "CHNS"), FROM, 30, 7, 20f).getETag());
+
+        // CHNS charges holidays and LADW does not, so dropping the holidays changes the counts
+        calendar.setRules(List.of());
+        String withoutHolidays = service.plan(List.of("LADW", "CHNS"), FROM, 30, 7, 10f).getETag();
+        assertNotEquals(eTag, withoutHolidays);
+
+        toolService.pricingRules.setRules(PricingRule.parse(List.of("Week = discount 10% days 7+")));
+        assertNotEquals(withoutHolidays, service.plan(List.of("LADW", "CHNS"), FROM, 30, 7, 10f).getETag());
+    }
+
+    @Test
+    void invalidRequestsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> service.plan(List.of("NOPE"), FROM, 30, 7, 0f));
+        assertThrows(IllegalArgumentException.class, () -> service.plan(null, LocalDate.now().minusDays(1), 30, 7, 0f));
+        assertThrows(IllegalArgumentException.class, () -> service.plan(null, FROM, 0, 7, 0f));
+        assertThrows(IllegalArgumentException.class, () -> service.plan(null, FROM, 367, 7, 0f));
+        assertThrows(IllegalArgumentException.class, () -> service.plan(null, FROM, 30, 101, 0f));
+        assertThrows(IllegalArgumentException.class, () -> service.plan(null, FROM, 30, 7, 101f));
+
+        service.maxCells = 100;
+        assertThrows(IllegalArgumentException.class, () -> service.plan(null, FROM, 30, 7, 0f));
+    }
+}
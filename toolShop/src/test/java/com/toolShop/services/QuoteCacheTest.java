@@ -0,0 +1,155 @@
+package com.toolShop.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.toolShop.cache.RentalAgreement;
+import com.toolShop.cache.Tool;
+import com.toolShop.calendar.HolidayCalendar;
+import com.toolShop.calendar.HolidayRule;
+import com.toolShop.catalog.ToolCatalog;
+import com.toolShop.pricing.PricingRule;
+import com.toolShop.pricing.PricingRules;
+
+public class QuoteCacheTest {
+
+    private final ToolCatalog catalog = new ToolCatalog();
+    private final HolidayCalendar calendar = new HolidayCalendar();
+    private final ToolService service = new ToolService();
+    private final AtomicInteger priced = new AtomicInteger();
+
+    public QuoteCacheTest() {
+        service.chargeDayIndex = new ChargeDayIndex(calendar);
+    }
+
+    private void price(Tool tool, RentalAgreement rentalAgreement) {
+        priced.incrementAndGet();
+        service.calculatePrice(tool, rentalAgreement);
+    }
+
+    private static RentalAgreement request(LocalDate checkout, int days, float discount) {
+        RentalAgreement ra = new RentalAgreement();
+        ra.setCheckoutDate(checkout);
+        ra.settotalRentalDays(days);
+        ra.setDiscount(discount);
+        return ra;
+    }
+
+    @Test
+    void repeatedRequestsArePricedOnce() {
+        QuoteCache cache = new QuoteCache(catalog, calendar);
+        Tool chns = catalog.getTool("CHNS");
+        LocalDate checkout = LocalDate.of(2020, 7, 2);
+
+        RentalAgreement first = request(checkout, 5, 25f);
+        cache.price(chns, first, this::price);
+        RentalAgreement second = request(checkout, 5, 25f);
+        cache.price(chns, second, this::price);
+
+        assertEquals(1, priced.get());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(first.getDueDate(), second.getDueDate());
+        assertEquals(first.getChargeDays(), second.getChargeDays());
+        assertEquals(first.getTotalCents(), second.getTotalCents());
+
+        // A different discount, day count or tool is a different quote
+        cache.price(chns, request(checkout, 5, 10f), this::price);
+        cache.price(chns, request(checkout, 6, 25f), this::price);
+        cache.price(catalog.getTool("LADW"), request(checkout, 5, 25f), this::price);
+        assertEquals(4, priced.get());
+    }
+
+    @Test
+    void callersCannotChangeCachedResults() {
+        QuoteCache cache = new QuoteCache(catalog, calendar);
+        Tool ladw = catalog.getTool("LADW");
+        LocalDate checkout = LocalDate.of(2021, 8, 1);
+
+        RentalAgreement first = request(checkout, 3, 10f);
+        cache.price(ladw, first, this::price);
+        long totalCents = first.getTotalCents();
+        first.setTotalCents(0);
+        first.setChargeDays(99);
+
+        RentalAgreement second = request(checkout, 3, 10f);
+        cache.price(ladw, second, this::price);
+        assertEquals(totalCents, second.getTotalCents());
+        assertEquals(3, second.getChargeDays());
+    }
+
+    @Test
+    void sizeAndTimeLimitsEvictEntries() throws Exception {
+        QuoteCache cache = new QuoteCache(catalog, calendar);
+        cache.maxSize = 32;
+        Tool jakd = catalog.getTool("JAKD");
+        for (int i = 0; i < 1000; i++) {
+            cache.price(jakd, request(LocalDate.of(2022, 1, 1).plusDays(i), 3, 0f), this::price);
+        }
+        assertTrue(cache.size() <= 32, "size " + cache.size());
+        assertEquals(1000 - cache.size(), cache.getEvictions());
+
+        QuoteCache expiring = new QuoteCache(catalog, calendar);
+        expiring.ttlSeconds = 1;
+        expiring.price(jakd, request(LocalDate.of(2022, 1, 1), 3, 0f), this::price);
+        Thread.sleep(1100);
+        expiring.price(jakd, request(LocalDate.of(2022, 1, 1), 3, 0f), this::price);
+        assertEquals(2, expiring.getMisses());
+        assertEquals(1, expiring.getEvictions());
+    }
+
+    @Test
+    void holidayRuleChangesInvalidateTheCache() {
+        QuoteCache cache = new QuoteCache(catalog, calendar);
+        Tool jakd = catalog.getTool("JAKD");
+        // Thu 07/02/20 for 4 days covers the observed Independence Day on Friday
+        RentalAgreement before = request(LocalDate.of(2020, 7, 2), 4, 0f);
+        cache.price(jakd, before, this::price);
+        assertEquals(1, before.getChargeDays());
+
+        calendar.setRules(List.of());
+        RentalAgreement after = request(LocalDate.of(2020, 7, 2), 4, 0f);
+        cache.price(jakd, after, this::price);
+        assertEquals(2, after.getChargeDays());
+        assertEquals(1, cache.getInvalidations());
+        assertEquals(2, priced.get());
+
+        calendar.setRules(HolidayRule.parse(List.of("Independence Day = fixed 07-04 observed")));
+        cache.price(jakd, request(LocalDate.of(2020, 7, 2), 4, 0f), this::price);
+        assertEquals(2, cache.getInvalidations());
+    }
+
+    @Test
+    void pricingRuleChangesInvalidateTheCache() {
+        PricingRules rules = new PricingRules(List.of());
+        service.pricingRules = rules;
+        QuoteCache cache = new QuoteCache(catalog, calendar, rules);
+        Tool ladw = catalog.getTool("LADW");
+        RentalAgreement before = request(LocalDate.of(2021, 8, 2), 7, 0f);
+        cache.price(ladw, before, this::price);
+
+        rules.setRules(PricingRule.parse(List.of("Week = discount 10% days 7+")));
+        RentalAgreement after = request(LocalDate.of(2021, 8, 2), 7, 0f);
+        cache.price(ladw, after, this::price);
+        assertEquals(1, cache.getInvalidations());
+        assertEquals(2, priced.get());
+        assertTrue(after.getTotalCents() < before.getTotalCents());
+    }
+
+    @Test
+    void disabledCacheAlwaysPrices() {
+        QuoteCache cache = new QuoteCache(catalog, calendar);
+        cache.enabled = false;
+        Tool chns = catalog.getTool("CHNS");
+        for (int i = 0; i < 3; i++) {
+            cache.price(chns, request(LocalDate.of(2020, 7, 2), 5, 0f), this::price);
+        }
+        assertEquals(3, priced.get());
+        assertEquals(0, cache.size());
+    }
+}
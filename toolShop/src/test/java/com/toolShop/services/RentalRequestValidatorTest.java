@@ -0,0 +1,77 @@
+package com.toolShop.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import com.toolShop.cache.RentalAgreement;
+import com.toolShop.errors.ErrorCode;
+
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+
+public class RentalRequestValidatorTest {
+
+    private static RentalAgreement request(LocalDate checkout, Integer days, Float discount) {
+        RentalAgreement ra = new RentalAgreement();
+        ra.setCheckoutDate(checkout);
+        ra.settotalRentalDays(days);
+        ra.setDiscount(discount);
+        return ra;
+    }
+
+    @Test
+    void reportsViolationsInFieldOrder() {
+        LocalDate checkout = LocalDate.of(2020, 7, 2);
+        assertNull(RentalRequestValidator.violations(request(checkout, 1, 0f)));
+        assertNull(RentalRequestValidator.violations(request(checkout, 100, 100f)));
+
+        assertEquals("totalRentalDays: Number of rental days must be 1 or greater",
+                RentalRequestValidator.violations(request(checkout, 0, 0f)));
+        assertEquals("discount: Discount must be 100% or less",
+                RentalRequestValidator.violations(request(checkout, 5, 100.5f)));
+        assertEquals("checkoutDate: must not be null; discount: Discount is required; "
+                + "totalRentalDays: Number of rentals days is required",
+                RentalRequestValidator.violations(new RentalAgreement()));
+        assertEquals("discount: Discount must be 0% or greater; "
+                + "totalRentalDays: Number of rental days must be less than or equal to 100",
+                RentalRequestValidator.violations(request(checkout, 101, -1f)));
+        assertEquals("discount: Discount must be 0% or greater; discount: Discount must be 100% or less",
+                RentalRequestValidator.violations(request(checkout, 5, Float.NaN)));
+
+        // Rejections are preallocated and carry no stack trace
+        assertSame(RentalRequestValidator.check(request(checkout, 0, 0f)), RentalRequestValidator.check(request(checkout, -3, 50f)));
+        assertEquals(ErrorCode.INVALID_REQUEST, RentalRequestValidator.check(request(checkout, 0, 0f)).getCode());
+        assertEquals(0, RentalRequestValidator.check(new RentalAgreement()).getStackTrace().length);
+    }
+
+    @Test
+    void matchesBeanValidation() {
+        LocalDate[] checkouts = { null, LocalDate.of(2020, 7, 2) };
+        Integer[] days = { null, Integer.MIN_VALUE, -5, 0, 1, 50, 100, 101, Integer.MAX_VALUE };
+        Float[] discounts = { null, -1000f, -1f, 0f, 10f, 99f, 100f, 101f, 1000f,
+                Float.NEGATIVE_INFINITY, Float.POSITIVE_INFINITY };
+
+        try (ValidatorFactory factory = Validation.buildDefaultValidatorFactory()) {
+            Validator validator = factory.getValidator();
+            for (LocalDate checkout : checkouts) {
+                for (Integer day : days) {
+                    for (Float discount : discounts) {
+                        RentalAgreement ra = request(checkout, day, discount);
+                        String expected = validator.validate(ra).stream()
+                                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                                .sorted()
+                                .collect(Collectors.joining("; "));
+                        String actual = RentalRequestValidator.violations(ra);
+                        assertEquals(expected.isEmpty() ? null : expected, actual,
+                                checkout + ", " + day + ", " + discount);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.toolShop.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.toolShop.cache.RentalAgreement;
+import com.toolShop.cache.RepricingStatus;
+import com.toolShop.cache.RepricingToolSummary;
+import com.toolShop.cache.Tool;
+import com.toolShop.catalog.ToolCatalog;
+import com.toolShop.ledger.RentalLedger;
+import com.toolShop.money.Money;
+
+public class RepricingServiceTest {
+
+    private static final int AGREEMENTS = 100;
+
+    private Path dir;
+    private RentalLedger ledger;
+
+    // Fills the ledger with agreements priced at the old ladder price
+    @BeforeEach
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("repricing");
+        ledger = new RentalLedger(dir.resolve("ledger").toString());
+        ledger.open();
+        ToolService pricing = toolService(199);
+        for (int i = 0; i < AGREEMENTS; i++) {
+            Tool tool = pricing.toolCatalog.getTool(i % 3 == 0 ? "CHNS" : "LADW");
+            RentalAgreement ra = new RentalAgreement();
+            ra.setCheckoutDate(LocalDate.of(2025, 6, 25).plusDays(i));
+            ra.settotalRentalDays(1 + i % 9);
+            ra.setDiscount((float) (i % 4 * 10));
+            pricing.calculatePrice(tool, ra);
+            ra.setToolCode(tool.getToolCode());
+            ledger.append(tool, ra);
+        }
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        ledger.close();
+    }
+
+    private static ToolService toolService(long ladderCents) {
+        ToolService service = new ToolService();
+        service.chargeDayIndex = new ChargeDayIndex();
+        service.toolCatalog = new ToolCatalog(List.of(
+                new Tool("CHNS", "Chainsaw", "Stihl", 149, true, false, true),
+                new Tool("LADW", "Ladder", "Werner", ladderCents, true, true, false)));
+        return service;
+    }
+
+    // Re-pricing service with small chunks and slices so a run takes several checkpoints and forks
+    private RepricingService repricing(long ladderCents, String name) {
+        RepricingService service = new RepricingService();
+        service.rentalLedger = ledger;
+        service.toolService = toolService(ladderCents);
+        service.dir = dir.resolve(name).toString();
+        service.chunkSize = 16;
+        service.sliceSize = 4;
+        service.threads = 4;
+        return service;
+    }
+
+    private static RepricingStatus runToEnd(RepricingService.Run run) throws Exception {
+        try {
+            while (run.step()) {
+                // Next chunk
+            }
+            return run.status();
+        } finally {
+            run.close();
+        }
+    }
+
+    private static RepricingToolSummary tool(RepricingStatus status, String toolCode) {
+        return status.getTools().stream().filter(t -> t.getToolCode().equals(toolCode)).findFirst().orElseThrow();
+    }
+
+    @Test
+    public void reportsChangedAgreementsPerTool() throws Exception {
+        RepricingService service = repricing(249, "run");
+        RepricingStatus status = runToEnd(service.open(true));
+
+        assertEquals(AGREEMENTS, status.getProcessed());
+        assertEquals(AGREEMENTS, status.getLastId());
+        RepricingToolSummary chainsaw = tool(status, "CHNS");
+        assertEquals(34, chainsaw.getAgreements());
+        assertEquals(0, chainsaw.getChanged());
+        assertEquals(0, chainsaw.getDelta().signum());
+        RepricingToolSummary ladder = tool(status, "LADW");
+        assertEquals(66, ladder.getAgreements());
+        assertEquals(66, ladder.getChanged());
+        assertTrue(ladder.getDelta().signum() > 0);
+
+        // One line per changed agreement, in id order
+        List<String> diffs = Files.readAllLines(dir.resolve("run").resolve(RepricingService.DIFF_FILE));
+        assertEquals(66, diffs.size());
+        RentalAgreement stored = ledger.find(2);
+        RentalAgreement repriced = ledger.find(2);
+        service.toolService.calculatePrice(service.toolService.toolCatalog.getTool("LADW"), repriced);
+        StringBuilder expected = new StringBuilder();
+        RepricingService.appendDiff(expected, repriced, stored.getChargeDays(), stored.getTotalCents());
+        assertEquals(expected.toString(), diffs.get(0) + "\n");
+        assertTrue(diffs.get(0).startsWith("{\"agreementId\":2,\"toolCode\":\"LADW\",\"checkoutDate\":\"06/26/25\",\"totalRentalDays\":2,"));
+        assertTrue(diffs.get(0).endsWith(",\"delta\":" + Money.toDecimal(repriced.getTotalCents() - stored.getTotalCents()) + "}"));
+    }
+
+    @Test
+    public void resumesFromTheLastCheckpoint() throws Exception {
+        RepricingStatus uninterrupted = runToEnd(repricing(249, "full").open(true));
+
+        RepricingService.Run interrupted = repricing(249, "resumed").open(true);
+        interrupted.step();
+        interrupted.step();
+        interrupted.close();
+        // A line written after the last checkpoint is dropped on resume
+        Files.writeString(dir.resolve("resumed").resolve(RepricingService.DIFF_FILE), "partial",
+                StandardOpenOption.APPEND);
+
+        RepricingService.Run resumed = repricing(249, "resumed").open(false);
+        assertEquals(32, resumed.status().getProcessed());
+        RepricingStatus status = runToEnd(resumed);
+
+        assertEquals(AGREEMENTS, status.getProcessed());
+        for (String toolCode : List.of("CHNS", "LADW")) {
+            RepricingToolSummary expected = tool(uninterrupted, toolCode);
+            RepricingToolSummary actual = tool(status, toolCode);
+            assertEquals(expected.getAgreements(), actual.getAgreements());
+            assertEquals(expected.getChanged(), actual.getChanged());
+            assertEquals(expected.getOldTotal(), actual.getOldTotal());
+            assertEquals(expected.getNewTotal(), actual.getNewTotal());
+        }
+        assertEquals(Files.readAllLines(dir.resolve("full").resolve(RepricingService.DIFF_FILE)),
+                Files.readAllLines(dir.resolve("resumed").resolve(RepricingService.DIFF_FILE)));
+    }
+
+    @Test
+    public void rejectsResumingUnderOtherPrices() throws Exception {
+        RepricingService.Run interrupted = repricing(249, "run").open(true);
+        interrupted.step();
+        interrupted.close();
+
+        assertThrows(IllegalArgumentException.class, () -> repricing(299, "run").open(false));
+        // A restart discards the checkpoint
+        RepricingStatus status = runToEnd(repricing(299, "run").open(true));
+        assertEquals(AGREEMENTS, status.getProcessed());
+    }
+
+    @Test
+    public void startsOverAfterACompletedRun() throws Exception {
+        runToEnd(repricing(199, "run").open(true));
+
+        RepricingService.Run next = repricing(199, "run").open(false);
+        assertEquals(0, next.status().getProcessed());
+        RepricingStatus status = runToEnd(next);
+        // Same prices as when the agreements were stored
+        assertEquals(0, status.getChanged());
+        assertEquals(0, Files.size(dir.resolve("run").resolve(RepricingService.DIFF_FILE)));
+    }
+}
@@ -3,31 +3,62 @@ package com.toolShop.services;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.time.LocalDate;
+import java.util.List;
 
+import com.toolShop.audit.AuditJournal;
 import com.toolShop.cache.RentalAgreement;
 import com.toolShop.cache.Tool;
-import com.toolShop.constant.Constants;
+import com.toolShop.catalog.ToolCatalog;
+import com.toolShop.errors.ErrorCode;
+import com.toolShop.errors.RejectedRequestException;
+import com.toolShop.inventory.InventoryService;
+import com.toolShop.ledger.RentalLedger;
+import com.toolShop.pricing.PricingRule;
+import com.toolShop.pricing.PricingRules;
+import com.toolShop.stats.RentalStats;
 
 @ExtendWith(MockitoExtension.class)
 public class ToolServiceTest {
 
+    @Spy
+    private ToolCatalog toolCatalog = new ToolCatalog();
+
+    @Spy
+    private ChargeDayIndex chargeDayIndex = new ChargeDayIndex();
+
+    @Spy
+    private QuoteCache quoteCache = new QuoteCache(toolCatalog, chargeDayIndex.getHolidayCalendar());
+
+    @Mock
+    private AuditJournal auditJournal;
+
+    @Mock
+    private RentalLedger rentalLedger;
+
+    @Mock
+    private InventoryService inventoryService;
+
+    @Spy
+    private RentalStats rentalStats = new RentalStats();
+
     @InjectMocks
     private ToolService service;
 
     @Test
     void testGetAllTools() {
-        assertEquals(Constants.ALL_TOOLS, service.getAllTools());
+        assertEquals(List.of("CHNS", "LADW", "JAKD", "JAKR"), service.getAllTools());
     }
 
     @Test
     void testGetPrice() {
         // Use LADW (Ladder) which charges weekdays and weekends, not holidays
-        Tool tool = Constants.TOOL_MAP.get("LADW");
-        tool.setToolCode("LADW");
+        Tool tool = toolCatalog.getTool("LADW");
 
         RentalAgreement ra = new RentalAgreement();
         ra.settotalRentalDays(3);
@@ -37,9 +68,61 @@ public class ToolServiceTest {
         RentalAgreement result = service.calculatePrice(tool, ra);
 
         assertEquals(3, result.getChargeDays());
-        assertEquals(4.47f, result.getPreDiscountPrice(), 0.001f);
-        assertEquals(0.45f, result.getMoneySaved(), 0.001f);
-        assertEquals(4.02f, result.getTotalPrice(), 0.001f);
+        assertEquals(447, result.getPreDiscountCents());
+        assertEquals(45, result.getMoneySavedCents());
+        assertEquals(402, result.getTotalCents());
+        assertEquals("4.02", result.getTotalPrice().toString());
+    }
+
+    @Test
+    void testGetPriceWithPricingRules() {
+        service.pricingRules = new PricingRules(PricingRule.parse(List.of(
+                "Late June = rate 150% type ladder season 06-28..06-30",
+                "Peak = surcharge 10% season 07-01..07-31",
+                "Ladders = surcharge 5% type Ladder",
+                "Week = discount 10% days 7..13",
+                "Two weeks = discount 15% days 14+")));
+        Tool tool = toolCatalog.getTool("LADW");
+
+        // Charge days Sun 06/27/21 to Fri 07/02/21: three at 1.49 and three at 1.49 * 150% = 2.24, plus 5%
+        RentalAgreement lateJune = new RentalAgreement();
+        lateJune.settotalRentalDays(6);
+        lateJune.setCheckoutDate(LocalDate.of(2021, 6, 26));
+        lateJune.setDiscount(0f);
+        service.calculatePrice(tool, lateJune);
+        assertEquals(6, lateJune.getChargeDays());
+        assertEquals(1119 + 56, lateJune.getPreDiscountCents());
+
+        // 7 charge days at 1.49 = 10.43, plus 15% = 1.56, less the 10% week discount of 1.20
+        RentalAgreement week = new RentalAgreement();
+        week.settotalRentalDays(7);
+        week.setCheckoutDate(LocalDate.of(2021, 7, 5));
+        week.setDiscount(0f);
+        service.calculatePrice(tool, week);
+        assertEquals(1043 + 156, week.getPreDiscountCents());
+        assertEquals(120, week.getMoneySavedCents());
+        assertEquals(1079, week.getTotalCents());
+        // The agreement keeps the requested discount, and a larger requested discount wins over the rule
+        assertEquals(0f, week.getDiscount());
+        week.setDiscount(20f);
+        assertEquals(959, service.calculatePrice(tool, week).getTotalCents());
+
+        // 14 charge days = 20.86, plus 15% = 3.13, less 15% = 3.60
+        RentalAgreement twoWeeks = new RentalAgreement();
+        twoWeeks.settotalRentalDays(14);
+        twoWeeks.setCheckoutDate(LocalDate.of(2021, 7, 5));
+        twoWeeks.setDiscount(0f);
+        service.calculatePrice(tool, twoWeeks);
+        assertEquals(2086 + 313, twoWeeks.getPreDiscountCents());
+        assertEquals(2039, twoWeeks.getTotalCents());
+
+        // Only the rules without tool conditions apply to jackhammers: 5 charge days = 14.95, plus 10% = 1.50, less 10% = 1.65
+        RentalAgreement jackhammer = new RentalAgreement();
+        jackhammer.settotalRentalDays(7);
+        jackhammer.setCheckoutDate(LocalDate.of(2021, 7, 5));
+        jackhammer.setDiscount(0f);
+        service.calculatePrice(toolCatalog.getTool("JAKD"), jackhammer);
+        assertEquals(1480, jackhammer.getTotalCents());
     }
 
     @Test
@@ -51,7 +134,8 @@ public class ToolServiceTest {
 
         RentalAgreement rented = service.rentTool(ra, "LADW");
         assertNotNull(rented.getDueDate());
-        assertTrue(rented.getPreDiscountPrice() >= 0f);
+        assertTrue(rented.getPreDiscountCents() >= 0);
+        assertEquals(1, rentalStats.forTool("LADW").get("total").getRentals());
     }
 
     @Test
@@ -65,6 +149,15 @@ public class ToolServiceTest {
         assertDoesNotThrow(() -> service.validateTool(ra, "LADW"));
         assertThrows(IllegalArgumentException.class, () -> service.validateTool(ra, "BADCODE"));
 
+        // Rejections are stackless; past dates reuse one rejection per day
+        RejectedRequestException unknown = assertThrows(RejectedRequestException.class, () -> service.validateTool(ra, "BADCODE"));
+        assertEquals(ErrorCode.UNKNOWN_TOOL, unknown.getCode());
+        assertEquals(0, unknown.getStackTrace().length);
+        ra.setCheckoutDate(LocalDate.now().minusDays(1));
+        RejectedRequestException past = assertThrows(RejectedRequestException.class, () -> service.validateTool(ra, "LADW"));
+        assertEquals(ErrorCode.PAST_CHECKOUT_DATE, past.getCode());
+        assertSame(past, assertThrows(RejectedRequestException.class, () -> service.validateTool(ra, "LADW")));
+
         // Independence day observance
         assertEquals(LocalDate.of(2020,7,3), ToolService.getIndependenceDayObservance(2020));
         assertEquals(LocalDate.of(2021,7,5), ToolService.getIndependenceDayObservance(2021));
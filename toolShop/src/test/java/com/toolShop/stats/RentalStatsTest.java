@@ -0,0 +1,158 @@
+package com.toolShop.stats;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.toolShop.cache.RentalAgreement;
+import com.toolShop.cache.RevenueStats;
+
+public class RentalStatsTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+
+    private static RentalAgreement rental(String toolCode, int days, long preDiscountCents, long totalCents) {
+        RentalAgreement ra = new RentalAgreement();
+        ra.setToolCode(toolCode);
+        ra.settotalRentalDays(days);
+        ra.setChargeDays(days - 1);
+        ra.setPreDiscountCents(preDiscountCents);
+        ra.setTotalCents(totalCents);
+        return ra;
+    }
+
+    // Moves the clock forward one second at a time, ticking like the ticker thread
+    private void advance(RentalStats stats, long seconds) {
+        for (long i = 0; i < seconds; i++) {
+            now.addAndGet(1000);
+            stats.tick();
+        }
+    }
+
+    @Test
+    void sumsRentalsAndRevenuePerTool() {
+        RentalStats stats = new RentalStats(now::get);
+        stats.record(rental("LADW", 3, 597, 537));
+        stats.record(rental("LADW", 2, 398, 398));
+        stats.record(rental("CHNS", 5, 745, 671));
+
+        RevenueStats ladder = stats.forTool("LADW").get("total");
+        assertEquals(2, ladder.getRentals());
+        assertEquals(5, ladder.getRentalDays());
+        assertEquals(3, ladder.getChargeDays());
+        assertEquals("9.95", ladder.getPreDiscountRevenue().toString());
+        assertEquals("9.35", ladder.getRevenue().toString());
+        assertEquals("0.60", ladder.getDiscounts().toString());
+
+        RevenueStats all = stats.all().get("total");
+        assertEquals(3, all.getRentals());
+        assertEquals("16.06", all.getRevenue().toString());
+        assertEquals(List.of("CHNS", "LADW"), new ArrayList<>(stats.byTool().keySet()));
+        assertEquals(0, stats.forTool("JAKD").get("lastDay").getRentals());
+        assertEquals(List.of("total", "lastMinute", "lastHour", "lastDay"),
+                new ArrayList<>(stats.forTool("LADW").keySet()));
+    }
+
+    @Test
+    void rollingWindowsDropOldRentals() {
+        RentalStats stats = new RentalStats(now::get);
+        stats.record(rental("LADW", 3, 597, 537));
+        advance(stats, 30);
+        stats.record(rental("LADW", 2, 398, 398));
+
+        Map<String, RevenueStats> report = stats.forTool("LADW");
+        assertEquals(2, report.get("lastMinute").getRentals());
+        assertEquals(30, report.get("lastMinute").getSeconds());
+
+        advance(stats, 31);
+        report = stats.forTool("LADW");
+        assertEquals(1, report.get("lastMinute").getRentals());
+        assertEquals("3.98", report.get("lastMinute").getRevenue().toString());
+        assertEquals(2, report.get("lastHour").getRentals());
+
+        advance(stats, 30);
+        report = stats.forTool("LADW");
+        assertEquals(0, report.get("lastMinute").getRentals());
+        assertEquals(2, report.get("lastHour").getRentals());
+        assertEquals(2, report.get("total").getRentals());
+        assertTrue(report.get("lastMinute").getSeconds() >= 60 && report.get("lastMinute").getSeconds() <= 61);
+    }
+
+    @Test
+    void lateTickCatchesUp() {
+        RentalStats stats = new RentalStats(now::get);
+        stats.record(rental("CHNS", 1, 149, 149));
+        // No tick for two hours, e.g. a paused process
+        now.addAndGet(2 * 3_600_000);
+        stats.tick();
+        Map<String, RevenueStats> report = stats.forTool("CHNS");
+        assertEquals(0, report.get("lastMinute").getRentals());
+        assertEquals(0, report.get("lastHour").getRentals());
+        assertEquals(1, report.get("lastDay").getRentals());
+    }
+
+    @Test
+    void windowsStayRightAsRingsGrowAndWrap() {
+        RentalStats stats = new RentalStats(now::get);
+        stats.record(rental("CHNS", 1, 149, 149));
+        for (int i = 0; i < 200; i++) {
+            stats.record(rental("LADW", 1, 199, 199));
+            advance(stats, 1);
+        }
+        // CHNS was rented once, before the first tick, so each of its rings holds a single copy
+        Map<String, RevenueStats> ladder = stats.forTool("LADW");
+        assertTrue(ladder.get("lastMinute").getRentals() >= 60 && ladder.get("lastMinute").getRentals() <= 61);
+        assertEquals(200, ladder.get("lastHour").getRentals());
+        assertEquals(0, stats.forTool("CHNS").get("lastMinute").getRentals());
+        assertEquals(1, stats.forTool("CHNS").get("lastHour").getRentals());
+
+        advance(stats, 61);
+        assertEquals(0, stats.forTool("LADW").get("lastMinute").getRentals());
+        assertEquals(200, stats.forTool("LADW").get("lastHour").getRentals());
+    }
+
+    @Test
+    void toolsBeyondMaxToolsShareOther() {
+        RentalStats stats = new RentalStats(now::get);
+        stats.maxTools = 2;
+        stats.record(rental("LADW", 1, 199, 199));
+        stats.record(rental("CHNS", 1, 149, 149));
+        stats.record(rental("JAKD", 1, 299, 299));
+        stats.record(rental("JAKR", 1, 299, 299));
+
+        assertEquals(List.of("CHNS", "LADW", RentalStats.OTHER), new ArrayList<>(stats.byTool().keySet()));
+        assertEquals(2, stats.forTool(RentalStats.OTHER).get("total").getRentals());
+        assertEquals(4, stats.all().get("total").getRentals());
+    }
+
+    @Test
+    void concurrentRecordingLosesNothing() throws Exception {
+        RentalStats stats = new RentalStats(now::get);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    stats.record(rental(i % 2 == 0 ? "LADW" : "CHNS", 2, 100, 90));
+                    if (i % 1000 == 0) {
+                        stats.tick();
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        RevenueStats all = stats.all().get("total");
+        assertEquals(80_000, all.getRentals());
+        assertEquals(160_000, all.getRentalDays());
+        assertEquals("72000.00", all.getRevenue().toString());
+        assertEquals(80_000, stats.all().get("lastMinute").getRentals());
+    }
+}
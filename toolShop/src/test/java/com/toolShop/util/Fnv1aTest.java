@@ -0,0 +1,30 @@
+package com.toolShop.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+public class Fnv1aTest {
+
+    @Test
+    void hashesBytesLikeReferenceFnv1a() {
+        assertEquals(Fnv1a.OFFSET_BASIS, Fnv1a.hash(new byte[0]));
+        assertEquals(0xaf63dc4c8601ec8cL, Fnv1a.hash("a".getBytes(StandardCharsets.US_ASCII)));
+        assertEquals(0x85944171f73967e8L, Fnv1a.hash("foobar".getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    @Test
+    void mixesNumbersAsTheirBytesAndTextAsItsCharacters() {
+        // One byte value mixed as 8 bytes is the hash of the byte followed by 7 zero bytes
+        assertEquals(Fnv1a.hash(new byte[] {'a', 0, 0, 0, 0, 0, 0, 0}), Fnv1a.mix(Fnv1a.OFFSET_BASIS, 'a'));
+
+        long hash = Fnv1a.OFFSET_BASIS;
+        for (char c : "LADW".toCharArray()) {
+            hash = Fnv1a.mix(hash, c);
+        }
+        assertEquals(hash, Fnv1a.mix(Fnv1a.OFFSET_BASIS, "LADW"));
+        assertNotEquals(Fnv1a.mix(Fnv1a.OFFSET_BASIS, "LADW"), Fnv1a.mix(Fnv1a.OFFSET_BASIS, "LADX"));
+    }
+}